@@ -8,7 +8,25 @@ OUT_MAIN="$PROJECT_ROOT/out/classes"
 OUT_TEST="$PROJECT_ROOT/out/test-classes"
 JAR_DIR="$PROJECT_ROOT/out/jar"
 MAIN_CLASS="com.example.hotel.HotelApplication"
-TEST_MAIN_CLASS="com.example.hotel.service.ReservationServiceTest"
+TEST_MAIN_CLASSES=(
+  "com.example.hotel.service.ReservationServiceTest"
+  "com.example.hotel.service.ConcurrencyStressTest"
+  "com.example.hotel.service.HotelQueryTest"
+  "com.example.hotel.report.AnalyticsEngineTest"
+  "com.example.hotel.report.ReportExporterTest"
+  "com.example.hotel.util.ValidationUtilsTest"
+  "com.example.hotel.tools.BulkImporterTest"
+  "com.example.hotel.service.ChangeFeedTest"
+  "com.example.hotel.notify.NotificationOutboxTest"
+  "com.example.hotel.service.ReservationArchiveTest"
+  "com.example.hotel.service.IdempotencyTest"
+  "com.example.hotel.util.IdGeneratorTest"
+  "com.example.hotel.service.AdmissionControllerTest"
+  "com.example.hotel.tools.BatchRunnerTest"
+  "com.example.hotel.service.IndexCheckpointTest"
+  "com.example.hotel.service.AsyncHotelServiceTest"
+  "com.example.hotel.service.ShardedHotelServiceTest"
+)
 
 mkdir -p "$OUT_MAIN" "$OUT_TEST" "$JAR_DIR"
 
@@ -31,15 +49,17 @@ pushd "$OUT_MAIN" >/dev/null
 jar --create --file "$JAR_FILE" --main-class "$MAIN_CLASS" $(find . -type f -name '*.class') >/dev/null
 popd >/dev/null
 
-echo "Running test harness..."
-set +e
-java -cp "$OUT_MAIN:$OUT_TEST" "$TEST_MAIN_CLASS"
-TEST_STATUS=$?
-set -e
-if [ $TEST_STATUS -ne 0 ]; then
-  echo "Tests failed (exit $TEST_STATUS)" >&2
-  exit $TEST_STATUS
-fi
+echo "Running test harnesses..."
+for TEST_MAIN_CLASS in "${TEST_MAIN_CLASSES[@]}"; do
+  set +e
+  java -cp "$OUT_MAIN:$OUT_TEST${CLASSPATH:+:$CLASSPATH}" "$TEST_MAIN_CLASS"
+  TEST_STATUS=$?
+  set -e
+  if [ $TEST_STATUS -ne 0 ]; then
+    echo "Tests failed in $TEST_MAIN_CLASS (exit $TEST_STATUS)" >&2
+    exit $TEST_STATUS
+  fi
+done
 
 echo "Build successful. Jar: $JAR_FILE"
 
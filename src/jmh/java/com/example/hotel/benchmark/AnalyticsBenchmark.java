@@ -0,0 +1,62 @@
+package com.example.hotel.benchmark;
+
+import com.example.hotel.report.AnalyticsEngine;
+import com.example.hotel.report.AnalyticsReport;
+import com.example.hotel.service.HotelManagementService;
+import com.example.hotel.tools.WorkloadGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fork/join analytics over a generated multi-year history, single-threaded versus
+ * all cores, to show the speedup from chunked accumulation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalyticsBenchmark {
+
+    @Param({"500"})
+    int roomCount;
+
+    @Param({"5"})
+    int years;
+
+    @Param({"1", "0"})
+    int parallelism; // 0 = available processors
+
+    private Path dataDir;
+    private HotelManagementService service;
+    private ForkJoinPool pool;
+    private AnalyticsEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkData.quietLogging();
+        dataDir = BenchmarkData.newDataDirectory();
+        WorkloadGenerator.write(new WorkloadGenerator(42, roomCount, 5_000, years, BenchmarkData.BASE_DATE, 0.6).generate(),
+                dataDir.toString());
+        service = new HotelManagementService(dataDir.toString());
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        engine = new AnalyticsEngine(pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        pool.close();
+        BenchmarkData.delete(dataDir);
+    }
+
+    @Benchmark
+    public AnalyticsReport fullHistory() {
+        LocalDate start = BenchmarkData.BASE_DATE;
+        return engine.analyze(service, start, start.plusYears(years).minusDays(1));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.hotel.benchmark;
+
+import com.example.hotel.service.HotelManagementService;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code isRoomAvailable} cost as the per-room reservation history grows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvailabilityBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    int historyDepth;
+
+    private Path dataDir;
+    private HotelManagementService service;
+    private LocalDate freeStart;
+    private LocalDate bookedStart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkData.quietLogging();
+        dataDir = BenchmarkData.newDataDirectory();
+        var rooms = BenchmarkData.rooms(1);
+        var guests = BenchmarkData.guests(10);
+        BenchmarkData.write(dataDir, rooms, guests, BenchmarkData.reservations(rooms, guests, historyDepth));
+        service = new HotelManagementService(dataDir.toString());
+        freeStart = BenchmarkData.BASE_DATE.plusDays(2L * historyDepth + 10);
+        bookedStart = BenchmarkData.BASE_DATE.plusDays(historyDepth);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkData.delete(dataDir);
+    }
+
+    @Benchmark
+    public boolean availableRange() {
+        return service.isRoomAvailable("R0", freeStart, freeStart.plusDays(3));
+    }
+
+    @Benchmark
+    public boolean conflictingRange() {
+        return service.isRoomAvailable("R0", bookedStart, bookedStart.plusDays(3));
+    }
+}
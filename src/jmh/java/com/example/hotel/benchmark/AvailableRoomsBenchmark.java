@@ -0,0 +1,79 @@
+package com.example.hotel.benchmark;
+
+import com.example.hotel.model.Room;
+import com.example.hotel.service.HotelManagementService;
+import com.example.hotel.util.ConfigManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code getAvailableRooms} across hotel sizes, each room carrying a short history.
+ *
+ * <p>{@code inBookedPeriod} and {@code afterHistory} move the search window on every
+ * invocation and cycle through twice as many windows as the availability cache holds,
+ * so each call is a miss and measures the scan. {@code cacheHit} repeats one window.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvailableRoomsBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int roomCount;
+
+    @Param({"20"})
+    int reservationsPerRoom;
+
+    private Path dataDir;
+    private HotelManagementService service;
+    private LocalDate searchStart;
+    private LocalDate historyEnd;
+    private int bookedStarts;
+    private int windows;
+    private long invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkData.quietLogging();
+        dataDir = BenchmarkData.newDataDirectory();
+        var rooms = BenchmarkData.rooms(roomCount);
+        var guests = BenchmarkData.guests(50);
+        BenchmarkData.write(dataDir, rooms, guests, BenchmarkData.reservations(rooms, guests, reservationsPerRoom));
+        service = new HotelManagementService(dataDir.toString());
+        searchStart = BenchmarkData.BASE_DATE.plusDays(reservationsPerRoom);
+        historyEnd = BenchmarkData.BASE_DATE.plusDays(2L * reservationsPerRoom + 1);
+        // Every day before the last night is booked in every room
+        bookedStarts = 2 * reservationsPerRoom - 1;
+        windows = 2 * Math.max(1, ConfigManager.getAvailabilityCacheSize());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkData.delete(dataDir);
+    }
+
+    @Benchmark
+    public List<Room> inBookedPeriod() {
+        long window = invocation++ % windows;
+        LocalDate start = BenchmarkData.BASE_DATE.plusDays(window % bookedStarts);
+        return service.getAvailableRooms(start, start.plusDays(1 + window / bookedStarts));
+    }
+
+    @Benchmark
+    public List<Room> afterHistory() {
+        LocalDate start = historyEnd.plusDays(invocation++ % windows);
+        return service.getAvailableRooms(start, start.plusDays(3));
+    }
+
+    @Benchmark
+    public List<Room> cacheHit() {
+        return service.getAvailableRooms(searchStart, searchStart.plusDays(3));
+    }
+}
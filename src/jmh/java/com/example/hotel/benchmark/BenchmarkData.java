@@ -0,0 +1,87 @@
+package com.example.hotel.benchmark;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.model.Room;
+import com.example.hotel.util.AppLogging;
+import com.example.hotel.util.JsonFileManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+/**
+ * Seeds benchmark data directories by writing the JSON files directly, so setup
+ * does not pay for one full-file save per record.
+ */
+final class BenchmarkData {
+    static final LocalDate BASE_DATE = LocalDate.of(2020, 1, 1);
+
+    private BenchmarkData() {
+    }
+
+    static void quietLogging() {
+        AppLogging.setLevel(Level.WARNING);
+    }
+
+    static Path newDataDirectory() throws IOException {
+        return Files.createTempDirectory("hotel-bench");
+    }
+
+    static List<Room> rooms(int count) {
+        List<Room> rooms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rooms.add(new Room("R" + i, String.valueOf(100 + i), 1 + i % 4));
+        }
+        return rooms;
+    }
+
+    static List<Guest> guests(int count) {
+        List<Guest> guests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            guests.add(new Guest("G" + i, "Guest", "Number" + i, "guest" + i + "@example.com", "5550000000"));
+        }
+        return guests;
+    }
+
+    /**
+     * Back-to-back two-night stays per room, starting at {@link #BASE_DATE}.
+     */
+    static List<Reservation> reservations(List<Room> rooms, List<Guest> guests, int perRoom) {
+        List<Reservation> reservations = new ArrayList<>(rooms.size() * perRoom);
+        int n = 0;
+        for (Room room : rooms) {
+            for (int i = 0; i < perRoom; i++) {
+                Guest guest = guests.get(n % guests.size());
+                LocalDate start = BASE_DATE.plusDays(2L * i);
+                reservations.add(new Reservation("RES" + n, room.getId(), guest.getFullName(),
+                        start, start.plusDays(2), 1));
+                n++;
+            }
+        }
+        return reservations;
+    }
+
+    static void write(Path dir, List<Room> rooms, List<Guest> guests, List<Reservation> reservations) throws IOException {
+        JsonFileManager.saveToFile(rooms, dir.resolve("rooms.json").toString());
+        JsonFileManager.saveToFile(guests, dir.resolve("guests.json").toString());
+        JsonFileManager.saveToFile(reservations, dir.resolve("reservations.json").toString());
+    }
+
+    static void delete(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
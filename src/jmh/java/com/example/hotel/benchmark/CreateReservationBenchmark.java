@@ -0,0 +1,70 @@
+package com.example.hotel.benchmark;
+
+import com.example.hotel.model.Reservation;
+import com.example.hotel.service.HotelManagementService;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent {@code createReservation} throughput, including the per-write save.
+ * Every call books a distinct room/night so no call fails on a conflict.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CreateReservationBenchmark {
+
+    @Param({"64"})
+    int roomCount;
+
+    private Path dataDir;
+    private HotelManagementService service;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        BenchmarkData.quietLogging();
+        dataDir = BenchmarkData.newDataDirectory();
+        var rooms = BenchmarkData.rooms(roomCount);
+        BenchmarkData.write(dataDir, rooms, BenchmarkData.guests(roomCount), java.util.List.of());
+        service = new HotelManagementService(dataDir.toString());
+        sequence.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws Exception {
+        BenchmarkData.delete(dataDir);
+    }
+
+    private Reservation book() {
+        long n = sequence.getAndIncrement();
+        int room = (int) (n % roomCount);
+        LocalDate start = BenchmarkData.BASE_DATE.plusDays(n / roomCount);
+        return service.createReservation("RES" + n, "R" + room, "G" + room, start, start.plusDays(1), 1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Reservation oneThread() {
+        return book();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Reservation fourThreads() {
+        return book();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Reservation allCores() {
+        return book();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.hotel.benchmark;
+
+import com.example.hotel.model.Reservation;
+import com.example.hotel.util.JsonFileManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-file save and load of the reservations list, the cost every write pays today.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class JsonFileManagerBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int records;
+
+    private Path dataDir;
+    private String file;
+    private List<Reservation> reservations;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkData.quietLogging();
+        dataDir = BenchmarkData.newDataDirectory();
+        file = dataDir.resolve("reservations.json").toString();
+        var rooms = BenchmarkData.rooms(Math.max(1, records / 1000));
+        reservations = BenchmarkData.reservations(rooms, BenchmarkData.guests(100), records / rooms.size());
+        JsonFileManager.saveToFile(reservations, file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkData.delete(dataDir);
+    }
+
+    @Benchmark
+    public void save() throws Exception {
+        JsonFileManager.saveToFile(reservations, file);
+    }
+
+    @Benchmark
+    public List<Reservation> load() throws Exception {
+        return JsonFileManager.loadFromFile(file, Reservation.class);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.hotel.benchmark;
+
+import com.example.hotel.service.HotelManagementService;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code generateOccupancyReport} over a month window against a growing history.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OccupancyReportBenchmark {
+
+    @Param({"100"})
+    int roomCount;
+
+    @Param({"10", "100", "1000"})
+    int reservationsPerRoom;
+
+    private Path dataDir;
+    private HotelManagementService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkData.quietLogging();
+        dataDir = BenchmarkData.newDataDirectory();
+        var rooms = BenchmarkData.rooms(roomCount);
+        var guests = BenchmarkData.guests(100);
+        BenchmarkData.write(dataDir, rooms, guests, BenchmarkData.reservations(rooms, guests, reservationsPerRoom));
+        service = new HotelManagementService(dataDir.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkData.delete(dataDir);
+    }
+
+    @Benchmark
+    public Map<String, Object> monthReport() {
+        LocalDate start = BenchmarkData.BASE_DATE.plusDays(reservationsPerRoom / 2);
+        return service.generateOccupancyReport(start, start.plusDays(30));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.hotel.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of publishing one write to a read snapshot as the data set grows. Each call
+ * replaces one entry of the current map, as a booking does, and keeps the result as
+ * the next version; {@code batchOf100} publishes a hundred entries as one version.
+ * Lives in the service package because the snapshot map is package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SnapshotWriteBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    int size;
+
+    private String[] keys;
+    private SnapshotMap<String, String> current;
+    private long invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = new String[size];
+        Map<String, String> live = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            keys[i] = "RES-" + i;
+            live.put(keys[i], "v0");
+        }
+        current = SnapshotMap.copyOf(live);
+    }
+
+    @Benchmark
+    public SnapshotMap<String, String> singleWrite() {
+        long n = invocation++;
+        current = current.with(keys[(int) (n * 7919 % size)], (n & 1) == 0 ? "v1" : "v0");
+        return current;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public SnapshotMap<String, String> batchOf100() {
+        List<String> batch = new ArrayList<>(100);
+        for (int i = 0; i < 100; i++) {
+            batch.add(keys[(int) (invocation++ * 7919 % size)]);
+        }
+        String value = (invocation & 1) == 0 ? "v1" : "v0";
+        current = current.withAll(batch, key -> value);
+        return current;
+    }
+}
@@ -2,26 +2,50 @@ package com.example.hotel;
 
 import com.example.hotel.model.Guest;
 import com.example.hotel.model.Payment;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.notify.NotificationOutbox;
+import com.example.hotel.report.AnalyticsEngine;
+import com.example.hotel.report.AnalyticsReport;
+import com.example.hotel.report.ExportJob;
+import com.example.hotel.report.ReportExporter;
 import com.example.hotel.model.Room;
 import com.example.hotel.service.HotelManagementService;
+import com.example.hotel.service.LeaderboardEntry;
+import com.example.hotel.service.ReservationPage;
+import com.example.hotel.tools.BatchRunner;
+import com.example.hotel.util.AppLogging;
+import com.example.hotel.util.ConfigManager;
 import com.example.hotel.util.ValidationUtils;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.logging.Logger;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.logging.Level;
 
 public class HotelApplication {
     private static final HotelManagementService service = new HotelManagementService();
     private static final Scanner scanner = new Scanner(System.in);
+    private static final int PAGE_SIZE = 50;
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            System.exit(runBatchMode(args));
+        }
         System.out.println("🏨 Hotel Booking Management System 🏨");
         System.out.println("=======================================");
         
         // Initialize with sample data if no data exists
         initializeSampleData();
+        Optional<NotificationOutbox> outbox = NotificationOutbox.startIfEnabled(service);
         
         boolean running = true;
         while (running) {
@@ -53,6 +77,55 @@ public class HotelApplication {
             }
         }
         scanner.close();
+        outbox.ifPresent(HotelApplication::closeOutbox);
+        service.checkpointIndexes();
+    }
+    
+    /**
+     * {@code --batch [script|-] [--fail-fast] [--max-batch n]}: run a command script, or
+     * stdin, through {@link BatchRunner} with no menus or sample data. Prints one JSON line
+     * per command; exits 0 if every command succeeded, 1 if any failed, 2 on bad usage.
+     */
+    private static int runBatchMode(String[] args) {
+        String script = "-";
+        boolean failFast = false;
+        int maxBatch = 1000;
+        // Keep stderr for problems; results go to stdout
+        AppLogging.setLevel(Level.WARNING);
+        try {
+            for (int i = 1; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--fail-fast" -> failFast = true;
+                    case "--max-batch" -> maxBatch = Integer.parseInt(args[++i]);
+                    default -> {
+                        if (args[i].startsWith("--") || i > 1) {
+                            throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        }
+                        script = args[i];
+                    }
+                }
+            }
+            BatchRunner runner = new BatchRunner(service, System.out, failFast, maxBatch);
+            try (BufferedReader in = script.equals("-")
+                    ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                    : Files.newBufferedReader(Path.of(script), StandardCharsets.UTF_8)) {
+                BatchRunner.Result result = runner.run(in);
+                service.checkpointIndexes();
+                return result.succeeded() ? 0 : 1;
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Batch mode failed: " + e.getMessage());
+            System.err.println("Usage: HotelApplication --batch [script|-] [--fail-fast] [--max-batch n]");
+            return 2;
+        }
+    }
+    
+    private static void closeOutbox(NotificationOutbox outbox) {
+        try {
+            outbox.close();
+        } catch (IOException e) {
+            System.out.println("❌ Could not close notification outbox: " + e.getMessage());
+        }
     }
     
     private static void displayMenu() {
@@ -342,6 +415,7 @@ public class HotelApplication {
         System.out.println("4. List Reservations by Guest");
         System.out.println("5. Check Room Availability");
         System.out.println("6. Cancel Reservation");
+        System.out.println("7. Front Desk (Arrivals, Departures, In-House)");
         System.out.println("0. Back to Main Menu");
         System.out.print("Choice: ");
         
@@ -365,6 +439,9 @@ public class HotelApplication {
             case "6":
                 cancelReservation();
                 break;
+            case "7":
+                showFrontDesk();
+                break;
             case "0":
                 System.out.println("Returning to main menu...");
                 break;
@@ -375,8 +452,8 @@ public class HotelApplication {
     
     private static void createReservation() {
         try {
-            System.out.print("Reservation ID: ");
-            String reservationId = ValidationUtils.sanitizeInput(scanner.nextLine());
+            System.out.print("Reservation ID (blank to generate): ");
+            String reservationId = optionalId(scanner.nextLine());
             
             System.out.print("Room ID: ");
             String roomId = ValidationUtils.sanitizeInput(scanner.nextLine());
@@ -406,43 +483,68 @@ public class HotelApplication {
     }
     
     private static void listAllReservations() {
-        var reservations = service.listAllReservations();
-        if (reservations.isEmpty()) {
-            System.out.println("No reservations found.");
-            return;
-        }
-        
-        System.out.println("\n📋 ALL RESERVATIONS:");
-        System.out.println("-".repeat(50));
-        reservations.forEach(System.out::println);
+        printReservationPages("No reservations found.", "ALL RESERVATIONS",
+                cursor -> service.listReservations(null, null, cursor, PAGE_SIZE));
     }
     
     private static void listReservationsByRoom() {
         System.out.print("Room ID: ");
         String roomId = ValidationUtils.sanitizeInput(scanner.nextLine());
         
-        var reservations = service.listReservationsForRoom(roomId);
-        if (reservations.isEmpty()) {
-            System.out.println("No reservations found for room: " + roomId);
-            return;
-        }
-        
-        System.out.println("\n📋 RESERVATIONS FOR ROOM " + roomId + ":");
-        System.out.println("-".repeat(50));
-        reservations.forEach(System.out::println);
+        printReservationPages("No reservations found for room: " + roomId, "RESERVATIONS FOR ROOM " + roomId,
+                cursor -> service.listReservationsForRoom(roomId, cursor, PAGE_SIZE));
     }
     
     private static void listReservationsByGuest() {
         System.out.print("Guest ID: ");
         String guestId = ValidationUtils.sanitizeInput(scanner.nextLine());
         
-        var reservations = service.listReservationsForGuest(guestId);
-        if (reservations.isEmpty()) {
-            System.out.println("No reservations found for guest: " + guestId);
+        printReservationPages("No reservations found for guest: " + guestId, "RESERVATIONS FOR GUEST " + guestId,
+                cursor -> service.listReservationsForGuest(guestId, cursor, PAGE_SIZE));
+    }
+    
+    /**
+     * Print one page at a time and only fetch the next page if the user asks for it.
+     */
+    private static void printReservationPages(String emptyMessage, String title, Function<String, ReservationPage> fetch) {
+        ReservationPage page = fetch.apply(null);
+        if (page.items().isEmpty()) {
+            System.out.println(emptyMessage);
             return;
         }
         
-        System.out.println("\n📋 RESERVATIONS FOR GUEST " + guestId + ":");
+        System.out.println("\n📋 " + title + ":");
+        System.out.println("-".repeat(50));
+        while (true) {
+            page.items().forEach(System.out::println);
+            if (!page.hasMore()) {
+                return;
+            }
+            System.out.print("-- Enter for the next " + PAGE_SIZE + ", q to stop: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return;
+            }
+            page = fetch.apply(page.nextCursor());
+        }
+    }
+    
+    private static void showFrontDesk() {
+        try {
+            System.out.print("Date (YYYY-MM-DD, blank for today): ");
+            String dateStr = scanner.nextLine().trim();
+            LocalDate date = dateStr.isEmpty() ? LocalDate.now() : ValidationUtils.parseDate(dateStr);
+            
+            printFrontDeskList("🛬 ARRIVALS " + date, service.getArrivals(date));
+            printFrontDeskList("🛫 DEPARTURES " + date, service.getDepartures(date));
+            printFrontDeskList("🏨 IN-HOUSE NIGHT OF " + date, service.getInHouse(date));
+            
+        } catch (DateTimeParseException e) {
+            System.out.println("❌ Invalid date format. Use YYYY-MM-DD");
+        }
+    }
+    
+    private static void printFrontDeskList(String title, List<Reservation> reservations) {
+        System.out.println("\n" + title + " (" + reservations.size() + "):");
         System.out.println("-".repeat(50));
         reservations.forEach(System.out::println);
     }
@@ -533,8 +635,8 @@ public class HotelApplication {
     
     private static void addPayment() {
         try {
-            System.out.print("Payment ID: ");
-            String paymentId = ValidationUtils.sanitizeInput(scanner.nextLine());
+            System.out.print("Payment ID (blank to generate): ");
+            String paymentId = optionalId(scanner.nextLine());
             
             System.out.print("Reservation ID: ");
             String reservationId = ValidationUtils.sanitizeInput(scanner.nextLine());
@@ -615,6 +717,10 @@ public class HotelApplication {
         System.out.println("1. Generate Occupancy Report");
         System.out.println("2. Search Available Rooms");
         System.out.println("3. System Statistics");
+        System.out.println("4. Revenue Analytics (ADR, RevPAR, Stay Patterns)");
+        System.out.println("5. Export Reservations/Payments");
+        System.out.println("6. Top Guests, Rooms and Reservations");
+        System.out.println("7. Archive Completed Stays");
         System.out.println("0. Back to Main Menu");
         System.out.print("Choice: ");
         
@@ -629,6 +735,18 @@ public class HotelApplication {
             case "3":
                 showSystemStatistics();
                 break;
+            case "4":
+                showRevenueAnalytics();
+                break;
+            case "5":
+                exportReport();
+                break;
+            case "6":
+                showLeaderboards();
+                break;
+            case "7":
+                archiveCompletedStays();
+                break;
             case "0":
                 System.out.println("Returning to main menu...");
                 break;
@@ -661,6 +779,138 @@ public class HotelApplication {
         }
     }
     
+    private static void showRevenueAnalytics() {
+        try {
+            System.out.print("Start Date (YYYY-MM-DD): ");
+            LocalDate startDate = ValidationUtils.parseDate(scanner.nextLine().trim());
+            
+            System.out.print("End Date (YYYY-MM-DD): ");
+            LocalDate endDate = ValidationUtils.parseDate(scanner.nextLine().trim());
+            
+            AnalyticsReport report = new AnalyticsEngine().analyze(service, startDate, endDate);
+            
+            System.out.println("\n💹 REVENUE ANALYTICS " + startDate + " to " + endDate);
+            System.out.println("=".repeat(50));
+            System.out.println("Rooms: " + report.totalRooms());
+            System.out.println("Room Nights Sold: " + report.soldRoomNights() + " of " + report.availableRoomNights());
+            System.out.println("Occupancy Rate: " + report.occupancyRate() + "%");
+            System.out.println("Room Revenue: $" + report.roomRevenue());
+            System.out.println("ADR: $" + report.averageDailyRate());
+            System.out.println("RevPAR: $" + report.revPar());
+            System.out.println("Arrivals: " + report.arrivals());
+            System.out.println("Average Length of Stay: " + report.averageLengthOfStay() + " nights");
+            System.out.println("Length of Stay (nights=stays): " + report.lengthOfStay());
+            System.out.println("Lead Time (days=stays): " + report.leadTime()
+                    + (report.unknownLeadTime() > 0 ? ", unknown=" + report.unknownLeadTime() : ""));
+            System.out.println("Room Utilization (%): " + report.roomUtilization());
+            
+        } catch (DateTimeParseException e) {
+            System.out.println("❌ Invalid date format. Use YYYY-MM-DD");
+        } catch (Exception e) {
+            System.out.println("❌ Error generating analytics: " + e.getMessage());
+        }
+    }
+    
+    private static void exportReport() {
+        try {
+            System.out.print("Export (1=Reservations, 2=Payments): ");
+            boolean payments = scanner.nextLine().trim().equals("2");
+            
+            System.out.print("From Date (YYYY-MM-DD, blank for all): ");
+            LocalDate from = parseOptionalDate(scanner.nextLine().trim());
+            
+            System.out.print("To Date, exclusive (YYYY-MM-DD, blank for all): ");
+            LocalDate to = parseOptionalDate(scanner.nextLine().trim());
+            
+            System.out.print("Format (csv/json) [csv]: ");
+            ReportExporter.Format format = scanner.nextLine().trim().equalsIgnoreCase("json")
+                    ? ReportExporter.Format.JSON : ReportExporter.Format.CSV;
+            
+            System.out.print("Compress with gzip? (y/N): ");
+            boolean gzip = scanner.nextLine().trim().equalsIgnoreCase("y");
+            
+            ReportExporter exporter = new ReportExporter();
+            ExportJob job = payments
+                    ? exporter.exportPayments(service, from, to, format, gzip)
+                    : exporter.exportReservations(service, from, to, format, gzip);
+            while (!job.isDone()) {
+                System.out.printf("\r⏳ %3.0f%% - %d records", job.getProgress() * 100, job.getRecordsWritten());
+                Thread.sleep(200);
+            }
+            System.out.println();
+            System.out.println("✅ Exported " + job.getRecordsWritten() + " records to " + job.getResult().join());
+            
+        } catch (DateTimeParseException e) {
+            System.out.println("❌ Invalid date format. Use YYYY-MM-DD");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (CompletionException e) {
+            System.out.println("❌ Export failed: " + e.getCause().getMessage());
+        } catch (Exception e) {
+            System.out.println("❌ Error exporting: " + e.getMessage());
+        }
+    }
+    
+    private static void showLeaderboards() {
+        try {
+            System.out.print("How many (default 10): ");
+            String input = scanner.nextLine().trim();
+            int k = input.isEmpty() ? 10 : Integer.parseInt(input);
+            LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+            
+            System.out.println("\n🏆 TOP " + k);
+            System.out.println("=".repeat(50));
+            printLeaderboard("Guests by Nights Stayed", service.getTopGuestsByNights(k), false);
+            printLeaderboard("Guests by Revenue", service.getTopGuestsByRevenue(k), true);
+            printLeaderboard("Rooms by Bookings", service.getTopRoomsByBookings(k), false);
+            printLeaderboard("Reservations by Value This Month",
+                    service.getTopReservationsByValue(monthStart, monthStart.plusMonths(1), k), true);
+            
+        } catch (NumberFormatException e) {
+            System.out.println("❌ Invalid number");
+        } catch (Exception e) {
+            System.out.println("❌ Error loading leaderboards: " + e.getMessage());
+        }
+    }
+    
+    private static void archiveCompletedStays() {
+        try {
+            System.out.print("Archive stays that ended more than " + ConfigManager.getArchiveAfterDays()
+                    + " days ago? (y/N): ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                System.out.println("Archiving cancelled.");
+                return;
+            }
+            int archived = service.archiveCompletedStays();
+            System.out.println("✅ Archived " + archived + " stays");
+            service.getArchiveStats().forEach((key, value) ->
+                System.out.println(formatReportKey(key) + ": " + value));
+        } catch (Exception e) {
+            System.out.println("❌ Error archiving stays: " + e.getMessage());
+        }
+    }
+    
+    private static void printLeaderboard(String title, List<LeaderboardEntry> entries, boolean cents) {
+        System.out.println("\n" + title + ":");
+        if (entries.isEmpty()) {
+            System.out.println("  (none)");
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            LeaderboardEntry entry = entries.get(i);
+            String score = cents ? "$" + BigDecimal.valueOf(entry.score(), 2) : String.valueOf(entry.score());
+            System.out.printf("  %2d. %-12s %s%n", i + 1, entry.id(), score);
+        }
+    }
+    
+    private static String optionalId(String input) {
+        String id = ValidationUtils.sanitizeInput(input);
+        return id.isEmpty() ? null : id;
+    }
+    
+    private static LocalDate parseOptionalDate(String input) {
+        return input.isEmpty() ? null : ValidationUtils.parseDate(input);
+    }
+    
     private static void searchAvailableRooms() {
         try {
             System.out.print("Start Date (YYYY-MM-DD): ");
@@ -690,16 +940,9 @@ public class HotelApplication {
     private static void showSystemStatistics() {
         System.out.println("\n📈 SYSTEM STATISTICS");
         System.out.println("=".repeat(50));
-        System.out.println("Total Rooms: " + service.listRooms().size());
-        System.out.println("Total Guests: " + service.listGuests().size());
-        System.out.println("VIP Guests: " + service.getVipGuests().size());
-        System.out.println("Total Reservations: " + service.listAllReservations().size());
-        
-        // Active reservations (not ended yet)
-        long activeReservations = service.listAllReservations().stream()
-                .filter(res -> res.getEndDate().isAfter(LocalDate.now()))
-                .count();
-        System.out.println("Active Reservations: " + activeReservations);
+        // All counts come from one snapshot so they agree with each other
+        service.getSystemStatistics().forEach((key, value) ->
+            System.out.println(formatReportKey(key) + ": " + value));
     }
     
     private static String formatReportKey(String key) {
@@ -711,6 +954,13 @@ public class HotelApplication {
             case "reportPeriod" -> "Report Period";
             case "generatedAt" -> "Generated At";
             case "occupancyRate" -> "Occupancy Rate";
+            case "occupiedRoomNights" -> "Occupied Room Nights";
+            case "totalRoomNights" -> "Total Room Nights";
+            case "vipGuests" -> "VIP Guests";
+            case "activeReservations" -> "Active Reservations";
+            case "snapshotVersion" -> "Snapshot Version";
+            case "archivedReservations" -> "Archived Reservations";
+            case "archivedBefore" -> "Archived Through";
             default -> key;
         };
     }
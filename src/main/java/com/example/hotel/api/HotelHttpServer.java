@@ -0,0 +1,477 @@
+package com.example.hotel.api;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Payment;
+import com.example.hotel.model.Room;
+import com.example.hotel.notify.NotificationOutbox;
+import com.example.hotel.report.AnalyticsEngine;
+import com.example.hotel.service.AdmissionController;
+import com.example.hotel.service.HotelManagementService;
+import com.example.hotel.service.LeaderboardEntry;
+import com.example.hotel.service.ReplicaFollower;
+import com.example.hotel.service.ReservationConflictException;
+import com.example.hotel.service.ReservationPage;
+import com.example.hotel.util.ConfigManager;
+import com.example.hotel.util.JsonFileManager;
+import com.example.hotel.util.ValidationUtils;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Embedded JSON API over {@link HotelManagementService} on the JDK HTTP server,
+ * one virtual thread per request. Connections are kept alive by the JDK server;
+ * list responses are streamed element by element with chunked encoding.
+ *
+ * <pre>
+ * GET    /api/rooms[?minCapacity=n]          POST /api/rooms        GET|DELETE /api/rooms/{id}
+ * GET    /api/guests[?name=..]               POST /api/guests       GET|PUT    /api/guests/{id}
+ * GET    /api/reservations[?roomId=|guestId=] POST /api/reservations GET|DELETE /api/reservations/{id}
+ * GET    /api/availability?start=&amp;end=[&amp;roomId=|minCapacity=]
+ * GET    /api/payments?reservationId=|guestId=  POST /api/payments
+ * GET    /api/reports/occupancy?start=&amp;end=
+ * GET    /api/reports/top?by=guestNights|guestRevenue|roomBookings|reservationValue[&amp;limit=][&amp;from=&amp;to=]
+ * </pre>
+ *
+ * <p>POST /api/reservations and /api/payments honour an {@code Idempotency-Key} header:
+ * a retry with the same key returns the original result instead of a duplicate.
+ *
+ * <p>Writes (every method but GET) pass through an {@link AdmissionController} keyed by
+ * the remote address. A header such as {@code X-Client-Id} is not used: anyone can send
+ * a new one with each request. A client over its
+ * rate gets 429 and an overloaded server 503, both with {@code Retry-After}.
+ * {@code GET /api/admission} returns its counters.
+ */
+public class HotelHttpServer {
+    private static final Logger logger = Logger.getLogger(HotelHttpServer.class.getName());
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int DEFAULT_TOP_K = 10;
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private final HotelManagementService service;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectWriter writer = JsonFileManager.getCompactWriter();
+    private final AnalyticsEngine analytics = new AnalyticsEngine();
+    // Null when admission control is disabled
+    private final AdmissionController admission;
+
+    /**
+     * Request payload for creating a reservation.
+     */
+    public record ReservationRequest(String id, String roomId, String guestId,
+                                     LocalDate startDate, LocalDate endDate, int partySize) {
+    }
+
+    public HotelHttpServer(HotelManagementService service, int port) throws IOException {
+        this(service, port, ConfigManager.isAdmissionControlEnabled() ? new AdmissionController() : null);
+    }
+
+    public HotelHttpServer(HotelManagementService service, int port, AdmissionController admission) throws IOException {
+        this.service = service;
+        this.admission = admission;
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/rooms", exchange -> handle(exchange, this::rooms));
+        server.createContext("/api/guests", exchange -> handle(exchange, this::guests));
+        server.createContext("/api/reservations", exchange -> handle(exchange, this::reservations));
+        server.createContext("/api/availability", exchange -> handle(exchange, this::availability));
+        server.createContext("/api/payments", exchange -> handle(exchange, this::payments));
+        server.createContext("/api/reports/occupancy", exchange -> handle(exchange, this::occupancyReport));
+        server.createContext("/api/reports/analytics", exchange -> handle(exchange, this::analyticsReport));
+        server.createContext("/api/reports/top", exchange -> handle(exchange, this::topReport));
+        server.createContext("/api/replication", exchange -> handle(exchange, this::replication));
+        server.createContext("/api/admission", exchange -> handle(exchange, this::admissionStats));
+    }
+
+    public void start() {
+        server.start();
+        logger.info("HTTP API listening on port " + getPort());
+    }
+
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.close();
+        logger.info("HTTP API stopped");
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // ==================== ROUTES ====================
+
+    private void rooms(HttpExchange exchange, String id) throws IOException {
+        switch (exchange.getRequestMethod()) {
+            case "GET" -> {
+                if (id != null) {
+                    sendJson(exchange, 200, service.getRoomById(id).orElseThrow(() -> notFound("Room", id)));
+                } else {
+                    String minCapacity = queryParams(exchange).get("minCapacity");
+                    sendList(exchange, minCapacity == null
+                            ? service.listRooms()
+                            : service.searchRoomsByCapacity(Integer.parseInt(minCapacity)));
+                }
+            }
+            case "POST" -> sendJson(exchange, 201, service.addRoom(readBody(exchange, Room.class)));
+            case "DELETE" -> {
+                if (id == null || !service.removeRoom(id)) {
+                    throw notFound("Room", id);
+                }
+                sendEmpty(exchange, 204);
+            }
+            default -> sendEmpty(exchange, 405);
+        }
+    }
+
+    private void guests(HttpExchange exchange, String id) throws IOException {
+        switch (exchange.getRequestMethod()) {
+            case "GET" -> {
+                if (id != null) {
+                    sendJson(exchange, 200, service.getGuestById(id).orElseThrow(() -> notFound("Guest", id)));
+                } else {
+                    String name = queryParams(exchange).get("name");
+                    sendList(exchange, name == null ? service.listGuests() : service.searchGuestsByName(name));
+                }
+            }
+            case "POST" -> sendJson(exchange, 201, service.addGuest(readBody(exchange, Guest.class)));
+            case "PUT" -> {
+                Guest guest = readBody(exchange, Guest.class);
+                if (id == null || !id.equals(guest.getGuestId())) {
+                    throw new IllegalArgumentException("Guest ID in path and body must match");
+                }
+                sendJson(exchange, 200, service.updateGuest(guest));
+            }
+            default -> sendEmpty(exchange, 405);
+        }
+    }
+
+    private void reservations(HttpExchange exchange, String id) throws IOException {
+        switch (exchange.getRequestMethod()) {
+            case "GET" -> {
+                if (id != null) {
+                    sendJson(exchange, 200, service.getReservationById(id).orElseThrow(() -> notFound("Reservation", id)));
+                    return;
+                }
+                Map<String, String> params = queryParams(exchange);
+                if (isPaged(params)) {
+                    sendJson(exchange, 200, reservationPage(params));
+                } else if (params.containsKey("roomId")) {
+                    sendList(exchange, service.listReservationsForRoom(params.get("roomId")));
+                } else if (params.containsKey("guestId")) {
+                    sendList(exchange, service.listReservationsForGuest(params.get("guestId")));
+                } else {
+                    sendList(exchange, service.listAllReservations());
+                }
+            }
+            case "POST" -> {
+                ReservationRequest request = readBody(exchange, ReservationRequest.class);
+                sendJson(exchange, 201, service.createReservation(request.id(), request.roomId(), request.guestId(),
+                        request.startDate(), request.endDate(), request.partySize(),
+                        exchange.getRequestHeaders().getFirst(IDEMPOTENCY_KEY)));
+            }
+            case "DELETE" -> {
+                if (id == null) {
+                    throw notFound("Reservation", null);
+                }
+                sendJson(exchange, 200, service.cancelReservation(id).orElseThrow(() -> notFound("Reservation", id)));
+            }
+            default -> sendEmpty(exchange, 405);
+        }
+    }
+
+    private static boolean isPaged(Map<String, String> params) {
+        return params.containsKey("limit") || params.containsKey("cursor")
+                || params.containsKey("from") || params.containsKey("to");
+    }
+
+    private ReservationPage reservationPage(Map<String, String> params) {
+        String cursor = params.get("cursor");
+        int limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : DEFAULT_PAGE_SIZE;
+        if (params.containsKey("roomId")) {
+            return service.listReservationsForRoom(params.get("roomId"), cursor, limit);
+        }
+        if (params.containsKey("guestId")) {
+            return service.listReservationsForGuest(params.get("guestId"), cursor, limit);
+        }
+        LocalDate from = params.containsKey("from") ? dateParam(params, "from") : null;
+        LocalDate to = params.containsKey("to") ? dateParam(params, "to") : null;
+        return service.listReservations(from, to, cursor, limit);
+    }
+
+    private void availability(HttpExchange exchange, String id) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendEmpty(exchange, 405);
+            return;
+        }
+        Map<String, String> params = queryParams(exchange);
+        LocalDate start = dateParam(params, "start");
+        LocalDate end = dateParam(params, "end");
+        String roomId = params.get("roomId");
+        if (roomId != null) {
+            sendJson(exchange, 200, Map.of("roomId", roomId, "available", service.isRoomAvailable(roomId, start, end)));
+        } else {
+            String minCapacity = params.get("minCapacity");
+            sendList(exchange, service.getAvailableRooms(start, end,
+                    minCapacity == null ? 0 : Integer.parseInt(minCapacity)));
+        }
+    }
+
+    private void payments(HttpExchange exchange, String id) throws IOException {
+        switch (exchange.getRequestMethod()) {
+            case "GET" -> {
+                Map<String, String> params = queryParams(exchange);
+                if (params.containsKey("reservationId")) {
+                    sendList(exchange, service.listPaymentsForReservation(params.get("reservationId")));
+                } else if (params.containsKey("guestId")) {
+                    sendList(exchange, service.listPaymentsForGuest(params.get("guestId")));
+                } else {
+                    throw new IllegalArgumentException("reservationId or guestId is required");
+                }
+            }
+            case "POST" -> sendJson(exchange, 201, service.addPayment(readBody(exchange, Payment.class),
+                    exchange.getRequestHeaders().getFirst(IDEMPOTENCY_KEY)));
+            default -> sendEmpty(exchange, 405);
+        }
+    }
+
+    private void occupancyReport(HttpExchange exchange, String id) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendEmpty(exchange, 405);
+            return;
+        }
+        Map<String, String> params = queryParams(exchange);
+        sendJson(exchange, 200, service.generateOccupancyReport(dateParam(params, "start"), dateParam(params, "end")));
+    }
+
+    private void analyticsReport(HttpExchange exchange, String id) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendEmpty(exchange, 405);
+            return;
+        }
+        Map<String, String> params = queryParams(exchange);
+        sendJson(exchange, 200, analytics.analyze(service, dateParam(params, "start"), dateParam(params, "end")));
+    }
+
+    private void topReport(HttpExchange exchange, String id) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendEmpty(exchange, 405);
+            return;
+        }
+        Map<String, String> params = queryParams(exchange);
+        int limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : DEFAULT_TOP_K;
+        String by = params.getOrDefault("by", "guestNights");
+        List<LeaderboardEntry> top = switch (by) {
+            case "guestNights" -> service.getTopGuestsByNights(limit);
+            case "guestRevenue" -> service.getTopGuestsByRevenue(limit);
+            case "roomBookings" -> service.getTopRoomsByBookings(limit);
+            case "reservationValue" -> service.getTopReservationsByValue(
+                    params.containsKey("from") ? dateParam(params, "from") : null,
+                    params.containsKey("to") ? dateParam(params, "to") : null, limit);
+            default -> throw new IllegalArgumentException("Unknown ranking: " + by);
+        };
+        sendList(exchange, top);
+    }
+
+    private void replication(HttpExchange exchange, String id) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendEmpty(exchange, 405);
+            return;
+        }
+        sendJson(exchange, 200, service.getReplicationStatus());
+    }
+
+    private void admissionStats(HttpExchange exchange, String id) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendEmpty(exchange, 405);
+            return;
+        }
+        sendJson(exchange, 200, admission == null ? Map.of("enabled", false) : admission.stats());
+    }
+
+    // ==================== PLUMBING ====================
+
+    @FunctionalInterface
+    private interface Route {
+        void handle(HttpExchange exchange, String id) throws IOException;
+    }
+
+    private static final class HttpStatusException extends RuntimeException {
+        private final int status;
+
+        HttpStatusException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private void handle(HttpExchange exchange, Route route) throws IOException {
+        try (exchange) {
+            try {
+                if (admission == null || "GET".equals(exchange.getRequestMethod())) {
+                    route.handle(exchange, pathId(exchange));
+                } else {
+                    try (AdmissionController.Permit ignored = admission.acquire(clientId(exchange))) {
+                        route.handle(exchange, pathId(exchange));
+                    }
+                }
+            } catch (AdmissionController.Rejected e) {
+                long seconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(seconds));
+                sendError(exchange, e.getReason() == AdmissionController.Rejected.Reason.RATE_LIMITED ? 429 : 503,
+                        e.getMessage());
+            } catch (HttpStatusException e) {
+                sendError(exchange, e.status, e.getMessage());
+            } catch (ReservationConflictException | IllegalStateException e) {
+                sendError(exchange, 409, e.getMessage());
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                // NumberFormatException is an IllegalArgumentException
+                sendError(exchange, 400, e.getMessage());
+            } catch (com.fasterxml.jackson.core.JacksonException e) {
+                sendError(exchange, 400, "Malformed JSON: " + e.getOriginalMessage());
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "Unhandled error for " + exchange.getRequestURI(), e);
+                sendError(exchange, 500, "Internal server error");
+            }
+        }
+    }
+
+    private static String clientId(HttpExchange exchange) {
+        return exchange.getRemoteAddress().getAddress().getHostAddress();
+    }
+
+    private static String pathId(HttpExchange exchange) {
+        String context = exchange.getHttpContext().getPath();
+        String path = exchange.getRequestURI().getPath();
+        if (path.length() <= context.length() + 1) {
+            return null;
+        }
+        String id = URLDecoder.decode(path.substring(context.length() + 1), StandardCharsets.UTF_8);
+        if (!ValidationUtils.isValidId(id)) {
+            throw new HttpStatusException(404, "Unknown path: " + path);
+        }
+        return id;
+    }
+
+    private static Map<String, String> queryParams(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getRawQuery();
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static LocalDate dateParam(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Query parameter '" + name + "' is required");
+        }
+        return ValidationUtils.parseDate(value);
+    }
+
+    private static HttpStatusException notFound(String entity, String id) {
+        return new HttpStatusException(404, entity + " " + (id == null ? "ID is required" : id + " not found"));
+    }
+
+    private static <T> T readBody(HttpExchange exchange, Class<T> type) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            return JsonFileManager.getReader(type).readValue(body);
+        }
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = writer.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Stream a list as a JSON array with chunked encoding instead of buffering the whole body.
+     */
+    private void sendList(HttpExchange exchange, List<?> items) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = new BufferedOutputStream(exchange.getResponseBody(), 16 * 1024);
+             SequenceWriter array = writer.writeValuesAsArray(out)) {
+            for (Object item : items) {
+                array.write(item);
+            }
+        }
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        sendJson(exchange, status, Map.of("status", status, "error", message == null ? "" : message));
+    }
+
+    private static void sendEmpty(HttpExchange exchange, int status) throws IOException {
+        exchange.sendResponseHeaders(status, -1);
+    }
+
+    /**
+     * Usage: {@code HotelHttpServer [port] [--replica <followerId>]}. A replica serves
+     * reads from a follower of the primary's journal and rejects writes with 409.
+     */
+    public static void main(String[] args) throws IOException {
+        List<String> arguments = List.of(args);
+        int replicaFlag = arguments.indexOf("--replica");
+        int port = args.length > 0 && replicaFlag != 0 ? Integer.parseInt(args[0]) : ConfigManager.getServerPort();
+        HotelHttpServer httpServer;
+        HotelManagementService primary = replicaFlag >= 0 ? null : new HotelManagementService();
+        if (primary == null) {
+            String followerId = replicaFlag + 1 < args.length ? args[replicaFlag + 1] : "replica-" + port;
+            ReplicaFollower follower = new ReplicaFollower(ConfigManager.getDataDirectory(), followerId);
+            follower.start();
+            httpServer = new HotelHttpServer(follower.getService(), port);
+        } else {
+            httpServer = new HotelHttpServer(primary, port);
+            // Notifications are sent by the primary only
+            NotificationOutbox.startIfEnabled(primary).ifPresent(outbox ->
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        try {
+                            outbox.close();
+                        } catch (IOException e) {
+                            logger.warning("Could not close notification outbox: " + e.getMessage());
+                        }
+                    })));
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            httpServer.stop(1);
+            // Writes have stopped, so the totals match the files and the next start can skip the rebuild
+            if (primary != null) {
+                primary.checkpointIndexes();
+            }
+        }));
+        httpServer.start();
+    }
+}
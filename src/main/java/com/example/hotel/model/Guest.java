@@ -1,11 +1,14 @@
 package com.example.hotel.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.LocalDate;
 import java.util.Objects;
 
+// Derived properties such as fullName are written out but not read back
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class Guest {
     @JsonProperty("id")
     private String guestId;
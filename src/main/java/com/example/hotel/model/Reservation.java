@@ -3,6 +3,7 @@ package com.example.hotel.model;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 /**
@@ -15,6 +16,9 @@ public class Reservation {
     @JsonProperty("roomId")
     private final String roomId;
     
+    @JsonProperty("guestId")
+    private final String guestId; // null for records created before guest IDs were stored
+    
     @JsonProperty("guestName")
     private final String guestName;
     
@@ -28,18 +32,34 @@ public class Reservation {
     
     @JsonProperty("partySize")
     private final int partySize;
+    
+    @JsonProperty("bookedAt")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private final LocalDateTime bookedAt; // null for records created before booking times were stored
 
     // Default constructor for JSON deserialization
     public Reservation() {
         this.id = "";
         this.roomId = "";
+        this.guestId = null;
         this.guestName = "";
         this.startDate = LocalDate.now();
         this.endDate = LocalDate.now().plusDays(1);
         this.partySize = 1;
+        this.bookedAt = null;
     }
 
     public Reservation(String id, String roomId, String guestName, LocalDate startDate, LocalDate endDate, int partySize) {
+        this(id, roomId, null, guestName, startDate, endDate, partySize);
+    }
+
+    public Reservation(String id, String roomId, String guestId, String guestName,
+                       LocalDate startDate, LocalDate endDate, int partySize) {
+        this(id, roomId, guestId, guestName, startDate, endDate, partySize, null);
+    }
+
+    public Reservation(String id, String roomId, String guestId, String guestName,
+                       LocalDate startDate, LocalDate endDate, int partySize, LocalDateTime bookedAt) {
         if (id == null || id.isBlank()) throw new IllegalArgumentException("id required");
         if (roomId == null || roomId.isBlank()) throw new IllegalArgumentException("roomId required");
         if (guestName == null || guestName.isBlank()) throw new IllegalArgumentException("guestName required");
@@ -48,18 +68,22 @@ public class Reservation {
         if (partySize <= 0) throw new IllegalArgumentException("partySize must be > 0");
         this.id = id;
         this.roomId = roomId;
+        this.guestId = guestId;
         this.guestName = guestName;
         this.startDate = startDate;
         this.endDate = endDate;
         this.partySize = partySize;
+        this.bookedAt = bookedAt;
     }
 
     public String getId() { return id; }
     public String getRoomId() { return roomId; }
+    public String getGuestId() { return guestId; }
     public String getGuestName() { return guestName; }
     public LocalDate getStartDate() { return startDate; }
     public LocalDate getEndDate() { return endDate; }
     public int getPartySize() { return partySize; }
+    public LocalDateTime getBookedAt() { return bookedAt; }
 
     @Override public boolean equals(Object o) {
         if (this == o) return true;
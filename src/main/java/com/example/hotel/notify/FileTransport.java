@@ -0,0 +1,44 @@
+package com.example.hotel.notify;
+
+import com.example.hotel.util.JsonFileManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends each message to a JSON-lines file instead of sending it; a stand-in for a
+ * mail server in development. The file stays open for the length of a batch.
+ */
+public class FileTransport implements NotificationTransport {
+    private final Path file;
+    private BufferedWriter writer;
+
+    public FileTransport(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public void send(Notification notification) throws IOException {
+        if (writer == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        writer.write(JsonFileManager.getCompactWriter().writeValueAsString(notification));
+        writer.newLine();
+        writer.flush();
+    }
+
+    @Override
+    public void endBatch() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.hotel.notify;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps delivered messages in memory, for tests and local runs. {@link #failNext}
+ * makes the following sends fail to exercise retries.
+ */
+public class InMemoryTransport implements NotificationTransport {
+    private final List<Notification> sent = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final AtomicInteger batches = new AtomicInteger();
+
+    @Override
+    public void send(Notification notification) throws IOException {
+        if (failuresLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+            throw new IOException("Simulated delivery failure");
+        }
+        sent.add(notification);
+    }
+
+    @Override
+    public void endBatch() {
+        batches.incrementAndGet();
+    }
+
+    public void failNext(int count) {
+        failuresLeft.set(count);
+    }
+
+    public List<Notification> getSent() {
+        return List.copyOf(sent);
+    }
+
+    public int getBatchCount() {
+        return batches.get();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.hotel.notify;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * One message waiting in the outbox. {@code id} is derived from the journal entry that
+ * caused it, so replaying the journal never queues the same message twice.
+ */
+public record Notification(String id,
+                           Kind kind,
+                           String reservationId,
+                           String recipient,
+                           String subject,
+                           String body,
+                           Instant createdAt,
+                           int attempts,
+                           Instant nextAttemptAt,
+                           String lastError) {
+
+    public enum Kind {
+        CONFIRMATION, CANCELLATION
+    }
+
+    static Notification create(String id, Kind kind, String reservationId, String recipient,
+                               String subject, String body) {
+        Instant now = Instant.now();
+        return new Notification(id, kind, reservationId, recipient, subject, body, now, 0, now, null);
+    }
+
+    /**
+     * The same message after a failed attempt, due again after {@code backoff}.
+     */
+    Notification failedAttempt(String error, Duration backoff) {
+        return new Notification(id, kind, reservationId, recipient, subject, body, createdAt,
+                attempts + 1, Instant.now().plus(backoff), error);
+    }
+}
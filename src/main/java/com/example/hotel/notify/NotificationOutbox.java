@@ -0,0 +1,389 @@
+package com.example.hotel.notify;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.model.Room;
+import com.example.hotel.service.HotelManagementService;
+import com.example.hotel.service.JournalEntry;
+import com.example.hotel.util.ConfigManager;
+import com.example.hotel.util.JsonFileManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Queues confirmation and cancellation messages for reservation changes and sends
+ * them from a background dispatcher, so booking calls never wait on a mail server.
+ *
+ * <p>The outbox subscribes to the service's {@link com.example.hotel.service.ChangeFeed}
+ * and stores its pending messages together with the last journal sequence it has
+ * queued in {@code outbox.json} in the data directory. After a restart it resumes the
+ * feed from that sequence, so changes committed while it was down are still notified.
+ * The dispatcher sends due messages in batches, at most {@code maxPerSecond}, and
+ * retries failures with exponential backoff up to {@code maxAttempts} attempts.
+ */
+public class NotificationOutbox implements Flow.Subscriber<List<JournalEntry>>, AutoCloseable {
+    private static final Logger logger = Logger.getLogger(NotificationOutbox.class.getName());
+    static final String FILE_NAME = "outbox.json";
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(10);
+
+    /**
+     * What {@code outbox.json} holds.
+     */
+    record State(long lastSequence, List<Notification> pending) {
+    }
+
+    private final HotelManagementService service;
+    private final NotificationTransport transport;
+    private final String stateFile;
+    private final int batchSize;
+    private final long sendIntervalNanos;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+
+    // Guarded by this
+    private final Map<String, Notification> pending = new LinkedHashMap<>();
+    private long lastSequence;
+    private boolean running;
+    private Thread dispatcher;
+    private Flow.Subscription subscription;
+
+    // Only touched by the dispatcher thread
+    private long nextSendNanos;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public NotificationOutbox(HotelManagementService service, String dataDir, NotificationTransport transport) {
+        this(service, dataDir, transport, ConfigManager.getNotificationBatchSize(),
+                ConfigManager.getNotificationMaxPerSecond(), ConfigManager.getNotificationMaxAttempts(),
+                Duration.ofMillis(ConfigManager.getNotificationRetryMillis()));
+    }
+
+    public NotificationOutbox(HotelManagementService service, String dataDir, NotificationTransport transport,
+                              int batchSize, int maxPerSecond, int maxAttempts, Duration initialBackoff) {
+        if (batchSize <= 0 || maxPerSecond <= 0 || maxAttempts <= 0) {
+            throw new IllegalArgumentException("batchSize, maxPerSecond and maxAttempts must be > 0");
+        }
+        this.service = service;
+        this.transport = transport;
+        this.stateFile = Path.of(dataDir, FILE_NAME).toString();
+        this.batchSize = batchSize;
+        this.sendIntervalNanos = TimeUnit.SECONDS.toNanos(1) / maxPerSecond;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+    }
+
+    /**
+     * Start an outbox for {@code service} with the configured transport, if
+     * {@code features.emailNotifications} is on.
+     */
+    public static Optional<NotificationOutbox> startIfEnabled(HotelManagementService service) {
+        if (!ConfigManager.isEmailNotificationsEnabled()) {
+            return Optional.empty();
+        }
+        NotificationTransport transport = switch (ConfigManager.getNotificationTransport()) {
+            case "smtp" -> new SmtpTransport(ConfigManager.getSmtpHost(), ConfigManager.getSmtpPort(),
+                    ConfigManager.getNotificationSender(), Duration.ofSeconds(10));
+            case "memory" -> new InMemoryTransport();
+            default -> new FileTransport(Path.of(ConfigManager.getNotificationFile()));
+        };
+        NotificationOutbox outbox = new NotificationOutbox(service, ConfigManager.getDataDirectory(), transport);
+        outbox.start();
+        return Optional.of(outbox);
+    }
+
+    /**
+     * Load any saved state, subscribe to the change feed and start the dispatcher. A
+     * new outbox starts from the current end of the journal rather than notifying history.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        loadState();
+        running = true;
+        dispatcher = Thread.ofPlatform().daemon().name("notification-dispatcher").start(this::dispatchLoop);
+        service.getChangeFeed().subscribe(this, lastSequence);
+        logger.info("Notification outbox started at sequence " + lastSequence + " with " + pending.size() + " pending");
+    }
+
+    // ==================== QUEUEING ====================
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            this.subscription = subscription;
+        }
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<JournalEntry> entries) {
+        List<Notification> queued = new ArrayList<>();
+        for (JournalEntry entry : entries) {
+            toNotification(entry).ifPresent(queued::add);
+        }
+        Flow.Subscription current;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            for (Notification notification : queued) {
+                pending.putIfAbsent(notification.id(), notification);
+            }
+            lastSequence = entries.get(entries.size() - 1).seq();
+            saveState();
+            notifyAll();
+            current = subscription;
+        }
+        current.request(1);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        logger.severe("Notification outbox lost the change feed: " + throwable.getMessage());
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    private Optional<Notification> toNotification(JournalEntry entry) {
+        Notification.Kind kind = switch (entry.type()) {
+            case RESERVATION_CREATED -> Notification.Kind.CONFIRMATION;
+            case RESERVATION_CANCELLED -> Notification.Kind.CANCELLATION;
+            default -> null;
+        };
+        if (kind == null || entry.payload() == null || entry.payload().isNull()) {
+            return Optional.empty();
+        }
+        Reservation reservation = entry.payloadAs(Reservation.class);
+        Optional<String> recipient = service.getGuestById(reservation.getGuestId())
+                .map(Guest::getEmail)
+                .filter(email -> !email.isBlank());
+        if (recipient.isEmpty()) {
+            logger.fine("No email for guest " + reservation.getGuestId() + ", skipping " + kind);
+            return Optional.empty();
+        }
+        String room = service.getRoomById(reservation.getRoomId()).map(Room::getNumber).orElse(reservation.getRoomId());
+        String stay = "Room " + room + ", " + reservation.getStartDate() + " to " + reservation.getEndDate()
+                + " (" + reservation.getPartySize() + " guest" + (reservation.getPartySize() == 1 ? "" : "s") + ")";
+        String greeting = "Dear " + (reservation.getGuestName() != null ? reservation.getGuestName() : "guest") + ",\n\n";
+        return Optional.of(kind == Notification.Kind.CONFIRMATION
+                ? Notification.create("seq-" + entry.seq(), kind, reservation.getId(), recipient.get(),
+                        "Reservation confirmed: " + reservation.getId(),
+                        greeting + "Your reservation " + reservation.getId() + " is confirmed.\n" + stay + "\n")
+                : Notification.create("seq-" + entry.seq(), kind, reservation.getId(), recipient.get(),
+                        "Reservation cancelled: " + reservation.getId(),
+                        greeting + "Your reservation " + reservation.getId() + " has been cancelled.\n" + stay + "\n"));
+    }
+
+    // ==================== DISPATCH ====================
+
+    private void dispatchLoop() {
+        while (true) {
+            List<Notification> batch;
+            synchronized (this) {
+                batch = dueBatch();
+                while (running && batch.isEmpty()) {
+                    try {
+                        wait(millisUntilNextDue());
+                    } catch (InterruptedException e) {
+                        if (!running) {
+                            return;
+                        }
+                    }
+                    batch = dueBatch();
+                }
+                if (!running) {
+                    return;
+                }
+            }
+            deliver(batch);
+        }
+    }
+
+    /**
+     * Send one batch, then record the outcome. Stops early if the outbox is closed;
+     * unsent messages stay pending.
+     */
+    private void deliver(List<Notification> batch) {
+        List<Notification> delivered = new ArrayList<>();
+        Map<Notification, String> failed = new LinkedHashMap<>();
+        for (Notification notification : batch) {
+            if (!pace()) {
+                break;
+            }
+            try {
+                transport.send(notification);
+                delivered.add(notification);
+            } catch (IOException | RuntimeException e) {
+                failed.put(notification, String.valueOf(e.getMessage()));
+            }
+        }
+        try {
+            transport.endBatch();
+        } catch (IOException e) {
+            logger.warning("Notification transport failed to end batch: " + e.getMessage());
+        }
+        synchronized (this) {
+            for (Notification notification : delivered) {
+                pending.remove(notification.id());
+                sent.incrementAndGet();
+            }
+            failed.forEach((notification, error) -> {
+                failedAttempts.incrementAndGet();
+                if (notification.attempts() + 1 >= maxAttempts) {
+                    pending.remove(notification.id());
+                    dropped.incrementAndGet();
+                    logger.severe("Giving up on " + notification.kind() + " for reservation "
+                            + notification.reservationId() + " after " + maxAttempts + " attempts: " + error);
+                } else {
+                    pending.put(notification.id(), notification.failedAttempt(error, backoff(notification.attempts())));
+                }
+            });
+            saveState();
+        }
+    }
+
+    /**
+     * Wait for the next send slot. Returns false if interrupted by {@link #close}.
+     */
+    private boolean pace() {
+        long now = System.nanoTime();
+        long wait = nextSendNanos - now;
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+        nextSendNanos = Math.max(now, nextSendNanos) + sendIntervalNanos;
+        return true;
+    }
+
+    private Duration backoff(int previousAttempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(previousAttempts, 20));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private List<Notification> dueBatch() {
+        Instant now = Instant.now();
+        List<Notification> due = new ArrayList<>();
+        for (Notification notification : pending.values()) {
+            if (!notification.nextAttemptAt().isAfter(now)) {
+                due.add(notification);
+                if (due.size() == batchSize) {
+                    break;
+                }
+            }
+        }
+        return due;
+    }
+
+    /**
+     * How long the dispatcher may sleep; 0 (until notified) when nothing is pending.
+     */
+    private long millisUntilNextDue() {
+        Instant next = null;
+        for (Notification notification : pending.values()) {
+            if (next == null || notification.nextAttemptAt().isBefore(next)) {
+                next = notification.nextAttemptAt();
+            }
+        }
+        return next == null ? 0 : Math.max(1, Instant.now().until(next, ChronoUnit.MILLIS) + 1);
+    }
+
+    // ==================== STATE ====================
+
+    private void loadState() {
+        try {
+            State state = JsonFileManager.loadObjectFromFile(stateFile, State.class);
+            if (state == null) {
+                lastSequence = service.getChangeFeed().getLastSequence();
+                return;
+            }
+            lastSequence = state.lastSequence();
+            for (Notification notification : state.pending()) {
+                pending.put(notification.id(), notification);
+            }
+        } catch (IOException e) {
+            logger.severe("Could not read notification outbox, starting from the current journal position: "
+                    + e.getMessage());
+            lastSequence = service.getChangeFeed().getLastSequence();
+        }
+    }
+
+    private void saveState() {
+        try {
+            JsonFileManager.saveObjectToFile(new State(lastSequence, new ArrayList<>(pending.values())), stateFile);
+        } catch (IOException e) {
+            logger.severe("Failed to save notification outbox: " + e.getMessage());
+        }
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Pending, sent, failed-attempt and dropped counts since start.
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", pending.size());
+        stats.put("lastSequence", lastSequence);
+        stats.put("sent", sent.get());
+        stats.put("failedAttempts", failedAttempts.get());
+        stats.put("dropped", dropped.get());
+        return stats;
+    }
+
+    /**
+     * Stop queueing and sending. The batch in flight finishes its current message;
+     * everything not yet sent stays in {@code outbox.json} for the next start.
+     */
+    @Override
+    public void close() throws IOException {
+        Thread thread;
+        Flow.Subscription current;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            thread = dispatcher;
+            current = subscription;
+            dispatcher = null;
+            notifyAll();
+        }
+        if (current != null) {
+            current.cancel();
+        }
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            saveState();
+        }
+        transport.close();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.hotel.notify;
+
+import java.io.IOException;
+
+/**
+ * Delivers outbox messages. The dispatcher calls {@link #send} for each message in a
+ * batch and {@link #endBatch} once the batch is done, so connection-based transports
+ * can reuse one connection for the whole batch. Only the dispatcher thread calls a
+ * transport.
+ */
+public interface NotificationTransport extends AutoCloseable {
+
+    /**
+     * Deliver one message; an exception means it was not delivered and will be retried.
+     */
+    void send(Notification notification) throws IOException;
+
+    default void endBatch() throws IOException {
+    }
+
+    @Override
+    default void close() throws IOException {
+        endBatch();
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.hotel.notify;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.logging.Logger;
+
+/**
+ * Plain SMTP client (RFC 5321) that sends a whole batch over one connection: it
+ * connects on the first message of a batch and says QUIT at the end. TLS and
+ * authentication are not supported, so point it at a local relay.
+ */
+public class SmtpTransport implements NotificationTransport {
+    private static final Logger logger = Logger.getLogger(SmtpTransport.class.getName());
+
+    private final String host;
+    private final int port;
+    private final String from;
+    private final Duration timeout;
+    private Socket socket;
+    private BufferedReader in;
+    private Writer out;
+
+    public SmtpTransport(String host, int port, String from, Duration timeout) {
+        this.host = host;
+        this.port = port;
+        this.from = from;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void send(Notification notification) throws IOException {
+        if (socket == null) {
+            connect();
+        }
+        try {
+            command("MAIL FROM:<" + from + ">", 250);
+            command("RCPT TO:<" + headerValue(notification.recipient()) + ">", 250, 251);
+            command("DATA", 354);
+            writeMessage(notification);
+            expect(250);
+        } catch (SmtpReplyException e) {
+            // The server refused this message but the session is still usable
+            try {
+                command("RSET", 250);
+            } catch (IOException resetFailed) {
+                disconnect();
+            }
+            throw e;
+        } catch (IOException e) {
+            disconnect();
+            throw e;
+        }
+    }
+
+    @Override
+    public void endBatch() throws IOException {
+        if (socket == null) {
+            return;
+        }
+        try {
+            command("QUIT", 221);
+        } finally {
+            disconnect();
+        }
+    }
+
+    private void connect() throws IOException {
+        Socket connection = new Socket();
+        try {
+            connection.connect(new InetSocketAddress(host, port), (int) timeout.toMillis());
+            connection.setSoTimeout((int) timeout.toMillis());
+            socket = connection;
+            in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+            out = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8));
+            expect(220);
+            // Greet with the sender's domain rather than a reverse DNS lookup
+            command("EHLO " + from.substring(from.indexOf('@') + 1), 250);
+        } catch (IOException e) {
+            disconnect();
+            throw e;
+        }
+    }
+
+    private void writeMessage(Notification notification) throws IOException {
+        line("From: " + from);
+        line("To: " + headerValue(notification.recipient()));
+        line("Subject: " + headerValue(notification.subject()));
+        line("Date: " + ZonedDateTime.now(ZoneOffset.UTC).format(DateTimeFormatter.RFC_1123_DATE_TIME));
+        line("Message-ID: <" + notification.id() + "@" + host + ">");
+        line("MIME-Version: 1.0");
+        line("Content-Type: text/plain; charset=UTF-8");
+        line("");
+        for (String bodyLine : notification.body().split("\r?\n", -1)) {
+            // Dot-stuffing so a line with a single dot cannot end the message early
+            line(bodyLine.startsWith(".") ? "." + bodyLine : bodyLine);
+        }
+        line(".");
+        out.flush();
+    }
+
+    private void command(String command, int... accepted) throws IOException {
+        line(command);
+        out.flush();
+        expect(accepted);
+    }
+
+    private void line(String text) throws IOException {
+        out.write(text);
+        out.write("\r\n");
+    }
+
+    /**
+     * Read one (possibly multi-line) reply and check its code.
+     */
+    private void expect(int... accepted) throws IOException {
+        String reply;
+        do {
+            reply = in.readLine();
+            if (reply == null || reply.length() < 3) {
+                throw new IOException("SMTP connection closed by " + host);
+            }
+        } while (reply.length() > 3 && reply.charAt(3) == '-');
+        int code;
+        try {
+            code = Integer.parseInt(reply.substring(0, 3));
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed SMTP reply: " + reply);
+        }
+        for (int ok : accepted) {
+            if (code == ok) {
+                return;
+            }
+        }
+        throw new SmtpReplyException(reply);
+    }
+
+    private void disconnect() {
+        if (socket == null) {
+            return;
+        }
+        try {
+            socket.close();
+        } catch (IOException e) {
+            logger.fine("Error closing SMTP connection: " + e.getMessage());
+        }
+        socket = null;
+        in = null;
+        out = null;
+    }
+
+    private static String headerValue(String value) {
+        return value == null ? "" : value.replace('\r', ' ').replace('\n', ' ');
+    }
+
+    /**
+     * The server answered with an unexpected reply code.
+     */
+    static class SmtpReplyException extends IOException {
+        SmtpReplyException(String reply) {
+            super("SMTP server replied: " + reply);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.example.hotel.report;
+
+import com.example.hotel.model.Payment;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.model.Room;
+import com.example.hotel.service.HotelManagementService;
+import com.example.hotel.service.HotelSnapshot;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join report engine for multi-year history: ADR, RevPAR, length-of-stay and
+ * lead-time distributions, and per-room utilization.
+ *
+ * <p>Works on one pinned {@link HotelSnapshot}, so writers are never blocked. Payments
+ * and reservations are split into chunks; each leaf fills its own primitive counters
+ * and the results are added together on the way back up, so threads never share a
+ * mutable counter.
+ */
+public class AnalyticsEngine {
+    static final int MAX_LENGTH_OF_STAY = 30;
+    static final int MAX_LEAD_DAYS = 365;
+    private static final int CHUNK_SIZE = 8192;
+
+    private final ForkJoinPool pool;
+
+    public AnalyticsEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public AnalyticsEngine(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool, "Pool cannot be null");
+    }
+
+    /**
+     * Report on the nights of {@code startDate} through {@code endDate}, inclusive,
+     * including stays that have been moved to the archive.
+     */
+    public AnalyticsReport analyze(HotelManagementService service, LocalDate startDate, LocalDate endDate) {
+        validatePeriod(startDate, endDate);
+        HotelSnapshot snapshot = service.getSnapshot();
+        // A stay archived after the snapshot was pinned is in both; count it once
+        List<Reservation> archived = service.listArchivedStays(startDate, endDate.plusDays(1)).stream()
+                .filter(reservation -> snapshot.getReservation(reservation.getId()).isEmpty())
+                .toList();
+        return analyze(snapshot, archived, startDate, endDate);
+    }
+
+    /**
+     * Report on the nights of {@code startDate} through {@code endDate}, inclusive.
+     */
+    public AnalyticsReport analyze(HotelSnapshot snapshot, LocalDate startDate, LocalDate endDate) {
+        validatePeriod(startDate, endDate);
+        return analyze(snapshot, List.of(), startDate, endDate);
+    }
+
+    private AnalyticsReport analyze(HotelSnapshot snapshot, List<Reservation> archived,
+                                    LocalDate startDate, LocalDate endDate) {
+        Room[] rooms = snapshot.getRooms().toArray(Room[]::new);
+        Arrays.sort(rooms, Comparator.comparing(Room::getId));
+        Map<String, Integer> roomIndex = new HashMap<>(rooms.length * 2);
+        for (int i = 0; i < rooms.length; i++) {
+            roomIndex.put(rooms[i].getId(), i);
+        }
+
+        Payment[] payments = snapshot.getPayments().toArray(Payment[]::new);
+        Map<String, Long> revenueByReservation = pool.invoke(new RevenueTask(payments, 0, payments.length));
+
+        List<Reservation> stays = new ArrayList<>(snapshot.getReservations().size() + archived.size());
+        stays.addAll(snapshot.getReservations());
+        stays.addAll(archived);
+        Reservation[] reservations = stays.toArray(Reservation[]::new);
+        StayWindow window = new StayWindow(startDate.toEpochDay(), endDate.toEpochDay() + 1, roomIndex, revenueByReservation);
+        StayTotals totals = pool.invoke(new StayTask(window, reservations, 0, reservations.length));
+
+        return toReport(snapshot, startDate, endDate, rooms, totals);
+    }
+
+    private static void validatePeriod(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("Invalid report period");
+        }
+    }
+
+    private static AnalyticsReport toReport(HotelSnapshot snapshot, LocalDate startDate, LocalDate endDate,
+                                            Room[] rooms, StayTotals totals) {
+        long days = endDate.toEpochDay() - startDate.toEpochDay() + 1;
+        long available = rooms.length * days;
+        BigDecimal revenue = BigDecimal.valueOf(totals.revenueCents, 2);
+
+        Map<String, Double> utilization = new LinkedHashMap<>();
+        for (int i = 0; i < rooms.length; i++) {
+            utilization.put(rooms[i].getId(), percent(totals.nightsByRoom[i], days));
+        }
+        return new AnalyticsReport(startDate, endDate, snapshot.getVersion(), rooms.length, available,
+                totals.soldNights, totals.arrivals, revenue,
+                divide(revenue, totals.soldNights), divide(revenue, available),
+                percent(totals.soldNights, available),
+                totals.arrivals == 0 ? 0 : round((double) totals.arrivalNights / totals.arrivals),
+                histogram(totals.lengthOfStay), histogram(totals.leadTime), totals.unknownLeadTime, utilization);
+    }
+
+    // ==================== TASKS ====================
+
+    /**
+     * Splits [from, to) in halves until a chunk is small enough, then combines results pairwise.
+     */
+    private abstract static class ChunkTask<T> extends RecursiveTask<T> {
+        final int from;
+        final int to;
+
+        ChunkTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected T compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return leaf();
+            }
+            int mid = (from + to) >>> 1;
+            ChunkTask<T> left = split(from, mid);
+            left.fork();
+            T right = split(mid, to).compute();
+            return combine(left.join(), right);
+        }
+
+        abstract T leaf();
+
+        abstract ChunkTask<T> split(int from, int to);
+
+        abstract T combine(T left, T right);
+    }
+
+    /**
+     * Completed payment totals per reservation, in cents.
+     */
+    private static final class RevenueTask extends ChunkTask<Map<String, Long>> {
+        private final Payment[] payments;
+
+        RevenueTask(Payment[] payments, int from, int to) {
+            super(from, to);
+            this.payments = payments;
+        }
+
+        @Override
+        Map<String, Long> leaf() {
+            Map<String, Long> totals = new HashMap<>();
+            for (int i = from; i < to; i++) {
+                Payment payment = payments[i];
+                if (payment.getPaymentStatus() == Payment.PaymentStatus.COMPLETED && payment.getAmount() != null) {
+                    totals.merge(payment.getReservationId(), toCents(payment.getAmount()), Long::sum);
+                }
+            }
+            return totals;
+        }
+
+        @Override
+        ChunkTask<Map<String, Long>> split(int from, int to) {
+            return new RevenueTask(payments, from, to);
+        }
+
+        @Override
+        Map<String, Long> combine(Map<String, Long> left, Map<String, Long> right) {
+            Map<String, Long> larger = left.size() >= right.size() ? left : right;
+            Map<String, Long> smaller = larger == left ? right : left;
+            smaller.forEach((id, cents) -> larger.merge(id, cents, Long::sum));
+            return larger;
+        }
+    }
+
+    /**
+     * Report period as epoch days [start, end) plus the lookups every leaf shares read-only.
+     */
+    private record StayWindow(long start, long end, Map<String, Integer> roomIndex,
+                              Map<String, Long> revenueByReservation) {
+    }
+
+    private static final class StayTask extends ChunkTask<StayTotals> {
+        private final StayWindow window;
+        private final Reservation[] reservations;
+
+        StayTask(StayWindow window, Reservation[] reservations, int from, int to) {
+            super(from, to);
+            this.window = window;
+            this.reservations = reservations;
+        }
+
+        @Override
+        StayTotals leaf() {
+            StayTotals totals = new StayTotals(window.roomIndex().size());
+            for (int i = from; i < to; i++) {
+                totals.add(reservations[i], window);
+            }
+            return totals;
+        }
+
+        @Override
+        ChunkTask<StayTotals> split(int from, int to) {
+            return new StayTask(window, reservations, from, to);
+        }
+
+        @Override
+        StayTotals combine(StayTotals left, StayTotals right) {
+            return left.addAll(right);
+        }
+    }
+
+    /**
+     * Counters owned by a single leaf until they are combined.
+     */
+    private static final class StayTotals {
+        long soldNights;
+        long revenueCents;
+        long arrivals;
+        long arrivalNights;
+        long unknownLeadTime;
+        final long[] lengthOfStay = new long[MAX_LENGTH_OF_STAY + 1];
+        final long[] leadTime = new long[MAX_LEAD_DAYS + 1];
+        final long[] nightsByRoom;
+
+        StayTotals(int rooms) {
+            nightsByRoom = new long[rooms];
+        }
+
+        void add(Reservation reservation, StayWindow window) {
+            Integer room = window.roomIndex().get(reservation.getRoomId());
+            if (room == null) {
+                return; // room no longer in inventory
+            }
+            long start = reservation.getStartDate().toEpochDay();
+            long end = reservation.getEndDate().toEpochDay();
+            long inWindow = Math.min(end, window.end()) - Math.max(start, window.start());
+            if (inWindow > 0) {
+                soldNights += inWindow;
+                nightsByRoom[room] += inWindow;
+                long paid = window.revenueByReservation().getOrDefault(reservation.getId(), 0L);
+                revenueCents += paid * inWindow / (end - start);
+            }
+            if (start >= window.start() && start < window.end()) {
+                long nights = end - start;
+                arrivals++;
+                arrivalNights += nights;
+                lengthOfStay[(int) Math.min(nights, MAX_LENGTH_OF_STAY)]++;
+                if (reservation.getBookedAt() == null) {
+                    unknownLeadTime++;
+                } else {
+                    long lead = ChronoUnit.DAYS.between(reservation.getBookedAt().toLocalDate(), reservation.getStartDate());
+                    leadTime[(int) Math.max(0, Math.min(lead, MAX_LEAD_DAYS))]++;
+                }
+            }
+        }
+
+        StayTotals addAll(StayTotals other) {
+            soldNights += other.soldNights;
+            revenueCents += other.revenueCents;
+            arrivals += other.arrivals;
+            arrivalNights += other.arrivalNights;
+            unknownLeadTime += other.unknownLeadTime;
+            addInto(lengthOfStay, other.lengthOfStay);
+            addInto(leadTime, other.leadTime);
+            addInto(nightsByRoom, other.nightsByRoom);
+            return this;
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static void addInto(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+    }
+
+    private static Map<Integer, Long> histogram(long[] counts) {
+        Map<Integer, Long> buckets = new TreeMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                buckets.put(i, counts[i]);
+            }
+        }
+        return buckets;
+    }
+
+    private static BigDecimal divide(BigDecimal amount, long count) {
+        return count == 0 ? BigDecimal.ZERO.setScale(2) : amount.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : round(part * 100.0 / whole);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
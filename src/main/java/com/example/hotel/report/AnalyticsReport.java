@@ -0,0 +1,34 @@
+package com.example.hotel.report;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Revenue-management figures for the nights of {@code startDate} through {@code endDate}.
+ *
+ * <p>Room nights and revenue are clipped to the period: a stay's completed payments are
+ * spread evenly over its nights and only the nights inside the period count. Length of
+ * stay and lead time describe the stays arriving in the period.
+ *
+ * @param lengthOfStay     nights per stay to number of stays; the last bucket holds longer stays
+ * @param leadTime         days booked ahead of arrival to number of stays; the last bucket holds longer leads
+ * @param roomUtilization  room ID to the percentage of the period's nights it was occupied
+ */
+public record AnalyticsReport(LocalDate startDate,
+                              LocalDate endDate,
+                              long snapshotVersion,
+                              int totalRooms,
+                              long availableRoomNights,
+                              long soldRoomNights,
+                              long arrivals,
+                              BigDecimal roomRevenue,
+                              BigDecimal averageDailyRate,
+                              BigDecimal revPar,
+                              double occupancyRate,
+                              double averageLengthOfStay,
+                              Map<Integer, Long> lengthOfStay,
+                              Map<Integer, Long> leadTime,
+                              long unknownLeadTime,
+                              Map<String, Double> roomUtilization) {
+}
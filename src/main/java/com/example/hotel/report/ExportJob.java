@@ -0,0 +1,66 @@
+package com.example.hotel.report;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Handle on a running export. Progress is the share of the requested date range
+ * written so far; open-ended exports only report the record count.
+ */
+public final class ExportJob {
+    private final Path target;
+    private final CompletableFuture<Path> result = new CompletableFuture<>();
+    private final AtomicLong recordsWritten = new AtomicLong();
+    private volatile double progress;
+    private volatile boolean cancelled;
+
+    ExportJob(Path target) {
+        this.target = target;
+    }
+
+    /** Where the finished file will be; it only appears there once the export completes. */
+    public Path getTarget() {
+        return target;
+    }
+
+    /** Completes with the file path, or exceptionally if the export failed or was cancelled. */
+    public CompletableFuture<Path> getResult() {
+        return result;
+    }
+
+    public long getRecordsWritten() {
+        return recordsWritten.get();
+    }
+
+    /** Fraction done, 0 to 1. */
+    public double getProgress() {
+        return result.isDone() && !result.isCompletedExceptionally() ? 1.0 : progress;
+    }
+
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    /** Stop after the current record; the partial file is discarded. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    void recordWritten(double progress) {
+        recordsWritten.incrementAndGet();
+        this.progress = progress;
+    }
+
+    void complete() {
+        result.complete(target);
+    }
+
+    void fail(Throwable error) {
+        result.completeExceptionally(error);
+    }
+}
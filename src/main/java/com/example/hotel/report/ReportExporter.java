@@ -0,0 +1,264 @@
+package com.example.hotel.report;
+
+import com.example.hotel.model.Payment;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.service.HotelManagementService;
+import com.example.hotel.service.ReservationPage;
+import com.example.hotel.util.ConfigManager;
+import com.example.hotel.util.JsonFileManager;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams reservation and payment exports to the report directory as CSV or JSON,
+ * optionally gzip-compressed, one record at a time. Reservations are read a page at
+ * a time from the date index, so memory use does not grow with the export size.
+ * Each export runs on its own virtual thread and reports progress through its
+ * {@link ExportJob}; the file is written under a temporary name and moved into place
+ * when complete.
+ */
+public class ReportExporter {
+    private static final Logger logger = Logger.getLogger(ReportExporter.class.getName());
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    // Same pattern as the JSON data files
+    private static final DateTimeFormatter CSV_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int PAGE_SIZE = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public enum Format {
+        CSV, JSON;
+
+        String extension() {
+            return name().toLowerCase();
+        }
+    }
+
+    private static final List<String> RESERVATION_COLUMNS = List.of(
+            "id", "roomId", "guestId", "guestName", "startDate", "endDate", "nights", "partySize", "bookedAt");
+    private static final List<String> PAYMENT_COLUMNS = List.of(
+            "paymentId", "reservationId", "guestId", "amount", "paymentMethod", "paymentStatus", "paymentDate",
+            "transactionId", "description");
+
+    private final Path reportDir;
+
+    public ReportExporter() {
+        this(ConfigManager.getReportDirectory());
+    }
+
+    public ReportExporter(String reportDir) {
+        this.reportDir = Path.of(reportDir);
+    }
+
+    /**
+     * Export reservations starting in [{@code from}, {@code to}) in start-date order.
+     * Either bound may be null.
+     */
+    public ExportJob exportReservations(HotelManagementService service, LocalDate from, LocalDate to,
+                                        Format format, boolean gzip) {
+        Iterator<Reservation> rows = new ReservationPages(service, from, to);
+        return start("reservations", from, to, format, gzip, RESERVATION_COLUMNS, rows,
+                ReportExporter::reservationRow, Reservation::getStartDate);
+    }
+
+    /**
+     * Export payments dated in [{@code from}, {@code to}). Payments are read from one
+     * pinned snapshot, so the file reflects a single point in time. Either bound may be null.
+     */
+    public ExportJob exportPayments(HotelManagementService service, LocalDate from, LocalDate to,
+                                    Format format, boolean gzip) {
+        Iterator<Payment> rows = service.getSnapshot().getPayments().stream()
+                .filter(payment -> payment.getPaymentDate() != null)
+                .filter(payment -> from == null || !payment.getPaymentDate().toLocalDate().isBefore(from))
+                .filter(payment -> to == null || payment.getPaymentDate().toLocalDate().isBefore(to))
+                .iterator();
+        return start("payments", from, to, format, gzip, PAYMENT_COLUMNS, rows,
+                ReportExporter::paymentRow, null);
+    }
+
+    private <T> ExportJob start(String kind, LocalDate from, LocalDate to, Format format, boolean gzip,
+                                List<String> columns, Iterator<T> rows, Function<T, List<Object>> toRow,
+                                Function<T, LocalDate> progressDate) {
+        if (!ConfigManager.isReportGenerationEnabled()) {
+            throw new IllegalStateException("Report generation is disabled (features.reportGeneration)");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Export range must end after it starts");
+        }
+        String name = kind + "_" + (from == null ? "start" : from) + "_" + (to == null ? "end" : to) + "_"
+                + LocalDateTime.now().format(FILE_TIMESTAMP) + "." + format.extension() + (gzip ? ".gz" : "");
+        ExportJob job = new ExportJob(reportDir.resolve(name));
+        // Date progress only makes sense for a bounded range in date order
+        Function<T, Double> progress = progressDate != null && from != null && to != null
+                ? row -> fraction(from, to, progressDate.apply(row))
+                : row -> 0.0;
+
+        Thread.ofVirtual().name("export-" + kind).start(() -> {
+            Path tmp = job.getTarget().resolveSibling(name + ".tmp");
+            try {
+                Files.createDirectories(reportDir);
+                try (Writer out = open(tmp, gzip)) {
+                    if (format == Format.CSV) {
+                        writeCsv(out, job, columns, rows, toRow, progress);
+                    } else {
+                        writeJson(out, job, rows, progress);
+                    }
+                }
+                Files.move(tmp, job.getTarget(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                logger.info("Exported " + job.getRecordsWritten() + " " + kind + " to " + job.getTarget());
+                job.complete();
+            } catch (Exception e) {
+                deleteQuietly(tmp);
+                if (!(e instanceof CancellationException)) {
+                    logger.severe("Export of " + kind + " failed: " + e.getMessage());
+                }
+                job.fail(e);
+            }
+        });
+        return job;
+    }
+
+    private static Writer open(Path file, boolean gzip) throws IOException {
+        OutputStream out = Files.newOutputStream(file);
+        if (gzip) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private static <T> void writeCsv(Writer out, ExportJob job, List<String> columns, Iterator<T> rows,
+                                     Function<T, List<Object>> toRow, Function<T, Double> progress) throws IOException {
+        writeCsvLine(out, columns);
+        while (rows.hasNext()) {
+            checkCancelled(job);
+            T row = rows.next();
+            writeCsvLine(out, toRow.apply(row));
+            job.recordWritten(progress.apply(row));
+        }
+    }
+
+    private static <T> void writeJson(Writer out, ExportJob job, Iterator<T> rows,
+                                      Function<T, Double> progress) throws IOException {
+        // Closing the sequence writes the closing bracket; the caller closes the stream
+        try (SequenceWriter array = JsonFileManager.getCompactWriter()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValuesAsArray(out)) {
+            while (rows.hasNext()) {
+                checkCancelled(job);
+                T row = rows.next();
+                array.write(row);
+                job.recordWritten(progress.apply(row));
+            }
+        }
+    }
+
+    private static void writeCsvLine(Writer out, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            Object value = values.get(i);
+            if (value instanceof LocalDateTime timestamp) {
+                out.write(timestamp.format(CSV_TIMESTAMP));
+            } else if (value != null) {
+                out.write(csvEscape(value.toString()));
+            }
+        }
+        out.write('\n');
+    }
+
+    static String csvEscape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static List<Object> reservationRow(Reservation r) {
+        return Arrays.asList(r.getId(), r.getRoomId(), r.getGuestId(), r.getGuestName(),
+                r.getStartDate(), r.getEndDate(), r.getEndDate().toEpochDay() - r.getStartDate().toEpochDay(),
+                r.getPartySize(), r.getBookedAt());
+    }
+
+    private static List<Object> paymentRow(Payment p) {
+        return Arrays.asList(p.getPaymentId(), p.getReservationId(), p.getGuestId(), p.getAmount(),
+                p.getPaymentMethod(), p.getPaymentStatus(), p.getPaymentDate(), p.getTransactionId(),
+                p.getDescription());
+    }
+
+    private static double fraction(LocalDate from, LocalDate to, LocalDate reached) {
+        double span = to.toEpochDay() - from.toEpochDay();
+        return Math.max(0, Math.min(1, (reached.toEpochDay() - from.toEpochDay()) / span));
+    }
+
+    private static void checkCancelled(ExportJob job) {
+        if (job.isCancelled()) {
+            throw new CancellationException("Export cancelled");
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warning("Could not delete partial export " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Walks the date index one page at a time, holding a single page in memory.
+     */
+    private static final class ReservationPages implements Iterator<Reservation> {
+        private final HotelManagementService service;
+        private final LocalDate from;
+        private final LocalDate to;
+        private ReservationPage page;
+        private int next;
+
+        ReservationPages(HotelManagementService service, LocalDate from, LocalDate to) {
+            this.service = service;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (page == null) {
+                page = service.listReservations(from, to, null, PAGE_SIZE);
+            }
+            while (next == page.items().size() && page.hasMore()) {
+                page = service.listReservations(from, to, page.nextCursor(), PAGE_SIZE);
+                next = 0;
+            }
+            return next < page.items().size();
+        }
+
+        @Override
+        public Reservation next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.items().get(next++);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.hotel.service;
+
+import com.example.hotel.util.ConfigManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control for writes: a token bucket per client, then a global limit on
+ * writes in progress with a bounded wait queue.
+ *
+ * <p>Each client may make {@code clientRate} writes per second on average, with bursts
+ * of up to {@code clientBurst}; beyond that it is refused with
+ * {@link Rejected.Reason#RATE_LIMITED} before it takes any shared capacity, so one
+ * flooding client cannot crowd out the others. Admitted writes then need one of
+ * {@code maxConcurrent} slots. Up to {@code maxQueue} writes wait for a slot, each for at
+ * most {@code queueTimeout}; when the queue is full a write is shed at once with
+ * {@link Rejected.Reason#OVERLOADED} rather than adding to everyone's latency.
+ *
+ * <p>At most about {@code maxClients} buckets are kept. Once that many clients have
+ * written in the last few minutes, further new clients share one overflow bucket, so a
+ * caller cycling through client IDs can neither grow the map without bound nor earn a
+ * fresh burst with each ID.
+ */
+public class AdmissionController {
+    // Buckets idle this long are full again and can be forgotten
+    private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final int SWEEP_EVERY = 4096;
+
+    /**
+     * Thrown when a write is not admitted.
+     */
+    public static class Rejected extends RuntimeException {
+        public enum Reason { RATE_LIMITED, OVERLOADED }
+
+        private final Reason reason;
+        private final Duration retryAfter;
+
+        Rejected(Reason reason, Duration retryAfter, String message) {
+            super(message);
+            this.reason = reason;
+            this.retryAfter = retryAfter;
+        }
+
+        public Reason getReason() {
+            return reason;
+        }
+
+        /**
+         * When the client may usefully try again.
+         */
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+    }
+
+    /**
+     * A slot for one admitted write; close it when the write is done.
+     */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final double clientRatePerNano;
+    private final double clientBurst;
+    private final int maxClients;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final TokenBucket overflow;
+    private final AtomicInteger untilSweep = new AtomicInteger(SWEEP_EVERY);
+    private final Semaphore slots;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder admittedAfterQueueing = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAccumulator maxQueued = new LongAccumulator(Math::max, 0);
+
+    public AdmissionController() {
+        this(ConfigManager.getAdmissionClientRate(), ConfigManager.getAdmissionClientBurst(),
+                ConfigManager.getAdmissionMaxClients(), ConfigManager.getAdmissionMaxConcurrent(),
+                ConfigManager.getAdmissionMaxQueue(), Duration.ofMillis(ConfigManager.getAdmissionQueueTimeoutMillis()));
+    }
+
+    public AdmissionController(double clientRate, int clientBurst, int maxConcurrent, int maxQueue, Duration queueTimeout) {
+        this(clientRate, clientBurst, ConfigManager.getAdmissionMaxClients(), maxConcurrent, maxQueue, queueTimeout);
+    }
+
+    public AdmissionController(double clientRate, int clientBurst, int maxClients, int maxConcurrent, int maxQueue,
+                               Duration queueTimeout) {
+        this(clientRate, clientBurst, maxClients, maxConcurrent, maxQueue, queueTimeout, System::nanoTime);
+    }
+
+    AdmissionController(double clientRate, int clientBurst, int maxClients, int maxConcurrent, int maxQueue,
+                        Duration queueTimeout, LongSupplier nanoClock) {
+        if (clientRate <= 0 || clientBurst <= 0 || maxClients <= 0 || maxConcurrent <= 0 || maxQueue < 0) {
+            throw new IllegalArgumentException(
+                    "clientRate, clientBurst, maxClients and maxConcurrent must be > 0, maxQueue >= 0");
+        }
+        this.clientRatePerNano = clientRate / TimeUnit.SECONDS.toNanos(1);
+        this.clientBurst = clientBurst;
+        this.maxClients = maxClients;
+        this.overflow = new TokenBucket(clientBurst, nanoClock.getAsLong());
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.queueTimeoutNanos = Objects.requireNonNull(queueTimeout, "queueTimeout").toNanos();
+        this.nanoClock = nanoClock;
+        this.slots = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Admit one write for {@code clientId}, waiting in the queue if every slot is busy.
+     *
+     * @throws Rejected if the client is over its rate or the service is overloaded
+     */
+    public Permit acquire(String clientId) {
+        Objects.requireNonNull(clientId, "clientId");
+        long now = nanoClock.getAsLong();
+        TokenBucket bucket = bucketFor(clientId, now);
+        long waitNanos = bucket.tryTake(now);
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            throw new Rejected(Rejected.Reason.RATE_LIMITED, Duration.ofNanos(waitNanos),
+                    "Client " + clientId + " is over its write rate");
+        }
+        sweepIdleBuckets(now);
+
+        if (slots.tryAcquire()) {
+            return admit();
+        }
+        // Every slot is busy: wait in line if there is room in it
+        int position = queued.incrementAndGet();
+        try {
+            if (position > maxQueue) {
+                shed.increment();
+                throw overloaded();
+            }
+            maxQueued.accumulate(position);
+            if (slots.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                admittedAfterQueueing.increment();
+                return admit();
+            }
+            timedOut.increment();
+            throw overloaded();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw overloaded();
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * Counters for monitoring: admitted, rejected by reason, and the queue.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("admitted", admitted.sum());
+        stats.put("admittedAfterQueueing", admittedAfterQueueing.sum());
+        stats.put("rateLimited", rateLimited.sum());
+        stats.put("shed", shed.sum());
+        stats.put("queueTimeouts", timedOut.sum());
+        stats.put("inFlight", inFlight());
+        stats.put("queued", queued.get());
+        stats.put("maxQueued", maxQueued.get());
+        stats.put("clients", buckets.size());
+        stats.put("overflowed", overflowed.sum());
+        return stats;
+    }
+
+    private int inFlight() {
+        return maxConcurrent - slots.availablePermits();
+    }
+
+    private Permit admit() {
+        admitted.increment();
+        return new Permit() {
+            private boolean closed;
+
+            @Override
+            public synchronized void close() {
+                if (!closed) {
+                    closed = true;
+                    slots.release();
+                }
+            }
+        };
+    }
+
+    private Rejected overloaded() {
+        return new Rejected(Rejected.Reason.OVERLOADED, Duration.ofNanos(queueTimeoutNanos),
+                "Too many writes in progress, try again shortly");
+    }
+
+    private TokenBucket bucketFor(String clientId, long now) {
+        TokenBucket bucket = buckets.get(clientId);
+        if (bucket != null) {
+            return bucket;
+        }
+        // Checked without a lock, so concurrent new clients may overshoot by a few
+        if (buckets.size() >= maxClients) {
+            overflowed.increment();
+            return overflow;
+        }
+        return buckets.computeIfAbsent(clientId, id -> new TokenBucket(clientBurst, now));
+    }
+
+    private void sweepIdleBuckets(long now) {
+        if (untilSweep.decrementAndGet() > 0) {
+            return;
+        }
+        untilSweep.set(SWEEP_EVERY);
+        buckets.values().removeIf(bucket -> bucket.idleSince(now) > IDLE_NANOS);
+    }
+
+    private final class TokenBucket {
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        /**
+         * Take a token; returns 0 on success or the nanoseconds until one is available.
+         */
+        synchronized long tryTake(long now) {
+            tokens = Math.min(clientBurst, tokens + (now - refilledAt) * clientRatePerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / clientRatePerNano));
+        }
+
+        synchronized long idleSince(long now) {
+            return now - refilledAt;
+        }
+    }
+}
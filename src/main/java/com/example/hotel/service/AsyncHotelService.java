@@ -0,0 +1,192 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Payment;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.model.Room;
+import com.example.hotel.util.ConfigManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * {@link CompletableFuture} facade over {@link HotelManagementService} for event-driven callers.
+ *
+ * <p>Reads are answered from memory, so their futures are already complete when returned
+ * and run on the caller's thread. Writes run on a bounded pool and complete once the
+ * service call returns, which is after the change has been persisted as
+ * {@code persistence.mode} defines: saved to its data file ({@code files}) or appended to
+ * the journal ({@code journal}). If that fails the future fails with
+ * {@link java.io.UncheckedIOException}. When the pool's queue is full the returned future
+ * fails with {@link RejectedExecutionException}; when a write outlives the timeout it
+ * fails with {@link TimeoutException}, although the write itself may still complete
+ * afterwards.
+ */
+public class AsyncHotelService implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(AsyncHotelService.class.getName());
+
+    private final HotelManagementService service;
+    private final ThreadPoolExecutor writeExecutor;
+    private final Duration timeout;
+
+    public AsyncHotelService(HotelManagementService service) {
+        this(service, ConfigManager.getAsyncWriteThreads(), ConfigManager.getAsyncQueueCapacity(),
+                Duration.ofMillis(ConfigManager.getAsyncTimeoutMillis()));
+    }
+
+    public AsyncHotelService(HotelManagementService service, int writeThreads, int queueCapacity, Duration timeout) {
+        this.service = Objects.requireNonNull(service, "service");
+        this.timeout = Objects.requireNonNull(timeout, "timeout");
+        if (writeThreads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("writeThreads and queueCapacity must be > 0");
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.writeExecutor = new ThreadPoolExecutor(writeThreads, writeThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "hotel-async-write-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        logger.info("AsyncHotelService started with " + writeThreads + " write threads, queue " + queueCapacity);
+    }
+
+    // ==================== READS ====================
+
+    public CompletableFuture<Optional<Room>> getRoomById(String roomId) {
+        return read(() -> service.getRoomById(roomId));
+    }
+
+    public CompletableFuture<List<Room>> listRooms() {
+        return read(service::listRooms);
+    }
+
+    public CompletableFuture<Optional<Guest>> getGuestById(String guestId) {
+        return read(() -> service.getGuestById(guestId));
+    }
+
+    public CompletableFuture<Boolean> isRoomAvailable(String roomId, LocalDate startDate, LocalDate endDate) {
+        return read(() -> service.isRoomAvailable(roomId, startDate, endDate));
+    }
+
+    public CompletableFuture<List<Room>> getAvailableRooms(LocalDate startDate, LocalDate endDate) {
+        return read(() -> service.getAvailableRooms(startDate, endDate));
+    }
+
+    public CompletableFuture<Optional<Reservation>> getReservationById(String reservationId) {
+        return read(() -> service.getReservationById(reservationId));
+    }
+
+    public CompletableFuture<List<Reservation>> listReservationsForRoom(String roomId) {
+        return read(() -> service.listReservationsForRoom(roomId));
+    }
+
+    public CompletableFuture<List<Reservation>> listReservationsForGuest(String guestId) {
+        return read(() -> service.listReservationsForGuest(guestId));
+    }
+
+    public CompletableFuture<List<Payment>> listPaymentsForReservation(String reservationId) {
+        return read(() -> service.listPaymentsForReservation(reservationId));
+    }
+
+    public CompletableFuture<Map<String, Object>> generateOccupancyReport(LocalDate startDate, LocalDate endDate) {
+        return read(() -> service.generateOccupancyReport(startDate, endDate));
+    }
+
+    // ==================== WRITES ====================
+
+    public CompletableFuture<Room> addRoom(Room room) {
+        return write(() -> service.addRoom(room));
+    }
+
+    public CompletableFuture<Boolean> removeRoom(String roomId) {
+        return write(() -> service.removeRoom(roomId));
+    }
+
+    public CompletableFuture<Guest> addGuest(Guest guest) {
+        return write(() -> service.addGuest(guest));
+    }
+
+    public CompletableFuture<Guest> updateGuest(Guest guest) {
+        return write(() -> service.updateGuest(guest));
+    }
+
+    public CompletableFuture<Reservation> createReservation(String reservationId, String roomId, String guestId,
+                                                            LocalDate startDate, LocalDate endDate, int partySize) {
+        return write(() -> service.createReservation(reservationId, roomId, guestId, startDate, endDate, partySize));
+    }
+
+    /**
+     * Like {@link HotelManagementService#createReservation(String, String, String, LocalDate, LocalDate, int, String)}:
+     * resubmitting after a timeout with the same {@code idempotencyKey} cannot book twice.
+     */
+    public CompletableFuture<Reservation> createReservation(String reservationId, String roomId, String guestId,
+                                                            LocalDate startDate, LocalDate endDate, int partySize,
+                                                            String idempotencyKey) {
+        return write(() -> service.createReservation(reservationId, roomId, guestId, startDate, endDate, partySize,
+                idempotencyKey));
+    }
+
+    public CompletableFuture<Optional<Reservation>> cancelReservation(String reservationId) {
+        return write(() -> service.cancelReservation(reservationId));
+    }
+
+    public CompletableFuture<Payment> addPayment(Payment payment) {
+        return write(() -> service.addPayment(payment));
+    }
+
+    /**
+     * Like {@link HotelManagementService#addPayment(Payment, String)}: resubmitting after a
+     * timeout with the same {@code idempotencyKey} cannot charge twice.
+     */
+    public CompletableFuture<Payment> addPayment(Payment payment, String idempotencyKey) {
+        return write(() -> service.addPayment(payment, idempotencyKey));
+    }
+
+    /**
+     * Writes accepted but not yet started.
+     */
+    public int getQueuedWrites() {
+        return writeExecutor.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        writeExecutor.shutdown();
+        try {
+            if (!writeExecutor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warning("Pending writes did not finish within " + timeout + "; shutting down");
+                writeExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writeExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private static <T> CompletableFuture<T> read(Supplier<T> operation) {
+        try {
+            return CompletableFuture.completedFuture(operation.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> CompletableFuture<T> write(Supplier<T> operation) {
+        try {
+            return CompletableFuture.supplyAsync(operation, writeExecutor)
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
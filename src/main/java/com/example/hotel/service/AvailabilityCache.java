@@ -0,0 +1,210 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.Room;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of available-room search results with single-flight loading:
+ * concurrent identical queries share one computation.
+ *
+ * <p>Invalidation is by room and date range. A change to room R over [start, end)
+ * drops cached and in-flight queries whose range overlaps it and whose capacity
+ * filter R passes; a computation that was in flight when its key was invalidated
+ * still answers its waiters but is not cached.
+ *
+ * <p>Cached keys are indexed by the weeks their range covers and by their capacity
+ * filter, so an invalidation only looks at the keys it could affect rather than every
+ * cached search. Ranges longer than {@value #MAX_INDEXED_WEEKS} weeks are kept aside and
+ * checked on every date change.
+ */
+class AvailabilityCache {
+
+    record Key(LocalDate startDate, LocalDate endDate, int minCapacity) {
+        boolean affectedBy(Room room, LocalDate start, LocalDate end) {
+            return room.getCapacity() >= minCapacity
+                    && (start == null || (startDate.isBefore(end) && start.isBefore(endDate)));
+        }
+    }
+
+    /**
+     * Point-in-time counters for monitoring.
+     */
+    record Stats(long hits, long misses, long coalesced, long invalidations, int size) {
+        double hitRate() {
+            long total = hits + misses + coalesced;
+            return total == 0 ? 0.0 : (double) (hits + coalesced) / total;
+        }
+    }
+
+    private static final int DAYS_PER_WEEK = 7;
+    private static final int MAX_INDEXED_WEEKS = 64;
+
+    private final Object lock = new Object();
+    private final Map<Key, List<Room>> entries;
+    // Both guarded by lock, kept in step with entries
+    private final Map<Long, Set<Key>> byWeek = new HashMap<>();
+    private final Set<Key> longRanges = new HashSet<>();
+    private final TreeMap<Integer, Set<Key>> byMinCapacity = new TreeMap<>();
+    private final Map<Key, CompletableFuture<List<Room>>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    AvailabilityCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<Room>> eldest) {
+                if (size() <= maxEntries) {
+                    return false;
+                }
+                unindex(eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    List<Room> get(Key key, Supplier<List<Room>> loader) {
+        synchronized (lock) {
+            List<Room> cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+
+        CompletableFuture<List<Room>> mine = new CompletableFuture<>();
+        CompletableFuture<List<Room>> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        misses.increment();
+        List<Room> result;
+        try {
+            result = List.copyOf(loader.get());
+        } catch (RuntimeException e) {
+            inFlight.remove(key, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+        synchronized (lock) {
+            // Still registered means no overlapping change happened while computing
+            if (inFlight.remove(key, mine)) {
+                if (!entries.containsKey(key)) {
+                    index(key);
+                }
+                entries.put(key, result);
+            }
+        }
+        mine.complete(result);
+        return result;
+    }
+
+    /**
+     * Drop results that a booking change to {@code room} over [start, end) could alter.
+     */
+    void invalidate(Room room, LocalDate start, LocalDate end) {
+        Predicate<Key> affected = key -> key.affectedBy(room, start, end);
+        synchronized (lock) {
+            Set<Key> candidates = new HashSet<>(longRanges);
+            for (long week = week(start), last = week(end.minusDays(1)); week <= last; week++) {
+                Set<Key> keys = byWeek.get(week);
+                if (keys != null) {
+                    candidates.addAll(keys);
+                }
+            }
+            candidates.removeIf(affected.negate());
+            remove(candidates);
+            inFlight.keySet().removeIf(affected);
+        }
+    }
+
+    /**
+     * Drop every result {@code room} could appear in (room added or removed).
+     */
+    void invalidate(Room room) {
+        synchronized (lock) {
+            List<Key> candidates = new ArrayList<>();
+            byMinCapacity.headMap(room.getCapacity(), true).values().forEach(candidates::addAll);
+            remove(candidates);
+            inFlight.keySet().removeIf(key -> key.affectedBy(room, null, null));
+        }
+    }
+
+    void clear() {
+        synchronized (lock) {
+            invalidations.add(entries.size());
+            entries.clear();
+            byWeek.clear();
+            longRanges.clear();
+            byMinCapacity.clear();
+            inFlight.clear();
+        }
+    }
+
+    Stats stats() {
+        synchronized (lock) {
+            return new Stats(hits.sum(), misses.sum(), coalesced.sum(), invalidations.sum(), entries.size());
+        }
+    }
+
+    private void remove(Iterable<Key> keys) {
+        for (Key key : keys) {
+            entries.remove(key);
+            unindex(key);
+            invalidations.increment();
+        }
+    }
+
+    private void index(Key key) {
+        byMinCapacity.computeIfAbsent(key.minCapacity(), capacity -> new HashSet<>()).add(key);
+        long first = week(key.startDate());
+        long last = week(key.endDate().minusDays(1));
+        if (last - first >= MAX_INDEXED_WEEKS) {
+            longRanges.add(key);
+            return;
+        }
+        for (long week = first; week <= last; week++) {
+            byWeek.computeIfAbsent(week, w -> new HashSet<>()).add(key);
+        }
+    }
+
+    private void unindex(Key key) {
+        byMinCapacity.computeIfPresent(key.minCapacity(), (capacity, keys) -> keys.remove(key) && keys.isEmpty() ? null : keys);
+        long first = week(key.startDate());
+        long last = week(key.endDate().minusDays(1));
+        if (last - first >= MAX_INDEXED_WEEKS) {
+            longRanges.remove(key);
+            return;
+        }
+        for (long week = first; week <= last; week++) {
+            byWeek.computeIfPresent(week, (w, keys) -> keys.remove(key) && keys.isEmpty() ? null : keys);
+        }
+    }
+
+    private static long week(LocalDate date) {
+        return Math.floorDiv(date.toEpochDay(), DAYS_PER_WEEK);
+    }
+}
@@ -0,0 +1,285 @@
+package com.example.hotel.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Push feed of committed changes as {@link JournalEntry} batches, in sequence order.
+ *
+ * <p>Recent entries are kept in one shared ring buffer; each subscriber only holds a
+ * cursor into it, so memory stays bounded however many subscribers there are and a
+ * slow subscriber never blocks writers. A subscriber that falls further behind than the
+ * ring holds, or that resumes from an older sequence, is served from the journal file
+ * a batch at a time until it catches up with the ring.
+ *
+ * <p>Demand is counted in batches: each {@code onNext} carries up to {@code maxBatch}
+ * consecutive entries, so a subscriber that keeps up receives single entries and one
+ * that lags receives larger batches.
+ */
+public class ChangeFeed implements Flow.Publisher<List<JournalEntry>> {
+    private static final Logger logger = Logger.getLogger(ChangeFeed.class.getName());
+
+    // Journal to replay from when a subscriber is behind the ring; null if there is none
+    private final Path journalPath;
+    private final JournalEntry[] ring;
+    private final int maxBatch;
+    private final Executor executor;
+    private final Set<FeedSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    // Guarded by this; the ring holds sequences [oldestSeq, lastSeq]
+    private long lastSeq;
+    private long oldestSeq;
+
+    ChangeFeed(Path journalPath, long lastSeq, int capacity, int maxBatch) {
+        this(journalPath, lastSeq, capacity, maxBatch,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("change-feed-", 0).factory()));
+    }
+
+    ChangeFeed(Path journalPath, long lastSeq, int capacity, int maxBatch, Executor executor) {
+        if (capacity <= 0 || maxBatch <= 0) {
+            throw new IllegalArgumentException("capacity and maxBatch must be > 0");
+        }
+        this.journalPath = journalPath;
+        this.ring = new JournalEntry[capacity];
+        this.maxBatch = maxBatch;
+        this.executor = Objects.requireNonNull(executor, "executor");
+        this.lastSeq = lastSeq;
+        this.oldestSeq = lastSeq + 1;
+    }
+
+    /**
+     * Subscribe to changes committed from now on.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<JournalEntry>> subscriber) {
+        subscribe(subscriber, getLastSequence());
+    }
+
+    /**
+     * Subscribe to every change after {@code afterSeq}, e.g. the last sequence a
+     * consumer processed before it restarted. Use 0 to replay the whole journal. If the
+     * journal has been compacted past {@code afterSeq}, the subscriber gets
+     * {@code onError} rather than a silent gap.
+     */
+    public void subscribe(Flow.Subscriber<? super List<JournalEntry>> subscriber, long afterSeq) {
+        Objects.requireNonNull(subscriber, "Subscriber cannot be null");
+        if (afterSeq < 0) {
+            throw new IllegalArgumentException("Sequence cannot be negative");
+        }
+        FeedSubscription subscription = new FeedSubscription(subscriber, afterSeq);
+        subscriptions.add(subscription);
+        try {
+            subscriber.onSubscribe(subscription);
+        } catch (RuntimeException e) {
+            logger.warning("Change feed subscriber failed in onSubscribe: " + e.getMessage());
+            subscription.cancel();
+        }
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSeq;
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Called in sequence order as entries are committed. Entries at or below the last
+     * published sequence (replays) are ignored.
+     */
+    void publish(JournalEntry entry) {
+        synchronized (this) {
+            if (entry.seq() <= lastSeq) {
+                return;
+            }
+            if (entry.seq() != lastSeq + 1) {
+                // A gap; the ring must stay contiguous, so start it again here
+                oldestSeq = entry.seq();
+            }
+            ring[(int) (entry.seq() % ring.length)] = entry;
+            lastSeq = entry.seq();
+            oldestSeq = Math.max(oldestSeq, lastSeq - ring.length + 1);
+        }
+        for (FeedSubscription subscription : subscriptions) {
+            subscription.signal();
+        }
+    }
+
+    private final class FeedSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super List<JournalEntry>> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pendingSignals = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // Only touched by the drain loop, which never runs on two threads at once
+        private long cursor;
+        private MutationJournal.Tailer replay;
+        private List<JournalEntry> replayed = List.of();
+        private int replayIndex;
+
+        FeedSubscription(Flow.Subscriber<? super List<JournalEntry>> subscriber, long afterSeq) {
+            this.subscriber = subscriber;
+            this.cursor = afterSeq;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Request must be positive: " + n);
+            } else {
+                demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            signal();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            signal();
+        }
+
+        void signal() {
+            if (pendingSignals.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                try {
+                    deliver();
+                } catch (Throwable e) {
+                    fail(e);
+                }
+                if (cancelled) {
+                    closeReplay();
+                }
+                missed = pendingSignals.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void deliver() throws IOException {
+            while (!cancelled) {
+                if (invalidRequest != null) {
+                    fail(invalidRequest);
+                    return;
+                }
+                if (demand.get() == 0) {
+                    return;
+                }
+                List<JournalEntry> batch = nextBatch();
+                if (batch.isEmpty()) {
+                    return;
+                }
+                if (demand.get() != Long.MAX_VALUE) {
+                    demand.decrementAndGet();
+                }
+                try {
+                    subscriber.onNext(Collections.unmodifiableList(batch));
+                } catch (RuntimeException e) {
+                    logger.warning("Change feed subscriber failed in onNext, cancelling: " + e.getMessage());
+                    cancel();
+                }
+            }
+        }
+
+        private List<JournalEntry> nextBatch() throws IOException {
+            long limit;
+            synchronized (ChangeFeed.this) {
+                limit = lastSeq;
+                if (cursor >= limit) {
+                    return List.of();
+                }
+                if (cursor + 1 >= oldestSeq) {
+                    int count = (int) Math.min(maxBatch, limit - cursor);
+                    List<JournalEntry> batch = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        batch.add(ring[(int) ((cursor + 1 + i) % ring.length)]);
+                    }
+                    cursor += count;
+                    closeReplay();
+                    return batch;
+                }
+            }
+            return replayBatch(limit);
+        }
+
+        /**
+         * Read the next batch from the journal file, never past what has been published.
+         */
+        private List<JournalEntry> replayBatch(long limit) throws IOException {
+            if (journalPath == null) {
+                throw new IllegalStateException("Subscriber fell more than " + ring.length
+                        + " entries behind the change feed");
+            }
+            if (replay == null) {
+                replay = MutationJournal.Tailer.after(journalPath, cursor);
+            }
+            List<JournalEntry> batch = new ArrayList<>();
+            while (batch.size() < maxBatch && cursor < limit) {
+                if (replayIndex == replayed.size()) {
+                    replayed = replay.poll();
+                    replayIndex = 0;
+                    if (replayed.isEmpty()) {
+                        break;
+                    }
+                }
+                JournalEntry entry = replayed.get(replayIndex++);
+                if (entry.seq() > cursor + 1) {
+                    throw new IllegalStateException("Journal entries " + (cursor + 1) + " to " + (entry.seq() - 1)
+                            + " have been compacted");
+                }
+                if (entry.seq() > cursor) {
+                    batch.add(entry);
+                    cursor = entry.seq();
+                }
+            }
+            if (batch.isEmpty()) {
+                throw new IllegalStateException("Journal ends before sequence " + (cursor + 1));
+            }
+            return batch;
+        }
+
+        private void fail(Throwable error) {
+            if (cancelled) {
+                return;
+            }
+            cancel();
+            try {
+                subscriber.onError(error);
+            } catch (RuntimeException e) {
+                logger.warning("Change feed subscriber failed in onError: " + e.getMessage());
+            }
+        }
+
+        private void closeReplay() {
+            if (replay == null) {
+                return;
+            }
+            try {
+                replay.close();
+            } catch (IOException e) {
+                logger.warning("Could not close journal replay: " + e.getMessage());
+            }
+            replay = null;
+            replayed = List.of();
+            replayIndex = 0;
+        }
+    }
+}
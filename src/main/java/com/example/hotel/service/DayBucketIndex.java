@@ -0,0 +1,96 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.Reservation;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reservation IDs bucketed by epoch day of arrival and of departure, so the front
+ * desk lists for one day cost O(bookings that day) instead of a scan.
+ *
+ * <p>In-house guests on day D arrived in (D - longest stay, D] and leave after D, so
+ * that query only visits the arrival buckets inside the longest-stay window. The
+ * longest stay only ever grows; cancelling a long stay just leaves the window wide.
+ */
+final class DayBucketIndex {
+    private final Map<Long, Set<String>> arrivals = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> departures = new ConcurrentHashMap<>();
+    private final AtomicLong longestStay = new AtomicLong(1);
+
+    void add(Reservation reservation) {
+        long start = reservation.getStartDate().toEpochDay();
+        long end = reservation.getEndDate().toEpochDay();
+        addTo(arrivals, start, reservation.getId());
+        addTo(departures, end, reservation.getId());
+        longestStay.accumulateAndGet(end - start, Math::max);
+    }
+
+    void remove(Reservation reservation) {
+        removeFrom(arrivals, reservation.getStartDate().toEpochDay(), reservation.getId());
+        removeFrom(departures, reservation.getEndDate().toEpochDay(), reservation.getId());
+    }
+
+    void clear() {
+        arrivals.clear();
+        departures.clear();
+        longestStay.set(1);
+    }
+
+    /** Nights in the longest stay seen since the last clear. */
+    long longestStay() {
+        return longestStay.get();
+    }
+
+    Set<String> arrivalsOn(LocalDate date) {
+        return copyOf(arrivals.get(date.toEpochDay()));
+    }
+
+    Set<String> departuresOn(LocalDate date) {
+        return copyOf(departures.get(date.toEpochDay()));
+    }
+
+    /**
+     * IDs of stays that arrived in the longest-stay window ending on {@code date}.
+     * Callers still check the departure date, since some of them have already left.
+     */
+    List<String> arrivalsWithinStayOf(LocalDate date) {
+        long day = date.toEpochDay();
+        List<String> ids = new ArrayList<>();
+        for (long d = day - longestStay.get() + 1; d <= day; d++) {
+            Set<String> bucket = arrivals.get(d);
+            if (bucket != null) {
+                ids.addAll(bucket);
+            }
+        }
+        return ids;
+    }
+
+    // Both sides mutate inside compute so an add never lands in a bucket that was just dropped
+
+    private static void addTo(Map<Long, Set<String>> buckets, long day, String id) {
+        buckets.compute(day, (k, bucket) -> {
+            Set<String> ids = bucket != null ? bucket : ConcurrentHashMap.newKeySet();
+            ids.add(id);
+            return ids;
+        });
+    }
+
+    private static void removeFrom(Map<Long, Set<String>> buckets, long day, String id) {
+        // Drop the bucket once empty so the map does not keep every past day
+        buckets.computeIfPresent(day, (k, bucket) -> {
+            bucket.remove(id);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+
+    private static Set<String> copyOf(Set<String> bucket) {
+        return bucket == null ? Collections.emptySet() : Set.copyOf(bucket);
+    }
+}
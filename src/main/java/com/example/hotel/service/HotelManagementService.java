@@ -5,18 +5,32 @@ import com.example.hotel.model.Payment;
 import com.example.hotel.model.Reservation;
 import com.example.hotel.model.Room;
 import com.example.hotel.util.ConfigManager;
+import com.example.hotel.util.IdGenerator;
 import com.example.hotel.util.JsonFileManager;
 import com.example.hotel.util.ValidationUtils;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 /**
  * Enhanced Hotel Management Service with full CRUD operations, JSON persistence,
@@ -24,6 +38,11 @@ import java.util.stream.Collectors;
  */
 public class HotelManagementService {
     private static final Logger logger = Logger.getLogger(HotelManagementService.class.getName());
+    static final String RESERVATION_ID_PREFIX = "RES-";
+    static final String PAYMENT_ID_PREFIX = "PAY-";
+    // One per process, shared by every service instance (shards included) so generated IDs never collide
+    private static final IdGenerator IDS = new IdGenerator(nodeId());
+    public static final int MAX_PAGE_SIZE = 1000;
     
     // Thread-safe collections
     private final Map<String, Room> rooms = new ConcurrentHashMap<>();
@@ -34,6 +53,39 @@ public class HotelManagementService {
     // Index for faster lookups
     private final Map<String, Set<String>> reservationsByRoom = new ConcurrentHashMap<>();
     private final Map<String, Set<String>> reservationsByGuest = new ConcurrentHashMap<>();
+    // All reservations in (start date, ID) order for range scans and cursor pagination
+    private final ConcurrentSkipListMap<ReservationOrder, Reservation> reservationsByDate = new ConcurrentSkipListMap<>();
+    // Arrival and departure buckets by epoch day for the front-desk lists
+    private final DayBucketIndex reservationsByDay = new DayBucketIndex();
+    // Each room's stays in start-date order, so an availability check only visits stays that could overlap
+    private final Map<String, NavigableMap<ReservationOrder, Reservation>> staysByRoom = new ConcurrentHashMap<>();
+    // Lower-cased email to the number of guests using it, for the duplicate check in addGuest
+    private final Map<String, Integer> guestEmails = new ConcurrentHashMap<>();
+    // Booked room-nights per day; changes together with the snapshot under its own lock
+    private final OccupancyCounter occupancy = new OccupancyCounter();
+    // Running totals behind the top-K queries; bookings move with the occupancy counter
+    private final Leaderboard nightsByGuest = new Leaderboard();
+    private final Leaderboard bookingsByRoom = new Leaderboard();
+    private final Leaderboard revenueByGuest = new Leaderboard();
+    private final Map<String, Long> revenueByReservation = new ConcurrentHashMap<>();
+    
+    // Completed stays moved out of the maps above; they still count in the occupancy counter and leaderboards
+    private final ReservationArchive archive;
+    // Stays ending on or before this date are archived, so none may start before it; null until the first run
+    private volatile LocalDate archivedBefore;
+    
+    // Whether the running totals above came from the index checkpoint at startup
+    private volatile boolean indexesFromCheckpoint;
+    
+    // Results of recent keyed writes, so a retried request gets its original result
+    private final IdempotencyCache idempotency = new IdempotencyCache(
+            Duration.ofMinutes(ConfigManager.getIdempotencyTtlMinutes()), ConfigManager.getIdempotencyMaxKeys());
+    
+    // Immutable copy of the maps above for readers that need one consistent point in time
+    private final AtomicReference<HotelSnapshot> snapshot = new AtomicReference<>(HotelSnapshot.empty());
+    
+    // Search results for repeated date-range queries, invalidated by room and date range
+    private final AvailabilityCache availabilityCache = new AvailabilityCache(ConfigManager.getAvailabilityCacheSize());
     
     // File paths
     private final String dataDir;
@@ -42,28 +94,95 @@ public class HotelManagementService {
     private final String reservationsFile;
     private final String paymentsFile;
     
+    // One lock per file so a save snapshots and writes atomically; the last save always wins with current state
+    private final Object roomsFileLock = new Object();
+    private final Object guestsFileLock = new Object();
+    private final Object reservationsFileLock = new Object();
+    private final Object paymentsFileLock = new Object();
+    
+    // Mutation log tailed by followers; null on a read-only replica
+    private final MutationJournal journal;
+    private final boolean readOnly;
+    // persistence.mode "journal": a write counts as persisted once journaled, not once its file is saved
+    private final boolean journalDurable;
+    // Per data file, the journal sequence its last save is known to include
+    private final AtomicLongArray savedThrough = new AtomicLongArray(DataFile.values().length);
+    
+    // Pushes each committed (or, on a replica, applied) journal entry to subscribers
+    private final ChangeFeed changeFeed;
+    
+    // Set while the current thread is inside runBatch
+    private final ThreadLocal<Batch> batch = new ThreadLocal<>();
+    
     public HotelManagementService() {
-        this.dataDir = ConfigManager.getDataDirectory();
+        this(ConfigManager.getDataDirectory());
+    }
+
+    /**
+     * Create a service backed by an explicit data directory (benchmarks, tests, tools).
+     */
+    public HotelManagementService(String dataDir) {
+        this(dataDir, false);
+    }
+    
+    /**
+     * A read-only service loads the data files but never writes them; it is kept
+     * current by {@link #applyJournalEntry(JournalEntry)} (see {@link ReplicaFollower}).
+     */
+    HotelManagementService(String dataDir, boolean readOnly) {
+        this(dataDir, readOnly, ConfigManager.getPersistenceMode());
+    }
+    
+    /**
+     * With {@code persistenceMode} {@code files} a write fails if its data file cannot be
+     * saved; with {@code journal} it fails if it cannot be journaled, and a failed save is
+     * logged and made good from the journal on the next start.
+     */
+    HotelManagementService(String dataDir, boolean readOnly, String persistenceMode) {
+        this.dataDir = dataDir;
         this.roomsFile = dataDir + "/rooms.json";
         this.guestsFile = dataDir + "/guests.json";
         this.reservationsFile = dataDir + "/reservations.json";
         this.paymentsFile = dataDir + "/payments.json";
+        this.readOnly = readOnly;
+        this.journalDurable = switch (persistenceMode) {
+            case "files" -> false;
+            case "journal" -> true;
+            default -> throw new IllegalArgumentException("Unknown persistence mode: " + persistenceMode);
+        };
+        this.journal = readOnly ? null : openJournal(dataDir);
+        // A replica replays from the primary's journal in the same directory
+        this.changeFeed = new ChangeFeed(readOnly || journal != null ? MutationJournal.pathFor(dataDir) : null,
+                journal != null ? journal.getLastSequence() : 0,
+                ConfigManager.getChangeFeedBufferSize(), ConfigManager.getChangeFeedMaxBatch());
+        if (journal != null) {
+            journal.setListener(changeFeed::publish);
+        }
+        this.archive = new ReservationArchive(dataDir, ConfigManager.getArchiveCachedSegments());
         
         loadAllData();
-        logger.info("HotelManagementService initialized with data directory: " + dataDir);
+        if (journal != null) {
+            recoverUnsavedWrites();
+        }
+        restoreIdempotencyKeys();
+        logger.info("HotelManagementService initialized with data directory: " + dataDir
+                + (readOnly ? " (read-only replica)" : ""));
     }
     
     // ==================== ROOM OPERATIONS ====================
     
     public Room addRoom(Room room) {
         Objects.requireNonNull(room, "Room cannot be null");
+        ensureWritable();
         
-        if (rooms.containsKey(room.getId())) {
+        if (rooms.putIfAbsent(room.getId(), room) != null) {
             throw new IllegalArgumentException("Room with ID " + room.getId() + " already exists");
         }
         
-        rooms.put(room.getId(), room);
         reservationsByRoom.putIfAbsent(room.getId(), Collections.synchronizedSet(new LinkedHashSet<>()));
+        availabilityCache.invalidate(room);
+        journal(JournalEntry.Type.ROOM_ADDED, room.getId(), room);
+        publishRoom(room.getId());
         
         saveRooms();
         logger.info("Added room: " + room);
@@ -88,19 +207,31 @@ public class HotelManagementService {
     }
     
     public boolean removeRoom(String roomId) {
-        // Check if room has active reservations
+        ensureWritable();
         Set<String> roomReservations = reservationsByRoom.getOrDefault(roomId, Collections.emptySet());
-        boolean hasActiveReservations = roomReservations.stream()
-                .map(reservations::get)
-                .anyMatch(res -> res.getEndDate().isAfter(LocalDate.now()));
-        
-        if (hasActiveReservations) {
-            throw new IllegalStateException("Cannot remove room with active reservations");
+        Room removed;
+        // Same lock as createReservation, so no booking can slip in between the check and the removal
+        synchronized (roomReservations) {
+            boolean hasActiveReservations = roomReservations.stream()
+                    .map(reservations::get)
+                    .filter(Objects::nonNull)
+                    .anyMatch(res -> res.getEndDate().isAfter(LocalDate.now()));
+            
+            if (hasActiveReservations) {
+                throw new IllegalStateException("Cannot remove room with active reservations");
+            }
+            
+            removed = rooms.remove(roomId);
+            if (removed != null) {
+                reservationsByRoom.remove(roomId, roomReservations);
+                staysByRoom.remove(roomId);
+                journal(JournalEntry.Type.ROOM_REMOVED, roomId, null);
+                publishRoom(roomId);
+            }
         }
         
-        Room removed = rooms.remove(roomId);
         if (removed != null) {
-            reservationsByRoom.remove(roomId);
+            availabilityCache.invalidate(removed);
             saveRooms();
             logger.info("Removed room: " + removed);
             return true;
@@ -112,6 +243,7 @@ public class HotelManagementService {
     
     public Guest addGuest(Guest guest) {
         Objects.requireNonNull(guest, "Guest cannot be null");
+        ensureWritable();
         
         // Validate guest data
         ValidationUtils.ValidationResult validation = ValidationUtils.validateGuest(
@@ -127,15 +259,17 @@ public class HotelManagementService {
         }
         
         // Check for duplicate email
-        boolean emailExists = guests.values().stream()
-                .anyMatch(g -> g.getEmail().equalsIgnoreCase(guest.getEmail()));
-        
-        if (emailExists) {
+        if (guestEmails.containsKey(emailKey(guest.getEmail()))) {
             throw new IllegalArgumentException("Guest with email " + guest.getEmail() + " already exists");
         }
         
-        guests.put(guest.getGuestId(), guest);
+        if (guests.putIfAbsent(guest.getGuestId(), guest) != null) {
+            throw new IllegalArgumentException("Guest with ID " + guest.getGuestId() + " already exists");
+        }
+        indexEmail(guest, 1);
         reservationsByGuest.putIfAbsent(guest.getGuestId(), Collections.synchronizedSet(new LinkedHashSet<>()));
+        journal(JournalEntry.Type.GUEST_ADDED, guest.getGuestId(), guest);
+        publishGuest(guest.getGuestId());
         
         saveGuests();
         logger.info("Added guest: " + guest);
@@ -168,14 +302,42 @@ public class HotelManagementService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Register a guest profile that is managed elsewhere (e.g. a chain-wide guest directory).
+     * Unlike {@link #addGuest(Guest)} an existing profile with the same ID is not an error.
+     *
+     * @return true if the guest was added
+     */
+    public boolean addGuestIfAbsent(Guest guest) {
+        Objects.requireNonNull(guest, "Guest cannot be null");
+        ensureWritable();
+        if (guests.putIfAbsent(guest.getGuestId(), guest) != null) {
+            return false;
+        }
+        indexEmail(guest, 1);
+        reservationsByGuest.putIfAbsent(guest.getGuestId(), Collections.synchronizedSet(new LinkedHashSet<>()));
+        journal(JournalEntry.Type.GUEST_ADDED, guest.getGuestId(), guest);
+        publishGuest(guest.getGuestId());
+        saveGuests();
+        logger.info("Registered guest: " + guest);
+        return true;
+    }
+    
     public Guest updateGuest(Guest updatedGuest) {
         Objects.requireNonNull(updatedGuest, "Guest cannot be null");
+        ensureWritable();
         
-        if (!guests.containsKey(updatedGuest.getGuestId())) {
+        // Journal inside compute so concurrent updates of one guest are logged in the order applied
+        Guest replaced = guests.computeIfPresent(updatedGuest.getGuestId(), (id, current) -> {
+            indexEmail(current, -1);
+            indexEmail(updatedGuest, 1);
+            journal(JournalEntry.Type.GUEST_UPDATED, id, updatedGuest);
+            return updatedGuest;
+        });
+        if (replaced == null) {
             throw new IllegalArgumentException("Guest with ID " + updatedGuest.getGuestId() + " not found");
         }
-        
-        guests.put(updatedGuest.getGuestId(), updatedGuest);
+        publishGuest(updatedGuest.getGuestId());
         saveGuests();
         logger.info("Updated guest: " + updatedGuest);
         return updatedGuest;
@@ -183,8 +345,59 @@ public class HotelManagementService {
     
     // ==================== RESERVATION OPERATIONS ====================
     
+    /**
+     * Create a reservation with a generated, time-ordered ID ({@code RES-} plus 13
+     * base32 characters), so callers need not pick one and no ID clash is possible.
+     */
+    public Reservation createReservation(String roomId, String guestId,
+                                         LocalDate startDate, LocalDate endDate, int partySize) {
+        return createReservation(null, roomId, guestId, startDate, endDate, partySize, null);
+    }
+    
     public Reservation createReservation(String reservationId, String roomId, String guestId,
                                          LocalDate startDate, LocalDate endDate, int partySize) {
+        return createReservation(reservationId, roomId, guestId, startDate, endDate, partySize, null);
+    }
+    
+    /**
+     * Create a reservation that is safe to retry: a repeat with the same
+     * {@code idempotencyKey} within {@code idempotency.ttlMinutes} returns the original
+     * reservation, even if the retry carries a new reservation ID. A null key behaves
+     * like {@link #createReservation(String, String, String, LocalDate, LocalDate, int)};
+     * a null reservation ID is generated.
+     *
+     * @throws IllegalArgumentException if the key was used for a different room, guest, stay or party size
+     */
+    public Reservation createReservation(String reservationId, String roomId, String guestId,
+                                         LocalDate startDate, LocalDate endDate, int partySize, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return insertReservation(reservationId, roomId, guestId, startDate, endDate, partySize, null);
+        }
+        validateIdempotencyKey(idempotencyKey);
+        // Saved once the key is recorded, so a retry after a failed save replays instead of booking again
+        return runBatch(() -> idempotency.execute(idempotencyKey,
+                reservationFingerprint(roomId, guestId, startDate, endDate, partySize),
+                () -> insertReservation(reservationId, roomId, guestId, startDate, endDate, partySize, idempotencyKey)));
+    }
+    
+    static String nextReservationId() {
+        return IDS.nextId(RESERVATION_ID_PREFIX);
+    }
+    
+    private static int nodeId() {
+        int configured = ConfigManager.getIdNodeId();
+        if (configured >= 0) {
+            return configured;
+        }
+        int derived = IdGenerator.processNodeId();
+        logger.info("ids.nodeId is not set, using node ID " + derived + " from the process ID");
+        return derived;
+    }
+    
+    private Reservation insertReservation(String requestedId, String roomId, String guestId,
+                                          LocalDate startDate, LocalDate endDate, int partySize, String idempotencyKey) {
+        ensureWritable();
+        String reservationId = requestedId != null ? requestedId : nextReservationId();
         // Validate input
         if (!ValidationUtils.isValidId(reservationId)) {
             throw new IllegalArgumentException("Invalid reservation ID format");
@@ -192,6 +405,10 @@ public class HotelManagementService {
         if (!ValidationUtils.isValidDateRange(startDate, endDate)) {
             throw new IllegalArgumentException("Invalid date range");
         }
+        if (startDate.isBefore(OccupancyCounter.EARLIEST) || endDate.isAfter(OccupancyCounter.LATEST)) {
+            throw new IllegalArgumentException("Dates must fall between " + OccupancyCounter.EARLIEST
+                    + " and " + OccupancyCounter.LATEST);
+        }
         if (!ValidationUtils.isValidPartySize(partySize)) {
             throw new IllegalArgumentException("Invalid party size");
         }
@@ -213,30 +430,71 @@ public class HotelManagementService {
             throw new IllegalArgumentException("Party size " + partySize + " exceeds room capacity " + room.getCapacity());
         }
         
-        // Check availability
-        if (!isRoomAvailable(roomId, startDate, endDate)) {
-            throw new ReservationConflictException("Room not available for given date range");
-        }
+        LocalDateTime bookedAt = LocalDateTime.now().withNano(0);
+        Reservation reservation = new Reservation(reservationId, roomId, guestId, guest.getFullName(),
+                startDate, endDate, partySize, bookedAt);
         
-        // Check for existing reservation ID
-        if (reservations.containsKey(reservationId)) {
-            throw new IllegalArgumentException("Reservation with ID " + reservationId + " already exists");
+        // The room's index set doubles as its booking lock: availability check and insert are atomic per room
+        Set<String> roomReservations = reservationsByRoom.computeIfAbsent(roomId,
+                k -> Collections.synchronizedSet(new LinkedHashSet<>()));
+        synchronized (roomReservations) {
+            if (rooms.get(roomId) != room || reservationsByRoom.get(roomId) != roomReservations) {
+                throw new IllegalArgumentException("Room with ID " + roomId + " not found");
+            }
+            
+            // The availability check only sees live stays, so nothing may start among archived ones
+            LocalDate horizon = archivedBefore;
+            if (horizon != null && startDate.isBefore(horizon)) {
+                throw new IllegalArgumentException("Stays starting before " + horizon + " are archived and cannot be booked");
+            }
+            
+            // Check availability
+            if (!isRoomAvailable(roomId, startDate, endDate)) {
+                throw new ReservationConflictException("Room not available for given date range");
+            }
+            
+            // A taken generated ID means another process shares our node ID: draw another
+            while (!claimReservationId(reservation)) {
+                if (requestedId != null) {
+                    throw new IllegalArgumentException("Reservation with ID " + reservationId + " already exists");
+                }
+                logger.warning("Generated reservation ID " + reservationId + " is already taken; is ids.nodeId shared?");
+                reservationId = nextReservationId();
+                reservation = new Reservation(reservationId, roomId, guestId, guest.getFullName(),
+                        startDate, endDate, partySize, bookedAt);
+            }
+            roomReservations.add(reservationId);
+            reservationsByDate.put(ReservationOrder.of(reservation), reservation);
+            reservationsByDay.add(reservation);
+            indexStay(reservation);
+            reservationsByGuest.computeIfAbsent(guestId, k -> Collections.synchronizedSet(new LinkedHashSet<>()))
+                    .add(reservationId);
+            // Logged under the room lock so a cancel can never precede its create in the journal
+            journal(JournalEntry.Type.RESERVATION_CREATED, reservationId, reservation, idempotencyKey);
+            publishBooking(reservationId, null, reservation);
         }
-        
-        Reservation reservation = new Reservation(reservationId, roomId, guest.getFullName(), startDate, endDate, partySize);
-        reservations.put(reservationId, reservation);
-        
-        // Update indexes
-        reservationsByRoom.computeIfAbsent(roomId, k -> Collections.synchronizedSet(new LinkedHashSet<>()))
-                .add(reservationId);
-        reservationsByGuest.computeIfAbsent(guestId, k -> Collections.synchronizedSet(new LinkedHashSet<>()))
-                .add(reservationId);
+        availabilityCache.invalidate(room, startDate, endDate);
         
         saveReservations();
         logger.info("Created reservation: " + reservation);
         return reservation;
     }
     
+    /**
+     * Store {@code reservation} unless its ID is taken by a live or archived stay. Checked
+     * after the insert because an archive run adds a stay's ID before dropping the live copy.
+     */
+    private boolean claimReservationId(Reservation reservation) {
+        if (reservations.putIfAbsent(reservation.getId(), reservation) != null) {
+            return false;
+        }
+        if (archive.contains(reservation.getId())) {
+            reservations.remove(reservation.getId(), reservation);
+            return false;
+        }
+        return true;
+    }
+    
     public boolean isRoomAvailable(String roomId, LocalDate startDate, LocalDate endDate) {
         if (!ValidationUtils.isValidDateRange(startDate, endDate)) {
             return false;
@@ -244,18 +502,54 @@ public class HotelManagementService {
         
         Set<String> roomReservationIds = reservationsByRoom.getOrDefault(roomId, Collections.emptySet());
         
-        return roomReservationIds.stream()
-                .map(reservations::get)
-                .filter(Objects::nonNull)
-                .noneMatch(reservation -> datesOverlap(startDate, endDate, 
-                        reservation.getStartDate(), reservation.getEndDate()));
+        // Under the room's booking lock so a check inside createReservation sees every earlier booking
+        synchronized (roomReservationIds) {
+            NavigableMap<ReservationOrder, Reservation> stays = staysByRoom.get(roomId);
+            if (stays == null) {
+                return true;
+            }
+            // An overlapping stay arrives before endDate and no more than the longest stay before startDate
+            LocalDate earliest = startDate.minusDays(reservationsByDay.longestStay());
+            return stays.subMap(new ReservationOrder(earliest, ""), true, new ReservationOrder(endDate, ""), false)
+                    .values().stream()
+                    .noneMatch(reservation -> datesOverlap(startDate, endDate,
+                            reservation.getStartDate(), reservation.getEndDate()));
+        }
     }
     
     public List<Room> getAvailableRooms(LocalDate startDate, LocalDate endDate) {
-        return rooms.values().stream()
-                .filter(room -> isRoomAvailable(room.getId(), startDate, endDate))
-                .sorted(Comparator.comparing(Room::getNumber))
-                .collect(Collectors.toList());
+        return getAvailableRooms(startDate, endDate, 0);
+    }
+    
+    /**
+     * Rooms free for the whole range that fit at least {@code minCapacity} guests.
+     * Results are cached and concurrent identical queries share one scan.
+     */
+    public List<Room> getAvailableRooms(LocalDate startDate, LocalDate endDate, int minCapacity) {
+        if (!ValidationUtils.isValidDateRange(startDate, endDate)) {
+            return List.of();
+        }
+        return availabilityCache.get(new AvailabilityCache.Key(startDate, endDate, minCapacity),
+                () -> rooms.values().stream()
+                        .filter(room -> room.getCapacity() >= minCapacity)
+                        .filter(room -> isRoomAvailable(room.getId(), startDate, endDate))
+                        .sorted(Comparator.comparing(Room::getNumber))
+                        .collect(Collectors.toList()));
+    }
+    
+    /**
+     * Hit, miss and coalescing counters of the availability search cache.
+     */
+    public Map<String, Object> getAvailabilityCacheStats() {
+        AvailabilityCache.Stats stats = availabilityCache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hits", stats.hits());
+        result.put("misses", stats.misses());
+        result.put("coalesced", stats.coalesced());
+        result.put("invalidations", stats.invalidations());
+        result.put("entries", stats.size());
+        result.put("hitRate", String.format("%.2f%%", stats.hitRate() * 100));
+        return result;
     }
     
     public Optional<Reservation> getReservationById(String reservationId) {
@@ -263,61 +557,157 @@ public class HotelManagementService {
     }
     
     public List<Reservation> listReservationsForRoom(String roomId) {
-        Set<String> ids = reservationsByRoom.getOrDefault(roomId, Collections.emptySet());
-        return ids.stream()
-                .map(reservations::get)
-                .filter(Objects::nonNull)
-                .sorted(Comparator.comparing(Reservation::getStartDate))
-                .collect(Collectors.toUnmodifiableList());
+        return pageOf(copyOf(reservationsByRoom.get(roomId)), null, Integer.MAX_VALUE).items();
     }
     
     public List<Reservation> listReservationsForGuest(String guestId) {
-        Set<String> ids = reservationsByGuest.getOrDefault(guestId, Collections.emptySet());
-        return ids.stream()
-                .map(reservations::get)
-                .filter(Objects::nonNull)
-                .sorted(Comparator.comparing(Reservation::getStartDate))
-                .collect(Collectors.toUnmodifiableList());
+        return pageOf(copyOf(reservationsByGuest.get(guestId)), null, Integer.MAX_VALUE).items();
     }
     
     public List<Reservation> listAllReservations() {
-        return reservations.values().stream()
-                .sorted(Comparator.comparing(Reservation::getStartDate))
-                .collect(Collectors.toUnmodifiableList());
+        // Already in start-date order, no sort needed
+        return List.copyOf(reservationsByDate.values());
+    }
+    
+    /**
+     * Page through all reservations in (start date, ID) order, optionally limited to
+     * stays starting in [{@code from}, {@code to}). Archived stays are included, read
+     * from their monthly segments. Costs O(log n + limit) for live stays.
+     *
+     * @param from   earliest start date, or null for no lower bound
+     * @param to     exclusive upper bound on the start date, or null for none
+     * @param cursor {@link ReservationPage#nextCursor()} of the previous page, or null for the first page
+     * @param limit  page size, 1 to {@value #MAX_PAGE_SIZE}
+     */
+    public ReservationPage listReservations(LocalDate from, LocalDate to, String cursor, int limit) {
+        validatePageSize(limit);
+        Iterator<Reservation> range = reservationsInOrder(decodeCursor(cursor), from, to);
+        
+        List<Reservation> items = new ArrayList<>(Math.min(limit, 256));
+        while (range.hasNext()) {
+            Reservation reservation = range.next();
+            if (items.size() == limit) {
+                return new ReservationPage(Collections.unmodifiableList(items), encodeCursor(items.get(limit - 1)));
+            }
+            items.add(reservation);
+        }
+        return new ReservationPage(Collections.unmodifiableList(items), null);
+    }
+    
+    public ReservationPage listReservationsForRoom(String roomId, String cursor, int limit) {
+        validatePageSize(limit);
+        return pageOf(copyOf(reservationsByRoom.get(roomId)), decodeCursor(cursor), limit);
+    }
+    
+    public ReservationPage listReservationsForGuest(String guestId, String cursor, int limit) {
+        validatePageSize(limit);
+        return pageOf(copyOf(reservationsByGuest.get(guestId)), decodeCursor(cursor), limit);
     }
     
     public Optional<Reservation> cancelReservation(String reservationId) {
-        Reservation reservation = reservations.remove(reservationId);
-        if (reservation != null) {
-            // Update indexes
-            Set<String> roomReservations = reservationsByRoom.get(reservation.getRoomId());
-            if (roomReservations != null) {
+        ensureWritable();
+        Reservation existing = reservations.get(reservationId);
+        if (existing == null) {
+            return Optional.empty();
+        }
+        
+        Reservation reservation;
+        // Same per-room lock as createReservation so indexes never disagree with the reservations map
+        Set<String> roomReservations = reservationsByRoom.getOrDefault(existing.getRoomId(), Collections.emptySet());
+        synchronized (roomReservations) {
+            LocalDate horizon = archivedBefore;
+            if (horizon != null && !existing.getEndDate().isAfter(horizon)) {
+                throw new IllegalStateException("Reservation " + reservationId + " is a completed stay and has been archived");
+            }
+            reservation = reservations.remove(reservationId);
+            if (reservation != null) {
+                // Update indexes
                 roomReservations.remove(reservationId);
+                reservationsByDate.remove(ReservationOrder.of(reservation));
+                reservationsByDay.remove(reservation);
+                unindexStay(reservation);
+                removeFromGuestIndex(reservation);
+                journal(JournalEntry.Type.RESERVATION_CANCELLED, reservationId, reservation);
+                publishBooking(reservationId, reservation, null);
+            }
+        }
+        
+        if (reservation != null) {
+            Room room = rooms.get(reservation.getRoomId());
+            if (room != null) {
+                availabilityCache.invalidate(room, reservation.getStartDate(), reservation.getEndDate());
             }
-            
-            // Find guest by name and update index
-            guests.values().stream()
-                    .filter(guest -> guest.getFullName().equals(reservation.getGuestName()))
-                    .findFirst()
-                    .ifPresent(guest -> {
-                        Set<String> guestReservations = reservationsByGuest.get(guest.getGuestId());
-                        if (guestReservations != null) {
-                            guestReservations.remove(reservationId);
-                        }
-                    });
-            
             saveReservations();
             logger.info("Cancelled reservation: " + reservation);
         }
         return Optional.ofNullable(reservation);
     }
     
+    // ==================== FRONT DESK ====================
+    
+    /**
+     * Stays checking in on {@code date}, by room.
+     */
+    public List<Reservation> getArrivals(LocalDate date) {
+        return byRoom(reservationsByDay.arrivalsOn(date));
+    }
+    
+    /**
+     * Stays checking out on {@code date}, by room.
+     */
+    public List<Reservation> getDepartures(LocalDate date) {
+        return byRoom(reservationsByDay.departuresOn(date));
+    }
+    
+    /**
+     * Stays occupying a room on the night of {@code date}: arrived on or before it and
+     * departing after it. Guests departing that day are not counted.
+     */
+    public List<Reservation> getInHouse(LocalDate date) {
+        return byRoom(reservationsByDay.arrivalsWithinStayOf(date)).stream()
+                .filter(res -> res.getEndDate().isAfter(date))
+                .collect(Collectors.toUnmodifiableList());
+    }
+    
+    private List<Reservation> byRoom(Collection<String> ids) {
+        return ids.stream()
+                .map(reservations::get)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(Reservation::getRoomId).thenComparing(Reservation::getStartDate))
+                .collect(Collectors.toUnmodifiableList());
+    }
+    
     // ==================== PAYMENT OPERATIONS ====================
     
     public Payment addPayment(Payment payment) {
+        return addPayment(payment, null);
+    }
+    
+    /**
+     * Record a payment that is safe to retry: a repeat with the same
+     * {@code idempotencyKey} within {@code idempotency.ttlMinutes} returns the original
+     * payment, even if the retry carries a new payment ID. A payment without an ID is
+     * given a generated one ({@code PAY-} plus 13 base32 characters).
+     *
+     * @throws IllegalArgumentException if the key was used for a different reservation, guest, amount or method
+     */
+    public Payment addPayment(Payment payment, String idempotencyKey) {
         Objects.requireNonNull(payment, "Payment cannot be null");
-        
-        if (payments.containsKey(payment.getPaymentId())) {
+        if (idempotencyKey == null) {
+            return insertPayment(payment, null);
+        }
+        validateIdempotencyKey(idempotencyKey);
+        // Saved once the key is recorded, so a retry after a failed save replays instead of charging again
+        return runBatch(() -> idempotency.execute(idempotencyKey, paymentFingerprint(payment),
+                () -> insertPayment(payment, idempotencyKey)));
+    }
+    
+    private Payment insertPayment(Payment payment, String idempotencyKey) {
+        ensureWritable();
+        boolean generated = payment.getPaymentId() == null;
+        if (generated) {
+            payment.setPaymentId(IDS.nextId(PAYMENT_ID_PREFIX));
+        } else if (payments.containsKey(payment.getPaymentId())) {
             throw new IllegalArgumentException("Payment with ID " + payment.getPaymentId() + " already exists");
         }
         
@@ -331,7 +721,17 @@ public class HotelManagementService {
             throw new IllegalArgumentException("Guest with ID " + payment.getGuestId() + " not found");
         }
         
-        payments.put(payment.getPaymentId(), payment);
+        // A taken generated ID means another process shares our node ID: draw another
+        while (payments.putIfAbsent(payment.getPaymentId(), payment) != null) {
+            if (!generated) {
+                throw new IllegalArgumentException("Payment with ID " + payment.getPaymentId() + " already exists");
+            }
+            logger.warning("Generated payment ID " + payment.getPaymentId() + " is already taken; is ids.nodeId shared?");
+            payment.setPaymentId(IDS.nextId(PAYMENT_ID_PREFIX));
+        }
+        rankPayment(payment, 1);
+        journal(JournalEntry.Type.PAYMENT_ADDED, payment.getPaymentId(), payment, idempotencyKey);
+        publishPayment(payment.getPaymentId());
         savePayments();
         logger.info("Added payment: " + payment);
         return payment;
@@ -359,8 +759,122 @@ public class HotelManagementService {
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
     
+    // Index views for invariant checks in tests
+    Set<String> reservationIdsForRoom(String roomId) {
+        return copyOf(reservationsByRoom.get(roomId));
+    }
+
+    Set<String> reservationIdsForGuest(String guestId) {
+        return copyOf(reservationsByGuest.get(guestId));
+    }
+
     // ==================== UTILITY METHODS ====================
     
+    /**
+     * Sort key of the date index; IDs break ties so every reservation has a unique position.
+     */
+    private record ReservationOrder(LocalDate startDate, String id) implements Comparable<ReservationOrder> {
+        static ReservationOrder of(Reservation reservation) {
+            return new ReservationOrder(reservation.getStartDate(), reservation.getId());
+        }
+        
+        @Override
+        public int compareTo(ReservationOrder other) {
+            int byDate = startDate.compareTo(other.startDate);
+            return byDate != 0 ? byDate : id.compareTo(other.id);
+        }
+    }
+    
+    // Room and guest indexes hold a handful of IDs each, so they are sorted per call
+    private ReservationPage pageOf(Set<String> ids, ReservationOrder after, int limit) {
+        List<Reservation> sorted = ids.stream()
+                .map(reservations::get)
+                .filter(Objects::nonNull)
+                .filter(res -> after == null || ReservationOrder.of(res).compareTo(after) > 0)
+                .sorted(Comparator.comparing(ReservationOrder::of))
+                .collect(Collectors.toList());
+        if (sorted.size() <= limit) {
+            return new ReservationPage(Collections.unmodifiableList(sorted), null);
+        }
+        List<Reservation> items = List.copyOf(sorted.subList(0, limit));
+        return new ReservationPage(items, encodeCursor(items.get(limit - 1)));
+    }
+    
+    private static void validatePageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+    
+    // Cursors are opaque to callers: the last item's sort key, URL-safe Base64 encoded
+    
+    private static String encodeCursor(Reservation last) {
+        String key = last.getStartDate() + "/" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static ReservationOrder decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int slash = key.indexOf('/');
+            return new ReservationOrder(LocalDate.parse(key.substring(0, slash)), key.substring(slash + 1));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+    }
+    
+    private void removeFromGuestIndex(Reservation reservation) {
+        String guestId = reservation.getGuestId();
+        if (guestId == null) {
+            // Older records: find guest by name
+            guestId = guests.values().stream()
+                    .filter(guest -> guest.getFullName().equals(reservation.getGuestName()))
+                    .map(Guest::getGuestId)
+                    .findFirst()
+                    .orElse(null);
+        }
+        Set<String> guestReservations = guestId == null ? null : reservationsByGuest.get(guestId);
+        if (guestReservations != null) {
+            guestReservations.remove(reservation.getId());
+        }
+    }
+
+    private void indexStay(Reservation reservation) {
+        staysByRoom.computeIfAbsent(reservation.getRoomId(), k -> new ConcurrentSkipListMap<>())
+                .put(ReservationOrder.of(reservation), reservation);
+    }
+    
+    private void unindexStay(Reservation reservation) {
+        NavigableMap<ReservationOrder, Reservation> stays = staysByRoom.get(reservation.getRoomId());
+        if (stays != null) {
+            stays.remove(ReservationOrder.of(reservation));
+        }
+    }
+    
+    private void indexEmail(Guest guest, int delta) {
+        String key = emailKey(guest.getEmail());
+        if (key != null) {
+            guestEmails.merge(key, delta, (count, change) -> count + change == 0 ? null : count + change);
+        }
+    }
+    
+    // Emails are validated as ASCII, where lower-casing matches equalsIgnoreCase
+    private static String emailKey(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+    
+    private static Set<String> copyOf(Set<String> ids) {
+        if (ids == null) {
+            return Set.of();
+        }
+        synchronized (ids) {
+            return new LinkedHashSet<>(ids);
+        }
+    }
+    
     private boolean datesOverlap(LocalDate aStart, LocalDate aEnd, LocalDate bStart, LocalDate bEnd) {
         return aStart.isBefore(bEnd) && bStart.isBefore(aEnd);
     }
@@ -373,7 +887,21 @@ public class HotelManagementService {
             loadGuests();
             loadReservations();
             loadPayments();
-            rebuildIndexes();
+            archivedBefore = archive.getArchivedBefore();
+            reconcileArchive();
+            Map<String, Long> checksums = checksumDataFiles();
+            IndexCheckpoint.State checkpoint = checksums == null ? null
+                    : IndexCheckpoint.load(Path.of(dataDir), checksums).orElse(null);
+            long startNanos = System.nanoTime();
+            rebuildIndexes(checkpoint);
+            indexesFromCheckpoint = checkpoint != null;
+            logger.info((checkpoint != null ? "Loaded indexes from checkpoint in " : "Rebuilt indexes in ")
+                    + (System.nanoTime() - startNanos) / 1_000_000 + " ms");
+            if (checkpoint == null && checksums != null && !readOnly
+                    && !(reservations.isEmpty() && payments.isEmpty() && archive.isEmpty())) {
+                writeCheckpoint(checksums);
+            }
+            snapshot.set(HotelSnapshot.of(snapshot.get().getVersion() + 1, rooms, guests, reservations, payments));
             logger.info("Successfully loaded all data from JSON files");
         } catch (Exception e) {
             logger.severe("Error loading data: " + e.getMessage());
@@ -424,9 +952,24 @@ public class HotelManagementService {
         }
     }
     
-    private void rebuildIndexes() {
+    /**
+     * Rebuild the indexes from the loaded maps. The running totals (occupancy counter,
+     * leaderboards, revenue per reservation) come from {@code checkpoint} if there is one;
+     * otherwise they are recomputed too, which means reading every archived stay.
+     * Indexes that share no state are built in parallel.
+     */
+    private void rebuildIndexes(IndexCheckpoint.State checkpoint) {
         reservationsByRoom.clear();
         reservationsByGuest.clear();
+        reservationsByDate.clear();
+        reservationsByDay.clear();
+        staysByRoom.clear();
+        guestEmails.clear();
+        occupancy.clear();
+        nightsByGuest.clear();
+        bookingsByRoom.clear();
+        revenueByGuest.clear();
+        revenueByReservation.clear();
         
         // Rebuild room index
         for (Room room : rooms.values()) {
@@ -436,54 +979,520 @@ public class HotelManagementService {
         // Rebuild guest index
         for (Guest guest : guests.values()) {
             reservationsByGuest.putIfAbsent(guest.getGuestId(), Collections.synchronizedSet(new LinkedHashSet<>()));
+            indexEmail(guest, 1);
         }
         
-        // Add reservations to indexes
-        for (Reservation reservation : reservations.values()) {
-            reservationsByRoom.computeIfAbsent(reservation.getRoomId(), 
-                k -> Collections.synchronizedSet(new LinkedHashSet<>())).add(reservation.getId());
-            
-            // Find guest by name and add to index
-            guests.values().stream()
-                    .filter(guest -> guest.getFullName().equals(reservation.getGuestName()))
-                    .findFirst()
-                    .ifPresent(guest -> reservationsByGuest.computeIfAbsent(guest.getGuestId(),
-                            k -> Collections.synchronizedSet(new LinkedHashSet<>())).add(reservation.getId()));
+        // Older records have no guest ID; resolve those by name in one pass
+        Map<String, String> guestIdByName = new HashMap<>();
+        for (Guest guest : guests.values()) {
+            guestIdByName.putIfAbsent(guest.getFullName(), guest.getGuestId());
+        }
+        
+        List<Runnable> tasks = new ArrayList<>();
+        tasks.add(() -> {
+            for (Reservation reservation : reservations.values()) {
+                reservationsByDate.put(ReservationOrder.of(reservation), reservation);
+                reservationsByDay.add(reservation);
+            }
+        });
+        tasks.add(() -> {
+            for (Reservation reservation : reservations.values()) {
+                indexStay(reservation);
+                reservationsByRoom.computeIfAbsent(reservation.getRoomId(),
+                    k -> Collections.synchronizedSet(new LinkedHashSet<>())).add(reservation.getId());
+                
+                String guestId = reservation.getGuestId() != null
+                        ? reservation.getGuestId() : guestIdByName.get(reservation.getGuestName());
+                if (guestId != null) {
+                    reservationsByGuest.computeIfAbsent(guestId,
+                            k -> Collections.synchronizedSet(new LinkedHashSet<>())).add(reservation.getId());
+                }
+            }
+        });
+        if (checkpoint != null) {
+            occupancy.restore(checkpoint.occupancy());
+            nightsByGuest.restore(checkpoint.nightsByGuest());
+            bookingsByRoom.restore(checkpoint.bookingsByRoom());
+            revenueByGuest.restore(checkpoint.revenueByGuest());
+            revenueByReservation.putAll(checkpoint.revenueByReservation());
+        } else {
+            tasks.add(() -> {
+                for (Payment payment : payments.values()) {
+                    rankPayment(payment, 1);
+                }
+            });
+            tasks.add(() -> {
+                for (Reservation reservation : reservations.values()) {
+                    occupancy.add(reservation);
+                    rankBooking(reservation, 1);
+                }
+            });
+            tasks.add(() -> {
+                // Archived stays still count; a stay caught live and archived by a crash counts once
+                try {
+                    archive.forEachParallel(reservation -> {
+                        Reservation live = reservations.get(reservation.getId());
+                        if (live == null || !live.getStartDate().equals(reservation.getStartDate())) {
+                            occupancy.add(reservation);
+                            rankBooking(reservation, 1);
+                        }
+                    });
+                } catch (IOException e) {
+                    logger.severe("Could not read archived stays, reports will leave them out: " + e.getMessage());
+                }
+            });
         }
+        CompletableFuture.allOf(tasks.stream().map(CompletableFuture::runAsync).toArray(CompletableFuture[]::new))
+                .join();
     }
     
-    private void saveRooms() {
+    /**
+     * Save the running totals so that the next start can load them instead of reading
+     * every payment and archived stay. Call it once writes have stopped, such as at
+     * shutdown: a write that lands while the checkpoint is taken can leave totals that
+     * do not match the files they were checksummed with. Does nothing on a read-only
+     * replica or when {@code indexes.checkpoint} is off.
+     */
+    public void checkpointIndexes() {
+        if (readOnly) {
+            return;
+        }
+        Map<String, Long> checksums = checksumDataFiles();
+        if (checksums != null) {
+            writeCheckpoint(checksums);
+        }
+    }
+    
+    boolean isIndexCheckpointLoaded() {
+        return indexesFromCheckpoint;
+    }
+    
+    private Map<String, Long> checksumDataFiles() {
+        if (!ConfigManager.isIndexCheckpointEnabled()) {
+            return null;
+        }
         try {
-            JsonFileManager.saveToFile(new ArrayList<>(rooms.values()), roomsFile);
+            return IndexCheckpoint.checksums(Path.of(dataDir), archive);
         } catch (IOException e) {
-            logger.severe("Failed to save rooms: " + e.getMessage());
+            logger.warning("Could not checksum data files, index checkpoint skipped: " + e.getMessage());
+            return null;
         }
     }
     
-    private void saveGuests() {
+    private void writeCheckpoint(Map<String, Long> checksums) {
+        IndexCheckpoint.State state;
+        // Bookings move the occupancy counter and the leaderboards together under this lock
+        synchronized (occupancy) {
+            state = IndexCheckpoint.of(checksums, occupancy.state(), nightsByGuest.scores(), bookingsByRoom.scores(),
+                    revenueByGuest.scores(), new HashMap<>(revenueByReservation));
+        }
         try {
-            JsonFileManager.saveToFile(new ArrayList<>(guests.values()), guestsFile);
+            IndexCheckpoint.write(Path.of(dataDir), state);
+            logger.info("Wrote index checkpoint to " + dataDir);
         } catch (IOException e) {
-            logger.severe("Failed to save guests: " + e.getMessage());
+            logger.warning("Could not write index checkpoint: " + e.getMessage());
+        }
+    }
+    
+    private void saveRooms() {
+        if (deferSave(DataFile.ROOMS)) {
+            return;
         }
+        synchronized (roomsFileLock) {
+            long sequence = journalSequence();
+            try {
+                JsonFileManager.saveToFile(new ArrayList<>(rooms.values()), roomsFile);
+                savedThrough.accumulateAndGet(DataFile.ROOMS.ordinal(), sequence, Math::max);
+            } catch (IOException e) {
+                saveFailed("rooms", e);
+                return;
+            }
+        }
+        compactJournal();
+    }
+    
+    private void saveGuests() {
+        if (deferSave(DataFile.GUESTS)) {
+            return;
+        }
+        synchronized (guestsFileLock) {
+            long sequence = journalSequence();
+            try {
+                JsonFileManager.saveToFile(new ArrayList<>(guests.values()), guestsFile);
+                savedThrough.accumulateAndGet(DataFile.GUESTS.ordinal(), sequence, Math::max);
+            } catch (IOException e) {
+                saveFailed("guests", e);
+                return;
+            }
+        }
+        compactJournal();
     }
     
     private void saveReservations() {
+        if (deferSave(DataFile.RESERVATIONS)) {
+            return;
+        }
+        synchronized (reservationsFileLock) {
+            long sequence = journalSequence();
+            try {
+                JsonFileManager.saveToFile(new ArrayList<>(reservations.values()), reservationsFile);
+                savedThrough.accumulateAndGet(DataFile.RESERVATIONS.ordinal(), sequence, Math::max);
+            } catch (IOException e) {
+                saveFailed("reservations", e);
+                return;
+            }
+        }
+        compactJournal();
+    }
+    
+    private void savePayments() {
+        if (deferSave(DataFile.PAYMENTS)) {
+            return;
+        }
+        synchronized (paymentsFileLock) {
+            long sequence = journalSequence();
+            try {
+                JsonFileManager.saveToFile(new ArrayList<>(payments.values()), paymentsFile);
+                savedThrough.accumulateAndGet(DataFile.PAYMENTS.ordinal(), sequence, Math::max);
+            } catch (IOException e) {
+                saveFailed("payments", e);
+                return;
+            }
+        }
+        compactJournal();
+    }
+    
+    /**
+     * Log a failed save and, unless the journal is the durable copy, fail the write with it.
+     * The change stays in memory and the journal, so the next save or start writes it.
+     */
+    private void saveFailed(String file, IOException e) {
+        logger.severe("Failed to save " + file + ": " + e.getMessage());
+        if (!journalDurable) {
+            throw new UncheckedIOException("Failed to save " + file, e);
+        }
+    }
+    
+    // ==================== REPLICATION ====================
+    
+    private static MutationJournal openJournal(String dataDir) {
         try {
-            JsonFileManager.saveToFile(new ArrayList<>(reservations.values()), reservationsFile);
+            return new MutationJournal(dataDir);
         } catch (IOException e) {
-            logger.severe("Failed to save reservations: " + e.getMessage());
+            logger.severe("Failed to open mutation journal, replication disabled: " + e.getMessage());
+            return null;
         }
     }
     
-    private void savePayments() {
+    // Read before a save copies its map: every entry up to it has already changed the map
+    private long journalSequence() {
+        return journal == null ? 0 : journal.getLastSequence();
+    }
+    
+    private void markJournalSaved(long sequence) {
+        for (DataFile file : DataFile.values()) {
+            savedThrough.set(file.ordinal(), sequence);
+        }
+        try {
+            journal.markSaved(sequence);
+        } catch (IOException e) {
+            logger.warning("Could not record the saved journal sequence: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Re-apply the writes journaled after {@code journal.saved}, which a crash (or a batch
+     * cut short) may have kept out of the data files, then save the files they changed and
+     * only then move the marker. Replicas have already applied those entries, so dropping
+     * them would leave the two apart. Most entries are already in the files, since the
+     * marker only moves on compaction; those change nothing and leave the files alone.
+     */
+    private void recoverUnsavedWrites() {
+        long saved = MutationJournal.readSavedSequence(dataDir);
+        long last = journal.getLastSequence();
+        Set<DataFile> changed = EnumSet.noneOf(DataFile.class);
+        // Each record's state as loaded, and the last entry that touched it
+        Map<String, Object> loaded = new HashMap<>();
+        Map<String, JournalEntry> touched = new HashMap<>();
+        if (last > saved) {
+            try (MutationJournal.Tailer tailer = MutationJournal.Tailer.after(MutationJournal.pathFor(dataDir), saved)) {
+                for (List<JournalEntry> entries = tailer.poll(); !entries.isEmpty(); entries = tailer.poll()) {
+                    for (JournalEntry entry : entries) {
+                        if (entry.type() == JournalEntry.Type.RESERVATIONS_ARCHIVED) {
+                            int live = reservations.size();
+                            apply(entry);
+                            if (reservations.size() != live) {
+                                changed.add(DataFile.RESERVATIONS);
+                            }
+                            continue;
+                        }
+                        String key = dataFileOf(entry.type()) + ":" + entry.entityId();
+                        if (!loaded.containsKey(key)) {
+                            loaded.put(key, loadedState(entry));
+                        }
+                        apply(entry);
+                        touched.put(key, entry);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.severe("Could not replay the mutation journal after sequence " + saved + ": " + e.getMessage());
+                return;
+            }
+        }
+        // Replaying from an older marker passes through old states; only the end result counts
+        int recovered = 0;
+        for (Map.Entry<String, JournalEntry> record : touched.entrySet()) {
+            if (!Objects.equals(loaded.get(record.getKey()), loadedState(record.getValue()))) {
+                changed.add(dataFileOf(record.getValue().type()));
+                recovered++;
+            }
+        }
+        try {
+            if (changed.contains(DataFile.ROOMS)) {
+                saveRooms();
+            }
+            if (changed.contains(DataFile.GUESTS)) {
+                saveGuests();
+            }
+            if (changed.contains(DataFile.RESERVATIONS)) {
+                saveReservations();
+            }
+            if (changed.contains(DataFile.PAYMENTS)) {
+                savePayments();
+            }
+        } catch (UncheckedIOException e) {
+            // Already logged; the marker stays put so the next start replays them again
+            return;
+        }
+        for (DataFile file : changed) {
+            if (savedThrough.get(file.ordinal()) < last) {
+                logger.severe("Replayed the journal but could not save " + file);
+                return;
+            }
+        }
+        markJournalSaved(last);
+        if (recovered > 0) {
+            logger.warning("Recovered " + recovered + " journaled records missing from the data files");
+        }
+    }
+    
+    /**
+     * What the entity an entry touches looks like in memory, to tell whether applying
+     * the entry changed anything.
+     */
+    private Object loadedState(JournalEntry entry) {
+        return switch (entry.type()) {
+            case ROOM_ADDED, ROOM_REMOVED -> JsonFileManager.toJsonNode(rooms.get(entry.entityId()));
+            case GUEST_ADDED, GUEST_UPDATED -> JsonFileManager.toJsonNode(guests.get(entry.entityId()));
+            case RESERVATION_CREATED, RESERVATION_CANCELLED ->
+                    JsonFileManager.toJsonNode(reservations.get(entry.entityId()));
+            case PAYMENT_ADDED -> JsonFileManager.toJsonNode(payments.get(entry.entityId()));
+            case RESERVATIONS_ARCHIVED -> null;
+        };
+    }
+    
+    private static DataFile dataFileOf(JournalEntry.Type type) {
+        return switch (type) {
+            case ROOM_ADDED, ROOM_REMOVED -> DataFile.ROOMS;
+            case GUEST_ADDED, GUEST_UPDATED -> DataFile.GUESTS;
+            case RESERVATION_CREATED, RESERVATION_CANCELLED, RESERVATIONS_ARCHIVED -> DataFile.RESERVATIONS;
+            case PAYMENT_ADDED -> DataFile.PAYMENTS;
+        };
+    }
+    
+    /**
+     * Drop journal entries that every data file has been saved past, keeping those a
+     * restart still needs for its idempotency keys.
+     */
+    private void compactJournal() {
+        if (journal == null) {
+            return;
+        }
+        long through = Long.MAX_VALUE;
+        for (int i = 0; i < savedThrough.length(); i++) {
+            through = Math.min(through, savedThrough.get(i));
+        }
+        try {
+            journal.compact(through, Instant.now().minus(idempotency.getTtl()));
+        } catch (IOException e) {
+            logger.warning("Could not compact the mutation journal: " + e.getMessage());
+        }
+    }
+    
+    private void ensureWritable() {
+        if (readOnly) {
+            throw new IllegalStateException("This service is a read-only replica");
+        }
+    }
+    
+    private void journal(JournalEntry.Type type, String entityId, Object payload) {
+        journal(type, entityId, payload, null);
+    }
+    
+    private void journal(JournalEntry.Type type, String entityId, Object payload, String idempotencyKey) {
+        if (journal == null) {
+            return;
+        }
         try {
-            JsonFileManager.saveToFile(new ArrayList<>(payments.values()), paymentsFile);
+            journal.append(type, entityId, payload, idempotencyKey);
         } catch (IOException e) {
-            logger.severe("Failed to save payments: " + e.getMessage());
+            logger.severe("Failed to journal " + type + " " + entityId + ": " + e.getMessage());
+            if (journalDurable) {
+                throw new UncheckedIOException("Failed to journal " + type + " " + entityId, e);
+            }
+        }
+    }
+    
+    /**
+     * Replace this replica's state with the data files, for a follower that has fallen
+     * behind the journal's retention. Readers may see partly loaded maps meanwhile.
+     */
+    void reloadReplica() {
+        if (!readOnly) {
+            throw new IllegalStateException("Only a read-only replica reloads from the files");
+        }
+        archive.reload();
+        loadAllData();
+        availabilityCache.clear();
+        logger.info("Replica reloaded from " + dataDir);
+    }
+    
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+    
+    /**
+     * Committed changes, pushed to subscribers in sequence order. On a replica the
+     * feed carries entries as they are applied.
+     */
+    public ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+    
+    /**
+     * Apply one primary mutation to this replica's in-memory state. Entries are
+     * idempotent, so replaying the journal over already-loaded data converges.
+     */
+    void applyJournalEntry(JournalEntry entry) {
+        apply(entry);
+        changeFeed.publish(entry);
+    }
+    
+    private void apply(JournalEntry entry) {
+        switch (entry.type()) {
+            case ROOM_ADDED -> {
+                Room room = entry.payloadAs(Room.class);
+                rooms.put(room.getId(), room);
+                reservationsByRoom.putIfAbsent(room.getId(), Collections.synchronizedSet(new LinkedHashSet<>()));
+                availabilityCache.invalidate(room);
+                publishRoom(room.getId());
+            }
+            case ROOM_REMOVED -> {
+                Room removed = rooms.remove(entry.entityId());
+                reservationsByRoom.remove(entry.entityId());
+                staysByRoom.remove(entry.entityId());
+                if (removed != null) {
+                    availabilityCache.invalidate(removed);
+                }
+                publishRoom(entry.entityId());
+            }
+            case GUEST_ADDED, GUEST_UPDATED -> {
+                Guest guest = entry.payloadAs(Guest.class);
+                Guest previous = guests.put(guest.getGuestId(), guest);
+                if (previous != null) {
+                    indexEmail(previous, -1);
+                }
+                indexEmail(guest, 1);
+                reservationsByGuest.putIfAbsent(guest.getGuestId(), Collections.synchronizedSet(new LinkedHashSet<>()));
+                publishGuest(guest.getGuestId());
+            }
+            case RESERVATION_CREATED -> {
+                Reservation reservation = entry.payloadAs(Reservation.class);
+                if (isArchived(reservation)) {
+                    // Replayed after the stay was archived; the archive already has it
+                    break;
+                }
+                // Replays may repeat an entry already loaded from the files
+                Reservation previous = reservations.put(reservation.getId(), reservation);
+                if (previous != null) {
+                    unindexStay(previous);
+                }
+                reservationsByDate.put(ReservationOrder.of(reservation), reservation);
+                reservationsByDay.add(reservation);
+                indexStay(reservation);
+                reservationsByRoom.computeIfAbsent(reservation.getRoomId(),
+                        k -> Collections.synchronizedSet(new LinkedHashSet<>())).add(reservation.getId());
+                if (reservation.getGuestId() != null) {
+                    reservationsByGuest.computeIfAbsent(reservation.getGuestId(),
+                            k -> Collections.synchronizedSet(new LinkedHashSet<>())).add(reservation.getId());
+                }
+                invalidateAvailability(reservation);
+                publishBooking(reservation.getId(), previous, reservation);
+            }
+            case RESERVATION_CANCELLED -> {
+                Reservation removed = reservations.remove(entry.entityId());
+                if (removed != null) {
+                    reservationsByDate.remove(ReservationOrder.of(removed));
+                    reservationsByDay.remove(removed);
+                    unindexStay(removed);
+                    Set<String> roomReservations = reservationsByRoom.get(removed.getRoomId());
+                    if (roomReservations != null) {
+                        roomReservations.remove(removed.getId());
+                    }
+                    removeFromGuestIndex(removed);
+                    invalidateAvailability(removed);
+                    publishBooking(entry.entityId(), removed, null);
+                }
+            }
+            case PAYMENT_ADDED -> {
+                Payment payment = entry.payloadAs(Payment.class);
+                rankPayment(payments.put(payment.getPaymentId(), payment), -1);
+                rankPayment(payment, 1);
+                publishPayment(payment.getPaymentId());
+            }
+            case RESERVATIONS_ARCHIVED -> {
+                archive.reload();
+                archivedBefore = archive.getArchivedBefore();
+                if (archivedBefore != null) {
+                    for (Reservation reservation : List.copyOf(reservationsByDate
+                            .headMap(new ReservationOrder(archivedBefore, ""), false).values())) {
+                        if (isArchived(reservation)) {
+                            removeArchived(reservation);
+                        }
+                    }
+                }
+            }
+        }
+    }
+    
+    private void invalidateAvailability(Reservation reservation) {
+        Room room = rooms.get(reservation.getRoomId());
+        if (room != null) {
+            availabilityCache.invalidate(room, reservation.getStartDate(), reservation.getEndDate());
         }
     }
     
+    /**
+     * Last journal sequence written by this primary and, for each follower that has
+     * reported in, the sequence it has applied and how far behind it is.
+     */
+    public Map<String, Object> getReplicationStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        long lastSequence = journal != null ? journal.getLastSequence() : 0;
+        status.put("role", readOnly ? "replica" : "primary");
+        status.put("lastSequence", lastSequence);
+        
+        Map<String, Object> followers = new TreeMap<>();
+        for (Map.Entry<String, Long> follower : ReplicaFollower.readOffsets(dataDir).entrySet()) {
+            Map<String, Object> followerStatus = new LinkedHashMap<>();
+            followerStatus.put("appliedSequence", follower.getValue());
+            followerStatus.put("lag", Math.max(0, lastSequence - follower.getValue()));
+            followers.put(follower.getKey(), followerStatus);
+        }
+        status.put("followers", followers);
+        return status;
+    }
+    
     // ==================== BACKUP AND RESTORE ====================
     
     public void createBackup() {
@@ -502,32 +1511,604 @@ public class HotelManagementService {
         }
     }
     
+    // ==================== BATCHES ====================
+    
+    private enum DataFile { ROOMS, GUESTS, RESERVATIONS, PAYMENTS }
+    
+    private record BookingChange(Reservation before, Reservation after) {
+    }
+    
+    /**
+     * Work done on one thread inside {@link #runBatch}: the files it touched, the bookings
+     * it has yet to count and the IDs it has yet to publish.
+     */
+    private static final class Batch {
+        final EnumSet<DataFile> dirtyFiles = EnumSet.noneOf(DataFile.class);
+        final List<BookingChange> bookings = new ArrayList<>();
+        final Map<DataFile, Set<String>> unpublished = new EnumMap<>(DataFile.class);
+        
+        Set<String> unpublished(DataFile file) {
+            return unpublished.getOrDefault(file, Set.of());
+        }
+    }
+    
+    /**
+     * Run {@code work} with this thread's file saves and snapshot publishes held back
+     * until it returns. Then each touched file is written once and one snapshot version
+     * covers the whole batch, instead of a full save and a snapshot version per record.
+     *
+     * <p>Validation, locking, indexes and the journal work as usual while the batch runs,
+     * so other threads see its records in the live queries straight away and in
+     * {@link #getSnapshot()} once it ends. A nested call joins the outer batch.
+     */
+    public <T> T runBatch(Supplier<T> work) {
+        if (batch.get() != null) {
+            return work.get();
+        }
+        Batch current = new Batch();
+        batch.set(current);
+        try {
+            return work.get();
+        } finally {
+            batch.remove();
+            finishBatch(current);
+        }
+    }
+    
+    private void finishBatch(Batch finished) {
+        if (!finished.bookings.isEmpty()) {
+            synchronized (occupancy) {
+                for (BookingChange change : finished.bookings) {
+                    if (change.before() != null) {
+                        occupancy.remove(change.before());
+                        rankBooking(change.before(), -1);
+                    }
+                    if (change.after() != null) {
+                        occupancy.add(change.after());
+                        rankBooking(change.after(), 1);
+                    }
+                }
+            }
+        }
+        if (!finished.unpublished.isEmpty()) {
+            // Re-read from the live maps, so a retried CAS also picks up other threads' writes
+            snapshot.updateAndGet(current -> current.withAll(
+                    finished.unpublished(DataFile.ROOMS), rooms, finished.unpublished(DataFile.GUESTS), guests,
+                    finished.unpublished(DataFile.RESERVATIONS), reservations,
+                    finished.unpublished(DataFile.PAYMENTS), payments));
+        }
+        UncheckedIOException failed = null;
+        for (DataFile file : finished.dirtyFiles) {
+            try {
+                switch (file) {
+                    case ROOMS -> saveRooms();
+                    case GUESTS -> saveGuests();
+                    case RESERVATIONS -> saveReservations();
+                    case PAYMENTS -> savePayments();
+                }
+            } catch (UncheckedIOException e) {
+                // Still try the other files
+                if (failed == null) {
+                    failed = e;
+                } else {
+                    failed.addSuppressed(e);
+                }
+            }
+        }
+        if (failed != null) {
+            throw failed;
+        }
+    }
+    
+    private boolean deferSave(DataFile file) {
+        Batch current = batch.get();
+        if (current == null) {
+            return false;
+        }
+        current.dirtyFiles.add(file);
+        return true;
+    }
+    
+    private boolean deferPublish(DataFile file, String id) {
+        Batch current = batch.get();
+        if (current == null) {
+            return false;
+        }
+        current.unpublished.computeIfAbsent(file, k -> new HashSet<>()).add(id);
+        return true;
+    }
+    
+    // ==================== SNAPSHOTS ====================
+    
+    /**
+     * The latest published snapshot. Every completed write is visible in it, and it
+     * never changes afterwards, so callers can run several queries against one version.
+     */
+    public HotelSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+    
+    // Each publish re-reads the live value inside the CAS, so the last publish for a key
+    // always reflects the last write to it regardless of how concurrent writers interleave
+    
+    private void publishRoom(String roomId) {
+        if (deferPublish(DataFile.ROOMS, roomId)) {
+            return;
+        }
+        snapshot.updateAndGet(current -> current.withRoom(roomId, rooms.get(roomId)));
+    }
+    
+    private void publishGuest(String guestId) {
+        if (deferPublish(DataFile.GUESTS, guestId)) {
+            return;
+        }
+        snapshot.updateAndGet(current -> current.withGuest(guestId, guests.get(guestId)));
+    }
+    
+    /**
+     * Move the occupancy counter and leaderboards from {@code before} to {@code after}
+     * together under their lock, then publish the reservation outside it. Callers hold
+     * the room's lock, so a room's bookings still reach the snapshot in write order.
+     */
+    private void publishBooking(String reservationId, Reservation before, Reservation after) {
+        Batch pending = batch.get();
+        if (pending != null) {
+            pending.bookings.add(new BookingChange(before, after));
+            pending.unpublished.computeIfAbsent(DataFile.RESERVATIONS, k -> new HashSet<>()).add(reservationId);
+            return;
+        }
+        synchronized (occupancy) {
+            if (before != null) {
+                occupancy.remove(before);
+                rankBooking(before, -1);
+            }
+            if (after != null) {
+                occupancy.add(after);
+                rankBooking(after, 1);
+            }
+        }
+        snapshot.updateAndGet(current -> current.withReservation(reservationId, reservations.get(reservationId)));
+    }
+    
+    private void publishPayment(String paymentId) {
+        if (deferPublish(DataFile.PAYMENTS, paymentId)) {
+            return;
+        }
+        snapshot.updateAndGet(current -> current.withPayment(paymentId, payments.get(paymentId)));
+    }
+    
+    // ==================== IDEMPOTENCY ====================
+    
+    /**
+     * Keys currently remembered and how many writes were answered from them.
+     */
+    public Map<String, Object> getIdempotencyStats() {
+        return idempotency.stats();
+    }
+    
+    private static void validateIdempotencyKey(String key) {
+        if (key.isBlank() || key.length() > 255) {
+            throw new IllegalArgumentException("Idempotency key must be 1 to 255 characters");
+        }
+    }
+    
+    // The entity ID is left out, so a retry that generated a new ID still matches
+    private static String reservationFingerprint(String roomId, String guestId, LocalDate startDate,
+                                                 LocalDate endDate, int partySize) {
+        return "reservation|" + roomId + "|" + guestId + "|" + startDate + "|" + endDate + "|" + partySize;
+    }
+    
+    private static String paymentFingerprint(Payment payment) {
+        BigDecimal amount = payment.getAmount();
+        return "payment|" + payment.getReservationId() + "|" + payment.getGuestId() + "|"
+                + (amount == null ? null : amount.stripTrailingZeros().toPlainString()) + "|" + payment.getPaymentMethod();
+    }
+    
+    /**
+     * Re-learn the keys of writes still inside the TTL from the end of the journal, so a
+     * client retrying across a restart still gets its original result.
+     *
+     * <p>An entry is journaled before its file is saved, and a batch saves only when it
+     * ends, so a crash can leave a keyed write in the journal that never reached the
+     * files. Its key is dropped and the retry is applied again. A reservation counts as
+     * saved if it was loaded, archived or cancelled later in the journal.
+     */
+    private void restoreIdempotencyKeys() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            List<JournalEntry> recent = MutationJournal.readSince(MutationJournal.pathFor(dataDir),
+                    Instant.now().minus(idempotency.getTtl()));
+            Set<String> cancelled = recent.stream()
+                    .filter(entry -> entry.type() == JournalEntry.Type.RESERVATION_CANCELLED)
+                    .map(JournalEntry::entityId)
+                    .collect(Collectors.toSet());
+            int restored = 0;
+            int unsaved = 0;
+            for (JournalEntry entry : recent) {
+                if (entry.idempotencyKey() == null) {
+                    continue;
+                }
+                if (entry.type() == JournalEntry.Type.RESERVATION_CREATED) {
+                    Reservation reservation = entry.payloadAs(Reservation.class);
+                    String id = reservation.getId();
+                    if (!reservations.containsKey(id) && !archive.contains(id) && !cancelled.contains(id)) {
+                        unsaved++;
+                        continue;
+                    }
+                    idempotency.record(entry.idempotencyKey(), reservationFingerprint(reservation.getRoomId(),
+                            reservation.getGuestId(), reservation.getStartDate(), reservation.getEndDate(),
+                            reservation.getPartySize()), reservation, entry.timestamp());
+                    restored++;
+                } else if (entry.type() == JournalEntry.Type.PAYMENT_ADDED) {
+                    Payment payment = entry.payloadAs(Payment.class);
+                    if (!payments.containsKey(payment.getPaymentId())) {
+                        unsaved++;
+                        continue;
+                    }
+                    idempotency.record(entry.idempotencyKey(), paymentFingerprint(payment), payment, entry.timestamp());
+                    restored++;
+                }
+            }
+            if (restored > 0) {
+                logger.info("Restored " + restored + " idempotency keys from the journal");
+            }
+            if (unsaved > 0) {
+                logger.warning("Dropped " + unsaved + " idempotency keys whose writes never reached the data files");
+            }
+        } catch (IOException | UncheckedIOException e) {
+            logger.warning("Could not restore idempotency keys, retries may be applied twice: " + e.getMessage());
+        }
+    }
+    
+    // ==================== ARCHIVE ====================
+    
+    /**
+     * Archive stays that ended more than {@code archive.afterDays} days ago.
+     *
+     * @return the number of stays archived
+     */
+    public int archiveCompletedStays() {
+        return archiveStaysEndedBefore(LocalDate.now().minusDays(ConfigManager.getArchiveAfterDays()));
+    }
+    
+    /**
+     * Move every stay ending on or before {@code cutOff} out of the live maps into the
+     * archive's monthly segments. Archived stays stay in the paged date queries, the
+     * occupancy and analytics reports and the leaderboards, but no longer in the room,
+     * guest and front-desk lists or the snapshot. From then on no stay may start before
+     * {@code cutOff}, and archived stays can no longer be cancelled.
+     *
+     * @return the number of stays archived
+     */
+    public int archiveStaysEndedBefore(LocalDate cutOff) {
+        Objects.requireNonNull(cutOff, "Cut-off date cannot be null");
+        ensureWritable();
+        synchronized (archive) {
+            if (archivedBefore != null && cutOff.isBefore(archivedBefore)) {
+                cutOff = archivedBefore;
+            }
+            archivedBefore = cutOff;
+            // Let bookings and cancellations that read the old horizon finish before collecting stays
+            for (Set<String> roomLock : reservationsByRoom.values()) {
+                synchronized (roomLock) {
+                    // barrier only
+                }
+            }
+            List<Reservation> completed = completedStays(cutOff);
+            
+            // Written before the stays leave the live maps, so a crash in between loses nothing
+            try {
+                archive.append(completed, cutOff);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to archive stays ending by " + cutOff, e);
+            }
+            int removed = runBatch(() -> {
+                int count = 0;
+                for (Reservation reservation : completed) {
+                    if (removeArchived(reservation)) {
+                        count++;
+                    }
+                }
+                saveReservations();
+                return count;
+            });
+            journal(JournalEntry.Type.RESERVATIONS_ARCHIVED, cutOff.toString(), null);
+            logger.info("Archived " + removed + " stays ending on or before " + cutOff);
+            return removed;
+        }
+    }
+    
+    /**
+     * Archived stays with at least one night in [{@code from}, {@code to}).
+     */
+    public List<Reservation> listArchivedStays(LocalDate from, LocalDate to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Invalid date range");
+        }
+        return archive.isEmpty() ? List.of() : archive.overlapping(from, to);
+    }
+    
+    /**
+     * IDs of the stays in the archive, which stay taken after they leave the live maps.
+     */
+    Set<String> archivedReservationIds() {
+        return archive.ids();
+    }
+    
+    /**
+     * Cut-off, size and segment cache counters of the archive.
+     */
+    public Map<String, Object> getArchiveStats() {
+        return archive.stats();
+    }
+    
+    private boolean isArchived(Reservation reservation) {
+        LocalDate horizon = archivedBefore;
+        return horizon != null && !reservation.getEndDate().isAfter(horizon);
+    }
+    
+    private List<Reservation> completedStays(LocalDate cutOff) {
+        // A stay ending by the cut-off also starts before it
+        return reservationsByDate.headMap(new ReservationOrder(cutOff, ""), false).values().stream()
+                .filter(reservation -> !reservation.getEndDate().isAfter(cutOff))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Drop an archived stay from the live maps and indexes. Unlike a cancellation the
+     * occupancy counter and leaderboards keep it.
+     */
+    private boolean removeArchived(Reservation reservation) {
+        Set<String> roomReservations = reservationsByRoom.getOrDefault(reservation.getRoomId(), Collections.emptySet());
+        synchronized (roomReservations) {
+            if (!reservations.remove(reservation.getId(), reservation)) {
+                return false;
+            }
+            roomReservations.remove(reservation.getId());
+            reservationsByDate.remove(ReservationOrder.of(reservation));
+            reservationsByDay.remove(reservation);
+            unindexStay(reservation);
+            removeFromGuestIndex(reservation);
+            if (!deferPublish(DataFile.RESERVATIONS, reservation.getId())) {
+                snapshot.updateAndGet(current -> current.withReservation(reservation.getId(), null));
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Finish an archive run that stopped between writing the archive and saving the
+     * reservations file: live stays ending by the cut-off are archived again (replacing
+     * their copies) and dropped. A replica leaves that to the primary.
+     */
+    private void reconcileArchive() {
+        if (archivedBefore == null || readOnly) {
+            return;
+        }
+        try {
+            archive.writeIdsIfMissing();
+        } catch (IOException e) {
+            logger.warning("Could not save archived reservation IDs: " + e.getMessage());
+        }
+        List<Reservation> leftovers = reservations.values().stream()
+                .filter(this::isArchived)
+                .collect(Collectors.toList());
+        if (leftovers.isEmpty()) {
+            return;
+        }
+        try {
+            archive.append(leftovers, archivedBefore);
+            leftovers.forEach(reservation -> reservations.remove(reservation.getId()));
+            saveReservations();
+            logger.warning("Finished archiving " + leftovers.size() + " stays left over from an interrupted run");
+        } catch (IOException e) {
+            logger.severe("Could not finish interrupted archive run: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Live and archived reservations after {@code after} and starting in [{@code from},
+     * {@code to}), in (start date, ID) order. Either bound and {@code after} may be null.
+     */
+    private Iterator<Reservation> reservationsInOrder(ReservationOrder after, LocalDate from, LocalDate to) {
+        ReservationOrder lowest = from == null ? null : new ReservationOrder(from, "");
+        NavigableMap<ReservationOrder, Reservation> live;
+        if (after != null && (lowest == null || after.compareTo(lowest) >= 0)) {
+            live = reservationsByDate.tailMap(after, false);
+        } else if (lowest != null) {
+            live = reservationsByDate.tailMap(lowest, true);
+        } else {
+            live = reservationsByDate;
+        }
+        if (to != null) {
+            live = live.headMap(new ReservationOrder(to, ""), false);
+        }
+        if (archive.isEmpty()) {
+            return live.values().iterator();
+        }
+        // Resume inside the archive at the cursor rather than at the start of its segment
+        Iterator<Reservation> archived = after != null && (lowest == null || after.compareTo(lowest) >= 0)
+                ? archive.iterator(after.startDate(), after.id(), to)
+                : archive.iterator(from, to);
+        return new OrderedMerge(live.values().iterator(), archived, after);
+    }
+    
+    /**
+     * Merges two iterators already in (start date, ID) order, skipping anything up to
+     * {@code after}. A stay present in both (mid-archive) comes out once.
+     */
+    private static final class OrderedMerge implements Iterator<Reservation> {
+        private final Iterator<Reservation> live;
+        private final Iterator<Reservation> archived;
+        private final ReservationOrder after;
+        private Reservation nextLive;
+        private Reservation nextArchived;
+        
+        OrderedMerge(Iterator<Reservation> live, Iterator<Reservation> archived, ReservationOrder after) {
+            this.live = live;
+            this.archived = archived;
+            this.after = after;
+            this.nextLive = advance(live);
+            this.nextArchived = advance(archived);
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return nextLive != null || nextArchived != null;
+        }
+        
+        @Override
+        public Reservation next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int order = nextLive == null ? 1 : nextArchived == null ? -1
+                    : ReservationOrder.of(nextLive).compareTo(ReservationOrder.of(nextArchived));
+            if (order == 0) {
+                nextArchived = advance(archived);
+            }
+            Reservation result;
+            if (order <= 0) {
+                result = nextLive;
+                nextLive = advance(live);
+            } else {
+                result = nextArchived;
+                nextArchived = advance(archived);
+            }
+            return result;
+        }
+        
+        private Reservation advance(Iterator<Reservation> source) {
+            while (source.hasNext()) {
+                Reservation candidate = source.next();
+                if (after == null || ReservationOrder.of(candidate).compareTo(after) > 0) {
+                    return candidate;
+                }
+            }
+            return null;
+        }
+    }
+    
+    // ==================== LEADERBOARDS ====================
+    
+    /**
+     * Guests with the most booked nights across their current reservations. Older
+     * reservations without a guest ID are not counted.
+     */
+    public List<LeaderboardEntry> getTopGuestsByNights(int k) {
+        validateTopK(k);
+        return nightsByGuest.top(k);
+    }
+    
+    /**
+     * Guests with the most completed payments; scores are in cents.
+     */
+    public List<LeaderboardEntry> getTopGuestsByRevenue(int k) {
+        validateTopK(k);
+        return revenueByGuest.top(k);
+    }
+    
+    public List<LeaderboardEntry> getTopRoomsByBookings(int k) {
+        validateTopK(k);
+        return bookingsByRoom.top(k);
+    }
+    
+    /**
+     * Reservations starting in [{@code from}, {@code to}) with the most completed
+     * payments, in cents; unpaid reservations are left out. Either bound may be null.
+     * Scans the date range, archived stays included, once through a K-sized heap.
+     */
+    public List<LeaderboardEntry> getTopReservationsByValue(LocalDate from, LocalDate to, int k) {
+        validateTopK(k);
+        return Leaderboard.topK(() -> StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                        reservationsInOrder(null, from, to), Spliterator.ORDERED), false)
+                .map(reservation -> new LeaderboardEntry(reservation.getId(),
+                        revenueByReservation.getOrDefault(reservation.getId(), 0L)))
+                .filter(entry -> entry.score() > 0)
+                .iterator(), k, Leaderboard.RANK);
+    }
+    
+    private void rankBooking(Reservation reservation, int sign) {
+        long nights = reservation.getEndDate().toEpochDay() - reservation.getStartDate().toEpochDay();
+        nightsByGuest.add(reservation.getGuestId(), sign * nights);
+        bookingsByRoom.add(reservation.getRoomId(), sign);
+    }
+    
+    private void rankPayment(Payment payment, int sign) {
+        if (payment == null || payment.getPaymentStatus() != Payment.PaymentStatus.COMPLETED
+                || payment.getAmount() == null) {
+            return;
+        }
+        long cents = sign * payment.getAmount().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        revenueByGuest.add(payment.getGuestId(), cents);
+        revenueByReservation.merge(payment.getReservationId(), cents,
+                (total, delta) -> total + delta == 0 ? null : total + delta);
+    }
+    
+    private static void validateTopK(int k) {
+        if (k < 1 || k > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("K must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+    
     // ==================== REPORTING AND STATISTICS ====================
     
     public Map<String, Object> generateOccupancyReport(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
         Map<String, Object> report = new HashMap<>();
+        HotelSnapshot pinned;
+        long periodReservations;
+        long occupiedRoomDays;
+        // Counters from one point in the booking order, O(log days) with no scan; the pinned
+        // snapshot supplies only the room, guest and payment counts
+        pinned = snapshot.get();
+        synchronized (occupancy) {
+            periodReservations = occupancy.bookingsOverlapping(startDate, endDate);
+            occupiedRoomDays = occupancy.roomNights(startDate, endDate);
+        }
         
-        List<Reservation> periodReservations = reservations.values().stream()
-                .filter(res -> !res.getEndDate().isBefore(startDate) && !res.getStartDate().isAfter(endDate))
-                .collect(Collectors.toList());
-        
-        report.put("totalRooms", rooms.size());
-        report.put("totalReservations", periodReservations.size());
-        report.put("totalGuests", guests.size());
-        report.put("totalPayments", payments.size());
+        int totalRooms = pinned.getRooms().size();
+        report.put("totalRooms", totalRooms);
+        report.put("totalReservations", periodReservations);
+        report.put("totalGuests", pinned.getGuests().size());
+        report.put("totalPayments", pinned.getPayments().size());
         report.put("reportPeriod", startDate + " to " + endDate);
         report.put("generatedAt", LocalDateTime.now());
+        report.put("snapshotVersion", pinned.getVersion());
         
-        // Calculate occupan2cy rate
-        long daysInPeriod = startDate.datesUntil(endDate.plusDays(1)).count();
-        long totalRoomDays = rooms.size() * daysInPeriod;
-        long occupiedRoomDays = periodReservations.stream()
-                .mapToLong(res -> res.getStartDate().datesUntil(res.getEndDate()).count())
-                .sum();
+        // Calculate occupancy rate over the nights of startDate..endDate, stays clipped to the window
+        long daysInPeriod = endDate.toEpochDay() - startDate.toEpochDay() + 1;
+        long totalRoomDays = totalRooms * daysInPeriod;
         
         double occupancyRate = totalRoomDays > 0 ? (double) occupiedRoomDays / totalRoomDays * 100 : 0;
+        report.put("occupiedRoomNights", occupiedRoomDays);
+        report.put("totalRoomNights", totalRoomDays);
         report.put("occupancyRate", String.format("%.2f%%", occupancyRate));
         
         return report;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Headline counts for the dashboard, all taken from one snapshot.
+     */
+    public Map<String, Object> getSystemStatistics() {
+        HotelSnapshot pinned = snapshot.get();
+        LocalDate today = LocalDate.now();
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("totalRooms", pinned.getRooms().size());
+        statistics.put("totalGuests", pinned.getGuests().size());
+        statistics.put("vipGuests", pinned.getGuests().stream().filter(Guest::isVipStatus).count());
+        statistics.put("totalReservations", pinned.getReservations().size());
+        statistics.put("activeReservations", pinned.getReservations().stream()
+                .filter(res -> res.getEndDate().isAfter(today))
+                .count());
+        statistics.put("totalPayments", pinned.getPayments().size());
+        statistics.put("archivedReservations", archive.size());
+        statistics.put("snapshotVersion", pinned.getVersion());
+        return statistics;
+    }
+}
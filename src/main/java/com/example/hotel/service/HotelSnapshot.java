@@ -0,0 +1,110 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Payment;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.model.Room;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, versioned view of all hotel data at one point in the write order.
+ * Readers pin a snapshot and can iterate it for as long as they like while
+ * writers keep publishing newer versions; nothing in a snapshot ever changes.
+ */
+public final class HotelSnapshot {
+    private final long version;
+    private final SnapshotMap<String, Room> rooms;
+    private final SnapshotMap<String, Guest> guests;
+    private final SnapshotMap<String, Reservation> reservations;
+    private final SnapshotMap<String, Payment> payments;
+
+    private HotelSnapshot(long version, SnapshotMap<String, Room> rooms, SnapshotMap<String, Guest> guests,
+                          SnapshotMap<String, Reservation> reservations, SnapshotMap<String, Payment> payments) {
+        this.version = version;
+        this.rooms = rooms;
+        this.guests = guests;
+        this.reservations = reservations;
+        this.payments = payments;
+    }
+
+    static HotelSnapshot empty() {
+        return new HotelSnapshot(0, SnapshotMap.empty(), SnapshotMap.empty(), SnapshotMap.empty(), SnapshotMap.empty());
+    }
+
+    static HotelSnapshot of(long version, Map<String, Room> rooms, Map<String, Guest> guests,
+                            Map<String, Reservation> reservations, Map<String, Payment> payments) {
+        return new HotelSnapshot(version, SnapshotMap.copyOf(rooms), SnapshotMap.copyOf(guests),
+                SnapshotMap.copyOf(reservations), SnapshotMap.copyOf(payments));
+    }
+
+    // A null value removes the entity; unchanged maps are shared with the previous version
+
+    HotelSnapshot withRoom(String id, Room room) {
+        return new HotelSnapshot(version + 1, rooms.with(id, room), guests, reservations, payments);
+    }
+
+    HotelSnapshot withGuest(String id, Guest guest) {
+        return new HotelSnapshot(version + 1, rooms, guests.with(id, guest), reservations, payments);
+    }
+
+    HotelSnapshot withReservation(String id, Reservation reservation) {
+        return new HotelSnapshot(version + 1, rooms, guests, reservations.with(id, reservation), payments);
+    }
+
+    HotelSnapshot withPayment(String id, Payment payment) {
+        return new HotelSnapshot(version + 1, rooms, guests, reservations, payments.with(id, payment));
+    }
+
+    /**
+     * This snapshot with each listed ID set to its value in the matching live map, as one version.
+     */
+    HotelSnapshot withAll(Collection<String> roomIds, Map<String, Room> liveRooms,
+                          Collection<String> guestIds, Map<String, Guest> liveGuests,
+                          Collection<String> reservationIds, Map<String, Reservation> liveReservations,
+                          Collection<String> paymentIds, Map<String, Payment> livePayments) {
+        return new HotelSnapshot(version + 1, rooms.withAll(roomIds, liveRooms::get),
+                guests.withAll(guestIds, liveGuests::get), reservations.withAll(reservationIds, liveReservations::get),
+                payments.withAll(paymentIds, livePayments::get));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Collection<Room> getRooms() {
+        return rooms.values();
+    }
+
+    public Collection<Guest> getGuests() {
+        return guests.values();
+    }
+
+    public Collection<Reservation> getReservations() {
+        return reservations.values();
+    }
+
+    public Collection<Payment> getPayments() {
+        return payments.values();
+    }
+
+    public Optional<Room> getRoom(String roomId) {
+        return Optional.ofNullable(rooms.get(roomId));
+    }
+
+    public Optional<Guest> getGuest(String guestId) {
+        return Optional.ofNullable(guests.get(guestId));
+    }
+
+    public Optional<Reservation> getReservation(String reservationId) {
+        return Optional.ofNullable(reservations.get(reservationId));
+    }
+
+    @Override
+    public String toString() {
+        return "HotelSnapshot{version=" + version + ", rooms=" + rooms.size() + ", guests=" + guests.size()
+                + ", reservations=" + reservations.size() + ", payments=" + payments.size() + "}";
+    }
+}
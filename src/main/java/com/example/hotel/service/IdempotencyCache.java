@@ -0,0 +1,146 @@
+package com.example.hotel.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Results of recent writes by client-supplied idempotency key, so a retried request
+ * gets the original result back instead of failing or writing a duplicate.
+ *
+ * <p>Keys expire {@code ttl} after the write and at most {@code maxKeys} are kept, oldest
+ * dropped first. Concurrent requests with the same key run the write once: the others
+ * wait for it and then get its result, or run it themselves if it failed.
+ *
+ * <p>Each entry carries a fingerprint of the request; reusing a key for a different
+ * request is rejected rather than answered with an unrelated result.
+ */
+class IdempotencyCache {
+
+    private record Entry(String fingerprint, Object result, Instant expiresAt) {
+    }
+
+    private final Duration ttl;
+    private final int maxKeys;
+    private final Clock clock;
+
+    // Guarded by itself; insertion order, which is also expiry order
+    private final Map<String, Entry> entries;
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+
+    IdempotencyCache(Duration ttl, int maxKeys) {
+        this(ttl, maxKeys, Clock.systemUTC());
+    }
+
+    IdempotencyCache(Duration ttl, int maxKeys, Clock clock) {
+        if (ttl.isNegative() || ttl.isZero() || maxKeys <= 0) {
+            throw new IllegalArgumentException("ttl and maxKeys must be > 0");
+        }
+        this.ttl = ttl;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > IdempotencyCache.this.maxKeys;
+            }
+        };
+    }
+
+    Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Return the result recorded for {@code key}, or run {@code write} and record its
+     * result. Nothing is recorded if {@code write} throws.
+     *
+     * @throws IllegalArgumentException if the key was used for a request with a different fingerprint
+     */
+    @SuppressWarnings("unchecked")
+    <T> T execute(String key, String fingerprint, Supplier<T> write) {
+        while (true) {
+            Entry recorded = lookup(key, fingerprint);
+            if (recorded != null) {
+                replays.increment();
+                return (T) recorded.result();
+            }
+            CompletableFuture<Void> mine = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                // Same key in flight: wait, then look again
+                running.join();
+                continue;
+            }
+            try {
+                // The previous owner may have recorded its result just before we claimed the key
+                recorded = lookup(key, fingerprint);
+                if (recorded != null) {
+                    replays.increment();
+                    return (T) recorded.result();
+                }
+                T result = write.get();
+                record(key, fingerprint, result, clock.instant());
+                writes.increment();
+                return result;
+            } finally {
+                inFlight.remove(key, mine);
+                mine.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Record a write made at {@code writtenAt}, e.g. one read back from the journal
+     * after a restart. Writes already past their expiry are ignored.
+     */
+    void record(String key, String fingerprint, Object result, Instant writtenAt) {
+        Instant expiresAt = writtenAt.plus(ttl);
+        if (!expiresAt.isAfter(clock.instant())) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry(fingerprint, result, expiresAt));
+        }
+    }
+
+    Map<String, Object> stats() {
+        int size;
+        synchronized (entries) {
+            expire();
+            size = entries.size();
+        }
+        return Map.of("keys", size, "replays", replays.sum(), "writes", writes.sum());
+    }
+
+    private Entry lookup(String key, String fingerprint) {
+        Entry entry;
+        synchronized (entries) {
+            expire();
+            entry = entries.get(key);
+        }
+        if (entry != null && !entry.fingerprint().equals(fingerprint)) {
+            throw new IllegalArgumentException("Idempotency key " + key + " was already used for a different request");
+        }
+        return entry;
+    }
+
+    // Caller holds the entries lock
+    private void expire() {
+        Instant now = clock.instant();
+        Iterator<Entry> oldestFirst = entries.values().iterator();
+        while (oldestFirst.hasNext() && !oldestFirst.next().expiresAt().isAfter(now)) {
+            oldestFirst.remove();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.hotel.service;
+
+import com.example.hotel.util.JsonFileManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The service's running totals saved next to the data files, so a restart can load
+ * them instead of recomputing them from every reservation, payment and archived stay.
+ *
+ * <p>The checkpoint holds the occupancy trees, the leaderboard totals and the revenue per
+ * reservation, together with the CRC32 of each data file and archive file they were
+ * computed from. It is only used if every checksum still matches, so a file changed after
+ * the checkpoint was written, by a later write, a restore from backup or a hand edit,
+ * simply means a rebuild. The file itself is gzip-compressed JSON, whose trailer CRC
+ * catches a torn or corrupt checkpoint.
+ */
+final class IndexCheckpoint {
+    private static final Logger logger = Logger.getLogger(IndexCheckpoint.class.getName());
+    static final String FILE = "indexes.checkpoint.json.gz";
+    private static final int VERSION = 1;
+    private static final List<String> DATA_FILES = List.of("rooms.json", "guests.json", "reservations.json", "payments.json");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * @param checksums file path relative to the data directory to its CRC32, -1 if the file was absent
+     */
+    record State(int version,
+                 Map<String, Long> checksums,
+                 OccupancyCounter.State occupancy,
+                 Map<String, Long> nightsByGuest,
+                 Map<String, Long> bookingsByRoom,
+                 Map<String, Long> revenueByGuest,
+                 Map<String, Long> revenueByReservation) {
+    }
+
+    private IndexCheckpoint() {
+    }
+
+    /**
+     * CRC32 of the four data files and the archive files, computed in parallel.
+     */
+    static Map<String, Long> checksums(Path dataDir, ReservationArchive archive) throws IOException {
+        List<Path> files = new ArrayList<>();
+        DATA_FILES.forEach(name -> files.add(dataDir.resolve(name)));
+        files.addAll(archive.files());
+        Map<String, Long> checksums = new TreeMap<>();
+        try {
+            files.parallelStream()
+                    .map(file -> Map.entry(dataDir.relativize(file).toString().replace('\\', '/'), crc32(file)))
+                    .forEachOrdered(entry -> checksums.put(entry.getKey(), entry.getValue()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return checksums;
+    }
+
+    /**
+     * The checkpoint in {@code dataDir}, if there is one and it was computed from files
+     * with exactly these {@code checksums}.
+     */
+    static Optional<State> load(Path dataDir, Map<String, Long> checksums) {
+        Path path = dataDir.resolve(FILE);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        State state;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(path), BUFFER_SIZE)) {
+            state = JsonFileManager.getReader(State.class).readValue(in);
+        } catch (IOException | RuntimeException e) {
+            logger.warning("Ignoring unreadable index checkpoint: " + e.getMessage());
+            return Optional.empty();
+        }
+        if (state.version() != VERSION) {
+            logger.info("Ignoring index checkpoint from format version " + state.version());
+            return Optional.empty();
+        }
+        if (!checksums.equals(state.checksums())) {
+            logger.info("Data files changed since the index checkpoint, rebuilding");
+            return Optional.empty();
+        }
+        return Optional.of(state);
+    }
+
+    /**
+     * Replace the checkpoint in {@code dataDir} atomically.
+     */
+    static void write(Path dataDir, State state) throws IOException {
+        Path target = dataDir.resolve(FILE);
+        Path tmp = target.resolveSibling(FILE + ".tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp), BUFFER_SIZE)) {
+            JsonFileManager.getCompactWriter().writeValue(out, state);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static State of(Map<String, Long> checksums, OccupancyCounter.State occupancy, Map<String, Long> nightsByGuest,
+                    Map<String, Long> bookingsByRoom, Map<String, Long> revenueByGuest,
+                    Map<String, Long> revenueByReservation) {
+        return new State(VERSION, checksums, occupancy, nightsByGuest, bookingsByRoom, revenueByGuest,
+                revenueByReservation);
+    }
+
+    private static long crc32(Path file) {
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        } catch (NoSuchFileException e) {
+            return -1;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return crc.getValue();
+    }
+}
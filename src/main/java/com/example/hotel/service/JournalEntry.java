@@ -0,0 +1,38 @@
+package com.example.hotel.service;
+
+import com.example.hotel.util.JsonFileManager;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+/**
+ * One committed mutation in the journal. {@code payload} is the entity after the
+ * change, the cancelled reservation for cancellations, or null for room removals.
+ * Cancellations written by older versions have no payload. {@code idempotencyKey} is
+ * the client's key for a retried-safe write, or null.
+ */
+public record JournalEntry(long seq, Instant timestamp, Type type, String entityId, JsonNode payload,
+                           @JsonInclude(JsonInclude.Include.NON_NULL) String idempotencyKey) {
+
+    public JournalEntry(long seq, Instant timestamp, Type type, String entityId, JsonNode payload) {
+        this(seq, timestamp, type, entityId, payload, null);
+    }
+
+    public enum Type {
+        ROOM_ADDED, ROOM_REMOVED, GUEST_ADDED, GUEST_UPDATED,
+        RESERVATION_CREATED, RESERVATION_CANCELLED, PAYMENT_ADDED,
+        // entityId is the new archive cut-off date; the stays themselves are in the archive
+        RESERVATIONS_ARCHIVED
+    }
+
+    public <T> T payloadAs(Class<T> clazz) {
+        try {
+            return JsonFileManager.fromJsonNode(payload, clazz);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt journal payload at seq " + seq, e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.hotel.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Running totals per ID, kept in rank order as they change so the top K are read
+ * in O(K) instead of aggregating and sorting every guest or room on each query.
+ * An update is O(log n); IDs whose total drops to zero leave the ranking.
+ */
+final class Leaderboard {
+    /** Highest score first, ties by ID so the order is stable. */
+    static final Comparator<LeaderboardEntry> RANK = Comparator.comparingLong(LeaderboardEntry::score).reversed()
+            .thenComparing(LeaderboardEntry::id);
+
+    private final Map<String, Long> scores = new HashMap<>();
+    private final TreeSet<LeaderboardEntry> ranking = new TreeSet<>(RANK);
+
+    synchronized void add(String id, long delta) {
+        if (id == null || delta == 0) {
+            return;
+        }
+        Long previous = scores.get(id);
+        long updated = (previous == null ? 0 : previous) + delta;
+        if (previous != null) {
+            ranking.remove(new LeaderboardEntry(id, previous));
+        }
+        if (updated == 0) {
+            scores.remove(id);
+        } else {
+            scores.put(id, updated);
+            ranking.add(new LeaderboardEntry(id, updated));
+        }
+    }
+
+    synchronized long score(String id) {
+        return scores.getOrDefault(id, 0L);
+    }
+
+    synchronized List<LeaderboardEntry> top(int k) {
+        List<LeaderboardEntry> top = new ArrayList<>(Math.min(k, ranking.size()));
+        Iterator<LeaderboardEntry> it = ranking.iterator();
+        while (top.size() < k && it.hasNext()) {
+            top.add(it.next());
+        }
+        return top;
+    }
+
+    synchronized void clear() {
+        scores.clear();
+        ranking.clear();
+    }
+
+    /**
+     * Every non-zero total, for {@link IndexCheckpoint}.
+     */
+    synchronized Map<String, Long> scores() {
+        return new HashMap<>(scores);
+    }
+
+    /**
+     * Replace the totals with saved {@link #scores()}.
+     */
+    synchronized void restore(Map<String, Long> saved) {
+        clear();
+        saved.forEach((id, score) -> {
+            if (score != 0) {
+                scores.put(id, score);
+                ranking.add(new LeaderboardEntry(id, score));
+            }
+        });
+    }
+
+    /**
+     * The K best of {@code items} by {@code order} (best first) through a bounded
+     * min-heap: O(n log K) time and O(K) memory, for ad hoc ranges no leaderboard covers.
+     */
+    static <T> List<T> topK(Iterable<T> items, int k, Comparator<? super T> order) {
+        // Worst of the current top K at the head, ready to be evicted
+        PriorityQueue<T> heap = new PriorityQueue<>(k + 1, order.reversed());
+        for (T item : items) {
+            if (heap.size() < k) {
+                heap.add(item);
+            } else if (order.compare(item, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+        List<T> top = new ArrayList<>(heap);
+        top.sort(order);
+        return top;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.hotel.service;
+
+/**
+ * One row of a top-K query: the ranked entity's ID and its score. Revenue scores
+ * are in cents.
+ */
+public record LeaderboardEntry(String id, long score) {
+}
@@ -0,0 +1,400 @@
+package com.example.hotel.service;
+
+import com.example.hotel.util.ConfigManager;
+import com.example.hotel.util.JsonFileManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Append-only mutation log ({@code journal.jsonl}) in the data directory, one JSON
+ * entry per line with a gap-free sequence number. Followers tail it to replay the
+ * primary's changes.
+ *
+ * <p>{@code journal.saved} holds the sequence the data files are known to include, so a
+ * follower that loads the files only replays what comes after it. Once the data files
+ * are saved past them, older entries are dropped by {@link #compact}: the journal is
+ * rewritten without them and swapped in, and tailers move to the new file.
+ */
+public class MutationJournal implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(MutationJournal.class.getName());
+    static final String FILE_NAME = "journal.jsonl";
+    static final String SAVED_FILE_NAME = "journal.saved";
+    private static final int TAIL_SCAN_BYTES = 64 * 1024;
+
+    private final Path path;
+    private final long compactBytes;
+    private BufferedWriter writer;
+    private long lastSeq;
+    // Journal size at which compact() next rewrites the file
+    private long nextCompactAt;
+    private Consumer<JournalEntry> listener = entry -> { };
+
+    public MutationJournal(String dataDir) throws IOException {
+        this(dataDir, ConfigManager.getJournalCompactBytes());
+    }
+
+    /**
+     * @param compactBytes size the journal may reach before {@link #compact} rewrites it
+     */
+    public MutationJournal(String dataDir, long compactBytes) throws IOException {
+        if (compactBytes < 0) {
+            throw new IllegalArgumentException("compactBytes must be >= 0");
+        }
+        this.path = pathFor(dataDir);
+        this.compactBytes = compactBytes;
+        this.nextCompactAt = compactBytes;
+        Files.createDirectories(path.getParent());
+        this.lastSeq = recoverLastSequence();
+        this.writer = openWriter();
+    }
+
+    static Path pathFor(String dataDir) {
+        return Path.of(dataDir, FILE_NAME);
+    }
+
+    /**
+     * The sequence the data files in {@code dataDir} are known to include, 0 if none is recorded.
+     */
+    static long readSavedSequence(String dataDir) {
+        Path saved = Path.of(dataDir, SAVED_FILE_NAME);
+        try {
+            return Files.exists(saved) ? Long.parseLong(Files.readString(saved, StandardCharsets.UTF_8).trim()) : 0;
+        } catch (IOException | NumberFormatException e) {
+            logger.warning("Ignoring unreadable " + saved + ", replaying the whole journal: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    public JournalEntry append(JournalEntry.Type type, String entityId, Object payload) throws IOException {
+        return append(type, entityId, payload, null);
+    }
+
+    /**
+     * Append an entry recording the client's idempotency key with the write, so the key
+     * is durable exactly when the change is.
+     */
+    public synchronized JournalEntry append(JournalEntry.Type type, String entityId, Object payload,
+                                            String idempotencyKey) throws IOException {
+        JournalEntry entry = new JournalEntry(lastSeq + 1, Instant.now(), type, entityId,
+                payload == null ? null : JsonFileManager.toJsonNode(payload), idempotencyKey);
+        writer.write(JsonFileManager.getCompactWriter().writeValueAsString(entry));
+        writer.newLine();
+        writer.flush();
+        lastSeq = entry.seq();
+        listener.accept(entry);
+        return entry;
+    }
+
+    /**
+     * Called with each entry once it is on disk, under the journal lock, so calls
+     * arrive in sequence order.
+     */
+    synchronized void setListener(Consumer<JournalEntry> listener) {
+        this.listener = listener;
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSeq;
+    }
+
+    /**
+     * Record that the data files include every entry up to {@code sequence}.
+     */
+    public synchronized void markSaved(long sequence) throws IOException {
+        Path saved = path.resolveSibling(SAVED_FILE_NAME);
+        Path tmp = saved.resolveSibling(SAVED_FILE_NAME + ".tmp");
+        Files.writeString(tmp, Long.toString(sequence), StandardCharsets.UTF_8);
+        Files.move(tmp, saved, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Once the journal has outgrown its threshold, drop the entries that are both in the
+     * data files (up to {@code savedThrough}) and older than {@code keepSince}. The saved
+     * sequence is recorded first, so a follower never starts past the oldest kept entry.
+     * Appends wait while the file is rewritten; the threshold then doubles with the size
+     * kept, so the copying costs O(1) per entry overall.
+     *
+     * @return true if entries were dropped
+     */
+    public synchronized boolean compact(long savedThrough, Instant keepSince) throws IOException {
+        long size = Files.size(path);
+        if (size < nextCompactAt || savedThrough <= 0) {
+            return false;
+        }
+        long keepFrom;
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            keepFrom = offsetOfFirstEntryAfter(file,
+                    entry -> entry.seq() <= savedThrough && entry.timestamp().isBefore(keepSince));
+        }
+        nextCompactAt = Math.max(compactBytes, 2 * (size - keepFrom));
+        if (keepFrom == 0) {
+            return false;
+        }
+        markSaved(savedThrough);
+        Path tmp = path.resolveSibling(FILE_NAME + ".tmp");
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (long position = keepFrom; position < size; ) {
+                position += in.transferTo(position, size - position, out);
+            }
+            out.force(true);
+        }
+        writer.close();
+        try {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            writer = openWriter();
+        }
+        logger.info("Compacted journal " + path + " from " + size + " to " + (size - keepFrom) + " bytes");
+        return true;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    private BufferedWriter openWriter() throws IOException {
+        return Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Find the last complete entry, dropping a torn trailing line left by a crash.
+     */
+    private long recoverLastSequence() throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long start = Math.max(0, size - TAIL_SCAN_BYTES);
+            ByteBuffer buffer = ByteBuffer.allocate((int) (size - start));
+            channel.read(buffer, start);
+            String tail = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+            int end = tail.lastIndexOf('\n');
+            if (end < 0) {
+                if (start == 0 && size > 0) {
+                    logger.warning("Discarding torn journal entry in " + path);
+                    channel.truncate(0);
+                }
+                return 0;
+            }
+            if (end + 1 < tail.length()) {
+                logger.warning("Discarding torn journal entry in " + path);
+                channel.truncate(start + tail.substring(0, end + 1).getBytes(StandardCharsets.UTF_8).length);
+            }
+            int lineStart = tail.lastIndexOf('\n', end - 1) + 1;
+            JournalEntry last = JsonFileManager.getReader(JournalEntry.class).readValue(tail.substring(lineStart, end));
+            return last.seq();
+        }
+    }
+
+    /**
+     * Entries written at or after {@code since}, in sequence order. Scans back from the
+     * end of the file, so the cost depends on how many entries are that recent rather
+     * than on the size of the journal.
+     */
+    static List<JournalEntry> readSince(Path path, Instant since) throws IOException {
+        if (!Files.exists(path)) {
+            return List.of();
+        }
+        long start;
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+            start = offsetOfFirstEntryAfter(file, entry -> entry.timestamp().isBefore(since));
+        }
+        List<JournalEntry> entries = new ArrayList<>();
+        try (Tailer tailer = new Tailer(path, start)) {
+            for (List<JournalEntry> batch = tailer.poll(); !batch.isEmpty(); batch = tailer.poll()) {
+                entries.addAll(batch);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Byte offset of the first line after those matching {@code older}, which must hold
+     * for a prefix of the file (sequences and timestamps only grow along it). Scans back
+     * from the end, so the scan stops at the last older line.
+     */
+    private static long offsetOfFirstEntryAfter(RandomAccessFile file, Predicate<JournalEntry> older) throws IOException {
+        // Always the start of a line: nothing from here on is older
+        long found = file.length();
+        int chunk = TAIL_SCAN_BYTES;
+        while (found > 0) {
+            long from = Math.max(0, found - chunk);
+            byte[] bytes = new byte[(int) (found - from)];
+            file.seek(from);
+            file.readFully(bytes);
+            // The byte before found is the previous line's newline
+            int lineEnd = bytes.length - 1;
+            int lineStart = lineEnd - 1;
+            boolean progressed = false;
+            while (true) {
+                while (lineStart >= 0 && bytes[lineStart] != '\n') {
+                    lineStart--;
+                }
+                if (lineStart < 0 && from > 0) {
+                    break;   // line starts in an earlier chunk
+                }
+                String line = new String(bytes, lineStart + 1, lineEnd - lineStart - 1, StandardCharsets.UTF_8);
+                if (!line.isBlank()) {
+                    JournalEntry entry = JsonFileManager.getReader(JournalEntry.class).readValue(line);
+                    if (older.test(entry)) {
+                        return found;
+                    }
+                }
+                found = from + lineStart + 1;
+                progressed = true;
+                if (lineStart < 0) {
+                    return 0;
+                }
+                lineEnd = lineStart;
+                lineStart = lineEnd - 1;
+            }
+            // A line longer than the chunk: read more at once
+            chunk = progressed ? TAIL_SCAN_BYTES : chunk * 2;
+        }
+        return 0;
+    }
+
+    /**
+     * Incremental reader that remembers its byte offset between polls and only
+     * returns complete lines. When the journal is compacted, the reader finishes the
+     * old file, then continues in the new one after the last entry it returned; if the
+     * compaction dropped entries it never read, the next entry returned skips ahead.
+     */
+    static class Tailer implements AutoCloseable {
+        private final Path path;
+        private RandomAccessFile file;
+        // Identity of the open file, to notice it being replaced by a compaction
+        private Object fileKey;
+        private long position;
+        private long lastSeq;
+        private boolean seekToSequence;
+
+        Tailer(Path path) {
+            this(path, 0);
+        }
+
+        /**
+         * Start reading at {@code position}, which must be the start of a line.
+         */
+        Tailer(Path path, long position) {
+            this.path = path;
+            this.position = position;
+        }
+
+        /**
+         * Start with the first entry after sequence {@code afterSeq}, found by scanning
+         * back from the end of the journal.
+         */
+        static Tailer after(Path path, long afterSeq) {
+            Tailer tailer = new Tailer(path);
+            tailer.lastSeq = afterSeq;
+            tailer.seekToSequence = true;
+            return tailer;
+        }
+
+        List<JournalEntry> poll() throws IOException {
+            List<JournalEntry> entries = new ArrayList<>();
+            if (file == null && !open()) {
+                return entries;
+            }
+            long length = file.length();
+            if (length <= position) {
+                if (!replaced()) {
+                    return entries;
+                }
+                // The old file is complete; carry on after the last entry read from it
+                close();
+                file = null;
+                seekToSequence = true;
+                if (!open()) {
+                    return entries;
+                }
+                length = file.length();
+                if (length <= position) {
+                    return entries;
+                }
+            }
+            byte[] bytes = new byte[(int) Math.min(length - position, 4 * 1024 * 1024)];
+            file.seek(position);
+            file.readFully(bytes);
+            position += bytes.length;
+
+            // Only cut on complete lines so multi-byte characters are never split
+            int lastNewline = -1;
+            for (int i = bytes.length - 1; i >= 0; i--) {
+                if (bytes[i] == '\n') {
+                    lastNewline = i;
+                    break;
+                }
+            }
+            if (lastNewline < 0) {
+                position -= bytes.length;
+                return entries;
+            }
+            position -= bytes.length - lastNewline - 1;
+            for (String line : new String(bytes, 0, lastNewline, StandardCharsets.UTF_8).split("\n")) {
+                if (!line.isBlank()) {
+                    JournalEntry entry = JsonFileManager.getReader(JournalEntry.class).readValue(line);
+                    entries.add(entry);
+                    lastSeq = entry.seq();
+                }
+            }
+            return entries;
+        }
+
+        private boolean open() throws IOException {
+            if (!Files.exists(path)) {
+                return false;
+            }
+            // Key first: if the file is swapped in between, the next poll just reopens it
+            fileKey = fileKey();
+            file = new RandomAccessFile(path.toFile(), "r");
+            if (seekToSequence) {
+                position = offsetOfFirstEntryAfter(file, entry -> entry.seq() <= lastSeq);
+                seekToSequence = false;
+            }
+            return true;
+        }
+
+        private boolean replaced() throws IOException {
+            try {
+                Object current = fileKey();
+                return current == null ? Files.size(path) < position : !current.equals(fileKey);
+            } catch (NoSuchFileException e) {
+                return false;
+            }
+        }
+
+        private Object fileKey() throws IOException {
+            return Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (file != null) {
+                file.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.Reservation;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Occupied room-nights per day, kept in Fenwick trees over epoch days so any period
+ * is answered in O(log days) with the stays clipped exactly to the window.
+ *
+ * <p>A booking adds one to every night in [start, end). Range updates with range sums
+ * use the usual pair of trees: {@code prefix(i) = sum(nights, i) * i - sum(correction, i)}.
+ * Two more trees count arrivals and departures per day, which gives the number of
+ * bookings overlapping a period without scanning them.
+ */
+final class OccupancyCounter {
+    /** Supported booking dates; EARLIEST is index 1 of every tree. */
+    static final LocalDate EARLIEST = LocalDate.of(1900, 1, 1);
+    static final LocalDate LATEST = LocalDate.of(2199, 12, 31);
+    private static final long ORIGIN = EARLIEST.toEpochDay() - 1;
+    private static final int INITIAL_DAYS = 1 << 16;
+
+    /**
+     * A copy of the trees, for {@link IndexCheckpoint}.
+     */
+    record State(long[] nights, long[] correction, long[] arrivals, long[] departures, long bookings) {
+    }
+
+    private long[] nights = new long[INITIAL_DAYS + 1];
+    private long[] correction = new long[INITIAL_DAYS + 1];
+    private long[] arrivals = new long[INITIAL_DAYS + 1];
+    private long[] departures = new long[INITIAL_DAYS + 1];
+    private long bookings;
+
+    synchronized void add(Reservation reservation) {
+        update(reservation, 1);
+    }
+
+    synchronized void remove(Reservation reservation) {
+        update(reservation, -1);
+    }
+
+    synchronized void clear() {
+        nights = new long[INITIAL_DAYS + 1];
+        correction = new long[INITIAL_DAYS + 1];
+        arrivals = new long[INITIAL_DAYS + 1];
+        departures = new long[INITIAL_DAYS + 1];
+        bookings = 0;
+    }
+
+    synchronized State state() {
+        return new State(nights.clone(), correction.clone(), arrivals.clone(), departures.clone(), bookings);
+    }
+
+    /**
+     * Replace the counts with a saved {@link #state()}.
+     *
+     * @throws IllegalArgumentException if the trees are not all one power-of-two size plus one
+     */
+    synchronized void restore(State state) {
+        int length = state.nights().length;
+        if (length < 2 || Integer.bitCount(length - 1) != 1 || state.correction().length != length
+                || state.arrivals().length != length || state.departures().length != length) {
+            throw new IllegalArgumentException("Saved occupancy trees have mismatched sizes");
+        }
+        nights = state.nights().clone();
+        correction = state.correction().clone();
+        arrivals = state.arrivals().clone();
+        departures = state.departures().clone();
+        bookings = state.bookings();
+    }
+
+    /**
+     * Room-nights booked on the nights of {@code first} through {@code last}, inclusive.
+     */
+    synchronized long roomNights(LocalDate first, LocalDate last) {
+        if (last.isBefore(EARLIEST) || first.isAfter(LATEST)) {
+            return 0;
+        }
+        return nightsUpTo(clampedIndex(last)) - nightsUpTo(clampedIndex(first) - 1);
+    }
+
+    /**
+     * Bookings that arrive on or before {@code last} and depart on or after {@code first}.
+     */
+    synchronized long bookingsOverlapping(LocalDate first, LocalDate last) {
+        if (last.isBefore(EARLIEST) || first.isAfter(LATEST)) {
+            return 0;
+        }
+        long departedBefore = sum(departures, clampedIndex(first) - 1);
+        long arrivingAfter = bookings - sum(arrivals, clampedIndex(last));
+        return bookings - departedBefore - arrivingAfter;
+    }
+
+    private void update(Reservation reservation, int delta) {
+        int start = index(reservation.getStartDate());
+        int end = index(reservation.getEndDate());
+        ensureCapacity(end + 1);
+        // +delta on nights [start, end - 1]
+        add(nights, start, delta);
+        add(nights, end, -delta);
+        add(correction, start, (long) delta * (start - 1));
+        add(correction, end, -(long) delta * (end - 1));
+        add(arrivals, start, delta);
+        add(departures, end, delta);
+        bookings += delta;
+    }
+
+    private long nightsUpTo(int i) {
+        return sum(nights, i) * i - sum(correction, i);
+    }
+
+    private static int index(LocalDate date) {
+        if (date.isBefore(EARLIEST) || date.isAfter(LATEST)) {
+            throw new IllegalArgumentException("Dates must fall between " + EARLIEST + " and " + LATEST);
+        }
+        return (int) (date.toEpochDay() - ORIGIN);
+    }
+
+    private static int clampedIndex(LocalDate date) {
+        long index = date.toEpochDay() - ORIGIN;
+        return (int) Math.max(1, Math.min(index, LATEST.toEpochDay() - ORIGIN));
+    }
+
+    private static void add(long[] tree, int i, long delta) {
+        for (; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private static long sum(long[] tree, int i) {
+        long total = 0;
+        for (i = Math.min(i, tree.length - 1); i > 0; i -= i & -i) {
+            total += tree[i];
+        }
+        return total;
+    }
+
+    /**
+     * Double the day range until {@code index} fits. With a power-of-two size n, the
+     * new nodes in (n, 2n) cover only empty days and node 2n covers everything, so
+     * growing needs one prefix sum per tree instead of a rebuild.
+     */
+    private void ensureCapacity(int index) {
+        while (index >= nights.length) {
+            nights = grow(nights);
+            correction = grow(correction);
+            arrivals = grow(arrivals);
+            departures = grow(departures);
+        }
+    }
+
+    private static long[] grow(long[] tree) {
+        int size = tree.length - 1;
+        long total = sum(tree, size);
+        long[] grown = Arrays.copyOf(tree, 2 * size + 1);
+        grown[2 * size] = total;
+        return grown;
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.hotel.service;
+
+import com.example.hotel.util.ConfigManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Read-only replica of a primary {@link HotelManagementService} sharing the same data
+ * directory. The replica loads the data files, then tails the primary's journal from the
+ * sequence those files are known to include and applies each later entry in sequence
+ * order. The applied sequence is written to {@code replicas/<followerId>.offset} so the
+ * primary can report replication lag; a restart does not resume from it, because the
+ * files it reloads may not yet include what it had applied.
+ *
+ * <p>If the journal was compacted past entries the follower never read, it reloads the
+ * data files and carries on from there.
+ */
+public class ReplicaFollower implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(ReplicaFollower.class.getName());
+    private static final String OFFSETS_DIR = "replicas";
+    private static final String OFFSET_SUFFIX = ".offset";
+
+    private final String dataDir;
+    private final String followerId;
+    private final Duration pollInterval;
+    private final HotelManagementService replica;
+    // Guarded by this
+    private MutationJournal.Tailer tailer;
+    private volatile long appliedSequence;
+    private volatile boolean running;
+    private Thread poller;
+
+    public ReplicaFollower(String dataDir, String followerId) {
+        this(dataDir, followerId, Duration.ofMillis(ConfigManager.getReplicationPollMillis()));
+    }
+
+    public ReplicaFollower(String dataDir, String followerId, Duration pollInterval) {
+        this.dataDir = dataDir;
+        this.followerId = followerId;
+        this.pollInterval = pollInterval;
+        // Read before loading: files saved meanwhile are newer, and replaying over them converges
+        long saved = MutationJournal.readSavedSequence(dataDir);
+        this.replica = new HotelManagementService(dataDir, true);
+        this.appliedSequence = saved;
+        this.tailer = MutationJournal.Tailer.after(MutationJournal.pathFor(dataDir), saved);
+    }
+
+    /**
+     * Catch up with the journal and keep polling on a background thread.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        catchUp();
+        running = true;
+        poller = Thread.ofPlatform().daemon().name("replica-" + followerId).start(this::pollLoop);
+        logger.info("Replica " + followerId + " following " + dataDir + " from sequence " + appliedSequence);
+    }
+
+    public HotelManagementService getService() {
+        return replica;
+    }
+
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    /**
+     * Apply every complete entry currently in the journal.
+     *
+     * @return the number of entries applied
+     */
+    public synchronized int catchUp() {
+        int applied = 0;
+        try {
+            List<JournalEntry> entries;
+            while (!(entries = tailer.poll()).isEmpty()) {
+                for (JournalEntry entry : entries) {
+                    if (entry.seq() <= appliedSequence) {
+                        continue;
+                    }
+                    if (entry.seq() != appliedSequence + 1) {
+                        resync(entry.seq());
+                        break;
+                    }
+                    replica.applyJournalEntry(entry);
+                    appliedSequence = entry.seq();
+                    applied++;
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("Replica " + followerId + " failed to read journal: " + e.getMessage());
+        }
+        if (applied > 0) {
+            writeOffset();
+        }
+        return applied;
+    }
+
+    /**
+     * Start again from the data files after the journal dropped entries before {@code found}.
+     */
+    private void resync(long found) throws IOException {
+        logger.warning("Replica " + followerId + " missed journal entries " + (appliedSequence + 1) + " to "
+                + (found - 1) + ", reloading the data files");
+        long saved = MutationJournal.readSavedSequence(dataDir);
+        tailer.close();
+        replica.reloadReplica();
+        tailer = MutationJournal.Tailer.after(MutationJournal.pathFor(dataDir), saved);
+        appliedSequence = saved;
+    }
+
+    private void pollLoop() {
+        while (running) {
+            catchUp();
+            try {
+                Thread.sleep(pollInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void writeOffset() {
+        try {
+            Path dir = Path.of(dataDir, OFFSETS_DIR);
+            Files.createDirectories(dir);
+            Path tmp = dir.resolve(followerId + OFFSET_SUFFIX + ".tmp");
+            Files.writeString(tmp, Long.toString(appliedSequence), StandardCharsets.UTF_8);
+            Files.move(tmp, dir.resolve(followerId + OFFSET_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warning("Replica " + followerId + " failed to record offset: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Applied sequence per follower, as last reported in the data directory.
+     */
+    static Map<String, Long> readOffsets(String dataDir) {
+        Map<String, Long> offsets = new HashMap<>();
+        Path dir = Path.of(dataDir, OFFSETS_DIR);
+        if (!Files.isDirectory(dir)) {
+            return offsets;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + OFFSET_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    offsets.put(name.substring(0, name.length() - OFFSET_SUFFIX.length()),
+                            Long.parseLong(Files.readString(file, StandardCharsets.UTF_8).trim()));
+                } catch (IOException | NumberFormatException e) {
+                    logger.warning("Ignoring unreadable replica offset " + file + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("Could not read replica offsets: " + e.getMessage());
+        }
+        return offsets;
+    }
+
+    @Override
+    public void close() throws IOException {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = poller;
+            poller = null;
+        }
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            tailer.close();
+        }
+    }
+}
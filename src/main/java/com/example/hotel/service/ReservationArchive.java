@@ -0,0 +1,431 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.Reservation;
+import com.example.hotel.util.JsonFileManager;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold tier for completed stays: reservations that ended on or before a cut-off date,
+ * kept in {@code archive/} as gzip-compressed JSON lines with one segment per month of
+ * arrival, each in (start date, ID) order. Segments are read on demand and the most
+ * recently used ones stay cached.
+ *
+ * <p>{@code manifest.json} records the cut-off, the longest archived stay and how many
+ * stays each segment holds. It is written after the segments, so it never lists a
+ * segment that is not on disk. {@code ids.txt.gz} lists every archived reservation ID so
+ * that an ID stays taken once its stay is archived; it is written between the two, so
+ * at worst it names a stay that is still live.
+ */
+class ReservationArchive {
+    private static final Logger logger = Logger.getLogger(ReservationArchive.class.getName());
+    static final String DIR = "archive";
+    private static final String MANIFEST = "manifest.json";
+    private static final String IDS = "ids.txt.gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Comparator<Reservation> ORDER =
+            Comparator.comparing(Reservation::getStartDate).thenComparing(Reservation::getId);
+
+    /**
+     * @param archivedBefore every stay ending on or before this date is archived; null if nothing is
+     * @param longestStay    nights of the longest archived stay, bounding overlap searches
+     * @param segments       month ({@code yyyy-MM}) to number of stays in its segment
+     */
+    record Manifest(LocalDate archivedBefore, long longestStay, Map<String, Integer> segments) {
+        static Manifest empty() {
+            return new Manifest(null, 0, Map.of());
+        }
+    }
+
+    private final Path dir;
+    private final int cachedSegments;
+    private volatile Manifest manifest = Manifest.empty();
+    // Replaced, never changed, so readers need no lock
+    private volatile Set<String> ids = Set.of();
+
+    // Guarded by this; access order, so the eldest entry is the least recently read segment
+    private final Map<YearMonth, List<Reservation>> cache;
+    private long hits;
+    private long misses;
+
+    ReservationArchive(String dataDir, int cachedSegments) {
+        if (cachedSegments <= 0) {
+            throw new IllegalArgumentException("cachedSegments must be > 0");
+        }
+        this.dir = Path.of(dataDir, DIR);
+        this.cachedSegments = cachedSegments;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<YearMonth, List<Reservation>> eldest) {
+                return size() > ReservationArchive.this.cachedSegments;
+            }
+        };
+        reload();
+    }
+
+    /**
+     * Re-read the manifest and drop cached segments, e.g. after another process archived.
+     */
+    synchronized void reload() {
+        try {
+            Manifest loaded = JsonFileManager.loadObjectFromFile(dir.resolve(MANIFEST).toString(), Manifest.class);
+            manifest = loaded == null ? Manifest.empty() : loaded;
+        } catch (IOException e) {
+            logger.severe("Could not read archive manifest, archived stays are unavailable: " + e.getMessage());
+            manifest = Manifest.empty();
+        }
+        cache.clear();
+        try {
+            ids = loadIds();
+        } catch (IOException e) {
+            logger.severe("Could not read archived reservation IDs: " + e.getMessage());
+            ids = Set.of();
+        }
+    }
+
+    LocalDate getArchivedBefore() {
+        return manifest.archivedBefore();
+    }
+
+    boolean isEmpty() {
+        return manifest.segments().isEmpty();
+    }
+
+    /**
+     * Whether a stay with this reservation ID has been archived.
+     */
+    boolean contains(String reservationId) {
+        return ids.contains(reservationId);
+    }
+
+    /**
+     * Every archived reservation ID; the set is never changed once returned.
+     */
+    Set<String> ids() {
+        return ids;
+    }
+
+    long size() {
+        return manifest.segments().values().stream().mapToLong(Integer::longValue).sum();
+    }
+
+    /**
+     * Add {@code stays} to their months' segments, replacing any archived copy with the
+     * same ID so a repeated run is harmless, then move the cut-off to {@code archivedBefore}.
+     */
+    synchronized void append(Collection<Reservation> stays, LocalDate archivedBefore) throws IOException {
+        Files.createDirectories(dir);
+        Map<YearMonth, List<Reservation>> byMonth = stays.stream()
+                .collect(Collectors.groupingBy(stay -> YearMonth.from(stay.getStartDate()), TreeMap::new, Collectors.toList()));
+        Manifest current = manifest;
+        Map<String, Integer> segments = new TreeMap<>(current.segments());
+        Set<String> archivedIds = new HashSet<>(ids);
+        long longestStay = current.longestStay();
+        for (Map.Entry<YearMonth, List<Reservation>> month : byMonth.entrySet()) {
+            Map<String, Reservation> merged = new LinkedHashMap<>();
+            if (segments.containsKey(month.getKey().toString())) {
+                readSegment(month.getKey(), stay -> merged.put(stay.getId(), stay));
+            }
+            for (Reservation stay : month.getValue()) {
+                merged.put(stay.getId(), stay);
+                archivedIds.add(stay.getId());
+                longestStay = Math.max(longestStay, stay.getEndDate().toEpochDay() - stay.getStartDate().toEpochDay());
+            }
+            List<Reservation> sorted = new ArrayList<>(merged.values());
+            sorted.sort(ORDER);
+            writeSegment(month.getKey(), sorted);
+            segments.put(month.getKey().toString(), sorted.size());
+            cache.remove(month.getKey());
+        }
+        LocalDate cutOff = current.archivedBefore() == null || archivedBefore.isAfter(current.archivedBefore())
+                ? archivedBefore : current.archivedBefore();
+        Manifest updated = new Manifest(cutOff, longestStay, segments);
+        writeIds(archivedIds);
+        ids = Collections.unmodifiableSet(archivedIds);
+        JsonFileManager.saveObjectToFile(updated, dir.resolve(MANIFEST).toString());
+        manifest = updated;
+    }
+
+    /**
+     * Archived stays arriving in [{@code from}, {@code to}) in (start date, ID) order,
+     * read a segment at a time. Either bound may be null.
+     */
+    Iterator<Reservation> iterator(LocalDate from, LocalDate to) {
+        return iterator(from, null, to);
+    }
+
+    /**
+     * Like {@link #iterator(LocalDate, LocalDate)}, but a non-null {@code afterId} also
+     * skips stays arriving on {@code from} with an ID up to and including it, so a cursor
+     * page starts where the previous one ended. The first segment is entered by binary
+     * search rather than read from its start.
+     */
+    Iterator<Reservation> iterator(LocalDate from, String afterId, LocalDate to) {
+        List<YearMonth> months = new ArrayList<>();
+        for (String key : manifest.segments().keySet()) {
+            YearMonth month = YearMonth.parse(key);
+            if ((from == null || !month.isBefore(YearMonth.from(from))) && (to == null || !month.isAfter(YearMonth.from(to)))) {
+                months.add(month);
+            }
+        }
+        Collections.sort(months);
+        return new Iterator<>() {
+            private final Iterator<YearMonth> remaining = months.iterator();
+            private Iterator<Reservation> segment = Collections.emptyIterator();
+            private boolean first = true;
+            private Reservation next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    while (!segment.hasNext()) {
+                        if (!remaining.hasNext()) {
+                            return false;
+                        }
+                        List<Reservation> stays = segment(remaining.next());
+                        // Later segments start in later months, past from
+                        segment = first && from != null
+                                ? stays.subList(firstAfter(stays, from, afterId), stays.size()).iterator()
+                                : stays.iterator();
+                        first = false;
+                    }
+                    Reservation candidate = segment.next();
+                    if (to != null && !candidate.getStartDate().isBefore(to)) {
+                        return false;
+                    }
+                    next = candidate;
+                }
+                return true;
+            }
+
+            @Override
+            public Reservation next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Reservation result = next;
+                next = null;
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Index of the first stay in {@code stays}, a segment in (start date, ID) order, that
+     * arrives after {@code from}, or on it with an ID after {@code afterId} (any ID if null).
+     */
+    private static int firstAfter(List<Reservation> stays, LocalDate from, String afterId) {
+        int low = 0;
+        int high = stays.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            Reservation stay = stays.get(mid);
+            int byDate = stay.getStartDate().compareTo(from);
+            boolean before = byDate < 0 || (byDate == 0 && afterId != null && stay.getId().compareTo(afterId) <= 0);
+            if (before) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Archived stays with at least one night in [{@code from}, {@code to}).
+     */
+    List<Reservation> overlapping(LocalDate from, LocalDate to) {
+        List<Reservation> stays = new ArrayList<>();
+        Iterator<Reservation> candidates = iterator(from.minusDays(manifest.longestStay()), to);
+        while (candidates.hasNext()) {
+            Reservation stay = candidates.next();
+            if (stay.getEndDate().isAfter(from)) {
+                stays.add(stay);
+            }
+        }
+        return stays;
+    }
+
+    /**
+     * Every archived stay, streamed from disk without filling the cache.
+     */
+    void forEach(Consumer<Reservation> action) throws IOException {
+        for (String key : manifest.segments().keySet()) {
+            readSegment(YearMonth.parse(key), action);
+        }
+    }
+
+    /**
+     * Like {@link #forEach} but reading segments in parallel, in no particular order;
+     * {@code action} must be thread-safe.
+     */
+    void forEachParallel(Consumer<Reservation> action) throws IOException {
+        try {
+            manifest.segments().keySet().parallelStream().forEach(key -> {
+                try {
+                    readSegment(YearMonth.parse(key), action);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * The manifest and every segment file, for checksumming.
+     */
+    List<Path> files() throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().endsWith(".tmp"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("archivedBefore", manifest.archivedBefore());
+        stats.put("archivedReservations", size());
+        stats.put("segments", manifest.segments().size());
+        stats.put("cachedSegments", cache.size());
+        stats.put("cacheHits", hits);
+        stats.put("cacheMisses", misses);
+        return stats;
+    }
+
+    private synchronized List<Reservation> segment(YearMonth month) {
+        List<Reservation> cached = cache.get(month);
+        if (cached != null) {
+            hits++;
+            return cached;
+        }
+        misses++;
+        List<Reservation> loaded = new ArrayList<>(manifest.segments().getOrDefault(month.toString(), 0));
+        try {
+            readSegment(month, loaded::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archive segment " + month, e);
+        }
+        List<Reservation> segment = Collections.unmodifiableList(loaded);
+        cache.put(month, segment);
+        return segment;
+    }
+
+    private Path segmentPath(YearMonth month) {
+        return dir.resolve("reservations-" + month + ".jsonl.gz");
+    }
+
+    private void readSegment(YearMonth month, Consumer<Reservation> action) throws IOException {
+        ObjectReader reader = JsonFileManager.getReader(Reservation.class);
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(segmentPath(month)), BUFFER_SIZE), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isBlank()) {
+                    action.accept(reader.readValue(line));
+                }
+            }
+        }
+    }
+
+    /**
+     * Save the ID index if the archive predates it, so later starts need not rebuild it.
+     */
+    synchronized void writeIdsIfMissing() throws IOException {
+        if (!isEmpty() && !Files.exists(dir.resolve(IDS))) {
+            writeIds(ids);
+        }
+    }
+
+    /**
+     * The ID index, rebuilt from the segments for an archive written before it existed.
+     */
+    private Set<String> loadIds() throws IOException {
+        if (isEmpty()) {
+            return Set.of();
+        }
+        Set<String> loaded = new HashSet<>();
+        Path path = dir.resolve(IDS);
+        if (!Files.exists(path)) {
+            forEach(stay -> loaded.add(stay.getId()));
+            logger.info("Indexed " + loaded.size() + " archived reservation IDs from the segments");
+            return Collections.unmodifiableSet(loaded);
+        }
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(path), BUFFER_SIZE), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    loaded.add(line);
+                }
+            }
+        }
+        return Collections.unmodifiableSet(loaded);
+    }
+
+    private void writeIds(Set<String> archivedIds) throws IOException {
+        Files.createDirectories(dir);
+        Path target = dir.resolve(IDS);
+        Path tmp = target.resolveSibling(IDS + ".tmp");
+        try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(tmp), BUFFER_SIZE), StandardCharsets.UTF_8))) {
+            for (String id : new TreeSet<>(archivedIds)) {
+                out.write(id);
+                out.newLine();
+            }
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void writeSegment(YearMonth month, List<Reservation> stays) throws IOException {
+        Path target = segmentPath(month);
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        ObjectWriter writer = JsonFileManager.getCompactWriter();
+        try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(tmp), BUFFER_SIZE), StandardCharsets.UTF_8))) {
+            for (Reservation stay : stays) {
+                out.write(writer.writeValueAsString(stay));
+                out.newLine();
+            }
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.Reservation;
+
+import java.util.List;
+
+/**
+ * One page of reservations in (start date, ID) order. Pass {@code nextCursor} back to
+ * fetch the following page; it is null on the last page.
+ */
+public record ReservationPage(List<Reservation> items, String nextCursor) {
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
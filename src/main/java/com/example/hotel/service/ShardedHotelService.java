@@ -0,0 +1,343 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Payment;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.model.Room;
+import com.example.hotel.util.ConfigManager;
+import com.example.hotel.util.ValidationUtils;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Multi-property front end that partitions rooms, reservations and payments by
+ * property ID. Each property is an independent {@link HotelManagementService} shard
+ * with its own maps, indexes, locks and data subdirectory, so a write at one hotel
+ * never rewrites or blocks another's files.
+ *
+ * <p>Layout under the chain directory:
+ * <pre>
+ * guests.json                  chain-wide guest directory
+ * properties/{propertyId}/     one shard: rooms.json, guests.json, reservations.json, payments.json
+ * </pre>
+ * Guests are chain-wide; a profile is copied into a property's shard on its first
+ * booking there. Cross-property queries fan out to all shards in parallel.
+ */
+public class ShardedHotelService implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(ShardedHotelService.class.getName());
+
+    private final String chainDir;
+    private final HotelManagementService guestDirectory;
+    private final Map<String, HotelManagementService> shards = new ConcurrentHashMap<>();
+
+    // Routing tables, rebuilt from the shards (live and archived) at startup
+    private final Map<String, String> propertyByRoom = new ConcurrentHashMap<>();
+    private final Map<String, String> propertyByReservation = new ConcurrentHashMap<>();
+
+    private final ExecutorService fanOutExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ShardedHotelService() {
+        this(ConfigManager.getDataDirectory() + "/chain");
+    }
+
+    public ShardedHotelService(String chainDir) {
+        this.chainDir = chainDir;
+        this.guestDirectory = new HotelManagementService(chainDir);
+        File[] propertyDirs = new File(propertiesDir()).listFiles(File::isDirectory);
+        if (propertyDirs != null) {
+            for (File dir : propertyDirs) {
+                shards.put(dir.getName(), openShard(dir.getName()));
+            }
+        }
+        logger.info("ShardedHotelService initialized with " + shards.size() + " properties in " + chainDir);
+    }
+
+    // ==================== PROPERTIES ====================
+
+    /**
+     * Get or create the shard for a property.
+     */
+    public HotelManagementService addProperty(String propertyId) {
+        if (!ValidationUtils.isValidId(propertyId)) {
+            throw new IllegalArgumentException("Invalid property ID format");
+        }
+        return shards.computeIfAbsent(propertyId, this::openShard);
+    }
+
+    public Set<String> listProperties() {
+        return new TreeSet<>(shards.keySet());
+    }
+
+    public Optional<String> getPropertyForRoom(String roomId) {
+        return Optional.ofNullable(propertyByRoom.get(roomId));
+    }
+
+    // ==================== ROOMS ====================
+
+    public Room addRoom(String propertyId, Room room) {
+        Objects.requireNonNull(room, "Room cannot be null");
+        HotelManagementService shard = addProperty(propertyId);
+        String owner = propertyByRoom.putIfAbsent(room.getId(), propertyId);
+        if (owner != null) {
+            throw new IllegalArgumentException("Room with ID " + room.getId() + " already exists in property " + owner);
+        }
+        try {
+            return shard.addRoom(room);
+        } catch (RuntimeException e) {
+            propertyByRoom.remove(room.getId(), propertyId);
+            throw e;
+        }
+    }
+
+    public boolean removeRoom(String roomId) {
+        String propertyId = propertyByRoom.get(roomId);
+        if (propertyId == null || !shards.get(propertyId).removeRoom(roomId)) {
+            return false;
+        }
+        propertyByRoom.remove(roomId, propertyId);
+        return true;
+    }
+
+    public List<Room> listRooms() {
+        return fanOut(HotelManagementService::listRooms).stream()
+                .sorted(Comparator.comparing(Room::getNumber))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    public List<Room> listRooms(String propertyId) {
+        return shard(propertyId).listRooms();
+    }
+
+    // ==================== GUESTS ====================
+
+    public Guest addGuest(Guest guest) {
+        return guestDirectory.addGuest(guest);
+    }
+
+    public Optional<Guest> getGuestById(String guestId) {
+        return guestDirectory.getGuestById(guestId);
+    }
+
+    public List<Guest> listGuests() {
+        return guestDirectory.listGuests();
+    }
+
+    /**
+     * Update the directory profile and every property copy of it.
+     */
+    public Guest updateGuest(Guest guest) {
+        Guest updated = guestDirectory.updateGuest(guest);
+        for (HotelManagementService shard : shards.values()) {
+            if (shard.getGuestById(guest.getGuestId()).isPresent()) {
+                shard.updateGuest(guest);
+            }
+        }
+        return updated;
+    }
+
+    // ==================== RESERVATIONS ====================
+
+    /**
+     * Create a reservation; a null {@code requestedId} is replaced by a generated ID.
+     */
+    public Reservation createReservation(String requestedId, String roomId, String guestId,
+                                         LocalDate startDate, LocalDate endDate, int partySize) {
+        return createReservation(requestedId, roomId, guestId, startDate, endDate, partySize, null);
+    }
+
+    /**
+     * Create a reservation that is safe to retry with the same {@code idempotencyKey}; see
+     * {@link HotelManagementService#createReservation(String, String, String, LocalDate, LocalDate, int, String)}.
+     * Keys are remembered by the property that owns the room, which every retry reaches.
+     */
+    public Reservation createReservation(String requestedId, String roomId, String guestId,
+                                         LocalDate startDate, LocalDate endDate, int partySize, String idempotencyKey) {
+        String reservationId = requestedId != null ? requestedId : HotelManagementService.nextReservationId();
+        String propertyId = propertyByRoom.get(roomId);
+        if (propertyId == null) {
+            throw new IllegalArgumentException("Room with ID " + roomId + " not found");
+        }
+        HotelManagementService shard = shards.get(propertyId);
+        Guest guest = guestDirectory.getGuestById(guestId)
+                .orElseThrow(() -> new IllegalArgumentException("Guest with ID " + guestId + " not found"));
+        shard.addGuestIfAbsent(guest);
+
+        // Reservation IDs are unique across the chain so cancellations and payments can be routed
+        boolean claimed = propertyByReservation.putIfAbsent(reservationId, propertyId) == null;
+        while (!claimed && requestedId == null) {
+            reservationId = HotelManagementService.nextReservationId();
+            claimed = propertyByReservation.putIfAbsent(reservationId, propertyId) == null;
+        }
+        // A keyed retry may carry the ID its first attempt created; that property answers it
+        if (!claimed && (idempotencyKey == null || !propertyId.equals(propertyByReservation.get(reservationId)))) {
+            throw new IllegalArgumentException("Reservation with ID " + reservationId + " already exists");
+        }
+        Reservation created;
+        try {
+            created = shard.createReservation(reservationId, roomId, guestId, startDate, endDate, partySize,
+                    idempotencyKey);
+        } catch (RuntimeException e) {
+            if (claimed) {
+                propertyByReservation.remove(reservationId, propertyId);
+            }
+            throw e;
+        }
+        // A replayed retry returns the original reservation, which is routed already
+        if (claimed && !created.getId().equals(reservationId)) {
+            propertyByReservation.remove(reservationId, propertyId);
+        }
+        return created;
+    }
+
+    public Optional<Reservation> getReservationById(String reservationId) {
+        String propertyId = propertyByReservation.get(reservationId);
+        return propertyId == null ? Optional.empty() : shards.get(propertyId).getReservationById(reservationId);
+    }
+
+    public Optional<Reservation> cancelReservation(String reservationId) {
+        String propertyId = propertyByReservation.get(reservationId);
+        if (propertyId == null) {
+            return Optional.empty();
+        }
+        Optional<Reservation> cancelled = shards.get(propertyId).cancelReservation(reservationId);
+        cancelled.ifPresent(r -> propertyByReservation.remove(reservationId, propertyId));
+        return cancelled;
+    }
+
+    public boolean isRoomAvailable(String roomId, LocalDate startDate, LocalDate endDate) {
+        String propertyId = propertyByRoom.get(roomId);
+        return propertyId != null && shards.get(propertyId).isRoomAvailable(roomId, startDate, endDate);
+    }
+
+    public List<Room> getAvailableRooms(String propertyId, LocalDate startDate, LocalDate endDate) {
+        return shard(propertyId).getAvailableRooms(startDate, endDate);
+    }
+
+    /**
+     * Available rooms across all properties.
+     */
+    public Map<String, List<Room>> getAvailableRooms(LocalDate startDate, LocalDate endDate, int minCapacity) {
+        return fanOutByProperty(shard -> shard.getAvailableRooms(startDate, endDate, minCapacity));
+    }
+
+    public List<Reservation> listReservationsForGuest(String guestId) {
+        return fanOut(shard -> shard.listReservationsForGuest(guestId)).stream()
+                .sorted(Comparator.comparing(Reservation::getStartDate))
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    // ==================== PAYMENTS ====================
+
+    public Payment addPayment(Payment payment) {
+        return addPayment(payment, null);
+    }
+
+    /**
+     * Add a payment that is safe to retry with the same {@code idempotencyKey}; see
+     * {@link HotelManagementService#addPayment(Payment, String)}.
+     */
+    public Payment addPayment(Payment payment, String idempotencyKey) {
+        Objects.requireNonNull(payment, "Payment cannot be null");
+        String propertyId = propertyByReservation.get(payment.getReservationId());
+        if (propertyId == null) {
+            throw new IllegalArgumentException("Reservation with ID " + payment.getReservationId() + " not found");
+        }
+        return shards.get(propertyId).addPayment(payment, idempotencyKey);
+    }
+
+    public List<Payment> listPaymentsForGuest(String guestId) {
+        return fanOut(shard -> shard.listPaymentsForGuest(guestId)).stream()
+                .sorted(Comparator.comparing(Payment::getPaymentDate))
+                .collect(Collectors.toList());
+    }
+
+    // ==================== REPORTING ====================
+
+    /**
+     * Chain-wide occupancy with a per-property breakdown.
+     */
+    public Map<String, Object> generateOccupancyReport(LocalDate startDate, LocalDate endDate) {
+        Map<String, Map<String, Object>> byProperty =
+                fanOutByProperty(shard -> shard.generateOccupancyReport(startDate, endDate));
+        long rooms = 0, reservations = 0, occupied = 0, total = 0;
+        for (Map<String, Object> report : byProperty.values()) {
+            rooms += ((Number) report.get("totalRooms")).longValue();
+            reservations += ((Number) report.get("totalReservations")).longValue();
+            occupied += ((Number) report.get("occupiedRoomNights")).longValue();
+            total += ((Number) report.get("totalRoomNights")).longValue();
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("reportPeriod", startDate + " to " + endDate);
+        report.put("generatedAt", LocalDateTime.now());
+        report.put("totalProperties", byProperty.size());
+        report.put("totalRooms", rooms);
+        report.put("totalReservations", reservations);
+        report.put("occupiedRoomNights", occupied);
+        report.put("totalRoomNights", total);
+        report.put("occupancyRate", String.format("%.2f%%", total > 0 ? (double) occupied / total * 100 : 0));
+        report.put("properties", byProperty);
+        return report;
+    }
+
+    @Override
+    public void close() {
+        fanOutExecutor.close();
+        guestDirectory.checkpointIndexes();
+        shards.values().forEach(HotelManagementService::checkpointIndexes);
+    }
+
+    // ==================== HELPERS ====================
+
+    private String propertiesDir() {
+        return chainDir + "/properties";
+    }
+
+    private HotelManagementService openShard(String propertyId) {
+        String dir = propertiesDir() + "/" + propertyId;
+        new File(dir).mkdirs();
+        HotelManagementService shard = new HotelManagementService(dir);
+        shard.listRooms().forEach(room -> propertyByRoom.put(room.getId(), propertyId));
+        shard.listAllReservations().forEach(res -> propertyByReservation.put(res.getId(), propertyId));
+        // An archived stay's ID stays taken chain-wide
+        shard.archivedReservationIds().forEach(id -> propertyByReservation.put(id, propertyId));
+        return shard;
+    }
+
+    private HotelManagementService shard(String propertyId) {
+        HotelManagementService shard = shards.get(propertyId);
+        if (shard == null) {
+            throw new IllegalArgumentException("Property with ID " + propertyId + " not found");
+        }
+        return shard;
+    }
+
+    private <T> List<T> fanOut(Function<HotelManagementService, List<T>> query) {
+        List<T> merged = new ArrayList<>();
+        fanOutByProperty(query).values().forEach(merged::addAll);
+        return merged;
+    }
+
+    private <T> Map<String, T> fanOutByProperty(Function<HotelManagementService, T> query) {
+        Map<String, Future<T>> futures = new TreeMap<>();
+        shards.forEach((propertyId, shard) -> futures.put(propertyId, fanOutExecutor.submit(() -> query.apply(shard))));
+        Map<String, T> results = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Future<T>> entry : futures.entrySet()) {
+                results.put(entry.getKey(), entry.getValue().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying properties", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+}
@@ -0,0 +1,408 @@
+package com.example.hotel.service;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Immutable hash array mapped trie. Each level takes five bits of the key's hash, so an
+ * update copies only the nodes on the path to the key, at most 32 slots per level and
+ * about log32(size) levels, and every published instance stays valid for readers.
+ *
+ * <p>{@link #withAll} applies many updates as one step: nodes it creates belong to that
+ * call and are changed in place by its later updates, so a batch or a full load does
+ * not copy each path again per key.
+ */
+final class SnapshotMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    // Levels at shifts 0..30, plus one collision node below the last
+    private static final int MAX_DEPTH = 32 / BITS + 2;
+    private static final SnapshotMap<?, ?> EMPTY = new SnapshotMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private SnapshotMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> SnapshotMap<K, V> empty() {
+        return (SnapshotMap<K, V>) EMPTY;
+    }
+
+    static <K, V> SnapshotMap<K, V> copyOf(Map<K, V> source) {
+        return SnapshotMap.<K, V>empty().withAll(source.keySet(), source::get);
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(K key) {
+        return root == null ? null : (V) root.get(0, hash(key), key);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * This map with {@code key} set to {@code value}, or removed when {@code value} is null.
+     */
+    SnapshotMap<K, V> with(K key, V value) {
+        return update(null, key, value);
+    }
+
+    /**
+     * This map with each of {@code keys} set to its value from {@code values}, or removed
+     * where that is null.
+     */
+    SnapshotMap<K, V> withAll(Iterable<? extends K> keys, Function<? super K, ? extends V> values) {
+        // Owner of the nodes this call creates; nobody else holds it, so they are frozen once it returns
+        Object edit = new Object();
+        SnapshotMap<K, V> result = this;
+        for (K key : keys) {
+            result = result.update(edit, key, values.apply(key));
+        }
+        return result;
+    }
+
+    private SnapshotMap<K, V> update(Object edit, K key, V value) {
+        Objects.requireNonNull(key, "key");
+        int hash = hash(key);
+        Change change = new Change();
+        Node updated;
+        if (value != null) {
+            updated = (root == null ? BitmapNode.EMPTY : root).put(edit, 0, hash, key, value, change);
+        } else if (root != null) {
+            updated = root.remove(edit, 0, hash, key, change);
+        } else {
+            return this;
+        }
+        if (updated == root && change.delta == 0) {
+            return this;
+        }
+        return new SnapshotMap<>(updated, size + change.delta);
+    }
+
+    /**
+     * Read-only view of the values; iteration never sees later writes.
+     */
+    Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new ValueIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Change in entry count made by one update.
+     */
+    private static final class Change {
+        int delta;
+    }
+
+    /**
+     * A trie node. Its {@code array} holds key/value pairs; a null key marks a pair whose
+     * value is a child node.
+     */
+    private abstract static class Node {
+        // The withAll call allowed to change this node in place, or null
+        final Object edit;
+        Object[] array;
+
+        Node(Object edit, Object[] array) {
+            this.edit = edit;
+            this.array = array;
+        }
+
+        abstract Object get(int shift, int hash, Object key);
+
+        abstract Node put(Object edit, int shift, int hash, Object key, Object value, Change change);
+
+        /**
+         * @return the node without {@code key}, or null once it is empty
+         */
+        abstract Node remove(Object edit, int shift, int hash, Object key, Change change);
+
+        boolean ownedBy(Object edit) {
+            return edit != null && this.edit == edit;
+        }
+    }
+
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(null, 0, new Object[0]);
+
+        // Bit i is set when the slot for hash chunk i is present
+        int bitmap;
+
+        BitmapNode(Object edit, int bitmap, Object[] array) {
+            super(edit, array);
+            this.bitmap = bitmap;
+        }
+
+        @Override
+        Object get(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int i = 2 * index(bit);
+            Object k = array[i];
+            if (k == null) {
+                return ((Node) array[i + 1]).get(shift + BITS, hash, key);
+            }
+            return key.equals(k) ? array[i + 1] : null;
+        }
+
+        @Override
+        Node put(Object edit, int shift, int hash, Object key, Object value, Change change) {
+            int bit = bit(hash, shift);
+            int i = 2 * index(bit);
+            if ((bitmap & bit) == 0) {
+                change.delta++;
+                Object[] grown = new Object[array.length + 2];
+                System.arraycopy(array, 0, grown, 0, i);
+                grown[i] = key;
+                grown[i + 1] = value;
+                System.arraycopy(array, i, grown, i + 2, array.length - i);
+                if (ownedBy(edit)) {
+                    array = grown;
+                    bitmap |= bit;
+                    return this;
+                }
+                return new BitmapNode(edit, bitmap | bit, grown);
+            }
+            Object k = array[i];
+            Object v = array[i + 1];
+            if (k == null) {
+                Node child = ((Node) v).put(edit, shift + BITS, hash, key, value, change);
+                return child == v ? this : set(edit, i, null, child);
+            }
+            if (key.equals(k)) {
+                return v == value ? this : set(edit, i, k, value);
+            }
+            change.delta++;
+            return set(edit, i, null, pair(edit, shift + BITS, k, v, hash, key, value));
+        }
+
+        @Override
+        Node remove(Object edit, int shift, int hash, Object key, Change change) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int i = 2 * index(bit);
+            Object k = array[i];
+            Object v = array[i + 1];
+            if (k == null) {
+                Node child = ((Node) v).remove(edit, shift + BITS, hash, key, change);
+                if (child == v) {
+                    return this;
+                }
+                if (child != null) {
+                    return set(edit, i, null, child);
+                }
+            } else if (key.equals(k)) {
+                change.delta--;
+            } else {
+                return this;
+            }
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] shrunk = new Object[array.length - 2];
+            System.arraycopy(array, 0, shrunk, 0, i);
+            System.arraycopy(array, i + 2, shrunk, i, array.length - i - 2);
+            if (ownedBy(edit)) {
+                array = shrunk;
+                bitmap ^= bit;
+                return this;
+            }
+            return new BitmapNode(edit, bitmap ^ bit, shrunk);
+        }
+
+        private BitmapNode set(Object edit, int i, Object key, Object value) {
+            if (ownedBy(edit)) {
+                array[i] = key;
+                array[i + 1] = value;
+                return this;
+            }
+            Object[] copy = array.clone();
+            copy[i] = key;
+            copy[i + 1] = value;
+            return new BitmapNode(edit, bitmap, copy);
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        private static int bit(int hash, int shift) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+    }
+
+    /**
+     * Keys whose whole hashes are equal, searched in turn.
+     */
+    private static final class CollisionNode extends Node {
+        final int hash;
+
+        CollisionNode(Object edit, int hash, Object[] array) {
+            super(edit, array);
+            this.hash = hash;
+        }
+
+        @Override
+        Object get(int shift, int hash, Object key) {
+            int i = find(key);
+            return i < 0 ? null : array[i + 1];
+        }
+
+        @Override
+        Node put(Object edit, int shift, int hash, Object key, Object value, Change change) {
+            if (hash != this.hash) {
+                // Push this node one level down beside the new key
+                Node parent = new BitmapNode(edit, BitmapNode.bit(this.hash, shift), new Object[]{null, this});
+                return parent.put(edit, shift, hash, key, value, change);
+            }
+            int i = find(key);
+            if (i >= 0) {
+                if (array[i + 1] == value) {
+                    return this;
+                }
+                if (ownedBy(edit)) {
+                    array[i + 1] = value;
+                    return this;
+                }
+                Object[] copy = array.clone();
+                copy[i + 1] = value;
+                return new CollisionNode(edit, hash, copy);
+            }
+            change.delta++;
+            Object[] grown = new Object[array.length + 2];
+            System.arraycopy(array, 0, grown, 0, array.length);
+            grown[array.length] = key;
+            grown[array.length + 1] = value;
+            if (ownedBy(edit)) {
+                array = grown;
+                return this;
+            }
+            return new CollisionNode(edit, hash, grown);
+        }
+
+        @Override
+        Node remove(Object edit, int shift, int hash, Object key, Change change) {
+            int i = find(key);
+            if (i < 0) {
+                return this;
+            }
+            change.delta--;
+            if (array.length == 2) {
+                return null;
+            }
+            Object[] shrunk = new Object[array.length - 2];
+            System.arraycopy(array, 0, shrunk, 0, i);
+            System.arraycopy(array, i + 2, shrunk, i, array.length - i - 2);
+            if (ownedBy(edit)) {
+                array = shrunk;
+                return this;
+            }
+            return new CollisionNode(edit, hash, shrunk);
+        }
+
+        private int find(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * A node holding two entries that first met at {@code shift}.
+     */
+    private static Node pair(Object edit, int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+        int hash1 = hash(key1);
+        if (hash1 == hash2) {
+            return new CollisionNode(edit, hash1, new Object[]{key1, value1, key2, value2});
+        }
+        // Counted by the caller
+        Change ignored = new Change();
+        return BitmapNode.EMPTY.put(edit, shift, hash1, key1, value1, ignored)
+                .put(edit, shift, hash2, key2, value2, ignored);
+    }
+
+    /**
+     * Depth-first walk over the pairs, descending into child nodes.
+     */
+    private final class ValueIterator implements Iterator<V> {
+        private final Object[][] arrays = new Object[MAX_DEPTH][];
+        private final int[] positions = new int[MAX_DEPTH];
+        private int depth;
+        private Object next;
+
+        ValueIterator() {
+            if (root == null) {
+                depth = -1;
+            } else {
+                arrays[0] = root.array;
+            }
+            next = advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Object value = next;
+            next = advance();
+            return (V) value;
+        }
+
+        private Object advance() {
+            while (depth >= 0) {
+                Object[] array = arrays[depth];
+                int i = positions[depth];
+                if (i >= array.length) {
+                    depth--;
+                    continue;
+                }
+                positions[depth] = i + 2;
+                if (array[i] != null) {
+                    return array[i + 1];
+                }
+                depth++;
+                arrays[depth] = ((Node) array[i + 1]).array;
+                positions[depth] = 0;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package com.example.hotel.tools;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Payment;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.model.Room;
+import com.example.hotel.report.AnalyticsEngine;
+import com.example.hotel.service.HotelManagementService;
+import com.example.hotel.service.ReservationPage;
+import com.example.hotel.util.JsonFileManager;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Runs a script of hotel commands without the interactive menus, for nightly jobs,
+ * bulk VIP updates and mass cancellations.
+ *
+ * <p>One command per line; blank lines and lines starting with {@code #} are skipped,
+ * and arguments containing spaces go in double quotes:
+ * <pre>
+ * add-room &lt;id&gt; &lt;number&gt; &lt;capacity&gt;
+ * remove-room &lt;id&gt;
+ * add-guest &lt;id&gt; &lt;first&gt; &lt;last&gt; &lt;email&gt; &lt;phone&gt;
+ * set-vip &lt;guestId&gt; true|false
+ * book &lt;roomId&gt; &lt;guestId&gt; &lt;start&gt; &lt;end&gt; &lt;partySize&gt; [reservationId]
+ * cancel &lt;reservationId&gt;
+ * cancel-range &lt;from&gt; &lt;to&gt; [roomId]      stays starting in [from, to)
+ * pay &lt;reservationId&gt; &lt;amount&gt; &lt;method&gt; [paymentId]
+ * report stats | occupancy &lt;start&gt; &lt;end&gt; | analytics &lt;start&gt; &lt;end&gt;
+ * archive [cutOffDate]
+ * </pre>
+ *
+ * <p>Consecutive write commands run as one {@link HotelManagementService#runBatch batch}
+ * of at most {@code maxBatch} commands, so each touched data file is saved once per
+ * batch instead of once per command. Reports and archiving read the published snapshot,
+ * so they end the current batch first and always see every write before them.
+ *
+ * <p>Each command prints one JSON line: {@code line}, {@code command}, {@code ok} and
+ * either {@code result} or {@code error}. A failed command is reported and the script
+ * carries on, unless {@code failFast} is set; a last {@code summary} line gives the counts.
+ */
+public class BatchRunner {
+    private static final Logger logger = Logger.getLogger(BatchRunner.class.getName());
+    private static final Set<String> WRITES = Set.of(
+            "add-room", "remove-room", "add-guest", "set-vip", "book", "cancel", "cancel-range", "pay");
+    private static final int PAGE = 500;
+
+    public record Result(int commands, int failed, int batches, Duration elapsed) {
+        public boolean succeeded() {
+            return failed == 0;
+        }
+    }
+
+    private record Command(int line, String text) {
+        String name() {
+            return text.split("\\s", 2)[0];
+        }
+
+        boolean isWrite() {
+            return WRITES.contains(name());
+        }
+    }
+
+    private final HotelManagementService service;
+    private final PrintStream out;
+    private final boolean failFast;
+    private final int maxBatch;
+    private final ObjectWriter writer = JsonFileManager.getCompactWriter();
+
+    public BatchRunner(HotelManagementService service, PrintStream out, boolean failFast, int maxBatch) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("maxBatch must be > 0");
+        }
+        this.service = service;
+        this.out = out;
+        this.failFast = failFast;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * Run every command in {@code script}, which may be a file or a stream such as stdin.
+     */
+    public Result run(BufferedReader script) throws IOException {
+        long startNanos = System.nanoTime();
+        Session session = new Session(script);
+        try {
+            Command next = session.next();
+            while (next != null && !session.stopped()) {
+                if (next.isWrite()) {
+                    Command first = next;
+                    next = service.runBatch(() -> runWrites(session, first));
+                    session.batches++;
+                } else {
+                    session.execute(next);
+                    next = session.next();
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Result result = new Result(session.commands, session.failed, session.batches,
+                Duration.ofNanos(System.nanoTime() - startNanos));
+        ObjectNode summary = JsonNodeFactory.instance.objectNode();
+        summary.putObject("summary")
+                .put("commands", result.commands())
+                .put("failed", result.failed())
+                .put("batches", result.batches())
+                .put("elapsedMillis", result.elapsed().toMillis());
+        print(summary);
+        logger.info("Ran " + result.commands() + " commands, " + result.failed() + " failed");
+        return result;
+    }
+
+    /**
+     * Run {@code first} and the write commands after it, up to {@code maxBatch} of them.
+     * Returns the first command not run, or null at the end of the script.
+     */
+    private Command runWrites(Session session, Command first) {
+        Command next = first;
+        int run = 0;
+        try {
+            while (next != null && next.isWrite() && run < maxBatch && !session.stopped()) {
+                session.execute(next);
+                run++;
+                next = session.next();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return next;
+    }
+
+    private final class Session {
+        private final BufferedReader script;
+        private int lineNumber;
+        private int commands;
+        private int failed;
+        private int batches;
+
+        Session(BufferedReader script) {
+            this.script = script;
+        }
+
+        Command next() throws IOException {
+            String text;
+            while ((text = script.readLine()) != null) {
+                lineNumber++;
+                text = text.strip();
+                if (!text.isEmpty() && !text.startsWith("#")) {
+                    return new Command(lineNumber, text);
+                }
+            }
+            return null;
+        }
+
+        boolean stopped() {
+            return failFast && failed > 0;
+        }
+
+        void execute(Command command) {
+            commands++;
+            ObjectNode line = JsonNodeFactory.instance.objectNode();
+            line.put("line", command.line());
+            line.put("command", command.name());
+            try {
+                Object result = dispatch(command.name(), tokenize(command.text()));
+                line.put("ok", true);
+                line.set("result", JsonFileManager.toJsonNode(result));
+            } catch (RuntimeException e) {
+                failed++;
+                line.put("ok", false);
+                line.put("error", e.getMessage() != null ? e.getMessage() : e.toString());
+            }
+            print(line);
+        }
+    }
+
+    private void print(ObjectNode line) {
+        try {
+            out.println(writer.writeValueAsString(line));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ==================== COMMANDS ====================
+
+    private Object dispatch(String name, List<String> args) {
+        return switch (name) {
+            case "add-room" -> {
+                expect(args, 4, 4, "add-room <id> <number> <capacity>");
+                yield service.addRoom(new Room(args.get(1), args.get(2), parseInt(args.get(3), "capacity")));
+            }
+            case "remove-room" -> {
+                expect(args, 2, 2, "remove-room <id>");
+                if (!service.removeRoom(args.get(1))) {
+                    throw new IllegalArgumentException("Room " + args.get(1) + " not found");
+                }
+                yield Map.of("removed", args.get(1));
+            }
+            case "add-guest" -> {
+                expect(args, 6, 6, "add-guest <id> <first> <last> <email> <phone>");
+                yield service.addGuest(new Guest(args.get(1), args.get(2), args.get(3), args.get(4), args.get(5)));
+            }
+            case "set-vip" -> {
+                expect(args, 3, 3, "set-vip <guestId> true|false");
+                Guest guest = service.getGuestById(args.get(1))
+                        .orElseThrow(() -> new IllegalArgumentException("Guest " + args.get(1) + " not found"));
+                guest.setVipStatus(parseBoolean(args.get(2)));
+                yield service.updateGuest(guest);
+            }
+            case "book" -> {
+                expect(args, 6, 7, "book <roomId> <guestId> <start> <end> <partySize> [reservationId]");
+                yield service.createReservation(args.size() > 6 ? args.get(6) : null, args.get(1), args.get(2),
+                        parseDate(args.get(3)), parseDate(args.get(4)), parseInt(args.get(5), "partySize"));
+            }
+            case "cancel" -> {
+                expect(args, 2, 2, "cancel <reservationId>");
+                yield service.cancelReservation(args.get(1))
+                        .orElseThrow(() -> new IllegalArgumentException("Reservation " + args.get(1) + " not found"));
+            }
+            case "cancel-range" -> {
+                expect(args, 3, 4, "cancel-range <from> <to> [roomId]");
+                yield cancelRange(parseDate(args.get(1)), parseDate(args.get(2)), args.size() > 3 ? args.get(3) : null);
+            }
+            case "pay" -> {
+                expect(args, 4, 5, "pay <reservationId> <amount> <method> [paymentId]");
+                Reservation reservation = service.getReservationById(args.get(1))
+                        .orElseThrow(() -> new IllegalArgumentException("Reservation " + args.get(1) + " not found"));
+                yield service.addPayment(new Payment(args.size() > 4 ? args.get(4) : null, reservation.getId(),
+                        reservation.getGuestId(), parseAmount(args.get(2)),
+                        parseEnum(Payment.PaymentMethod.class, args.get(3), "payment method")));
+            }
+            case "report" -> report(args);
+            case "archive" -> {
+                expect(args, 1, 2, "archive [cutOffDate]");
+                int archived = args.size() > 1
+                        ? service.archiveStaysEndedBefore(parseDate(args.get(1)))
+                        : service.archiveCompletedStays();
+                yield Map.of("archived", archived);
+            }
+            default -> throw new IllegalArgumentException("Unknown command: " + name);
+        };
+    }
+
+    private Object report(List<String> args) {
+        String usage = "report stats | occupancy <start> <end> | analytics <start> <end>";
+        expect(args, 2, 4, usage);
+        return switch (args.get(1)) {
+            case "stats" -> service.getSystemStatistics();
+            case "occupancy" -> {
+                expect(args, 4, 4, usage);
+                yield service.generateOccupancyReport(parseDate(args.get(2)), parseDate(args.get(3)));
+            }
+            case "analytics" -> {
+                expect(args, 4, 4, usage);
+                yield new AnalyticsEngine().analyze(service, parseDate(args.get(2)), parseDate(args.get(3)));
+            }
+            default -> throw new IllegalArgumentException("Unknown report: " + args.get(1));
+        };
+    }
+
+    /**
+     * Cancel the live stays starting in [{@code from}, {@code to}), optionally in one room.
+     * The IDs are collected first so paging never runs over a cancelled stay.
+     */
+    private Map<String, Object> cancelRange(LocalDate from, LocalDate to, String roomId) {
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            ReservationPage page = service.listReservations(from, to, cursor, PAGE);
+            for (Reservation reservation : page.items()) {
+                if (roomId == null || roomId.equals(reservation.getRoomId())) {
+                    ids.add(reservation.getId());
+                }
+            }
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        int cancelled = 0;
+        for (String id : ids) {
+            // Archived stays come back from the page but cannot be cancelled; skip them
+            if (service.getReservationById(id).isPresent() && service.cancelReservation(id).isPresent()) {
+                cancelled++;
+            }
+        }
+        return Map.of("cancelled", cancelled);
+    }
+
+    // ==================== PARSING ====================
+
+    /**
+     * Split on whitespace; a double-quoted argument may contain spaces and {@code \"}.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean quoted = false;
+        boolean inToken = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '\\' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    token.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    token.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                inToken = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inToken) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                token.append(c);
+                inToken = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        if (inToken) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    private static void expect(List<String> args, int min, int max, String usage) {
+        if (args.size() < min || args.size() > max) {
+            throw new IllegalArgumentException("Usage: " + usage);
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid date (use YYYY-MM-DD): " + value);
+        }
+    }
+
+    private static int parseInt(String value, String what) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + what + ": " + value);
+        }
+    }
+
+    private static BigDecimal parseAmount(String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + value);
+        }
+    }
+
+    private static boolean parseBoolean(String value) {
+        return switch (value.toLowerCase()) {
+            case "true", "yes" -> true;
+            case "false", "no" -> false;
+            default -> throw new IllegalArgumentException("Expected true or false: " + value);
+        };
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String what) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + what + ": " + value);
+        }
+    }
+}
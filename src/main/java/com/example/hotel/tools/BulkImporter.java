@@ -0,0 +1,425 @@
+package com.example.hotel.tools;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Payment;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.model.Room;
+import com.example.hotel.service.HotelManagementService;
+import com.example.hotel.service.ReservationConflictException;
+import com.example.hotel.util.AppLogging;
+import com.example.hotel.util.ConfigManager;
+import com.example.hotel.util.JsonFileManager;
+import com.example.hotel.util.ValidationUtils;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Staged bulk import of rooms, guests, reservations or payments from CSV (with a
+ * header row) or JSON lines, for onboarding a property or migrating from another system.
+ *
+ * <ol>
+ *   <li>Read: one thread streams the input and cuts it into chunks of records.</li>
+ *   <li>Parse and validate: a worker pool maps each chunk to model objects and runs the
+ *       {@link ValidationUtils} checks on it.</li>
+ *   <li>Commit: the calling thread applies the chunks in file order through the service,
+ *       whose per-room stay index rejects booking conflicts. The whole commit runs as one
+ *       {@link HotelManagementService#runBatch batch}, so each data file is saved once.</li>
+ * </ol>
+ *
+ * <p>The stages are connected by a bounded queue of chunk futures, so reading never runs
+ * more than a few chunks ahead of committing and memory stays flat for any file size.
+ * Records that fail any stage go to the rejects file as JSON lines with the input line
+ * number, the reason and the original text.
+ *
+ * <p>Usage: {@code BulkImporter --type rooms|guests|reservations|payments --file input.csv
+ * [--data data] [--format csv|json] [--workers n] [--chunk 1000] [--rejects input.csv.rejects.jsonl]}
+ */
+public class BulkImporter {
+    private static final Logger logger = Logger.getLogger(BulkImporter.class.getName());
+    private static final Future<List<Parsed>> END = CompletableFuture.completedFuture(List.of());
+
+    public enum RecordType {
+        ROOMS(Room.class, Map.of()),
+        GUESTS(Guest.class, Map.of("guestId", "id")),
+        RESERVATIONS(Reservation.class, Map.of()),
+        PAYMENTS(Payment.class, Map.of("paymentId", "id"));
+
+        private final ObjectReader reader;
+        // CSV headers that name a JSON property differently, such as the exporter's paymentId column
+        private final Map<String, String> columnAliases;
+
+        RecordType(Class<?> type, Map<String, String> columnAliases) {
+            this.reader = JsonFileManager.getReader(type).without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+            this.columnAliases = columnAliases;
+        }
+    }
+
+    public enum Format { CSV, JSON }
+
+    public record ImportResult(long read, long imported, long rejected, Duration elapsed) {
+    }
+
+    private record Line(long number, String text) {
+    }
+
+    /** A record after parsing and validation; {@code error} is null if it may be committed. */
+    private record Parsed(long line, String text, Object record, String error) {
+    }
+
+    private final HotelManagementService service;
+    private final int workers;
+    private final int chunkSize;
+
+    public BulkImporter(HotelManagementService service, int workers, int chunkSize) {
+        if (workers < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("workers and chunk size must be > 0");
+        }
+        this.service = service;
+        this.workers = workers;
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportResult run(RecordType type, Path input, Format format, Path rejects) throws IOException {
+        long startNanos = System.nanoTime();
+        BlockingQueue<Future<List<Parsed>>> chunks = new ArrayBlockingQueue<>(workers * 2);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        Thread reader = Thread.ofPlatform().name("import-reader").daemon().start(
+                () -> read(type, input, format, pool, chunks));
+        try (RejectWriter rejected = new RejectWriter(rejects)) {
+            long[] counts = service.runBatch(() -> commit(type, chunks, rejected));
+            logger.info("Imported " + counts[1] + " of " + counts[0] + " " + type.name().toLowerCase()
+                    + " from " + input + (counts[0] > counts[1] ? ", rejects in " + rejects : ""));
+            return new ImportResult(counts[0], counts[1], counts[0] - counts[1],
+                    Duration.ofNanos(System.nanoTime() - startNanos));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            reader.interrupt();
+            pool.shutdownNow();
+        }
+    }
+
+    // ==================== READ ====================
+
+    private void read(RecordType type, Path input, Format format, ExecutorService pool,
+                      BlockingQueue<Future<List<Parsed>>> chunks) {
+        try {
+            try (BufferedReader in = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+                List<String> header = null;
+                List<Line> chunk = new ArrayList<>(chunkSize);
+                long lineNumber = 0;
+                String text;
+                while ((text = in.readLine()) != null) {
+                    long recordLine = ++lineNumber;
+                    if (format == Format.CSV) {
+                        // A quoted field may span lines; keep reading until the quotes balance
+                        StringBuilder record = null;
+                        String next;
+                        while (!quotesBalanced(record == null ? text : record) && (next = in.readLine()) != null) {
+                            lineNumber++;
+                            record = (record == null ? new StringBuilder(text) : record).append('\n').append(next);
+                        }
+                        if (record != null) {
+                            text = record.toString();
+                        }
+                        if (header == null) {
+                            header = csvFields(text);
+                            continue;
+                        }
+                    }
+                    if (text.isBlank()) {
+                        continue;
+                    }
+                    chunk.add(new Line(recordLine, text));
+                    if (chunk.size() == chunkSize) {
+                        submit(type, format, header, chunk, pool, chunks);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    submit(type, format, header, chunk, pool, chunks);
+                }
+            } catch (IOException e) {
+                chunks.put(CompletableFuture.failedFuture(e));
+            }
+            chunks.put(END);
+        } catch (InterruptedException e) {
+            // The committer gave up; nothing is waiting for more chunks
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(RecordType type, Format format, List<String> header, List<Line> chunk,
+                        ExecutorService pool, BlockingQueue<Future<List<Parsed>>> chunks) throws InterruptedException {
+        // Blocks when the committer is behind, which holds back both reading and parsing
+        chunks.put(pool.submit(() -> parse(type, format, header, chunk)));
+    }
+
+    // ==================== PARSE AND VALIDATE ====================
+
+    private static List<Parsed> parse(RecordType type, Format format, List<String> header, List<Line> lines) {
+        List<Object> records = new ArrayList<>(lines.size());
+        String[] errors = new String[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            try {
+                records.add(format == Format.CSV
+                        ? type.reader.readValue(toJson(type, header, csvFields(lines.get(i).text())))
+                        : type.reader.readValue(lines.get(i).text()));
+            } catch (IOException | IllegalArgumentException e) {
+                records.add(null);
+                errors[i] = "Unreadable record: " + String.valueOf(e.getMessage()).lines().findFirst().orElse("");
+            }
+        }
+        validate(type, records, errors);
+        List<Parsed> parsed = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            parsed.add(new Parsed(lines.get(i).number(), lines.get(i).text(), records.get(i), errors[i]));
+        }
+        return parsed;
+    }
+
+    private static ObjectNode toJson(RecordType type, List<String> header, List<String> fields) {
+        if (fields.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " fields but found " + fields.size());
+        }
+        ObjectNode node = JsonNodeFactory.instance.objectNode();
+        for (int i = 0; i < fields.size(); i++) {
+            if (!fields.get(i).isEmpty()) {
+                node.put(type.columnAliases.getOrDefault(header.get(i), header.get(i)), fields.get(i));
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Fill in {@code errors} for the records that fail validation; records that did not
+     * parse already have an error and are skipped.
+     */
+    @SuppressWarnings("unchecked")
+    private static void validate(RecordType type, List<Object> records, String[] errors) {
+        switch (type) {
+            case ROOMS -> {
+                for (int i = 0; i < records.size(); i++) {
+                    if (records.get(i) instanceof Room room) {
+                        errors[i] = !ValidationUtils.isValidId(room.getId()) ? "Invalid room ID"
+                                : !ValidationUtils.isValidRoomNumber(room.getNumber()) ? "Invalid room number"
+                                : !ValidationUtils.isValidCapacity(room.getCapacity()) ? "Invalid capacity" : null;
+                    }
+                }
+            }
+            case GUESTS -> {
+                List<Guest> guests = (List<Guest>) (List<?>) records;
+                BitSet failed = ValidationUtils.validateGuests(guests);
+                for (int i = 0; i < guests.size(); i++) {
+                    if (guests.get(i) != null) {
+                        errors[i] = !ValidationUtils.isValidId(guests.get(i).getGuestId()) ? "Invalid guest ID"
+                                : firstFailure(failed, i, ValidationUtils.GUEST_CHECKS, "first name", "last name",
+                                "email address", "phone number");
+                    }
+                }
+            }
+            case RESERVATIONS -> {
+                List<Reservation> reservations = (List<Reservation>) (List<?>) records;
+                BitSet failed = ValidationUtils.validateReservations(reservations);
+                for (int i = 0; i < reservations.size(); i++) {
+                    if (reservations.get(i) != null) {
+                        errors[i] = !ValidationUtils.isValidId(reservations.get(i).getGuestId()) ? "Invalid guest ID"
+                                : firstFailure(failed, i, ValidationUtils.RESERVATION_CHECKS, "reservation ID",
+                                "room ID", "date range", "party size");
+                    }
+                }
+            }
+            case PAYMENTS -> {
+                for (int i = 0; i < records.size(); i++) {
+                    if (records.get(i) instanceof Payment payment) {
+                        errors[i] = !ValidationUtils.isValidId(payment.getPaymentId()) ? "Invalid payment ID"
+                                : !ValidationUtils.isValidId(payment.getReservationId()) ? "Invalid reservation ID"
+                                : !ValidationUtils.isValidId(payment.getGuestId()) ? "Invalid guest ID"
+                                : payment.getAmount() == null || payment.getAmount().signum() <= 0 ? "Invalid amount"
+                                : payment.getPaymentMethod() == null ? "Payment method is required" : null;
+                    }
+                }
+            }
+        }
+    }
+
+    private static String firstFailure(BitSet failed, int index, int checks, String... names) {
+        int bit = failed.nextSetBit(index * checks);
+        return bit < 0 || bit >= (index + 1) * checks ? null : "Invalid " + names[bit - index * checks];
+    }
+
+    // ==================== COMMIT ====================
+
+    /**
+     * Apply the chunks in file order; returns {records read, records imported}.
+     */
+    private long[] commit(RecordType type, BlockingQueue<Future<List<Parsed>>> chunks, RejectWriter rejects) {
+        long read = 0;
+        long imported = 0;
+        try {
+            Future<List<Parsed>> next;
+            while ((next = chunks.take()) != END) {
+                for (Parsed parsed : next.get()) {
+                    read++;
+                    String error = parsed.error() != null ? parsed.error() : apply(type, parsed.record());
+                    if (error == null) {
+                        imported++;
+                    } else {
+                        rejects.write(parsed, error);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? new UncheckedIOException(io)
+                    : new IllegalStateException("Import failed", e.getCause());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new long[] {read, imported};
+    }
+
+    /** Commit one record; returns why it was refused, or null. */
+    private String apply(RecordType type, Object record) {
+        try {
+            switch (type) {
+                case ROOMS -> service.addRoom((Room) record);
+                case GUESTS -> service.addGuest((Guest) record);
+                case RESERVATIONS -> {
+                    Reservation r = (Reservation) record;
+                    service.createReservation(r.getId(), r.getRoomId(), r.getGuestId(),
+                            r.getStartDate(), r.getEndDate(), r.getPartySize());
+                }
+                case PAYMENTS -> service.addPayment((Payment) record);
+            }
+            return null;
+        } catch (IllegalArgumentException | IllegalStateException | ReservationConflictException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Rejects as JSON lines; the file is only created once there is something to write.
+     */
+    private static final class RejectWriter implements AutoCloseable {
+        private final Path path;
+        private BufferedWriter out;
+
+        RejectWriter(Path path) {
+            this.path = path;
+        }
+
+        void write(Parsed parsed, String error) throws IOException {
+            if (out == null) {
+                out = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+            }
+            out.write(JsonFileManager.getCompactWriter().writeValueAsString(
+                    Map.of("line", parsed.line(), "error", error, "record", parsed.text())));
+            out.newLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (out != null) {
+                out.close();
+            }
+        }
+    }
+
+    // ==================== CSV ====================
+
+    private static boolean quotesBalanced(CharSequence text) {
+        int quotes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes % 2 == 0;
+    }
+
+    /**
+     * Split one CSV record; fields may be quoted, with {@code ""} for a literal quote.
+     */
+    static List<String> csvFields(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    public static void main(String[] args) throws IOException {
+        CommandLineOptions options = CommandLineOptions.parse(args);
+        String file = options.get("file", null);
+        String type = options.get("type", null);
+        if (file == null || type == null) {
+            System.err.println("Usage: BulkImporter --type rooms|guests|reservations|payments --file <path>"
+                    + " [--data dir] [--format csv|json] [--workers n] [--chunk 1000] [--rejects path]");
+            System.exit(1);
+        }
+        AppLogging.setLevel(Level.WARNING);
+        Path input = Path.of(file);
+        Format format = Format.valueOf(options.get("format",
+                file.toLowerCase().endsWith(".csv") ? "csv" : "json").toUpperCase());
+        Path rejects = Path.of(options.get("rejects", file + ".rejects.jsonl"));
+
+        HotelManagementService service = new HotelManagementService(
+                options.get("data", ConfigManager.getDataDirectory()));
+        BulkImporter importer = new BulkImporter(service,
+                options.getInt("workers", Runtime.getRuntime().availableProcessors()),
+                options.getInt("chunk", 1000));
+        ImportResult result = importer.run(RecordType.valueOf(type.toUpperCase()), input, format, rejects);
+        System.out.printf("Imported %d of %d records in %.1fs (%.0f records/s)%n", result.imported(), result.read(),
+                result.elapsed().toMillis() / 1000.0, result.read() * 1e9 / Math.max(1, result.elapsed().toNanos()));
+        if (result.rejected() > 0) {
+            System.out.println("Rejected " + result.rejected() + " records; see " + rejects);
+        }
+    }
+}
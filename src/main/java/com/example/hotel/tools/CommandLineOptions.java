@@ -0,0 +1,51 @@
+package com.example.hotel.tools;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimal {@code --name value} argument parser shared by the command-line tools.
+ */
+final class CommandLineOptions {
+    private final Map<String, String> values;
+
+    private CommandLineOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    static CommandLineOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            String name = arg.substring(2);
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                values.put(name, args[++i]);
+            } else {
+                values.put(name, "true");
+            }
+        }
+        return new CommandLineOptions(values);
+    }
+
+    String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    long getLong(String name, long defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    double getDouble(String name, double defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.hotel.tools;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency sample buffer with a fixed capacity. Samples beyond the
+ * capacity are counted but not kept, so percentiles stay cheap to compute.
+ */
+final class LatencyRecorder {
+    private final long[] samples;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder count = new LongAdder();
+
+    LatencyRecorder(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    void record(long nanos) {
+        count.increment();
+        int slot = next.getAndIncrement();
+        if (slot < samples.length) {
+            samples[slot] = nanos;
+        }
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    /**
+     * Percentiles (0-100) in nanoseconds; call once recording has stopped.
+     */
+    long[] percentiles(double... percentiles) {
+        int size = Math.min(next.get(), samples.length);
+        long[] result = new long[percentiles.length];
+        if (size == 0) {
+            return result;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        for (int i = 0; i < percentiles.length; i++) {
+            int index = (int) Math.ceil(percentiles[i] / 100.0 * size) - 1;
+            result[i] = sorted[Math.max(0, Math.min(size - 1, index))];
+        }
+        return result;
+    }
+}
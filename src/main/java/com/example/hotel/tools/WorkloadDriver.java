@@ -0,0 +1,191 @@
+package com.example.hotel.tools;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Room;
+import com.example.hotel.service.HotelManagementService;
+import com.example.hotel.service.ReservationConflictException;
+import com.example.hotel.util.AppLogging;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * Open-loop replay driver: issues a mixed read/write workload against
+ * {@link HotelManagementService} at a fixed target rate, one virtual thread per
+ * operation, and reports throughput, latency percentiles and conflict rates.
+ *
+ * <p>Latency is measured from each operation's scheduled start, so a stalled
+ * service shows up as queueing delay instead of silently lowering the rate.
+ * The driver writes to the data directory it is pointed at; use a copy.
+ *
+ * <p>Usage: {@code WorkloadDriver [--data data] [--rate 500] [--duration 30]
+ * [--read-ratio 0.9] [--seed 7] [--horizon 365]}
+ */
+public class WorkloadDriver {
+    enum Operation { CHECK_AVAILABILITY, SEARCH_AVAILABLE_ROOMS, OCCUPANCY_REPORT, CREATE_RESERVATION, CANCEL_RESERVATION }
+
+    private final HotelManagementService service;
+    private final int ratePerSecond;
+    private final int durationSeconds;
+    private final double readRatio;
+    private final long seed;
+    private final int horizonDays;
+
+    private final List<Room> rooms;
+    private final List<Guest> guests;
+    private final LocalDate today = LocalDate.now();
+    private final Queue<String> createdReservations = new ConcurrentLinkedQueue<>();
+
+    private final Map<Operation, LatencyRecorder> latencies = new EnumMap<>(Operation.class);
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public WorkloadDriver(HotelManagementService service, int ratePerSecond, int durationSeconds,
+                          double readRatio, long seed, int horizonDays) {
+        if (ratePerSecond <= 0 || durationSeconds <= 0) {
+            throw new IllegalArgumentException("rate and duration must be > 0");
+        }
+        this.service = service;
+        this.ratePerSecond = ratePerSecond;
+        this.durationSeconds = durationSeconds;
+        this.readRatio = readRatio;
+        this.seed = seed;
+        this.horizonDays = horizonDays;
+        this.rooms = service.listRooms();
+        this.guests = service.listGuests();
+        if (rooms.isEmpty() || guests.isEmpty()) {
+            throw new IllegalStateException("Data directory needs rooms and guests; run WorkloadGenerator first");
+        }
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8, (long) ratePerSecond * durationSeconds + 1024);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyRecorder(capacity));
+        }
+    }
+
+    public void run() throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(seed);
+        long totalOps = (long) ratePerSecond * durationSeconds;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long startNanos = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < totalOps; i++) {
+                long scheduledAt = startNanos + i * intervalNanos;
+                long wait = scheduledAt - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = pickOperation(random);
+                SplittableRandom taskRandom = random.split();
+                executor.execute(() -> execute(operation, taskRandom, scheduledAt));
+            }
+        }
+        printReport(System.nanoTime() - startNanos);
+    }
+
+    private Operation pickOperation(SplittableRandom random) {
+        double roll = random.nextDouble();
+        if (roll < readRatio) {
+            double read = roll / readRatio;
+            if (read < 0.80) return Operation.CHECK_AVAILABILITY;
+            if (read < 0.98) return Operation.SEARCH_AVAILABLE_ROOMS;
+            return Operation.OCCUPANCY_REPORT;
+        }
+        return random.nextDouble() < 0.8 ? Operation.CREATE_RESERVATION : Operation.CANCEL_RESERVATION;
+    }
+
+    private void execute(Operation operation, SplittableRandom random, long scheduledAt) {
+        try {
+            switch (operation) {
+                case CHECK_AVAILABILITY -> {
+                    LocalDate start = randomStart(random);
+                    service.isRoomAvailable(randomRoom(random).getId(), start, start.plusDays(stay(random)));
+                }
+                case SEARCH_AVAILABLE_ROOMS -> {
+                    LocalDate start = randomStart(random);
+                    service.getAvailableRooms(start, start.plusDays(stay(random)));
+                }
+                case OCCUPANCY_REPORT -> {
+                    LocalDate start = randomStart(random);
+                    service.generateOccupancyReport(start, start.plusDays(30));
+                }
+                case CREATE_RESERVATION -> {
+                    Room room = randomRoom(random);
+                    Guest guest = guests.get(random.nextInt(guests.size()));
+                    LocalDate start = randomStart(random);
+                    createdReservations.add(service.createReservation(room.getId(), guest.getGuestId(),
+                            start, start.plusDays(stay(random)), 1).getId());
+                }
+                case CANCEL_RESERVATION -> {
+                    String id = createdReservations.poll();
+                    if (id != null) {
+                        service.cancelReservation(id);
+                    }
+                }
+            }
+        } catch (ReservationConflictException e) {
+            conflicts.increment();
+        } catch (RuntimeException e) {
+            errors.increment();
+        } finally {
+            latencies.get(operation).record(System.nanoTime() - scheduledAt);
+        }
+    }
+
+    private Room randomRoom(SplittableRandom random) {
+        return rooms.get(random.nextInt(rooms.size()));
+    }
+
+    private LocalDate randomStart(SplittableRandom random) {
+        return today.plusDays(random.nextInt(horizonDays));
+    }
+
+    private int stay(SplittableRandom random) {
+        return 1 + random.nextInt(5);
+    }
+
+    private void printReport(long elapsedNanos) {
+        long completed = latencies.values().stream().mapToLong(LatencyRecorder::count).sum();
+        double seconds = elapsedNanos / 1e9;
+        long creates = latencies.get(Operation.CREATE_RESERVATION).count();
+
+        System.out.println("=".repeat(78));
+        System.out.printf("Target rate: %d ops/s, achieved: %.1f ops/s over %.1f s (%d ops)%n",
+                ratePerSecond, completed / seconds, seconds, completed);
+        System.out.printf("Conflicts: %d (%.2f%% of creates), errors: %d%n",
+                conflicts.sum(), creates == 0 ? 0.0 : 100.0 * conflicts.sum() / creates, errors.sum());
+        System.out.println("-".repeat(78));
+        System.out.printf("%-24s %9s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        latencies.forEach((operation, recorder) -> {
+            long[] p = recorder.percentiles(50, 90, 99, 99.9, 100);
+            System.out.printf("%-24s %9d %10.3f %10.3f %10.3f %10.3f %10.3f%n", operation, recorder.count(),
+                    p[0] / 1e6, p[1] / 1e6, p[2] / 1e6, p[3] / 1e6, p[4] / 1e6);
+        });
+        System.out.println("=".repeat(78));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        CommandLineOptions options = CommandLineOptions.parse(args);
+        AppLogging.setLevel(Level.WARNING);
+
+        HotelManagementService service = new HotelManagementService(options.get("data", "data"));
+        new WorkloadDriver(service,
+                options.getInt("rate", 500),
+                options.getInt("duration", 30),
+                options.getDouble("read-ratio", 0.9),
+                options.getLong("seed", 7L),
+                options.getInt("horizon", 365)).run();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.hotel.tools;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Payment;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.model.Room;
+import com.example.hotel.util.JsonFileManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.logging.Logger;
+
+/**
+ * Seeded generator for hotel-chain datasets written in the data directory format
+ * (rooms.json, guests.json, reservations.json, payments.json).
+ *
+ * <p>Usage: {@code WorkloadGenerator [--out data] [--seed 42] [--rooms 200] [--guests 5000]
+ * [--years 3] [--start 2023-01-01] [--occupancy 0.7]}
+ */
+public class WorkloadGenerator {
+    private static final Logger logger = Logger.getLogger(WorkloadGenerator.class.getName());
+
+    private static final String[] FIRST_NAMES = {
+        "John", "Jane", "Maria", "Minh", "Linh", "Carlos", "Aiko", "Omar", "Priya", "Lukas",
+        "Sofia", "Chen", "Fatima", "Noah", "Emma", "Ivan", "Amara", "Hugo", "Yuki", "Elena"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Nguyen", "Garcia", "Tanaka", "Khan", "Muller", "Rossi", "Silva", "Kim", "Patel",
+        "Novak", "Dubois", "Haddad", "Larsen", "Costa", "Ivanova", "Okafor", "Tran", "Weber", "Lopez"
+    };
+    private static final Payment.PaymentMethod[] METHODS = Payment.PaymentMethod.values();
+
+    private final long seed;
+    private final int roomCount;
+    private final int guestCount;
+    private final int years;
+    private final LocalDate startDate;
+    private final double baseOccupancy;
+
+    public WorkloadGenerator(long seed, int roomCount, int guestCount, int years,
+                             LocalDate startDate, double baseOccupancy) {
+        if (roomCount <= 0 || guestCount <= 0 || years <= 0) {
+            throw new IllegalArgumentException("rooms, guests and years must be > 0");
+        }
+        if (baseOccupancy <= 0 || baseOccupancy >= 1) {
+            throw new IllegalArgumentException("occupancy must be between 0 and 1");
+        }
+        this.seed = seed;
+        this.roomCount = roomCount;
+        this.guestCount = guestCount;
+        this.years = years;
+        this.startDate = startDate;
+        this.baseOccupancy = baseOccupancy;
+    }
+
+    /**
+     * Generated records, ready to be written or fed to a service.
+     */
+    public record Dataset(List<Room> rooms, List<Guest> guests,
+                          List<Reservation> reservations, List<Payment> payments) {
+    }
+
+    public Dataset generate() {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Room> rooms = generateRooms(random);
+        List<Guest> guests = generateGuests(random);
+        List<Reservation> reservations = new ArrayList<>();
+        List<Payment> payments = new ArrayList<>();
+
+        LocalDate endDate = startDate.plusYears(years);
+        int reservationSeq = 0;
+        for (Room room : rooms) {
+            LocalDate day = startDate;
+            while (day.isBefore(endDate)) {
+                if (random.nextDouble() >= occupancyFor(day)) {
+                    day = day.plusDays(1);
+                    continue;
+                }
+                int nights = stayLength(random);
+                LocalDate checkOut = day.plusDays(nights);
+                if (checkOut.isAfter(endDate)) {
+                    break;
+                }
+                Guest guest = guests.get(random.nextInt(guests.size()));
+                int partySize = 1 + random.nextInt(room.getCapacity());
+                String reservationId = "RES" + (++reservationSeq);
+                LocalDateTime bookedAt = bookingTime(random, day);
+                reservations.add(new Reservation(reservationId, room.getId(), guest.getGuestId(), guest.getFullName(),
+                        day, checkOut, partySize, bookedAt));
+                payments.add(generatePayment(random, reservationId, guest, room, bookedAt, day, nights));
+                day = checkOut;
+            }
+        }
+        return new Dataset(rooms, guests, reservations, payments);
+    }
+
+    /**
+     * Write a generated dataset into {@code dataDir} using the service's file names.
+     */
+    public static void write(Dataset dataset, String dataDir) throws IOException {
+        JsonFileManager.saveToFile(dataset.rooms(), dataDir + "/rooms.json");
+        JsonFileManager.saveToFile(dataset.guests(), dataDir + "/guests.json");
+        JsonFileManager.saveToFile(dataset.reservations(), dataDir + "/reservations.json");
+        JsonFileManager.saveToFile(dataset.payments(), dataDir + "/payments.json");
+    }
+
+    private List<Room> generateRooms(SplittableRandom random) {
+        List<Room> rooms = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            int floor = 1 + i / 50;
+            String number = floor + String.format("%02d", i % 50 + 1);
+            rooms.add(new Room("R" + (i + 1), number, 1 + random.nextInt(4)));
+        }
+        return rooms;
+    }
+
+    private List<Guest> generateGuests(SplittableRandom random) {
+        List<Guest> guests = new ArrayList<>(guestCount);
+        for (int i = 0; i < guestCount; i++) {
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            // Suffix keeps full names unique; reservations reference guests by name
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)] + (i + 1);
+            String email = (firstName + "." + lastName).toLowerCase() + "@example.com";
+            String phone = "555" + String.format("%07d", random.nextInt(10_000_000));
+            Guest guest = new Guest("G" + (i + 1), firstName, lastName, email, phone);
+            guest.setRegistrationDate(startDate.minusDays(random.nextInt(365)));
+            guest.setVipStatus(random.nextInt(20) == 0);
+            guests.add(guest);
+        }
+        return guests;
+    }
+
+    /**
+     * Booking lead times are skewed short: most stays are booked within a few weeks,
+     * with a long tail out to about a year.
+     */
+    private static LocalDateTime bookingTime(SplittableRandom random, LocalDate checkIn) {
+        int leadDays = (int) Math.min(365, -Math.log(1 - random.nextDouble()) * 30);
+        return checkIn.minusDays(leadDays).atTime(8 + random.nextInt(14), random.nextInt(60));
+    }
+
+    private Payment generatePayment(SplittableRandom random, String reservationId, Guest guest,
+                                    Room room, LocalDateTime bookedAt, LocalDate checkIn, int nights) {
+        BigDecimal nightlyRate = BigDecimal.valueOf(60L + 25L * room.getCapacity() + random.nextInt(40));
+        Payment payment = new Payment("PAY-" + reservationId, reservationId, guest.getGuestId(),
+                nightlyRate.multiply(BigDecimal.valueOf(nights)), METHODS[random.nextInt(METHODS.length)]);
+        // Paid at some point between booking and check-in
+        long leadDays = ChronoUnit.DAYS.between(bookedAt.toLocalDate(), checkIn);
+        payment.setPaymentDate(bookedAt.plusDays(random.nextLong(leadDays + 1)));
+        payment.setPaymentStatus(random.nextInt(50) == 0
+                ? Payment.PaymentStatus.REFUNDED : Payment.PaymentStatus.COMPLETED);
+        return payment;
+    }
+
+    /**
+     * Probability that a free room starts a stay on {@code day}: summer and
+     * year-end peaks, a February trough, and busier Friday/Saturday nights.
+     */
+    private double occupancyFor(LocalDate day) {
+        double season = Math.cos(2 * Math.PI * (day.getDayOfYear() - 200) / 365.0);
+        double probability = baseOccupancy * (1 + 0.25 * season);
+        if (day.getMonthValue() == 12 && day.getDayOfMonth() >= 20) {
+            probability += 0.15;
+        }
+        DayOfWeek dow = day.getDayOfWeek();
+        if (dow == DayOfWeek.FRIDAY || dow == DayOfWeek.SATURDAY) {
+            probability += 0.10;
+        }
+        return Math.min(0.98, probability);
+    }
+
+    private int stayLength(SplittableRandom random) {
+        // Skewed toward short stays with a long tail up to two weeks
+        int nights = 1;
+        while (nights < 14 && random.nextDouble() < 0.55) {
+            nights++;
+        }
+        return nights;
+    }
+
+    public static void main(String[] args) throws IOException {
+        CommandLineOptions options = CommandLineOptions.parse(args);
+        WorkloadGenerator generator = new WorkloadGenerator(
+                options.getLong("seed", 42L),
+                options.getInt("rooms", 200),
+                options.getInt("guests", 5000),
+                options.getInt("years", 3),
+                LocalDate.parse(options.get("start", "2023-01-01")),
+                options.getDouble("occupancy", 0.7));
+        String outDir = options.get("out", "data");
+
+        Dataset dataset = generator.generate();
+        write(dataset, outDir);
+        logger.info("Generated dataset in " + outDir);
+        System.out.printf("Generated %d rooms, %d guests, %d reservations, %d payments in %s%n",
+                dataset.rooms().size(), dataset.guests().size(),
+                dataset.reservations().size(), dataset.payments().size(), outDir);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.hotel.util;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Level of the application's parent logger, {@code com.example.hotel}, for tools and
+ * harnesses that want only warnings on the console.
+ */
+public final class AppLogging {
+    // Keep a strong reference so the level survives logger GC
+    private static final Logger APP_LOGGER = Logger.getLogger("com.example.hotel");
+
+    private AppLogging() {
+    }
+
+    public static void setLevel(Level level) {
+        APP_LOGGER.setLevel(level);
+    }
+}
@@ -113,4 +113,158 @@ public class ConfigManager {
     public static String getLogFile() {
         return getString("logging.logFile", "hotel.log");
     }
-}
\ No newline at end of file
+    
+    public static int getServerPort() {
+        return getInt("server.port", 8080);
+    }
+    
+    public static int getAsyncWriteThreads() {
+        return getInt("async.writeThreads", 4);
+    }
+    
+    public static int getAsyncQueueCapacity() {
+        return getInt("async.queueCapacity", 1000);
+    }
+    
+    public static int getAsyncTimeoutMillis() {
+        return getInt("async.timeoutMillis", 5000);
+    }
+    
+    /**
+     * {@code files} (the default): a write has persisted once its data file is saved, and
+     * fails if the save does. {@code journal}: once it is in the journal; failed saves are
+     * logged and recovered from the journal on the next start.
+     */
+    public static String getPersistenceMode() {
+        return getString("persistence.mode", "files");
+    }
+    
+    public static int getAvailabilityCacheSize() {
+        return getInt("cache.availabilityMaxEntries", 10000);
+    }
+    
+    public static int getReplicationPollMillis() {
+        return getInt("replication.pollMillis", 200);
+    }
+    
+    /**
+     * Journal size that triggers dropping entries already in the data files.
+     */
+    public static long getJournalCompactBytes() {
+        return getInt("journal.compactMegabytes", 16) * 1024L * 1024L;
+    }
+    
+    public static int getChangeFeedBufferSize() {
+        return getInt("changeFeed.bufferSize", 4096);
+    }
+    
+    public static int getChangeFeedMaxBatch() {
+        return getInt("changeFeed.maxBatch", 256);
+    }
+    
+    public static int getArchiveAfterDays() {
+        return getInt("archive.afterDays", 90);
+    }
+    
+    public static int getArchiveCachedSegments() {
+        return getInt("archive.cachedSegments", 12);
+    }
+    
+    /**
+     * Save the service's running totals at startup and shutdown and load them on the next start.
+     */
+    public static boolean isIndexCheckpointEnabled() {
+        return getBoolean("indexes.checkpoint", true);
+    }
+    
+    public static int getIdempotencyTtlMinutes() {
+        return getInt("idempotency.ttlMinutes", 1440);
+    }
+    
+    public static int getIdempotencyMaxKeys() {
+        return getInt("idempotency.maxKeys", 100000);
+    }
+    
+    /**
+     * Tag for generated IDs; every process writing to the same data must use a different one.
+     * -1, the default, derives one from the process ID.
+     */
+    public static int getIdNodeId() {
+        return getInt("ids.nodeId", -1);
+    }
+    
+    public static boolean isAdmissionControlEnabled() {
+        return getBoolean("admission.enabled", true);
+    }
+    
+    public static int getAdmissionClientRate() {
+        return getInt("admission.clientRate", 20);
+    }
+    
+    public static int getAdmissionClientBurst() {
+        return getInt("admission.clientBurst", 40);
+    }
+    
+    public static int getAdmissionMaxClients() {
+        return getInt("admission.maxClients", 10000);
+    }
+    
+    public static int getAdmissionMaxConcurrent() {
+        return getInt("admission.maxConcurrent", 16);
+    }
+    
+    public static int getAdmissionMaxQueue() {
+        return getInt("admission.maxQueue", 64);
+    }
+    
+    public static int getAdmissionQueueTimeoutMillis() {
+        return getInt("admission.queueTimeoutMillis", 500);
+    }
+    
+    public static boolean isReportGenerationEnabled() {
+        return getBoolean("features.reportGeneration", true);
+    }
+    
+    public static boolean isEmailNotificationsEnabled() {
+        return getBoolean("features.emailNotifications", false);
+    }
+    
+    /**
+     * {@code smtp}, {@code file} (JSON lines, the default) or {@code memory}.
+     */
+    public static String getNotificationTransport() {
+        return getString("notifications.transport", "file");
+    }
+    
+    public static String getNotificationFile() {
+        return getString("notifications.file", "notifications.jsonl");
+    }
+    
+    public static String getNotificationSender() {
+        return getString("notifications.from", "reservations@hotel.example");
+    }
+    
+    public static String getSmtpHost() {
+        return getString("notifications.smtpHost", "localhost");
+    }
+    
+    public static int getSmtpPort() {
+        return getInt("notifications.smtpPort", 25);
+    }
+    
+    public static int getNotificationBatchSize() {
+        return getInt("notifications.batchSize", 50);
+    }
+    
+    public static int getNotificationMaxPerSecond() {
+        return getInt("notifications.maxPerSecond", 10);
+    }
+    
+    public static int getNotificationMaxAttempts() {
+        return getInt("notifications.maxAttempts", 5);
+    }
+    
+    public static int getNotificationRetryMillis() {
+        return getInt("notifications.retryMillis", 1000);
+    }
+}
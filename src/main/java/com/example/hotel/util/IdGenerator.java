@@ -0,0 +1,114 @@
+package com.example.hotel.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered, node-tagged 64-bit IDs, generated without locks.
+ *
+ * <p>Layout, high to low: 41 bits of milliseconds since 2024-01-01 (about 69 years),
+ * 10 bits of node ID and 12 bits of sequence within the millisecond. IDs from one
+ * generator are strictly increasing; IDs from generators with different node IDs never
+ * collide. More than 4096 IDs in a millisecond, or a clock that steps backwards,
+ * borrow from the next millisecond instead of waiting.
+ *
+ * <p>The string form is 13 characters of Crockford base32, fixed width so that strings
+ * sort in the same order as the numbers, and accepted by {@link ValidationUtils#isValidId}.
+ */
+public final class IdGenerator {
+    public static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    public static final int ENCODED_LENGTH = 13;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long nodeBits;
+    private final Clock clock;
+    // Milliseconds since the epoch shifted left by SEQUENCE_BITS, plus the sequence
+    private final AtomicLong state = new AtomicLong();
+
+    public IdGenerator(int nodeId) {
+        this(nodeId, Clock.systemUTC());
+    }
+
+    public IdGenerator(int nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    public long nextId() {
+        long now = (clock.millis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long next = state.updateAndGet(previous -> Math.max(now, previous + 1));
+        return ((next >>> SEQUENCE_BITS) << TIMESTAMP_SHIFT) | nodeBits | (next & SEQUENCE_MASK);
+    }
+
+    /**
+     * The next ID as {@code prefix} followed by its base32 form, e.g. {@code RES-01HZX3K9T2Q8M}.
+     */
+    public String nextId(String prefix) {
+        return prefix + encode(nextId());
+    }
+
+    public static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Parse the base32 form, case-insensitively.
+     *
+     * @throws IllegalArgumentException if {@code encoded} is not 13 base32 characters
+     */
+    public static long decode(String encoded) {
+        if (encoded == null || encoded.length() != ENCODED_LENGTH) {
+            throw new IllegalArgumentException("Encoded ID must be " + ENCODED_LENGTH + " characters");
+        }
+        long id = 0;
+        for (int i = 0; i < ENCODED_LENGTH; i++) {
+            int digit = digit(Character.toUpperCase(encoded.charAt(i)));
+            // IDs are 63 bits, so the first character carries at most three
+            if (digit < 0 || (i == 0 && digit > 7)) {
+                throw new IllegalArgumentException("Not an encoded ID: " + encoded);
+            }
+            id = (id << 5) | digit;
+        }
+        return id;
+    }
+
+    /**
+     * A node ID derived from the process ID, for when none is configured. Processes started
+     * side by side on one host get different ones; processes on different hosts may not.
+     */
+    public static int processNodeId() {
+        return (int) (ProcessHandle.current().pid() & MAX_NODE_ID);
+    }
+
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> TIMESTAMP_SHIFT) + EPOCH_MILLIS);
+    }
+
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    private static int digit(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -1,12 +1,17 @@
 package com.example.hotel.util;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 /**
@@ -15,6 +20,9 @@ import java.util.logging.Logger;
 public class JsonFileManager {
     private static final Logger logger = Logger.getLogger(JsonFileManager.class.getName());
     private static final ObjectMapper objectMapper = createObjectMapper();
+    // Writers and readers are immutable and thread-safe; build them once instead of per call
+    private static final ObjectWriter compactWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    private static final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
     
     private static ObjectMapper createObjectMapper() {
         ObjectMapper mapper = new ObjectMapper();
@@ -25,13 +33,17 @@ public class JsonFileManager {
     }
     
     /**
-     * Save list of objects to JSON file
+     * Save list of objects to JSON file. The list is written to a temporary file that
+     * then replaces the target, so concurrent readers never see a half-written file.
      */
     public static <T> void saveToFile(List<T> objects, String filePath) throws IOException {
         try {
             File file = new File(filePath);
             file.getParentFile().mkdirs(); // Create directories if they don't exist
-            objectMapper.writeValue(file, objects);
+            File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+            objectMapper.writeValue(temp, objects);
+            java.nio.file.Files.move(temp.toPath(), file.toPath(),
+                java.nio.file.StandardCopyOption.REPLACE_EXISTING, java.nio.file.StandardCopyOption.ATOMIC_MOVE);
             logger.info("Successfully saved " + objects.size() + " objects to " + filePath);
         } catch (IOException e) {
             logger.severe("Failed to save objects to " + filePath + ": " + e.getMessage());
@@ -61,13 +73,16 @@ public class JsonFileManager {
     }
     
     /**
-     * Save single object to JSON file
+     * Save single object to JSON file, replacing the target atomically like {@link #saveToFile}
      */
     public static <T> void saveObjectToFile(T object, String filePath) throws IOException {
         try {
             File file = new File(filePath);
-            file.getParentFile().mkdirs();
-            objectMapper.writeValue(file, object);
+            file.getAbsoluteFile().getParentFile().mkdirs();
+            File temp = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+            objectMapper.writeValue(temp, object);
+            java.nio.file.Files.move(temp.toPath(), file.toPath(),
+                java.nio.file.StandardCopyOption.REPLACE_EXISTING, java.nio.file.StandardCopyOption.ATOMIC_MOVE);
             logger.info("Successfully saved object to " + filePath);
         } catch (IOException e) {
             logger.severe("Failed to save object to " + filePath + ": " + e.getMessage());
@@ -94,6 +109,34 @@ public class JsonFileManager {
         }
     }
     
+    /**
+     * Shared single-line writer with the same date handling as the data files
+     */
+    public static ObjectWriter getCompactWriter() {
+        return compactWriter;
+    }
+    
+    /**
+     * Cached reader for the given type
+     */
+    public static ObjectReader getReader(Class<?> clazz) {
+        return readers.computeIfAbsent(clazz, objectMapper::readerFor);
+    }
+    
+    /**
+     * Convert an object to a JSON tree using the data file conventions
+     */
+    public static JsonNode toJsonNode(Object value) {
+        return objectMapper.valueToTree(value);
+    }
+    
+    /**
+     * Convert a JSON tree back to an object
+     */
+    public static <T> T fromJsonNode(JsonNode node, Class<T> clazz) throws IOException {
+        return objectMapper.treeToValue(node, clazz);
+    }
+    
     /**
      * Check if file exists
      */
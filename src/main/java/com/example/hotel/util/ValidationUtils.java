@@ -1,22 +1,26 @@
 package com.example.hotel.util;
 
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Reservation;
+
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.regex.Pattern;
+import java.util.BitSet;
+import java.util.List;
 
 /**
- * Input validation utilities
+ * Input validation utilities.
+ *
+ * <p>The format checks are hand-written scanners over the trimmed bounds of the input
+ * rather than regular expressions, so validating a record allocates nothing. Each one
+ * accepts exactly what the pattern in its comment accepts.
  */
 public class ValidationUtils {
     
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-        "^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$"
-    );
-    
-    private static final Pattern PHONE_PATTERN = Pattern.compile(
-        "^[+]?[1-9]\\d{1,14}$|^\\d{10}$|^\\(\\d{3}\\)\\s?\\d{3}-?\\d{4}$"
-    );
+    // Template for "(ddd)ddd-dddd"; the dash is optional
+    private static final String BRACKETED_PHONE = "(ddd)ddd-dddd";
+    private static final int PHONE_DASH = 8;
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     
@@ -24,14 +28,14 @@ public class ValidationUtils {
      * Validate if string is not null and not blank
      */
     public static boolean isValidString(String value) {
-        return value != null && !value.trim().isEmpty();
+        return value != null && trimStart(value) < value.length();
     }
     
     /**
      * Validate if string has minimum length
      */
     public static boolean hasMinLength(String value, int minLength) {
-        return isValidString(value) && value.trim().length() >= minLength;
+        return isValidString(value) && trimEnd(value) - trimStart(value) >= minLength;
     }
     
     /**
@@ -42,17 +46,92 @@ public class ValidationUtils {
     }
     
     /**
-     * Validate email format
+     * Validate email format: {@code [A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}} after trimming
      */
     public static boolean isValidEmail(String email) {
-        return isValidString(email) && EMAIL_PATTERN.matcher(email.trim()).matches();
+        if (!isValidString(email)) {
+            return false;
+        }
+        int start = trimStart(email);
+        int end = trimEnd(email);
+        int at = email.indexOf('@', start);
+        if (at <= start || at >= end) {
+            return false;
+        }
+        for (int i = start; i < at; i++) {
+            char c = email.charAt(i);
+            if (!isAlphanumeric(c) && c != '+' && c != '_' && c != '.' && c != '-') {
+                return false;
+            }
+        }
+        // The top-level domain is everything after the last dot, so it cannot contain one
+        int lastDot = -1;
+        for (int i = at + 1; i < end; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                lastDot = i;
+            } else if (!isAlphanumeric(c) && c != '-') {
+                return false;
+            }
+        }
+        if (lastDot <= at + 1 || end - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int i = lastDot + 1; i < end; i++) {
+            if (!isLetter(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
     }
     
     /**
-     * Validate phone number format
+     * Validate phone number format, ignoring whitespace: {@code +?[1-9]\d{1,14}},
+     * {@code \d{10}} or {@code \(\d{3}\)\d{3}-?\d{4}}
      */
     public static boolean isValidPhone(String phone) {
-        return isValidString(phone) && PHONE_PATTERN.matcher(phone.replaceAll("\\s", "")).matches();
+        if (!isValidString(phone)) {
+            return false;
+        }
+        // Run both shapes over the non-space characters in one pass
+        int length = 0;
+        int digits = 0;
+        boolean leadingPlus = false;
+        boolean leadingZero = false;
+        boolean numeric = true;
+        boolean bracketed = true;
+        boolean dash = false;
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (isRegexSpace(c)) {
+                continue;
+            }
+            if (numeric) {
+                if (c == '+' && length == 0) {
+                    leadingPlus = true;
+                } else if (isDigit(c)) {
+                    leadingZero |= digits == 0 && c == '0';
+                    digits++;
+                } else {
+                    numeric = false;
+                }
+            }
+            if (bracketed) {
+                int slot = length;
+                if (length == PHONE_DASH && c == '-') {
+                    dash = true;
+                } else if (length >= PHONE_DASH && !dash) {
+                    slot++;
+                }
+                bracketed = slot < BRACKETED_PHONE.length() && (BRACKETED_PHONE.charAt(slot) == 'd'
+                        ? isDigit(c) : BRACKETED_PHONE.charAt(slot) == c);
+            }
+            length++;
+        }
+        if (numeric && ((digits >= 2 && digits <= 15 && !leadingZero) || (!leadingPlus && digits == 10))) {
+            return true;
+        }
+        return bracketed && length == (dash ? BRACKETED_PHONE.length() : BRACKETED_PHONE.length() - 1);
     }
     
     /**
@@ -97,14 +176,14 @@ public class ValidationUtils {
      * Validate room number format (alphanumeric)
      */
     public static boolean isValidRoomNumber(String roomNumber) {
-        return isValidString(roomNumber) && roomNumber.trim().matches("^[A-Za-z0-9]+$");
+        return isValidString(roomNumber) && allMatch(roomNumber, false);
     }
     
     /**
      * Validate ID format (alphanumeric with possible hyphens)
      */
     public static boolean isValidId(String id) {
-        return isValidString(id) && id.trim().matches("^[A-Za-z0-9-]+$");
+        return isValidString(id) && allMatch(id, true);
     }
     
     /**
@@ -112,7 +191,22 @@ public class ValidationUtils {
      */
     public static String sanitizeInput(String input) {
         if (input == null) return "";
-        return input.trim().replaceAll("[<>\"'&]", "");
+        String trimmed = input.trim();
+        int first = 0;
+        while (first < trimmed.length() && !isUnsafe(trimmed.charAt(first))) {
+            first++;
+        }
+        if (first == trimmed.length()) {
+            return trimmed;
+        }
+        StringBuilder clean = new StringBuilder(trimmed.length()).append(trimmed, 0, first);
+        for (int i = first + 1; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (!isUnsafe(c)) {
+                clean.append(c);
+            }
+        }
+        return clean.toString();
     }
     
     /**
@@ -144,8 +238,10 @@ public class ValidationUtils {
         public boolean isValid() { return valid; }
         public String getErrorMessage() { return errorMessage; }
         
+        private static final ValidationResult VALID = new ValidationResult(true, null);
+        
         public static ValidationResult valid() {
-            return new ValidationResult(true, null);
+            return VALID;
         }
         
         public static ValidationResult invalid(String message) {
@@ -177,4 +273,120 @@ public class ValidationUtils {
         }
         return ValidationResult.valid();
     }
-}
\ No newline at end of file
+    
+    // ==================== BULK VALIDATION ====================
+    
+    // Error bitmaps hold one bit per check per record: bit (index * CHECKS + check) is set
+    // when that record fails that check
+    
+    public static final int GUEST_FIRST_NAME = 0;
+    public static final int GUEST_LAST_NAME = 1;
+    public static final int GUEST_EMAIL = 2;
+    public static final int GUEST_PHONE = 3;
+    public static final int GUEST_CHECKS = 4;
+    
+    public static final int RESERVATION_ID = 0;
+    public static final int RESERVATION_ROOM_ID = 1;
+    public static final int RESERVATION_DATES = 2;
+    public static final int RESERVATION_PARTY_SIZE = 3;
+    public static final int RESERVATION_CHECKS = 4;
+    
+    /**
+     * Run every {@link #validateGuest} check on each guest in one pass. A null guest fails all checks.
+     */
+    public static BitSet validateGuests(List<Guest> guests) {
+        BitSet errors = new BitSet(guests.size() * GUEST_CHECKS);
+        for (int i = 0; i < guests.size(); i++) {
+            Guest guest = guests.get(i);
+            int bit = i * GUEST_CHECKS;
+            if (guest == null) {
+                errors.set(bit, bit + GUEST_CHECKS);
+                continue;
+            }
+            errors.set(bit + GUEST_FIRST_NAME, !hasMinLength(guest.getFirstName(), 2));
+            errors.set(bit + GUEST_LAST_NAME, !hasMinLength(guest.getLastName(), 2));
+            errors.set(bit + GUEST_EMAIL, !isValidEmail(guest.getEmail()));
+            errors.set(bit + GUEST_PHONE, !isValidPhone(guest.getPhone()));
+        }
+        return errors;
+    }
+    
+    /**
+     * Run the reservation format checks on each record in one pass. A null record fails all checks.
+     */
+    public static BitSet validateReservations(List<Reservation> reservations) {
+        BitSet errors = new BitSet(reservations.size() * RESERVATION_CHECKS);
+        for (int i = 0; i < reservations.size(); i++) {
+            Reservation reservation = reservations.get(i);
+            int bit = i * RESERVATION_CHECKS;
+            if (reservation == null) {
+                errors.set(bit, bit + RESERVATION_CHECKS);
+                continue;
+            }
+            errors.set(bit + RESERVATION_ID, !isValidId(reservation.getId()));
+            errors.set(bit + RESERVATION_ROOM_ID, !isValidId(reservation.getRoomId()));
+            errors.set(bit + RESERVATION_DATES, !isValidDateRange(reservation.getStartDate(), reservation.getEndDate()));
+            errors.set(bit + RESERVATION_PARTY_SIZE, !isValidPartySize(reservation.getPartySize()));
+        }
+        return errors;
+    }
+    
+    /**
+     * Whether record {@code index} passed all of its {@code checks} checks in {@code errors}.
+     */
+    public static boolean isRecordValid(BitSet errors, int index, int checks) {
+        int next = errors.nextSetBit(index * checks);
+        return next < 0 || next >= (index + 1) * checks;
+    }
+    
+    // ==================== SCANNING HELPERS ====================
+    
+    // Same bounds as String.trim()
+    private static int trimStart(String value) {
+        int i = 0;
+        while (i < value.length() && value.charAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+    
+    private static int trimEnd(String value) {
+        int i = value.length();
+        while (i > 0 && value.charAt(i - 1) <= ' ') {
+            i--;
+        }
+        return i;
+    }
+    
+    private static boolean allMatch(String value, boolean hyphens) {
+        int end = trimEnd(value);
+        for (int i = trimStart(value); i < end; i++) {
+            char c = value.charAt(i);
+            if (!isAlphanumeric(c) && !(hyphens && c == '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+    
+    private static boolean isAlphanumeric(char c) {
+        return isLetter(c) || isDigit(c);
+    }
+    
+    // The regex class \s: space, tab, newline, vertical tab, form feed, carriage return
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+    
+    private static boolean isUnsafe(char c) {
+        return c == '<' || c == '>' || c == '"' || c == '\'' || c == '&';
+    }
+}
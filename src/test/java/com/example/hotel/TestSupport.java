@@ -0,0 +1,35 @@
+package com.example.hotel;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Assertions and temp-directory cleanup shared by the test harnesses.
+ */
+public final class TestSupport {
+
+    private TestSupport() {
+    }
+
+    public static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    public static void assertEquals(Object expected, Object actual, String msg) {
+        if (expected == null ? actual != null : !expected.equals(actual)) {
+            throw new AssertionError(msg + ": expected=" + expected + " actual=" + actual);
+        }
+    }
+
+    public static void deleteQuietly(Path dir) {
+        if (dir == null) return;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException ignored) {
+            // temp directory, best effort
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.hotel.notify;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Room;
+import com.example.hotel.service.HotelManagementService;
+import com.example.hotel.util.AppLogging;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+
+import static com.example.hotel.TestSupport.assertEquals;
+import static com.example.hotel.TestSupport.assertTrue;
+import static com.example.hotel.TestSupport.deleteQuietly;
+
+/**
+ * Lightweight test harness (no external libs) for {@link NotificationOutbox}: delivery,
+ * retries, rate limiting, resuming after a restart and the SMTP conversation.
+ */
+public class NotificationOutboxTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    public static void main(String[] args) {
+        AppLogging.setLevel(Level.OFF);
+        NotificationOutboxTest test = new NotificationOutboxTest();
+        Path work = null;
+        try {
+            work = Files.createTempDirectory("hotel-outbox");
+            test.testDeliveryAndRetry(work.resolve("retry"));
+            test.testResumeAfterRestart(work.resolve("restart"));
+            test.testGivesUpAfterMaxAttempts(work.resolve("dead"));
+            test.testSmtpConversation();
+            System.out.println("[PASS] All NotificationOutbox tests passed.");
+        } catch (AssertionError e) {
+            System.err.println("[FAIL] " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("[ERROR] Unexpected: " + e);
+            e.printStackTrace();
+            System.exit(2);
+        } finally {
+            deleteQuietly(work);
+        }
+    }
+
+    void testDeliveryAndRetry(Path dataDir) throws Exception {
+        HotelManagementService service = seed(dataDir);
+        InMemoryTransport transport = new InMemoryTransport();
+        transport.failNext(2);
+        try (NotificationOutbox outbox = new NotificationOutbox(service, dataDir.toString(), transport,
+                3, 50, 5, Duration.ofMillis(20))) {
+            outbox.start();
+            long started = System.nanoTime();
+            for (int i = 0; i < 5; i++) {
+                service.createReservation("N" + i, "NR1", "NG1", BASE.plusDays(3L * i), BASE.plusDays(3L * i + 2), 1);
+            }
+            service.cancelReservation("N2");
+            waitFor(() -> transport.getSent().size() == 6, "six messages delivered");
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+            List<Notification> sent = transport.getSent();
+            assertEquals(6L, sent.stream().map(Notification::id).distinct().count(), "no duplicates");
+            assertEquals(1L, sent.stream().filter(n -> n.kind() == Notification.Kind.CANCELLATION).count(),
+                    "one cancellation");
+            Notification cancellation = sent.stream()
+                    .filter(n -> n.kind() == Notification.Kind.CANCELLATION).findFirst().orElseThrow();
+            assertEquals("N2", cancellation.reservationId(), "cancellation reservation");
+            assertEquals("outbox@example.com", cancellation.recipient(), "recipient from guest record");
+            assertTrue(cancellation.body().contains("Room 101, 2030-01-07 to 2030-01-09"), "stay details: " + cancellation.body());
+            assertTrue(sent.stream().anyMatch(n -> n.attempts() > 0), "failed messages were retried");
+            assertEquals(2L, outbox.getStats().get("failedAttempts"), "failed attempts counted");
+            assertTrue(transport.getBatchCount() >= 2, "sent in batches of at most 3");
+            // Eight sends (two failures) at 50 per second take at least seven intervals
+            assertTrue(elapsedMillis >= 7 * 20, "rate limited: " + elapsedMillis + "ms");
+            waitFor(() -> outbox.getPendingCount() == 0, "outbox drained");
+        }
+    }
+
+    void testResumeAfterRestart(Path dataDir) throws Exception {
+        HotelManagementService service = seed(dataDir);
+        InMemoryTransport down = new InMemoryTransport();
+        down.failNext(Integer.MAX_VALUE);
+        NotificationOutbox first = new NotificationOutbox(service, dataDir.toString(), down,
+                10, 1000, 100, Duration.ofHours(1));
+        first.start();
+        service.createReservation("A1", "NR1", "NG1", BASE, BASE.plusDays(1), 1);
+        waitFor(() -> (long) first.getStats().get("failedAttempts") == 1, "first attempt failed");
+        first.close();
+
+        // Committed while no outbox was running
+        service.createReservation("A2", "NR1", "NG1", BASE.plusDays(5), BASE.plusDays(6), 1);
+
+        InMemoryTransport up = new InMemoryTransport();
+        HotelManagementService restarted = new HotelManagementService(dataDir.toString());
+        try (NotificationOutbox second = new NotificationOutbox(restarted, dataDir.toString(), up,
+                10, 1000, 5, Duration.ofMillis(10))) {
+            // The saved message is not due for an hour, so only the missed booking goes out now
+            second.start();
+            waitFor(() -> up.getSent().size() == 1, "missed booking notified after restart");
+            assertEquals("A2", up.getSent().get(0).reservationId(), "resumed from the saved sequence");
+            assertEquals(1, second.getPendingCount(), "backed-off message still pending");
+        }
+    }
+
+    void testGivesUpAfterMaxAttempts(Path dataDir) throws Exception {
+        HotelManagementService service = seed(dataDir);
+        InMemoryTransport transport = new InMemoryTransport();
+        transport.failNext(Integer.MAX_VALUE);
+        try (NotificationOutbox outbox = new NotificationOutbox(service, dataDir.toString(), transport,
+                10, 1000, 3, Duration.ofMillis(5))) {
+            outbox.start();
+            service.createReservation("D1", "NR1", "NG1", BASE, BASE.plusDays(1), 1);
+            waitFor(() -> (long) outbox.getStats().get("dropped") == 1, "message dropped");
+            assertEquals(3L, outbox.getStats().get("failedAttempts"), "attempts before giving up");
+            assertEquals(0, outbox.getPendingCount(), "dropped message removed");
+        }
+    }
+
+    void testSmtpConversation() throws Exception {
+        try (ServerSocket server = new ServerSocket(0)) {
+            CompletableFuture<List<String>> received = CompletableFuture.supplyAsync(() -> fakeSmtpSession(server));
+            SmtpTransport transport = new SmtpTransport("localhost", server.getLocalPort(),
+                    "desk@hotel.example", Duration.ofSeconds(5));
+            transport.send(Notification.create("seq-1", Notification.Kind.CONFIRMATION, "R1", "a@example.com",
+                    "Reservation confirmed: R1", "Hello\n.\nBye"));
+            try {
+                transport.send(Notification.create("seq-2", Notification.Kind.CONFIRMATION, "R2", "reject@example.com",
+                        "Reservation confirmed: R2", "Hello"));
+                throw new AssertionError("rejected recipient should fail");
+            } catch (IOException expected) {
+                assertTrue(expected.getMessage().contains("550"), "reply code in error: " + expected.getMessage());
+            }
+            transport.send(Notification.create("seq-3", Notification.Kind.CANCELLATION, "R3", "b@example.com",
+                    "Reservation cancelled: R3", "Bye"));
+            transport.endBatch();
+
+            List<String> lines = received.get(10, TimeUnit.SECONDS);
+            assertEquals(1L, lines.stream().filter(l -> l.startsWith("EHLO")).count(), "one connection per batch");
+            assertEquals(List.of("RCPT TO:<a@example.com>", "RCPT TO:<reject@example.com>", "RCPT TO:<b@example.com>"),
+                    lines.stream().filter(l -> l.startsWith("RCPT")).toList(), "recipients");
+            assertTrue(lines.contains("RSET"), "session reset after a refused recipient");
+            assertTrue(lines.contains(".."), "body dot-stuffed");
+            assertTrue(lines.contains("Subject: Reservation cancelled: R3"), "subject header");
+            assertEquals("QUIT", lines.get(lines.size() - 1), "batch ends with QUIT");
+        }
+    }
+
+    /**
+     * Accept one connection, answer like a mail server that refuses reject@example.com,
+     * and return every line the client sent.
+     */
+    private static List<String> fakeSmtpSession(ServerSocket server) {
+        List<String> lines = new ArrayList<>();
+        try (Socket socket = server.accept();
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+            reply(out, "220 fake ESMTP");
+            boolean inData = false;
+            String line;
+            while ((line = in.readLine()) != null) {
+                lines.add(line);
+                if (inData) {
+                    if (line.equals(".")) {
+                        inData = false;
+                        reply(out, "250 queued");
+                    }
+                } else if (line.startsWith("EHLO")) {
+                    reply(out, "250-fake\r\n250 8BITMIME");
+                } else if (line.equals("RCPT TO:<reject@example.com>")) {
+                    reply(out, "550 no such user");
+                } else if (line.equals("DATA")) {
+                    inData = true;
+                    reply(out, "354 go ahead");
+                } else if (line.equals("QUIT")) {
+                    reply(out, "221 bye");
+                    break;
+                } else {
+                    reply(out, "250 ok");
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return lines;
+    }
+
+    private static void reply(Writer out, String text) throws IOException {
+        out.write(text + "\r\n");
+        out.flush();
+    }
+
+    private static HotelManagementService seed(Path dataDir) {
+        HotelManagementService service = new HotelManagementService(dataDir.toString());
+        service.addRoom(new Room("NR1", "101", 2));
+        service.addGuest(new Guest("NG1", "Out", "Box", "outbox@example.com", "5550000000"));
+        return service;
+    }
+
+    static void waitFor(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Timed out waiting: " + what);
+            }
+            Thread.sleep(5);
+        }
+    }
+}
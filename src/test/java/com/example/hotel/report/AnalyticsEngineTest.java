@@ -0,0 +1,124 @@
+package com.example.hotel.report;
+
+import com.example.hotel.model.Payment;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.model.Room;
+import com.example.hotel.service.HotelManagementService;
+import com.example.hotel.tools.WorkloadGenerator;
+import com.example.hotel.util.AppLogging;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+
+import static com.example.hotel.TestSupport.assertEquals;
+import static com.example.hotel.TestSupport.assertTrue;
+import static com.example.hotel.TestSupport.deleteQuietly;
+
+/**
+ * Lightweight test harness (no external libs). Runs the fork/join analytics engine
+ * over a generated multi-year history large enough to split into many chunks, and
+ * checks every figure against a plain sequential recount.
+ */
+public class AnalyticsEngineTest {
+    private static final LocalDate HISTORY_START = LocalDate.of(2030, 1, 1);
+
+    public static void main(String[] args) {
+        AppLogging.setLevel(Level.WARNING);
+        Path dataDir = null;
+        try {
+            dataDir = Files.createTempDirectory("hotel-analytics");
+            WorkloadGenerator.write(new WorkloadGenerator(11, 150, 500, 3, HISTORY_START, 0.6).generate(), dataDir.toString());
+            HotelManagementService service = new HotelManagementService(dataDir.toString());
+            AnalyticsEngineTest test = new AnalyticsEngineTest();
+            test.testMatchesSequentialRecount(service);
+            test.testSmallPeriodRates(service);
+            System.out.println("[PASS] All AnalyticsEngine tests passed.");
+        } catch (AssertionError e) {
+            System.err.println("[FAIL] " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("[ERROR] Unexpected: " + e);
+            e.printStackTrace();
+            System.exit(2);
+        } finally {
+            deleteQuietly(dataDir);
+        }
+    }
+
+    void testMatchesSequentialRecount(HotelManagementService service) {
+        assertTrue(service.listAllReservations().size() > 4 * 8192, "history too small to exercise splitting");
+        LocalDate start = HISTORY_START.plusMonths(5);
+        LocalDate end = HISTORY_START.plusYears(2).plusDays(17);
+        try (ForkJoinPool pool = new ForkJoinPool(4); ForkJoinPool singleThread = new ForkJoinPool(1)) {
+            AnalyticsReport report = new AnalyticsEngine(pool).analyze(service, start, end);
+            AnalyticsReport single = new AnalyticsEngine(singleThread).analyze(service, start, end);
+            assertEquals(single, report, "result depends on parallelism");
+
+            long windowStart = start.toEpochDay();
+            long windowEnd = end.toEpochDay() + 1;
+            Map<String, Long> paid = new HashMap<>();
+            for (Payment payment : service.getSnapshot().getPayments()) {
+                if (payment.getPaymentStatus() == Payment.PaymentStatus.COMPLETED) {
+                    paid.merge(payment.getReservationId(),
+                            payment.getAmount().movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact(), Long::sum);
+                }
+            }
+            long sold = 0, cents = 0, arrivals = 0;
+            Map<Integer, Long> lengthOfStay = new TreeMap<>();
+            Map<Integer, Long> leadTime = new TreeMap<>();
+            Map<String, Long> nightsByRoom = new HashMap<>();
+            for (Reservation reservation : service.listAllReservations()) {
+                long s = reservation.getStartDate().toEpochDay();
+                long e = reservation.getEndDate().toEpochDay();
+                long in = Math.max(0, Math.min(e, windowEnd) - Math.max(s, windowStart));
+                sold += in;
+                cents += paid.getOrDefault(reservation.getId(), 0L) * in / (e - s);
+                nightsByRoom.merge(reservation.getRoomId(), in, Long::sum);
+                if (s >= windowStart && s < windowEnd) {
+                    arrivals++;
+                    lengthOfStay.merge((int) Math.min(e - s, 30), 1L, Long::sum);
+                    long lead = ChronoUnit.DAYS.between(reservation.getBookedAt().toLocalDate(), reservation.getStartDate());
+                    leadTime.merge((int) Math.min(lead, 365), 1L, Long::sum);
+                }
+            }
+            assertEquals(sold, report.soldRoomNights(), "sold room nights");
+            assertEquals(BigDecimal.valueOf(cents, 2), report.roomRevenue(), "room revenue");
+            assertEquals(arrivals, report.arrivals(), "arrivals");
+            assertEquals(lengthOfStay, report.lengthOfStay(), "length of stay distribution");
+            assertEquals(leadTime, report.leadTime(), "lead time distribution");
+            assertEquals(0L, report.unknownLeadTime(), "generated stays carry booking times");
+            long days = end.toEpochDay() - start.toEpochDay() + 1;
+            for (Room room : service.listRooms()) {
+                double expected = Math.round(nightsByRoom.getOrDefault(room.getId(), 0L) * 100.0 / days * 100) / 100.0;
+                assertEquals(expected, report.roomUtilization().get(room.getId()), "utilization of " + room.getId());
+            }
+            assertEquals(BigDecimal.valueOf(cents, 2).divide(BigDecimal.valueOf(sold), 2, RoundingMode.HALF_UP),
+                    report.averageDailyRate(), "ADR");
+        }
+    }
+
+    void testSmallPeriodRates(HotelManagementService service) {
+        // A period with no stays must not divide by zero
+        AnalyticsReport empty = new AnalyticsEngine().analyze(service, LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 31));
+        assertEquals(0L, empty.soldRoomNights(), "nothing sold before the history starts");
+        assertEquals(new BigDecimal("0.00"), empty.averageDailyRate(), "ADR with no nights");
+        assertEquals(0.0, empty.occupancyRate(), "occupancy with no nights");
+
+        boolean threw = false;
+        try {
+            new AnalyticsEngine().analyze(service, HISTORY_START, HISTORY_START.minusDays(1));
+        } catch (IllegalArgumentException e) {
+            threw = true;
+        }
+        assertTrue(threw, "expected reversed period to be rejected");
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.hotel.report;
+
+import com.example.hotel.model.Reservation;
+import com.example.hotel.service.HotelManagementService;
+import com.example.hotel.tools.WorkloadGenerator;
+import com.example.hotel.util.AppLogging;
+import com.example.hotel.util.JsonFileManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static com.example.hotel.TestSupport.assertEquals;
+import static com.example.hotel.TestSupport.assertTrue;
+import static com.example.hotel.TestSupport.deleteQuietly;
+
+/**
+ * Lightweight test harness (no external libs). Exports a generated history in each
+ * format and reads the files back.
+ */
+public class ReportExporterTest {
+    private static final LocalDate HISTORY_START = LocalDate.of(2030, 1, 1);
+
+    public static void main(String[] args) {
+        AppLogging.setLevel(Level.WARNING);
+        Path dataDir = null;
+        Path reportDir = null;
+        try {
+            dataDir = Files.createTempDirectory("hotel-export-data");
+            reportDir = Files.createTempDirectory("hotel-export-reports");
+            WorkloadGenerator.write(new WorkloadGenerator(5, 30, 200, 2, HISTORY_START, 0.6).generate(), dataDir.toString());
+            HotelManagementService service = new HotelManagementService(dataDir.toString());
+            ReportExporter exporter = new ReportExporter(reportDir.toString());
+            ReportExporterTest test = new ReportExporterTest();
+            test.testGzipCsvReservations(service, exporter);
+            test.testJsonReservations(service, exporter);
+            test.testCsvPayments(service, exporter);
+            try (Stream<Path> files = Files.list(reportDir)) {
+                assertTrue(files.noneMatch(f -> f.toString().endsWith(".tmp")), "temporary export files left behind");
+            }
+            System.out.println("[PASS] All ReportExporter tests passed.");
+        } catch (AssertionError e) {
+            System.err.println("[FAIL] " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("[ERROR] Unexpected: " + e);
+            e.printStackTrace();
+            System.exit(2);
+        } finally {
+            deleteQuietly(dataDir);
+            deleteQuietly(reportDir);
+        }
+    }
+
+    void testGzipCsvReservations(HotelManagementService service, ReportExporter exporter) throws Exception {
+        LocalDate from = HISTORY_START.plusMonths(3);
+        LocalDate to = HISTORY_START.plusYears(1);
+        ExportJob job = exporter.exportReservations(service, from, to, ReportExporter.Format.CSV, true);
+        Path file = job.getResult().get(30, TimeUnit.SECONDS);
+        assertTrue(file.getFileName().toString().endsWith(".csv.gz"), "gzip file name: " + file);
+
+        List<Reservation> expected = service.listAllReservations().stream()
+                .filter(r -> !r.getStartDate().isBefore(from) && r.getStartDate().isBefore(to))
+                .toList();
+        List<String> lines = readLines(file, true);
+        assertEquals("id,roomId,guestId,guestName,startDate,endDate,nights,partySize,bookedAt", lines.get(0), "CSV header");
+        assertEquals(expected.size() + 1, lines.size(), "CSV rows");
+        assertEquals((long) expected.size(), job.getRecordsWritten(), "records written");
+        assertEquals(1.0, job.getProgress(), "progress when done");
+        assertTrue(lines.get(1).startsWith(expected.get(0).getId() + ","), "rows in start-date order");
+    }
+
+    void testJsonReservations(HotelManagementService service, ReportExporter exporter) throws Exception {
+        ExportJob job = exporter.exportReservations(service, null, null, ReportExporter.Format.JSON, false);
+        Path file = job.getResult().get(30, TimeUnit.SECONDS);
+        List<Reservation> exported = JsonFileManager.loadFromFile(file.toString(), Reservation.class);
+        assertEquals(service.listAllReservations(), exported, "JSON export round trip");
+    }
+
+    void testCsvPayments(HotelManagementService service, ReportExporter exporter) throws Exception {
+        LocalDate from = HISTORY_START;
+        LocalDate to = HISTORY_START.plusMonths(6);
+        Path file = exporter.exportPayments(service, from, to, ReportExporter.Format.CSV, false)
+                .getResult().get(30, TimeUnit.SECONDS);
+        long expected = service.getSnapshot().getPayments().stream()
+                .filter(p -> !p.getPaymentDate().toLocalDate().isBefore(from) && p.getPaymentDate().toLocalDate().isBefore(to))
+                .count();
+        assertTrue(expected > 0, "generated history has payments in range");
+        assertEquals(expected + 1, (long) readLines(file, false).size(), "payment rows");
+    }
+
+    private static List<String> readLines(Path file, boolean gzip) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        if (gzip) {
+            in = new GZIPInputStream(in);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return reader.lines().toList();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.hotel.service;
+
+import com.example.hotel.api.HotelHttpServer;
+import com.example.hotel.util.AppLogging;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
+
+import static com.example.hotel.TestSupport.assertEquals;
+import static com.example.hotel.TestSupport.assertTrue;
+import static com.example.hotel.TestSupport.deleteQuietly;
+
+/**
+ * Lightweight test harness (no external libs) for {@link AdmissionController}: per-client
+ * token buckets and their cap, queueing and shedding at the concurrency limit, and the HTTP
+ * status codes.
+ */
+public class AdmissionControllerTest {
+    public static void main(String[] args) {
+        AppLogging.setLevel(Level.WARNING);
+        AdmissionControllerTest test = new AdmissionControllerTest();
+        Path work = null;
+        try {
+            test.testTokenBucketPerClient();
+            test.testClientCap();
+            test.testQueueAndShed();
+            work = Files.createTempDirectory("hotel-admission");
+            test.testHttpStatusCodes(work);
+            System.out.println("[PASS] All AdmissionController tests passed.");
+        } catch (AssertionError e) {
+            System.err.println("[FAIL] " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("[ERROR] Unexpected: " + e);
+            e.printStackTrace();
+            System.exit(2);
+        } finally {
+            deleteQuietly(work);
+        }
+    }
+
+    void testTokenBucketPerClient() {
+        AtomicLong now = new AtomicLong();
+        AdmissionController admission = new AdmissionController(10, 5, 100, 100, 0, Duration.ZERO, now::get);
+        for (int i = 0; i < 5; i++) {
+            admission.acquire("flood").close();
+        }
+        AdmissionController.Rejected rejected = expectRejected(() -> admission.acquire("flood"));
+        assertEquals(AdmissionController.Rejected.Reason.RATE_LIMITED, rejected.getReason(), "over the burst");
+        assertEquals(Duration.ofMillis(100), rejected.getRetryAfter(), "one token at 10 per second");
+
+        // Another client still has its own burst
+        admission.acquire("polite").close();
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        admission.acquire("flood").close();
+        expectRejected(() -> admission.acquire("flood"));
+        // A long pause refills only up to the burst
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        for (int i = 0; i < 5; i++) {
+            admission.acquire("flood").close();
+        }
+        expectRejected(() -> admission.acquire("flood"));
+        assertEquals(3L, admission.stats().get("rateLimited"), "rate limited count");
+        assertEquals(12L, admission.stats().get("admitted"), "admitted count");
+    }
+
+    void testClientCap() {
+        AtomicLong now = new AtomicLong();
+        AdmissionController admission = new AdmissionController(10, 2, 2, 100, 0, Duration.ZERO, now::get);
+        admission.acquire("a").close();
+        admission.acquire("b").close();
+        // Past the cap, new clients share one bucket instead of each getting a burst
+        admission.acquire("c").close();
+        admission.acquire("d").close();
+        expectRejected(() -> admission.acquire("e"));
+        admission.acquire("a").close();
+        assertEquals(2, admission.stats().get("clients"), "bucket map capped");
+        assertEquals(3L, admission.stats().get("overflowed"), "writes through the shared bucket");
+    }
+
+    void testQueueAndShed() throws Exception {
+        AdmissionController admission = new AdmissionController(1000, 1000, 2, 1, Duration.ofSeconds(5));
+        AdmissionController.Permit first = admission.acquire("a");
+        AdmissionController.Permit second = admission.acquire("b");
+        assertEquals(2, admission.stats().get("inFlight"), "both slots taken");
+
+        CompletableFuture<AdmissionController.Permit> waiting = CompletableFuture.supplyAsync(() -> admission.acquire("c"));
+        waitFor(() -> admission.getQueuedCount() == 1, "third write queued");
+        AdmissionController.Rejected shed = expectRejected(() -> admission.acquire("d"));
+        assertEquals(AdmissionController.Rejected.Reason.OVERLOADED, shed.getReason(), "queue full sheds at once");
+
+        first.close();
+        first.close();   // closing twice releases once
+        AdmissionController.Permit third = waiting.get(5, TimeUnit.SECONDS);
+        assertEquals(2, admission.stats().get("inFlight"), "queued write took the freed slot");
+        assertEquals(1L, admission.stats().get("admittedAfterQueueing"), "queued admission counted");
+        assertEquals(1L, admission.stats().get("maxQueued"), "queue high-water mark");
+
+        AdmissionController impatient = new AdmissionController(1000, 1000, 1, 4, Duration.ofMillis(20));
+        try (AdmissionController.Permit held = impatient.acquire("a")) {
+            AdmissionController.Rejected timedOut = expectRejected(() -> impatient.acquire("b"));
+            assertEquals(AdmissionController.Rejected.Reason.OVERLOADED, timedOut.getReason(), "queue timeout");
+            assertEquals(1L, impatient.stats().get("queueTimeouts"), "timeout counted");
+        }
+        second.close();
+        third.close();
+        assertEquals(0, admission.stats().get("inFlight"), "all slots returned");
+    }
+
+    void testHttpStatusCodes(Path dataDir) throws Exception {
+        HotelManagementService service = new HotelManagementService(dataDir.toString());
+        AdmissionController admission = new AdmissionController(0.5, 2, 4, 4, Duration.ofSeconds(1));
+        HotelHttpServer server = new HotelHttpServer(service, 0, admission);
+        server.start();
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            assertEquals(201, postRoom(client, server, "flood-1", "H1").statusCode(), "first write");
+            assertEquals(201, postRoom(client, server, "flood-2", "H2").statusCode(), "second write");
+            // A new client header does not buy a new bucket: the limit is per address
+            HttpResponse<String> limited = postRoom(client, server, "flood-3", "H3");
+            assertEquals(429, limited.statusCode(), "over the client rate");
+            assertEquals("2", limited.headers().firstValue("Retry-After").orElse(null), "retry after a token refills");
+            HttpClient other = HttpClient.newBuilder().localAddress(InetAddress.getByName("127.0.0.2")).build();
+            assertEquals(201, postRoom(other, server, "flood-1", "H4").statusCode(), "other address unaffected");
+
+            // Reads are never limited
+            HttpResponse<String> stats = client.send(HttpRequest.newBuilder(uri(server, "/api/admission")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, stats.statusCode(), "stats endpoint");
+            assertTrue(stats.body().contains("\"rateLimited\":1"), "stats body: " + stats.body());
+            assertEquals(3, service.listRooms().size(), "only admitted writes applied");
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static HttpResponse<String> postRoom(HttpClient client, HotelHttpServer server, String clientId, String roomId)
+            throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri(server, "/api/rooms"))
+                .header("X-Client-Id", clientId)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"id\":\"" + roomId + "\",\"number\":\"" + roomId.substring(1) + "0\",\"capacity\":2}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static URI uri(HotelHttpServer server, String path) {
+        return URI.create("http://127.0.0.1:" + server.getPort() + path);
+    }
+
+    private static AdmissionController.Rejected expectRejected(Runnable attempt) {
+        try {
+            attempt.run();
+        } catch (AdmissionController.Rejected expected) {
+            return expected;
+        }
+        throw new AssertionError("expected the write to be rejected");
+    }
+
+    static void waitFor(BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Timed out waiting: " + what);
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.model.Room;
+import com.example.hotel.util.AppLogging;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+
+import static com.example.hotel.TestSupport.assertEquals;
+import static com.example.hotel.TestSupport.assertTrue;
+import static com.example.hotel.TestSupport.deleteQuietly;
+
+/**
+ * Lightweight test harness (no external libs) for {@link AsyncHotelService}: completion
+ * after the write is persisted, rejection when the queue is full, timeouts, and failed
+ * saves under each persistence mode.
+ */
+public class AsyncHotelServiceTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    public static void main(String[] args) {
+        AppLogging.setLevel(Level.WARNING);
+        AsyncHotelServiceTest test = new AsyncHotelServiceTest();
+        Path work = null;
+        try {
+            work = Files.createTempDirectory("hotel-async");
+            test.testCompletion(work.resolve("complete"));
+            test.testQueueFullRejected(work.resolve("reject"));
+            test.testTimeout(work.resolve("timeout"));
+            test.testFailedSaveFailsWrite(work.resolve("files"));
+            test.testJournalMode(work.resolve("journal"));
+            System.out.println("[PASS] All AsyncHotelService tests passed.");
+        } catch (AssertionError e) {
+            System.err.println("[FAIL] " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("[ERROR] Unexpected: " + e);
+            e.printStackTrace();
+            System.exit(2);
+        } finally {
+            deleteQuietly(work);
+        }
+    }
+
+    void testCompletion(Path dataDir) throws Exception {
+        HotelManagementService service = seed(new HotelManagementService(dataDir.toString()));
+        try (AsyncHotelService async = new AsyncHotelService(service, 2, 8, Duration.ofSeconds(5))) {
+            CompletableFuture<Room> added = async.addRoom(new Room("A1", "201", 2));
+            assertEquals("A1", added.get().getId(), "write completes with the room");
+            Reservation booked = async.createReservation("AR1", "A1", "G1", BASE, BASE.plusDays(2), 1).get();
+            assertEquals("AR1", booked.getId(), "booking completes");
+            CompletableFuture<Boolean> available = async.isRoomAvailable("A1", BASE, BASE.plusDays(1));
+            assertTrue(available.isDone(), "reads complete on the caller's thread");
+            assertTrue(!available.get(), "read sees the completed write");
+        }
+        HotelManagementService restarted = new HotelManagementService(dataDir.toString());
+        assertTrue(restarted.getRoomById("A1").isPresent(), "completed write is in the data files");
+        assertTrue(restarted.getReservationById("AR1").isPresent(), "completed booking is in the data files");
+    }
+
+    void testQueueFullRejected(Path dataDir) throws Exception {
+        BlockingService service = new BlockingService(dataDir);
+        try (AsyncHotelService async = new AsyncHotelService(service, 1, 1, Duration.ofSeconds(5))) {
+            CompletableFuture<Room> running = async.addRoom(new Room("Q1", "301", 2));
+            assertTrue(service.entered.await(5, TimeUnit.SECONDS), "first write started");
+            CompletableFuture<Room> queued = async.addRoom(new Room("Q2", "302", 2));
+            assertEquals(1, async.getQueuedWrites(), "second write queued");
+            CompletableFuture<Room> rejected = async.addRoom(new Room("Q3", "303", 2));
+            assertTrue(rejected.isCompletedExceptionally(), "third write rejected at once");
+            assertTrue(causeOf(rejected) instanceof RejectedExecutionException, "rejection cause: " + causeOf(rejected));
+
+            service.release.countDown();
+            assertEquals("Q1", running.get().getId(), "running write completes");
+            assertEquals("Q2", queued.get().getId(), "queued write completes");
+            assertTrue(service.getRoomById("Q3").isEmpty(), "rejected write never ran");
+        }
+    }
+
+    void testTimeout(Path dataDir) throws Exception {
+        BlockingService service = new BlockingService(dataDir);
+        try (AsyncHotelService async = new AsyncHotelService(service, 1, 4, Duration.ofMillis(100))) {
+            CompletableFuture<Room> slow = async.addRoom(new Room("T1", "401", 2));
+            assertTrue(causeOf(slow) instanceof TimeoutException, "slow write times out: " + causeOf(slow));
+
+            // The write itself carries on after its future has timed out
+            service.release.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (service.getRoomById("T1").isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(service.getRoomById("T1").isPresent(), "timed-out write still applied");
+        }
+    }
+
+    void testFailedSaveFailsWrite(Path dataDir) throws Exception {
+        HotelManagementService service = seed(new HotelManagementService(dataDir.toString(), false, "files"));
+        Path blocked = breakFile(dataDir.resolve("reservations.json"));
+        try (AsyncHotelService async = new AsyncHotelService(service, 1, 4, Duration.ofSeconds(5))) {
+            CompletableFuture<Reservation> failed = async.createReservation("FR1", "R1", "G1", BASE, BASE.plusDays(2),
+                    1, "files-key");
+            assertTrue(causeOf(failed) instanceof UncheckedIOException, "failed save fails the write: " + causeOf(failed));
+
+            // A keyed retry once the disk is back replays the booking instead of making another
+            deleteQuietly(blocked);
+            Reservation retried = async.createReservation("FR2", "R1", "G1", BASE, BASE.plusDays(2), 1, "files-key")
+                    .get();
+            assertEquals("FR1", retried.getId(), "retry returns the original");
+            assertEquals(1, service.listAllReservations().size(), "booked once");
+        }
+        assertTrue(new HotelManagementService(dataDir.toString()).getReservationById("FR1").isPresent(),
+                "booking recovered after restart");
+    }
+
+    void testJournalMode(Path dataDir) throws Exception {
+        HotelManagementService service = seed(new HotelManagementService(dataDir.toString(), false, "journal"));
+        Path blocked = breakFile(dataDir.resolve("reservations.json"));
+        try (AsyncHotelService async = new AsyncHotelService(service, 1, 4, Duration.ofSeconds(5))) {
+            Reservation booked = async.createReservation("JR1", "R1", "G1", BASE, BASE.plusDays(2), 1).get();
+            assertEquals("JR1", booked.getId(), "journaled write completes despite the failed save");
+        }
+        deleteQuietly(blocked);
+        assertTrue(new HotelManagementService(dataDir.toString()).getReservationById("JR1").isPresent(),
+                "journaled write recovered on the next start");
+    }
+
+    /**
+     * Makes the next save of {@code file} fail by putting a non-empty directory in its place.
+     */
+    private static Path breakFile(Path file) throws Exception {
+        Files.deleteIfExists(file);
+        Files.createDirectories(file);
+        Files.writeString(file.resolve("keep"), "x");
+        return file;
+    }
+
+    private static HotelManagementService seed(HotelManagementService service) {
+        service.addRoom(new Room("R1", "101", 2));
+        service.addGuest(new Guest("G1", "Async", "Guest", "async@example.com", "5550000000"));
+        return service;
+    }
+
+    private static Throwable causeOf(CompletableFuture<?> future) throws InterruptedException {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (TimeoutException e) {
+            throw new AssertionError("future did not complete");
+        }
+    }
+
+    /**
+     * Holds each {@code addRoom} until {@link #release} opens.
+     */
+    private static final class BlockingService extends HotelManagementService {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        BlockingService(Path dataDir) {
+            super(dataDir.toString());
+        }
+
+        @Override
+        public Room addRoom(Room room) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.addRoom(room);
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Payment;
+import com.example.hotel.model.Room;
+import com.example.hotel.util.AppLogging;
+import com.example.hotel.util.JsonFileManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import static com.example.hotel.TestSupport.assertEquals;
+import static com.example.hotel.TestSupport.assertTrue;
+import static com.example.hotel.TestSupport.deleteQuietly;
+
+/**
+ * Lightweight test harness (no external libs) for {@link ChangeFeed}: ordering, batching
+ * under backpressure, replay from the journal file and resume from a sequence; and for
+ * journal compaction and where followers resume after it; and for recovering writes that
+ * were journaled but never saved.
+ */
+public class ChangeFeedTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    public static void main(String[] args) {
+        AppLogging.setLevel(Level.WARNING);
+        ChangeFeedTest test = new ChangeFeedTest();
+        Path work = null;
+        try {
+            work = Files.createTempDirectory("hotel-feed");
+            test.testServiceEvents(work.resolve("service"));
+            test.testSlowSubscriberReplaysFromJournal(work.resolve("slow"));
+            test.testResumeAndOverflow(work.resolve("resume"));
+            test.testReplicaFeed(work.resolve("replica"));
+            test.testCompaction(work.resolve("compaction"));
+            test.testReplicaResume(work.resolve("resume-replica"));
+            test.testCrashBetweenJournalAndSave(work.resolve("crash"));
+            System.out.println("[PASS] All ChangeFeed tests passed.");
+        } catch (AssertionError e) {
+            System.err.println("[FAIL] " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("[ERROR] Unexpected: " + e);
+            e.printStackTrace();
+            System.exit(2);
+        } finally {
+            deleteQuietly(work);
+        }
+    }
+
+    void testServiceEvents(Path dataDir) throws Exception {
+        HotelManagementService service = new HotelManagementService(dataDir.toString());
+        Collector live = new Collector(Long.MAX_VALUE);
+        service.getChangeFeed().subscribe(live);
+        int expected = applyChanges(service);
+        List<JournalEntry> entries = live.await(expected);
+        assertEquals(List.of(JournalEntry.Type.ROOM_ADDED, JournalEntry.Type.GUEST_ADDED, JournalEntry.Type.GUEST_UPDATED,
+                JournalEntry.Type.RESERVATION_CREATED, JournalEntry.Type.PAYMENT_ADDED,
+                JournalEntry.Type.RESERVATION_CANCELLED, JournalEntry.Type.ROOM_REMOVED),
+                entries.stream().map(JournalEntry::type).toList(), "event types in commit order");
+        assertGapFree(entries, 1, "live entries");
+        assertEquals("F1", entries.get(3).entityId(), "reservation entity");
+
+        // A late subscriber sees nothing until the next change
+        Collector late = new Collector(Long.MAX_VALUE);
+        service.getChangeFeed().subscribe(late);
+        service.addRoom(new Room("F9", "909", 2));
+        assertEquals(JournalEntry.Type.ROOM_ADDED, late.await(1).get(0).type(), "late subscriber starts at now");
+        assertEquals(expected + 1L, late.entries.get(0).seq(), "late subscriber sequence");
+
+        late.subscription.cancel();
+        live.subscription.cancel();
+        waitFor(() -> service.getChangeFeed().getSubscriberCount() == 0, "cancelled subscriptions removed");
+    }
+
+    void testSlowSubscriberReplaysFromJournal(Path dataDir) throws Exception {
+        MutationJournal journal = new MutationJournal(dataDir.toString());
+        ChangeFeed feed = new ChangeFeed(MutationJournal.pathFor(dataDir.toString()), 0, 8, 3);
+        journal.setListener(feed::publish);
+        Collector slow = new Collector(1);
+        feed.subscribe(slow);
+        for (int i = 1; i <= 100; i++) {
+            journal.append(JournalEntry.Type.ROOM_ADDED, "S" + i, new Room("S" + i, String.valueOf(i), 2));
+        }
+        // One batch per request; the subscriber is far behind the 8-entry ring
+        while (slow.size() < 100) {
+            int before = slow.batchCount();
+            slow.subscription.request(1);
+            waitFor(() -> slow.batchCount() > before, "batch delivered on request");
+        }
+        journal.close();
+        assertGapFree(slow.entries, 1, "slow subscriber entries");
+        assertTrue(slow.batches.stream().allMatch(size -> size <= 3), "batches bounded by maxBatch");
+        assertTrue(slow.batchCount() <= 100 / 3 + 2, "lagging subscriber gets full batches: " + slow.batches);
+        assertTrue(slow.error == null, "no error: " + slow.error);
+    }
+
+    void testResumeAndOverflow(Path dataDir) throws Exception {
+        MutationJournal journal = new MutationJournal(dataDir.toString());
+        ChangeFeed feed = new ChangeFeed(MutationJournal.pathFor(dataDir.toString()), 0, 16, 64);
+        journal.setListener(feed::publish);
+        for (int i = 1; i <= 50; i++) {
+            journal.append(JournalEntry.Type.GUEST_ADDED, "G" + i, null);
+        }
+
+        Collector resumed = new Collector(Long.MAX_VALUE);
+        feed.subscribe(resumed, 20);
+        assertGapFree(resumed.await(30), 21, "resume from the journal file");
+        journal.append(JournalEntry.Type.GUEST_ADDED, "G51", null);
+        assertEquals(51L, resumed.await(31).get(30).seq(), "resumed subscriber switches to live entries");
+
+        Collector fromRing = new Collector(Long.MAX_VALUE);
+        feed.subscribe(fromRing, 45);
+        assertGapFree(fromRing.await(6), 46, "resume from the ring");
+        journal.close();
+
+        // Without a journal file, falling off the ring is an error rather than a silent gap
+        ChangeFeed memoryOnly = new ChangeFeed(null, 0, 4, 2);
+        Collector stalled = new Collector(0);
+        memoryOnly.subscribe(stalled);
+        for (long seq = 1; seq <= 10; seq++) {
+            memoryOnly.publish(new JournalEntry(seq, java.time.Instant.now(), JournalEntry.Type.ROOM_REMOVED, "X", null));
+        }
+        stalled.subscription.request(1);
+        waitFor(() -> stalled.error != null, "overflow reported");
+        assertTrue(stalled.error instanceof IllegalStateException, "overflow error type: " + stalled.error);
+        assertEquals(0, memoryOnly.getSubscriberCount(), "failed subscription removed");
+
+        Collector invalid = new Collector(0);
+        memoryOnly.subscribe(invalid);
+        invalid.subscription.request(0);
+        waitFor(() -> invalid.error != null, "non-positive request rejected");
+        assertTrue(invalid.error instanceof IllegalArgumentException, "request(0) error type: " + invalid.error);
+    }
+
+    void testReplicaFeed(Path dataDir) throws Exception {
+        HotelManagementService primary = new HotelManagementService(dataDir.toString());
+        try (ReplicaFollower follower = new ReplicaFollower(dataDir.toString(), "feed", Duration.ofMillis(20))) {
+            Collector replicated = new Collector(Long.MAX_VALUE);
+            follower.getService().getChangeFeed().subscribe(replicated);
+            int expected = applyChanges(primary);
+            follower.catchUp();
+            List<JournalEntry> entries = replicated.await(expected);
+            assertGapFree(entries, 1, "replica feed");
+            assertEquals(primary.getReplicationStatus().get("lastSequence"),
+                    follower.getService().getChangeFeed().getLastSequence(), "replica feed caught up");
+        }
+    }
+
+    void testCompaction(Path dataDir) throws Exception {
+        MutationJournal recent = new MutationJournal(dataDir.toString(), 0);
+        for (int i = 1; i <= 100; i++) {
+            recent.append(JournalEntry.Type.GUEST_ADDED, "G" + i, null);
+        }
+        assertTrue(!recent.compact(60, Instant.now().minusSeconds(60)), "entries inside the time window kept");
+        recent.close();
+
+        MutationJournal journal = new MutationJournal(dataDir.toString(), 0);
+        ChangeFeed feed = new ChangeFeed(MutationJournal.pathFor(dataDir.toString()), 0, 4, 16);
+        journal.setListener(feed::publish);
+        Path path = MutationJournal.pathFor(dataDir.toString());
+        MutationJournal.Tailer reader = new MutationJournal.Tailer(path);
+        assertEquals(100, reader.poll().size(), "tailer read the journal");
+
+        assertTrue(journal.compact(60, Instant.now().plusSeconds(60)), "saved entries dropped");
+        assertEquals(60L, MutationJournal.readSavedSequence(dataDir.toString()), "saved sequence recorded");
+        List<JournalEntry> kept = MutationJournal.readSince(path, Instant.EPOCH);
+        assertEquals(40, kept.size(), "entries after the saved sequence kept");
+        assertEquals(61L, kept.get(0).seq(), "first kept entry");
+
+        // A tailer of the old file moves to the new one without repeating or skipping
+        for (int i = 101; i <= 105; i++) {
+            journal.append(JournalEntry.Type.GUEST_ADDED, "G" + i, null);
+        }
+        assertGapFree(reader.poll(), 101, "tailer after compaction");
+        try (MutationJournal.Tailer resumed = MutationJournal.Tailer.after(path, 90)) {
+            assertGapFree(resumed.poll(), 91, "tailer seeks by sequence");
+        }
+        reader.close();
+
+        Collector resumed = new Collector(Long.MAX_VALUE);
+        feed.subscribe(resumed, 70);
+        assertGapFree(resumed.await(35), 71, "feed replays the kept entries");
+        Collector tooOld = new Collector(Long.MAX_VALUE);
+        feed.subscribe(tooOld, 10);
+        waitFor(() -> tooOld.error != null, "compacted entries reported");
+        assertTrue(tooOld.error.getMessage().contains("compacted"), "compaction error: " + tooOld.error);
+        assertEquals(0, tooOld.size(), "nothing delivered past the gap");
+        journal.close();
+    }
+
+    void testReplicaResume(Path dataDir) throws Exception {
+        HotelManagementService primary = new HotelManagementService(dataDir.toString());
+        applyChanges(primary);
+        primary.addRoom(new Room("F2", "102", 2));
+
+        // A restarted primary records that the files hold everything so far
+        HotelManagementService restarted = new HotelManagementService(dataDir.toString());
+        try (ReplicaFollower follower = new ReplicaFollower(dataDir.toString(), "resume", Duration.ofMillis(20))) {
+            assertEquals(8L, follower.getAppliedSequence(), "follower starts at the saved sequence");
+            assertEquals(0, follower.catchUp(), "no history replayed");
+            assertTrue(follower.getService().getRoomById("F2").isPresent(), "state loaded from the files");
+            restarted.addRoom(new Room("F3", "103", 2));
+            assertEquals(1, follower.catchUp(), "only the new entry applied");
+            assertTrue(follower.getService().getRoomById("F3").isPresent(), "new entry applied");
+        }
+
+        // A follower that misses compacted entries reloads the files
+        Path other = dataDir.resolveSibling("resync");
+        MutationJournal journal = new MutationJournal(other.toString(), 0);
+        try (ReplicaFollower follower = new ReplicaFollower(other.toString(), "resync", Duration.ofMillis(20))) {
+            journal.append(JournalEntry.Type.ROOM_ADDED, "X1", new Room("X1", "1", 2));
+            assertEquals(1, follower.catchUp(), "first entry applied");
+            journal.append(JournalEntry.Type.ROOM_ADDED, "X2", new Room("X2", "2", 2));
+            journal.compact(2, Instant.now().plusSeconds(60));
+            journal.append(JournalEntry.Type.ROOM_ADDED, "X3", new Room("X3", "3", 2));
+            // The primary saved its files, then compacted twice before the follower looked
+            JsonFileManager.saveToFile(List.of(new Room("X1", "1", 2), new Room("X2", "2", 2), new Room("X3", "3", 2)),
+                    other.resolve("rooms.json").toString());
+            journal.compact(3, Instant.now().plusSeconds(60));
+            journal.append(JournalEntry.Type.ROOM_ADDED, "X4", new Room("X4", "4", 2));
+            follower.catchUp();
+            assertEquals(4L, follower.getAppliedSequence(), "follower caught up after reloading");
+            assertEquals(4, follower.getService().listRooms().size(), "rooms from the files and the journal");
+        }
+        journal.close();
+    }
+
+    void testCrashBetweenJournalAndSave(Path dataDir) throws Exception {
+        HotelManagementService primary = new HotelManagementService(dataDir.toString());
+        primary.addRoom(new Room("C1", "201", 2));
+        primary.addGuest(new Guest("CG1", "Crash", "Guest", "crash@example.com", "5550000001"));
+        List<String> files = List.of("rooms.json", "guests.json", "reservations.json", "payments.json");
+        Path saved = dataDir.resolveSibling("crash-saved");
+        Files.createDirectories(saved);
+        for (String file : files) {
+            if (Files.exists(dataDir.resolve(file))) {
+                Files.copy(dataDir.resolve(file), saved.resolve(file));
+            }
+        }
+
+        try (ReplicaFollower follower = new ReplicaFollower(dataDir.toString(), "crash", Duration.ofMillis(20))) {
+            primary.addRoom(new Room("C2", "202", 2));
+            primary.createReservation("CR1", "C1", "CG1", BASE, BASE.plusDays(3), 1);
+            primary.addPayment(new Payment("CP1", "CR1", "CG1", new BigDecimal("270.00"), Payment.PaymentMethod.CASH));
+            long lastSequence = (Long) primary.getReplicationStatus().get("lastSequence");
+            follower.catchUp();
+            assertEquals(lastSequence, follower.getAppliedSequence(), "follower applied the writes");
+
+            // The process dies after journaling, before the data files were written
+            for (String file : files) {
+                Files.deleteIfExists(dataDir.resolve(file));
+                if (Files.exists(saved.resolve(file))) {
+                    Files.copy(saved.resolve(file), dataDir.resolve(file));
+                }
+            }
+            HotelManagementService restarted = new HotelManagementService(dataDir.toString());
+            assertTrue(restarted.getRoomById("C2").isPresent(), "unsaved room recovered");
+            assertTrue(restarted.getReservationById("CR1").isPresent(), "unsaved booking recovered");
+            assertEquals(1, restarted.listPaymentsForReservation("CR1").size(), "unsaved payment recovered");
+            assertEquals(lastSequence, MutationJournal.readSavedSequence(dataDir.toString()),
+                    "recovered writes marked saved");
+            assertTrue(new HotelManagementService(dataDir.toString()).getReservationById("CR1").isPresent(),
+                    "recovered writes in the data files");
+
+            // Sequences carry on rather than being reissued, so the follower stays in step
+            restarted.cancelReservation("CR1");
+            assertEquals(1, follower.catchUp(), "only the new entry applied");
+            assertEquals(lastSequence + 1, follower.getAppliedSequence(), "next sequence after the recovered ones");
+            assertEquals(restarted.listRooms().size(), follower.getService().listRooms().size(), "replica rooms");
+            assertEquals(restarted.listAllReservations().size(), follower.getService().listAllReservations().size(),
+                    "replica reservations");
+        }
+    }
+
+    /**
+     * One change of each kind. Returns the number of journal entries written.
+     */
+    private static int applyChanges(HotelManagementService service) {
+        service.addRoom(new Room("F1", "101", 2));
+        Guest guest = service.addGuest(new Guest("FG1", "Feed", "Guest", "feed@example.com", "5550000000"));
+        guest.setAddress("1 Feed St");
+        service.updateGuest(guest);
+        service.createReservation("F1", "F1", "FG1", BASE, BASE.plusDays(2), 1);
+        service.addPayment(new Payment("FP1", "F1", "FG1", new BigDecimal("180.00"), Payment.PaymentMethod.CASH));
+        service.cancelReservation("F1");
+        service.removeRoom("F1");
+        return 7;
+    }
+
+    /**
+     * Requests {@code initialDemand} batches on subscribe and records what arrives.
+     */
+    static final class Collector implements Flow.Subscriber<List<JournalEntry>> {
+        final List<JournalEntry> entries = new ArrayList<>();
+        final List<Integer> batches = new ArrayList<>();
+        private final long initialDemand;
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+
+        Collector(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialDemand > 0) {
+                subscription.request(initialDemand);
+            }
+        }
+
+        @Override
+        public synchronized void onNext(List<JournalEntry> batch) {
+            entries.addAll(batch);
+            batches.add(batch.size());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        List<JournalEntry> await(int count) throws InterruptedException {
+            waitFor(() -> size() >= count, "expected " + count + " entries");
+            synchronized (this) {
+                return new ArrayList<>(entries);
+            }
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized int batchCount() {
+            return batches.size();
+        }
+    }
+
+    static void waitFor(java.util.function.BooleanSupplier condition, String what) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Timed out waiting: " + what);
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    static void assertGapFree(List<JournalEntry> entries, long firstSeq, String msg) {
+        for (int i = 0; i < entries.size(); i++) {
+            assertEquals(firstSeq + i, entries.get(i).seq(), msg + " at " + i);
+        }
+    }
+}
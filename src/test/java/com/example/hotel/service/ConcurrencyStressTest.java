@@ -0,0 +1,345 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.model.Room;
+import com.example.hotel.util.AppLogging;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+import static com.example.hotel.TestSupport.deleteQuietly;
+
+/**
+ * Concurrency stress harness (no external libs). Hammers create, cancel and
+ * availability on a few hot rooms from many threads, then checks invariants:
+ * no overlapping stays per room, index consistency, persisted state matching
+ * memory, read snapshots that never show a torn state, and a journal-following
+ * replica converging on the primary, and that a booking only drops the cached
+ * searches it overlaps. Exits non-zero on any violation so the build fails.
+ */
+public class ConcurrencyStressTest {
+    private static final int THREADS = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int HOT_ROOMS = 3;
+    private static final int GUESTS = 20;
+    private static final long DURATION_MILLIS = Long.getLong("stress.millis", 3000);
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    private final List<String> violations = new ArrayList<>();
+
+    public static void main(String[] args) {
+        AppLogging.setLevel(Level.WARNING);
+        ConcurrencyStressTest test = new ConcurrencyStressTest();
+        Path dataDir = null;
+        try {
+            dataDir = Files.createTempDirectory("hotel-stress");
+            test.run(dataDir);
+            test.checkInvalidationScope(dataDir.resolve("scope"));
+        } catch (Exception e) {
+            System.err.println("[ERROR] Unexpected: " + e);
+            e.printStackTrace();
+            System.exit(2);
+        } finally {
+            deleteQuietly(dataDir);
+        }
+        if (!test.violations.isEmpty()) {
+            test.violations.stream().limit(20).forEach(v -> System.err.println("[FAIL] " + v));
+            System.err.println("[FAIL] " + test.violations.size() + " invariant violation(s)");
+            System.exit(1);
+        }
+        System.out.println("[PASS] All concurrency stress invariants held.");
+    }
+
+    void run(Path dataDir) throws Exception {
+        HotelManagementService service = new HotelManagementService(dataDir.toString());
+        for (int i = 1; i <= HOT_ROOMS; i++) {
+            service.addRoom(new Room("R" + i, "10" + i, 4));
+        }
+        for (int i = 1; i <= GUESTS; i++) {
+            service.addGuest(new Guest("G" + i, "Stress", "Guest" + i, "guest" + i + "@example.com", "5550000000"));
+        }
+
+        // Follows the journal while the workers run
+        ReplicaFollower follower = new ReplicaFollower(dataDir.toString(), "stress", java.time.Duration.ofMillis(20));
+        follower.start();
+
+        LongAdder created = new LongAdder();
+        LongAdder conflicts = new LongAdder();
+        LongAdder cancelled = new LongAdder();
+        LongAdder reads = new LongAdder();
+        AtomicInteger ids = new AtomicInteger();
+        Queue<String> live = new ConcurrentLinkedQueue<>();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURATION_MILLIS);
+        for (int t = 0; t < THREADS; t++) {
+            long seed = t;
+            executor.execute(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                try {
+                    startGate.await();
+                    while (System.nanoTime() < deadline) {
+                        String roomId = "R" + (1 + random.nextInt(HOT_ROOMS));
+                        LocalDate start = BASE.plusDays(random.nextInt(30));
+                        LocalDate end = start.plusDays(1 + random.nextInt(4));
+                        int op = random.nextInt(10);
+                        if (op < 4) {
+                            String id = "S-" + ids.incrementAndGet();
+                            try {
+                                service.createReservation(id, roomId, "G" + (1 + random.nextInt(GUESTS)), start, end, 1);
+                                live.add(id);
+                                created.increment();
+                            } catch (ReservationConflictException e) {
+                                conflicts.increment();
+                            }
+                        } else if (op < 6) {
+                            String id = live.poll();
+                            if (id != null && service.cancelReservation(id).isPresent()) {
+                                cancelled.increment();
+                            }
+                        } else if (op < 8) {
+                            service.isRoomAvailable(roomId, start, end);
+                            reads.increment();
+                        } else if (op < 9) {
+                            service.getAvailableRooms(start, end);
+                            reads.increment();
+                        } else {
+                            service.listReservationsForRoom(roomId);
+                            reads.increment();
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        // Pins snapshots while the workers write; each must be free of double bookings
+        LongAdder snapshotsChecked = new LongAdder();
+        Thread snapshotReader = Thread.ofPlatform().name("snapshot-reader").start(() -> {
+            long lastVersion = -1;
+            try {
+                startGate.await();
+                while (System.nanoTime() < deadline) {
+                    HotelSnapshot pinned = service.getSnapshot();
+                    if (pinned.getVersion() < lastVersion) {
+                        failures.add(new AssertionError("snapshot version went backwards"));
+                    }
+                    lastVersion = pinned.getVersion();
+                    String overlap = findOverlap(pinned.getReservations());
+                    if (overlap != null) {
+                        failures.add(new AssertionError("snapshot v" + pinned.getVersion() + " " + overlap));
+                    }
+                    snapshotsChecked.increment();
+                    Thread.sleep(1);
+                }
+            } catch (Throwable e) {
+                failures.add(e);
+            }
+        });
+        long startNanos = System.nanoTime();
+        startGate.countDown();
+        executor.shutdown();
+        if (!executor.awaitTermination(DURATION_MILLIS + 60_000, TimeUnit.MILLISECONDS)) {
+            violations.add("workers did not finish in time");
+        }
+        snapshotReader.join();
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        failures.forEach(e -> violations.add("worker threw " + e));
+        long writes = created.sum() + conflicts.sum() + cancelled.sum();
+        System.out.printf("[INFO] %d threads, %.1fs: %d created, %d conflicts, %d cancelled, %d reads (%.0f writes/s, %.0f reads/s)%n",
+                THREADS, seconds, created.sum(), conflicts.sum(), cancelled.sum(), reads.sum(),
+                writes / seconds, reads.sum() / seconds);
+
+        System.out.println("[INFO] " + snapshotsChecked.sum() + " snapshots checked, final " + service.getSnapshot());
+
+        checkNoOverlaps(service);
+        checkSnapshot(service);
+        checkOccupancyCounters(service);
+        checkIndexes(service);
+        checkAvailabilityCache(service);
+        checkPersistedState(service, dataDir);
+        checkReplica(service, follower);
+    }
+
+    void checkNoOverlaps(HotelManagementService service) {
+        String overlap = findOverlap(service.listAllReservations());
+        if (overlap != null) {
+            violations.add(overlap);
+        }
+    }
+
+    static String findOverlap(Collection<Reservation> reservations) {
+        Map<String, List<Reservation>> byRoom = reservations.stream()
+                .collect(Collectors.groupingBy(Reservation::getRoomId));
+        for (Map.Entry<String, List<Reservation>> entry : byRoom.entrySet()) {
+            List<Reservation> sorted = new ArrayList<>(entry.getValue());
+            sorted.sort(Comparator.comparing(Reservation::getStartDate));
+            for (int i = 1; i < sorted.size(); i++) {
+                Reservation previous = sorted.get(i - 1);
+                Reservation current = sorted.get(i);
+                if (current.getStartDate().isBefore(previous.getEndDate())) {
+                    return "double booking in " + entry.getKey() + ": " + previous.getId() + " overlaps " + current.getId();
+                }
+            }
+        }
+        return null;
+    }
+
+    void checkSnapshot(HotelManagementService service) {
+        HotelSnapshot latest = service.getSnapshot();
+        Set<String> live = service.listAllReservations().stream().map(Reservation::toString).collect(Collectors.toSet());
+        Set<String> snapshot = latest.getReservations().stream().map(Reservation::toString).collect(Collectors.toSet());
+        if (!live.equals(snapshot)) {
+            violations.add("latest snapshot differs from live reservations: " + snapshot.size() + " vs " + live.size());
+        }
+        if (latest.getRooms().size() != service.listRooms().size() || latest.getGuests().size() != service.listGuests().size()) {
+            violations.add("latest snapshot room or guest count differs from live state");
+        }
+    }
+
+    void checkIndexes(HotelManagementService service) {
+        Map<String, String> guestIdByName = service.listGuests().stream()
+                .collect(Collectors.toMap(Guest::getFullName, Guest::getGuestId));
+        Set<String> allIds = new HashSet<>();
+        for (Reservation reservation : service.listAllReservations()) {
+            allIds.add(reservation.getId());
+            if (!service.reservationIdsForRoom(reservation.getRoomId()).contains(reservation.getId())) {
+                violations.add("room index missing " + reservation.getId());
+            }
+            String guestId = guestIdByName.get(reservation.getGuestName());
+            if (guestId == null || !service.reservationIdsForGuest(guestId).contains(reservation.getId())) {
+                violations.add("guest index missing " + reservation.getId());
+            }
+        }
+        for (Room room : service.listRooms()) {
+            for (String id : service.reservationIdsForRoom(room.getId())) {
+                if (!allIds.contains(id)) violations.add("room index has stale " + id);
+            }
+        }
+        for (Guest guest : service.listGuests()) {
+            for (String id : service.reservationIdsForGuest(guest.getGuestId())) {
+                if (!allIds.contains(id)) violations.add("guest index has stale " + id);
+            }
+        }
+    }
+
+    void checkAvailabilityCache(HotelManagementService service) {
+        for (int offset = 0; offset < 30; offset++) {
+            for (int nights = 1; nights <= 4; nights++) {
+                LocalDate start = BASE.plusDays(offset);
+                LocalDate end = start.plusDays(nights);
+                List<String> cached = service.getAvailableRooms(start, end).stream().map(Room::getId).sorted().toList();
+                List<String> scanned = service.listRooms().stream()
+                        .filter(room -> service.isRoomAvailable(room.getId(), start, end))
+                        .map(Room::getId).sorted().toList();
+                if (!cached.equals(scanned)) {
+                    violations.add("stale availability cache for " + start + ".." + end + ": " + cached + " vs " + scanned);
+                }
+            }
+        }
+        System.out.println("[INFO] availability cache " + service.getAvailabilityCacheStats());
+    }
+
+    void checkInvalidationScope(Path dataDir) {
+        HotelManagementService service = new HotelManagementService(dataDir.toString());
+        service.addRoom(new Room("S1", "201", 2));
+        service.addRoom(new Room("S2", "202", 4));
+        service.addGuest(new Guest("SG", "Scope", "Guest", "scope@example.com", "5550000000"));
+        for (int week = 0; week < 10; week++) {
+            service.getAvailableRooms(BASE.plusWeeks(week), BASE.plusWeeks(week).plusDays(3), 0);
+            service.getAvailableRooms(BASE.plusWeeks(week), BASE.plusWeeks(week).plusDays(3), 3);
+        }
+        service.getAvailableRooms(BASE, BASE.plusYears(3), 0);
+        long before = (Long) service.getAvailabilityCacheStats().get("invalidations");
+
+        // Overlaps week 4 with any capacity filter, week 4 with the 3-guest filter, and the long range
+        service.createReservation("S2", "SG", BASE.plusWeeks(4).plusDays(1), BASE.plusWeeks(4).plusDays(2), 1);
+        long dropped = (Long) service.getAvailabilityCacheStats().get("invalidations") - before;
+        if (dropped != 3) {
+            violations.add("booking dropped " + dropped + " cached searches, expected 3");
+        }
+        // The 2-guest room cannot appear in the 3-guest searches
+        service.removeRoom("S1");
+        dropped = (Long) service.getAvailabilityCacheStats().get("invalidations") - before - 3;
+        if (dropped != 9) {
+            violations.add("removing a room dropped " + dropped + " cached searches, expected 9");
+        }
+        for (int week = 0; week < 10; week++) {
+            LocalDate start = BASE.plusWeeks(week);
+            if (service.getAvailableRooms(start, start.plusDays(3), 3).size() != (week == 4 ? 0 : 1)) {
+                violations.add("stale 3-guest search in week " + week);
+            }
+        }
+    }
+
+    void checkPersistedState(HotelManagementService service, Path dataDir) {
+        HotelManagementService reloaded = new HotelManagementService(dataDir.toString());
+        Set<String> memory = service.listAllReservations().stream().map(Reservation::toString).collect(Collectors.toSet());
+        Set<String> disk = reloaded.listAllReservations().stream().map(Reservation::toString).collect(Collectors.toSet());
+        if (!memory.equals(disk)) {
+            Set<String> missing = new HashSet<>(memory);
+            missing.removeAll(disk);
+            Set<String> extra = new HashSet<>(disk);
+            extra.removeAll(memory);
+            violations.add("persisted reservations differ: " + missing.size() + " missing, " + extra.size() + " extra");
+        }
+        if (!service.listRooms().equals(reloaded.listRooms())) {
+            violations.add("persisted rooms differ");
+        }
+        if (!service.listGuests().equals(reloaded.listGuests())) {
+            violations.add("persisted guests differ");
+        }
+    }
+
+    void checkOccupancyCounters(HotelManagementService service) {
+        List<Reservation> all = service.listAllReservations();
+        for (int offset = -5; offset < 40; offset += 3) {
+            LocalDate first = BASE.plusDays(offset);
+            LocalDate last = first.plusDays(6);
+            Object counted = service.generateOccupancyReport(first, last).get("occupiedRoomNights");
+            long expected = HotelQueryTest.expectedRoomNights(all, first, last);
+            if (!Long.valueOf(expected).equals(counted)) {
+                violations.add("occupancy counter for " + first + ".." + last + ": " + counted + " vs " + expected);
+            }
+        }
+    }
+
+    void checkReplica(HotelManagementService service, ReplicaFollower follower) throws IOException {
+        follower.catchUp();
+        follower.close();
+        HotelManagementService replica = follower.getService();
+        Set<String> primary = service.listAllReservations().stream().map(Reservation::toString).collect(Collectors.toSet());
+        Set<String> replicated = replica.listAllReservations().stream().map(Reservation::toString).collect(Collectors.toSet());
+        if (!primary.equals(replicated)) {
+            violations.add("replica reservations differ: " + primary.size() + " on primary, " + replicated.size() + " on replica");
+        }
+        if (!service.listRooms().equals(replica.listRooms()) || !service.listGuests().equals(replica.listGuests())) {
+            violations.add("replica rooms or guests differ");
+        }
+        checkIndexes(replica);
+        checkAvailabilityCache(replica);
+        checkOccupancyCounters(replica);
+        Map<?, ?> status = (Map<?, ?>) service.getReplicationStatus().get("followers");
+        Object lag = status.get("stress") instanceof Map<?, ?> follow ? follow.get("lag") : null;
+        if (!Long.valueOf(0).equals(lag)) {
+            violations.add("replica lag after catch-up: " + lag);
+        }
+        try {
+            replica.addRoom(new Room("RX", "999", 1));
+            violations.add("replica accepted a write");
+        } catch (IllegalStateException expected) {
+            // read-only
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Payment;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.model.Room;
+import com.example.hotel.util.AppLogging;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+import static com.example.hotel.TestSupport.assertEquals;
+import static com.example.hotel.TestSupport.assertTrue;
+import static com.example.hotel.TestSupport.deleteQuietly;
+
+/**
+ * Lightweight test harness (no external libs) for the HotelManagementService query
+ * indexes. Each test runs against a fresh temp data directory.
+ */
+public class HotelQueryTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    public static void main(String[] args) {
+        AppLogging.setLevel(Level.WARNING);
+        HotelQueryTest test = new HotelQueryTest();
+        try {
+            test.run(test::testPaginationWalksEverything);
+            test.run(test::testPaginationDateBounds);
+            test.run(test::testPaginationSurvivesWrites);
+            test.run(test::testFrontDeskLists);
+            test.run(test::testOccupancyReportClipsToWindow);
+            test.testLeaderboards();
+            System.out.println("[PASS] All HotelQuery tests passed.");
+        } catch (AssertionError e) {
+            System.err.println("[FAIL] " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("[ERROR] Unexpected: " + e);
+            e.printStackTrace();
+            System.exit(2);
+        }
+    }
+
+    @FunctionalInterface
+    interface ServiceTest {
+        void run(HotelManagementService service) throws Exception;
+    }
+
+    void run(ServiceTest test) throws Exception {
+        Path dataDir = Files.createTempDirectory("hotel-query");
+        try {
+            test.run(new HotelManagementService(dataDir.toString()));
+        } finally {
+            deleteQuietly(dataDir);
+        }
+    }
+
+    /**
+     * Three rooms, one guest, a booking every other night per room for {@code stays} stays.
+     */
+    static void seed(HotelManagementService service, int stays) {
+        for (int room = 1; room <= 3; room++) {
+            service.addRoom(new Room("R" + room, "10" + room, 2));
+        }
+        service.addGuest(new Guest("G1", "Query", "Guest", "query@example.com", "5550000000"));
+        for (int i = 0; i < stays; i++) {
+            LocalDate start = BASE.plusDays(2L * i);
+            for (int room = 1; room <= 3; room++) {
+                service.createReservation("Q" + room + "-" + i, "R" + room, "G1", start, start.plusDays(1 + room % 2), 1);
+            }
+        }
+    }
+
+    void testPaginationWalksEverything(HotelManagementService service) {
+        seed(service, 40);
+        List<Reservation> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ReservationPage page = service.listReservations(null, null, cursor, 7);
+            assertTrue(page.items().size() <= 7, "page larger than limit");
+            walked.addAll(page.items());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+        assertEquals(120, walked.size(), "paged reservation count");
+        assertEquals(18, pages, "page count");
+        List<Reservation> expected = new ArrayList<>(service.listAllReservations());
+        expected.sort(Comparator.comparing(Reservation::getStartDate).thenComparing(Reservation::getId));
+        assertEquals(expected, walked, "pages out of order or duplicated");
+
+        List<Reservation> room = new ArrayList<>();
+        cursor = null;
+        do {
+            ReservationPage page = service.listReservationsForRoom("R2", cursor, 9);
+            room.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        assertEquals(service.listReservationsForRoom("R2"), room, "room pages");
+    }
+
+    void testPaginationDateBounds(HotelManagementService service) {
+        seed(service, 40);
+        LocalDate from = BASE.plusDays(10);
+        LocalDate to = BASE.plusDays(20);
+        ReservationPage page = service.listReservations(from, to, null, 100);
+        assertEquals(15, page.items().size(), "reservations starting in [from, to)");
+        assertTrue(!page.hasMore(), "bounded range should fit in one page");
+        assertTrue(page.items().stream().allMatch(r -> !r.getStartDate().isBefore(from) && r.getStartDate().isBefore(to)),
+                "reservation outside date bounds");
+
+        // A cursor from before the lower bound must not leak earlier stays
+        String early = service.listReservations(null, null, null, 1).nextCursor();
+        assertEquals(page.items().get(0), service.listReservations(from, to, early, 1).items().get(0),
+                "cursor before lower bound");
+
+        boolean threw = false;
+        try {
+            service.listReservations(null, null, "not-a-cursor", 10);
+        } catch (IllegalArgumentException e) {
+            threw = true;
+        }
+        assertTrue(threw, "expected invalid cursor to be rejected");
+    }
+
+    void testPaginationSurvivesWrites(HotelManagementService service) {
+        seed(service, 10);
+        ReservationPage first = service.listReservations(null, null, null, 5);
+        // Cancel the page's last item and something not yet seen; the cursor must still resume in order
+        service.cancelReservation(first.items().get(4).getId());
+        service.cancelReservation("Q3-9");
+        List<Reservation> rest = new ArrayList<>();
+        String cursor = first.nextCursor();
+        while (cursor != null) {
+            ReservationPage page = service.listReservations(null, null, cursor, 5);
+            rest.addAll(page.items());
+            cursor = page.nextCursor();
+        }
+        assertEquals(30 - 5 - 1, rest.size(), "resumed page count after cancellations");
+        assertTrue(rest.stream().noneMatch(first.items()::contains), "resumed pages repeated items");
+    }
+
+    void testFrontDeskLists(HotelManagementService service) {
+        seed(service, 10);
+        service.createReservation("LONG", "R2", "G1", BASE.plusDays(100), BASE.plusDays(130), 1);
+        for (int day = -1; day < 135; day++) {
+            LocalDate date = BASE.plusDays(day);
+            List<Reservation> all = service.listAllReservations();
+            assertEquals(ids(all.stream().filter(r -> r.getStartDate().equals(date))),
+                    ids(service.getArrivals(date).stream()), "arrivals on " + date);
+            assertEquals(ids(all.stream().filter(r -> r.getEndDate().equals(date))),
+                    ids(service.getDepartures(date).stream()), "departures on " + date);
+            assertEquals(ids(all.stream().filter(r -> !r.getStartDate().isAfter(date) && r.getEndDate().isAfter(date))),
+                    ids(service.getInHouse(date).stream()), "in-house on " + date);
+        }
+        assertEquals(List.of("LONG"), ids(service.getInHouse(BASE.plusDays(129)).stream()), "long stay in-house");
+
+        service.cancelReservation("Q1-0");
+        assertEquals(List.of("Q2-0", "Q3-0"), ids(service.getArrivals(BASE).stream()), "arrivals after cancel");
+    }
+
+    void testOccupancyReportClipsToWindow(HotelManagementService service) {
+        seed(service, 30);
+        service.createReservation("LONG", "R1", "G1", BASE.plusDays(-40), BASE.plusDays(-1), 1);
+        service.cancelReservation("Q2-7");
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 200; i++) {
+            LocalDate first = BASE.plusDays(random.nextInt(-60, 70));
+            LocalDate last = first.plusDays(random.nextInt(0, 40));
+            Map<String, Object> report = service.generateOccupancyReport(first, last);
+            List<Reservation> all = service.listAllReservations();
+            assertEquals(expectedRoomNights(all, first, last), report.get("occupiedRoomNights"),
+                    "room nights " + first + ".." + last);
+            assertEquals(all.stream().filter(r -> !r.getEndDate().isBefore(first) && !r.getStartDate().isAfter(last)).count(),
+                    report.get("totalReservations"), "overlapping reservations " + first + ".." + last);
+        }
+        // Every room is booked on the first night; nights after the window must not count
+        Map<String, Object> single = service.generateOccupancyReport(BASE, BASE);
+        assertEquals(3L, single.get("occupiedRoomNights"), "first night fully booked");
+        assertEquals("100.00%", single.get("occupancyRate"), "rate is clipped to the window");
+
+        // Far-future stays grow the trees without disturbing existing counts
+        LocalDate far = LocalDate.of(2150, 1, 1);
+        service.createReservation("FAR", "R3", "G1", far, far.plusDays(3), 1);
+        assertEquals(2L, service.generateOccupancyReport(far.minusDays(2), far.plusDays(1)).get("occupiedRoomNights"),
+                "far-future stay clipped to window");
+        assertEquals(3L, service.generateOccupancyReport(BASE, BASE).get("occupiedRoomNights"), "count after growth");
+    }
+
+    void testLeaderboards() throws Exception {
+        Path dataDir = Files.createTempDirectory("hotel-query");
+        try {
+            HotelManagementService service = new HotelManagementService(dataDir.toString());
+            buildLeaderboardHistory(service);
+            checkLeaderboards(service);
+            // Totals rebuilt from the files must rank the same
+            checkLeaderboards(new HotelManagementService(dataDir.toString()));
+            try {
+                service.getTopGuestsByNights(0);
+                throw new AssertionError("K of zero accepted");
+            } catch (IllegalArgumentException expected) {
+                // ok
+            }
+        } finally {
+            deleteQuietly(dataDir);
+        }
+    }
+
+    private static void buildLeaderboardHistory(HotelManagementService service) {
+        seed(service, 20);
+        for (int g = 2; g <= 6; g++) {
+            service.addGuest(new Guest("G" + g, "Guest", "Number" + g, "g" + g + "@example.com", "555000000" + g));
+        }
+        SplittableRandom random = new SplittableRandom(40);
+        for (int i = 0; i < 60; i++) {
+            LocalDate start = BASE.plusDays(100 + random.nextInt(200));
+            LocalDate end = start.plusDays(1 + random.nextInt(5));
+            String id = "L" + i;
+            String roomId = "R" + (1 + i % 3);
+            if (service.isRoomAvailable(roomId, start, end)) {
+                Reservation r = service.createReservation(id, roomId, "G" + (2 + random.nextInt(5)), start, end, 1);
+                Payment payment = new Payment("P" + i, id, r.getGuestId(),
+                        BigDecimal.valueOf(random.nextInt(5000, 90000), 2), Payment.PaymentMethod.CREDIT_CARD);
+                payment.setPaymentStatus(i % 4 == 0 ? Payment.PaymentStatus.PENDING : Payment.PaymentStatus.COMPLETED);
+                service.addPayment(payment);
+            }
+        }
+        service.cancelReservation("L5");
+        service.cancelReservation("Q2-4");
+    }
+
+    private static void checkLeaderboards(HotelManagementService service) {
+        List<Reservation> all = service.listAllReservations();
+        Map<String, Long> nights = new HashMap<>();
+        Map<String, Long> bookings = new HashMap<>();
+        for (Reservation r : all) {
+            nights.merge(r.getGuestId(), r.getEndDate().toEpochDay() - r.getStartDate().toEpochDay(), Long::sum);
+            bookings.merge(r.getRoomId(), 1L, Long::sum);
+        }
+        Map<String, Long> guestRevenue = new HashMap<>();
+        Map<String, Long> reservationRevenue = new HashMap<>();
+        for (Payment p : service.getSnapshot().getPayments()) {
+            if (p.getPaymentStatus() == Payment.PaymentStatus.COMPLETED) {
+                long cents = p.getAmount().movePointRight(2).longValueExact();
+                guestRevenue.merge(p.getGuestId(), cents, Long::sum);
+                reservationRevenue.merge(p.getReservationId(), cents, Long::sum);
+            }
+        }
+        assertEquals(sortedTop(nights, 3), service.getTopGuestsByNights(3), "top guests by nights");
+        assertEquals(sortedTop(bookings, 2), service.getTopRoomsByBookings(2), "top rooms by bookings");
+        assertEquals(sortedTop(guestRevenue, 10), service.getTopGuestsByRevenue(10), "top guests by revenue");
+
+        LocalDate from = BASE.plusDays(150);
+        LocalDate to = BASE.plusDays(240);
+        // Payments outlive a cancelled reservation, but only current reservations rank
+        Map<String, Long> paid = new HashMap<>();
+        Map<String, Long> inRange = new HashMap<>();
+        for (Reservation r : all) {
+            Long cents = reservationRevenue.get(r.getId());
+            if (cents != null) {
+                paid.put(r.getId(), cents);
+                if (!r.getStartDate().isBefore(from) && r.getStartDate().isBefore(to)) {
+                    inRange.put(r.getId(), cents);
+                }
+            }
+        }
+        assertTrue(inRange.size() > 5, "range has paid reservations");
+        assertEquals(sortedTop(inRange, 5), service.getTopReservationsByValue(from, to, 5), "top reservations in range");
+        assertEquals(sortedTop(paid, 1000), service.getTopReservationsByValue(null, null, 1000),
+                "all paid reservations ranked");
+    }
+
+    /**
+     * Reference ranking: sort everything, highest score first, ties by ID.
+     */
+    private static List<LeaderboardEntry> sortedTop(Map<String, Long> scores, int k) {
+        return scores.entrySet().stream()
+                .map(e -> new LeaderboardEntry(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingLong(LeaderboardEntry::score).reversed().thenComparing(LeaderboardEntry::id))
+                .limit(k)
+                .toList();
+    }
+
+    /**
+     * Brute-force count of booked nights falling in [first, last].
+     */
+    static long expectedRoomNights(Collection<Reservation> reservations, LocalDate first, LocalDate last) {
+        long nights = 0;
+        for (Reservation r : reservations) {
+            for (LocalDate d = r.getStartDate(); d.isBefore(r.getEndDate()); d = d.plusDays(1)) {
+                if (!d.isBefore(first) && !d.isAfter(last)) {
+                    nights++;
+                }
+            }
+        }
+        return nights;
+    }
+
+    private static List<String> ids(Stream<Reservation> reservations) {
+        return reservations.map(Reservation::getId).sorted().toList();
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Payment;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.model.Room;
+import com.example.hotel.util.AppLogging;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+import static com.example.hotel.TestSupport.assertEquals;
+import static com.example.hotel.TestSupport.assertTrue;
+import static com.example.hotel.TestSupport.deleteQuietly;
+
+/**
+ * Lightweight test harness (no external libs) for idempotency keys on reservation and
+ * payment writes: retries, concurrent retries, restarts and expiry, and through the async
+ * and sharded front ends.
+ */
+public class IdempotencyTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    public static void main(String[] args) {
+        AppLogging.setLevel(Level.WARNING);
+        IdempotencyTest test = new IdempotencyTest();
+        Path work = null;
+        try {
+            work = Files.createTempDirectory("hotel-idempotency");
+            test.testRetriesReturnOriginal(work.resolve("retry"));
+            test.testConcurrentRetries(work.resolve("concurrent"));
+            test.testKeysSurviveRestart(work.resolve("restart"));
+            test.testUnsavedWriteRetriedAfterCrash(work.resolve("crash"));
+            test.testJournalReadSince(work.resolve("journal"));
+            test.testExpiryAndBound();
+            test.testAsyncAndSharded(work.resolve("async"), work.resolve("chain"));
+            System.out.println("[PASS] All Idempotency tests passed.");
+        } catch (AssertionError e) {
+            System.err.println("[FAIL] " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("[ERROR] Unexpected: " + e);
+            e.printStackTrace();
+            System.exit(2);
+        } finally {
+            deleteQuietly(work);
+        }
+    }
+
+    void testRetriesReturnOriginal(Path dataDir) {
+        HotelManagementService service = seed(dataDir, 1);
+        Reservation first = service.createReservation("K1", "R1", "G1", BASE, BASE.plusDays(2), 1, "key-1");
+        // A client that generates a fresh ID per attempt
+        Reservation retry = service.createReservation("K2", "R1", "G1", BASE, BASE.plusDays(2), 1, "key-1");
+        assertTrue(first == retry, "retry returns the original reservation");
+        assertEquals(1, service.listAllReservations().size(), "no duplicate booking");
+
+        try {
+            service.createReservation("K3", "R1", "G1", BASE.plusDays(5), BASE.plusDays(6), 1, "key-1");
+            throw new AssertionError("key reused for another stay should fail");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("different request"), "mismatch message: " + expected.getMessage());
+        }
+
+        Payment payment = service.addPayment(payment("P1", "K1", "90.00"), "pay-1");
+        assertTrue(payment == service.addPayment(payment("P2", "K1", "90.0"), "pay-1"), "payment retry returns original");
+        assertEquals(1, service.listPaymentsForReservation("K1").size(), "no duplicate payment");
+        try {
+            service.addPayment(payment("P3", "K1", "95.00"), "pay-1");
+            throw new AssertionError("key reused for another amount should fail");
+        } catch (IllegalArgumentException expected) {
+            // different request
+        }
+
+        // A failed write records nothing, so the retry runs again
+        try {
+            service.createReservation("K4", "R1", "G1", BASE, BASE.plusDays(1), 1, "key-2");
+            throw new AssertionError("conflicting booking should fail");
+        } catch (ReservationConflictException expected) {
+            // room taken
+        }
+        service.cancelReservation("K1");
+        assertEquals("K4", service.createReservation("K4", "R1", "G1", BASE, BASE.plusDays(1), 1, "key-2").getId(),
+                "failed attempt not remembered");
+        assertEquals(2L, service.getIdempotencyStats().get("replays"), "replays counted");
+    }
+
+    void testConcurrentRetries(Path dataDir) throws Exception {
+        HotelManagementService service = seed(dataDir, 1);
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger attempt = new AtomicInteger();
+        List<Future<Reservation>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return service.createReservation("C" + attempt.incrementAndGet(), "R1", "G1",
+                            BASE, BASE.plusDays(3), 2, "same-key");
+                }));
+            }
+            start.countDown();
+            String id = results.get(0).get().getId();
+            for (Future<Reservation> result : results) {
+                assertEquals(id, result.get().getId(), "every attempt sees the one booking");
+            }
+        }
+        assertEquals(1, service.listAllReservations().size(), "one booking for concurrent retries");
+    }
+
+    void testAsyncAndSharded(Path dataDir, Path chainDir) throws Exception {
+        HotelManagementService service = seed(dataDir, 1);
+        try (AsyncHotelService async = new AsyncHotelService(service, 2, 16, Duration.ofSeconds(5))) {
+            Reservation first = async.createReservation(null, "R1", "G1", BASE, BASE.plusDays(2), 1, "async-1").get();
+            Reservation retry = async.createReservation(null, "R1", "G1", BASE, BASE.plusDays(2), 1, "async-1").get();
+            assertEquals(first.getId(), retry.getId(), "async retry returns the original");
+            Payment paid = async.addPayment(payment(null, first.getId(), "90.00"), "async-pay").get();
+            assertEquals(paid.getPaymentId(), async.addPayment(payment(null, first.getId(), "90.00"), "async-pay").get()
+                    .getPaymentId(), "async payment retry returns the original");
+            assertEquals(1, service.listPaymentsForReservation(first.getId()).size(), "one async payment");
+        }
+
+        try (ShardedHotelService chain = new ShardedHotelService(chainDir.toString())) {
+            chain.addProperty("P1");
+            chain.addRoom("P1", new Room("S1", "101", 2));
+            chain.addGuest(new Guest("G1", "Key", "Guest", "key@example.com", "5550000000"));
+            Reservation first = chain.createReservation(null, "S1", "G1", BASE, BASE.plusDays(2), 1, "chain-1");
+            Reservation retry = chain.createReservation(null, "S1", "G1", BASE, BASE.plusDays(2), 1, "chain-1");
+            Reservation sameId = chain.createReservation(first.getId(), "S1", "G1", BASE, BASE.plusDays(2), 1, "chain-1");
+            assertEquals(first.getId(), retry.getId(), "sharded retry returns the original");
+            assertEquals(first.getId(), sameId.getId(), "retry carrying the created ID");
+            assertEquals(1, chain.listReservationsForGuest("G1").size(), "one booking for the retries");
+            Payment paid = chain.addPayment(payment(null, first.getId(), "90.00"), "chain-pay");
+            assertEquals(paid.getPaymentId(), chain.addPayment(payment(null, first.getId(), "90.00"), "chain-pay")
+                    .getPaymentId(), "sharded payment retry returns the original");
+            try {
+                chain.createReservation(first.getId(), "S1", "G1", BASE.plusDays(5), BASE.plusDays(6), 1, null);
+                throw new AssertionError("an unkeyed write reusing the ID should fail");
+            } catch (IllegalArgumentException expected) {
+                // already exists
+            }
+        }
+    }
+
+    void testKeysSurviveRestart(Path dataDir) {
+        HotelManagementService service = seed(dataDir, 3);
+        // Enough entries that the journal scan crosses several read chunks
+        for (int i = 0; i < 600; i++) {
+            service.createReservation("S" + i, "R" + (i % 3 + 1), "G1",
+                    BASE.plusDays(2L * (i / 3)), BASE.plusDays(2L * (i / 3) + 1), 1, "stay-" + i);
+        }
+        service.addPayment(payment("SP1", "S0", "45.00"), "stay-pay");
+
+        HotelManagementService restarted = new HotelManagementService(dataDir.toString());
+        assertEquals(601, restarted.getIdempotencyStats().get("keys"), "keys restored from the journal");
+        Reservation retried = restarted.createReservation("S-new", "R1", "G1", BASE, BASE.plusDays(1), 1, "stay-0");
+        assertEquals("S0", retried.getId(), "retry after restart returns the original");
+        assertEquals("SP1", restarted.addPayment(payment("SP2", "S0", "45"), "stay-pay").getPaymentId(),
+                "payment retry after restart");
+        assertEquals(600, restarted.listAllReservations().size(), "no duplicate after restart");
+    }
+
+    void testUnsavedWriteRetriedAfterCrash(Path dataDir) throws Exception {
+        HotelManagementService service = seed(dataDir, 2);
+        service.createReservation("W1", "R1", "G1", BASE, BASE.plusDays(2), 1, "saved-stay");
+        service.createReservation("W2", "R2", "G1", BASE, BASE.plusDays(2), 1, "cancelled-stay");
+        service.cancelReservation("W2");
+        Path reservationsFile = dataDir.resolve("reservations.json");
+        Path paymentsFile = dataDir.resolve("payments.json");
+        byte[] savedReservations = Files.readAllBytes(reservationsFile);
+
+        // Journaled, then the process dies before the files are saved
+        service.createReservation("W3", "R1", "G1", BASE.plusDays(5), BASE.plusDays(7), 1, "lost-stay");
+        service.addPayment(payment("WP1", "W1", "80.00"), "lost-payment");
+        Files.write(reservationsFile, savedReservations);
+        Files.delete(paymentsFile);
+
+        HotelManagementService restarted = new HotelManagementService(dataDir.toString());
+        assertEquals(4, restarted.getIdempotencyStats().get("keys"), "journaled writes restored");
+        assertEquals("W1", restarted.createReservation("W1b", "R1", "G1", BASE, BASE.plusDays(2), 1, "saved-stay").getId(),
+                "saved write replayed");
+        assertEquals("W2", restarted.createReservation("W2b", "R2", "G1", BASE, BASE.plusDays(2), 1, "cancelled-stay").getId(),
+                "cancelled write replayed, not booked again");
+        assertEquals("W3", restarted.createReservation("W3b", "R1", "G1", BASE.plusDays(5), BASE.plusDays(7), 1, "lost-stay")
+                .getId(), "unsaved write recovered from the journal");
+        Payment paid = restarted.addPayment(payment("WP2", "W1", "80.00"), "lost-payment");
+        assertEquals("WP1", paid.getPaymentId(), "unsaved payment recovered from the journal");
+        assertEquals(1, restarted.listPaymentsForReservation("W1").size(), "payment not applied twice");
+
+        HotelManagementService again = new HotelManagementService(dataDir.toString());
+        assertEquals(2, again.listAllReservations().size(), "recovered booking saved");
+        assertTrue(again.getReservationById("W3").isPresent(), "recovered write in the data files");
+    }
+
+    void testJournalReadSince(Path dataDir) throws Exception {
+        Files.createDirectories(dataDir);
+        Instant since;
+        try (MutationJournal journal = new MutationJournal(dataDir.toString())) {
+            for (int i = 0; i < 500; i++) {
+                journal.append(JournalEntry.Type.ROOM_ADDED, "OLD" + i, new Room("OLD" + i, String.valueOf(i), 2));
+            }
+            Thread.sleep(5);
+            since = Instant.now();
+            for (int i = 0; i < 300; i++) {
+                journal.append(JournalEntry.Type.ROOM_ADDED, "NEW" + i, new Room("NEW" + i, String.valueOf(i), 2), "k" + i);
+            }
+        }
+        Path path = MutationJournal.pathFor(dataDir.toString());
+        List<JournalEntry> recent = MutationJournal.readSince(path, since);
+        assertEquals(300, recent.size(), "only entries since the instant");
+        assertEquals(501L, recent.get(0).seq(), "first recent entry");
+        assertEquals("k299", recent.get(299).idempotencyKey(), "key read back");
+        assertEquals(800, MutationJournal.readSince(path, Instant.EPOCH).size(), "whole journal");
+        assertEquals(0, MutationJournal.readSince(path, Instant.now().plusSeconds(60)).size(), "nothing in the future");
+    }
+
+    void testExpiryAndBound() {
+        MutableClock clock = new MutableClock();
+        IdempotencyCache cache = new IdempotencyCache(Duration.ofMinutes(10), 3, clock);
+        AtomicInteger writes = new AtomicInteger();
+        assertEquals(1, cache.execute("a", "f", writes::incrementAndGet), "first write");
+        assertEquals(1, cache.execute("a", "f", writes::incrementAndGet), "replayed within ttl");
+        clock.advance(Duration.ofMinutes(10));
+        assertEquals(2, cache.execute("a", "f", writes::incrementAndGet), "expired key runs again");
+
+        for (String key : List.of("b", "c", "d")) {
+            cache.execute(key, "f", writes::incrementAndGet);
+        }
+        assertEquals(3, cache.stats().get("keys"), "bounded to maxKeys");
+        int before = writes.get();
+        cache.execute("a", "f", writes::incrementAndGet);
+        assertEquals(before + 1, writes.get(), "oldest key evicted first");
+
+        cache.record("old", "f", "result", clock.instant().minus(Duration.ofMinutes(11)));
+        assertEquals("fresh", cache.execute("old", "f", () -> "fresh"), "expired restore ignored");
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2030-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public java.time.ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+    }
+
+    private static HotelManagementService seed(Path dataDir, int rooms) {
+        HotelManagementService service = new HotelManagementService(dataDir.toString());
+        for (int room = 1; room <= rooms; room++) {
+            service.addRoom(new Room("R" + room, "10" + room, 2));
+        }
+        service.addGuest(new Guest("G1", "Retry", "Guest", "retry@example.com", "5550000000"));
+        return service;
+    }
+
+    private static Payment payment(String id, String reservationId, String amount) {
+        return new Payment(id, reservationId, "G1", new BigDecimal(amount), Payment.PaymentMethod.CREDIT_CARD);
+    }
+}
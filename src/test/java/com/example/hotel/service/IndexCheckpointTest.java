@@ -0,0 +1,134 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.Payment;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.tools.WorkloadGenerator;
+import com.example.hotel.util.AppLogging;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+import static com.example.hotel.TestSupport.assertEquals;
+import static com.example.hotel.TestSupport.assertTrue;
+import static com.example.hotel.TestSupport.deleteQuietly;
+
+/**
+ * Lightweight test harness (no external libs) for the index checkpoint: a warm start
+ * from the checkpoint must answer exactly like a full rebuild, and any change to the
+ * data files, or a damaged checkpoint, must fall back to the rebuild.
+ */
+public class IndexCheckpointTest {
+    private static final LocalDate HISTORY_START = LocalDate.of(2027, 1, 1);
+    private static final LocalDate CUT_OFF = LocalDate.of(2027, 6, 1);
+
+    public static void main(String[] args) {
+        AppLogging.setLevel(Level.WARNING);
+        IndexCheckpointTest test = new IndexCheckpointTest();
+        Path work = null;
+        try {
+            work = Files.createTempDirectory("hotel-checkpoint");
+            test.testWarmStartMatchesRebuild(work.resolve("data"));
+            test.testRestoreChecksTreeSizes();
+            System.out.println("[PASS] All IndexCheckpoint tests passed.");
+        } catch (AssertionError e) {
+            System.err.println("[FAIL] " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("[ERROR] Unexpected: " + e);
+            e.printStackTrace();
+            System.exit(2);
+        } finally {
+            deleteQuietly(work);
+        }
+    }
+
+    void testWarmStartMatchesRebuild(Path dataDir) throws Exception {
+        Files.createDirectories(dataDir);
+        WorkloadGenerator.write(new WorkloadGenerator(11, 15, 120, 1, HISTORY_START, 0.6).generate(), dataDir.toString());
+        Path checkpoint = dataDir.resolve(IndexCheckpoint.FILE);
+
+        // Loaded from the generated files, then archived: the reference answers
+        HotelManagementService original = new HotelManagementService(dataDir.toString());
+        assertTrue(!original.isIndexCheckpointLoaded(), "first start has no checkpoint");
+        assertTrue(original.archiveStaysEndedBefore(CUT_OFF) > 0, "stays archived");
+        Map<String, Object> expected = answers(original);
+        assertTrue(Files.exists(checkpoint), "checkpoint written after the first rebuild");
+
+        // The archive run changed the files, so this start rebuilds (in parallel) and checkpoints again
+        HotelManagementService rebuilt = new HotelManagementService(dataDir.toString());
+        assertTrue(!rebuilt.isIndexCheckpointLoaded(), "files changed since the checkpoint");
+        assertEquals(expected, answers(rebuilt), "parallel rebuild");
+
+        HotelManagementService warm = new HotelManagementService(dataDir.toString());
+        assertTrue(warm.isIndexCheckpointLoaded(), "unchanged files load the checkpoint");
+        assertEquals(expected, answers(warm), "warm start");
+        HotelManagementService replica = new HotelManagementService(dataDir.toString(), true);
+        assertTrue(replica.isIndexCheckpointLoaded(), "a replica loads the checkpoint too");
+        assertEquals(expected, answers(replica), "replica warm start");
+
+        // Writes after the checkpoint make it stale until the next one
+        Reservation booked = warm.createReservation(warm.listRooms().get(0).getId(), warm.listGuests().get(0).getGuestId(),
+                LocalDate.of(2029, 3, 1), LocalDate.of(2029, 3, 8), 1);
+        Payment payment = new Payment(null, booked.getId(), booked.getGuestId(), new BigDecimal("700.00"),
+                Payment.PaymentMethod.CASH);
+        payment.setPaymentStatus(Payment.PaymentStatus.COMPLETED);
+        warm.addPayment(payment);
+        Map<String, Object> afterWrites = answers(warm);
+        HotelManagementService stale = new HotelManagementService(dataDir.toString());
+        assertTrue(!stale.isIndexCheckpointLoaded(), "stale checkpoint ignored");
+        assertEquals(afterWrites, answers(stale), "rebuild after writes");
+
+        // The rebuild above checkpointed the files as they were; write again, then checkpoint at shutdown
+        warm.cancelReservation(booked.getId());
+        Map<String, Object> atShutdown = answers(warm);
+        warm.checkpointIndexes();
+        HotelManagementService afterShutdown = new HotelManagementService(dataDir.toString());
+        assertTrue(afterShutdown.isIndexCheckpointLoaded(), "checkpoint taken at shutdown");
+        assertEquals(atShutdown, answers(afterShutdown), "warm start after shutdown checkpoint");
+
+        // A torn checkpoint is ignored, never trusted
+        byte[] bytes = Files.readAllBytes(checkpoint);
+        Files.write(checkpoint, Arrays.copyOf(bytes, bytes.length / 2));
+        HotelManagementService torn = new HotelManagementService(dataDir.toString());
+        assertTrue(!torn.isIndexCheckpointLoaded(), "torn checkpoint ignored");
+        assertEquals(atShutdown, answers(torn), "rebuild after a torn checkpoint");
+    }
+
+    void testRestoreChecksTreeSizes() {
+        OccupancyCounter counter = new OccupancyCounter();
+        OccupancyCounter.State state = counter.state();
+        try {
+            counter.restore(new OccupancyCounter.State(state.nights(), state.correction(), new long[5],
+                    state.departures(), 0));
+            throw new AssertionError("mismatched trees should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // sizes differ
+        }
+    }
+
+    /**
+     * Everything the running totals feed, with nothing that changes between two starts.
+     */
+    private static Map<String, Object> answers(HotelManagementService service) {
+        Map<String, Object> answers = new LinkedHashMap<>();
+        LocalDate end = HISTORY_START.plusYears(3);
+        Map<String, Object> occupancy = service.generateOccupancyReport(HISTORY_START, end);
+        answers.put("occupiedRoomNights", occupancy.get("occupiedRoomNights"));
+        answers.put("reservations", occupancy.get("totalReservations"));
+        answers.put("earlyNights", service.generateOccupancyReport(HISTORY_START, CUT_OFF).get("occupiedRoomNights"));
+        answers.put("topGuestsByNights", service.getTopGuestsByNights(20));
+        answers.put("topGuestsByRevenue", service.getTopGuestsByRevenue(20));
+        answers.put("topRooms", service.getTopRoomsByBookings(20));
+        answers.put("topReservations", service.getTopReservationsByValue(CUT_OFF, end, 20));
+        answers.put("arrivals", service.getArrivals(CUT_OFF.plusDays(10)).size());
+        answers.put("liveReservations", service.listAllReservations().size());
+        answers.put("roomReservations", service.listReservationsForRoom(service.listRooms().get(0).getId()).size());
+        return answers;
+    }
+}
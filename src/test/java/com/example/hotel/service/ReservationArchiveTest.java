@@ -0,0 +1,198 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.Reservation;
+import com.example.hotel.report.AnalyticsEngine;
+import com.example.hotel.report.AnalyticsReport;
+import com.example.hotel.tools.WorkloadGenerator;
+import com.example.hotel.util.AppLogging;
+import com.example.hotel.util.JsonFileManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+import static com.example.hotel.TestSupport.assertEquals;
+import static com.example.hotel.TestSupport.assertTrue;
+import static com.example.hotel.TestSupport.deleteQuietly;
+
+/**
+ * Lightweight test harness (no external libs) for archiving completed stays: an archived
+ * history must answer date-range queries, reports and leaderboards exactly like the same
+ * history kept live, before and after a restart and on a replica.
+ */
+public class ReservationArchiveTest {
+    private static final LocalDate HISTORY_START = LocalDate.of(2027, 1, 1);
+    private static final LocalDate CUT_OFF = LocalDate.of(2027, 7, 15);
+
+    public static void main(String[] args) {
+        AppLogging.setLevel(Level.WARNING);
+        ReservationArchiveTest test = new ReservationArchiveTest();
+        Path work = null;
+        try {
+            work = Files.createTempDirectory("hotel-archive");
+            test.testArchivedHistoryMatchesLive(work.resolve("live"), work.resolve("archived"));
+            test.testArchivedIdsStayTaken(work.resolve("ids"));
+            System.out.println("[PASS] All ReservationArchive tests passed.");
+        } catch (AssertionError e) {
+            System.err.println("[FAIL] " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("[ERROR] Unexpected: " + e);
+            e.printStackTrace();
+            System.exit(2);
+        } finally {
+            deleteQuietly(work);
+        }
+    }
+
+    void testArchivedHistoryMatchesLive(Path liveDir, Path archivedDir) throws Exception {
+        WorkloadGenerator.Dataset dataset = new WorkloadGenerator(7, 20, 80, 1, HISTORY_START, 0.6).generate();
+        Files.createDirectories(liveDir);
+        Files.createDirectories(archivedDir);
+        WorkloadGenerator.write(dataset, liveDir.toString());
+        WorkloadGenerator.write(dataset, archivedDir.toString());
+        HotelManagementService live = new HotelManagementService(liveDir.toString());
+        HotelManagementService archived = new HotelManagementService(archivedDir.toString());
+
+        try (ReplicaFollower follower = new ReplicaFollower(archivedDir.toString(), "archive", Duration.ofMillis(20))) {
+            int count = archived.archiveStaysEndedBefore(CUT_OFF);
+            assertTrue(count > 0, "stays archived");
+            long expectedArchived = dataset.reservations().stream()
+                    .filter(r -> !r.getEndDate().isAfter(CUT_OFF)).count();
+            assertEquals(expectedArchived, (long) count, "every stay ending by the cut-off archived");
+            assertTrue(archived.listAllReservations().stream().allMatch(r -> r.getEndDate().isAfter(CUT_OFF)),
+                    "live stays all end after the cut-off");
+            assertEquals(live.listAllReservations().size(),
+                    archived.listAllReservations().size() + count, "live plus archived covers the history");
+            assertEquals((long) count, archived.getSystemStatistics().get("archivedReservations"), "archived count");
+            assertEquals(0, archived.archiveStaysEndedBefore(CUT_OFF), "repeated run archives nothing");
+            try (Stream<Path> segments = Files.list(archivedDir.resolve(ReservationArchive.DIR))) {
+                assertEquals(7L, segments.filter(p -> p.toString().endsWith(".jsonl.gz")).count(),
+                        "one segment per month of arrival");
+            }
+
+            assertSameAnswers(live, archived, "after archiving");
+            assertHorizonEnforced(archived, dataset.reservations().get(0));
+
+            follower.catchUp();
+            HotelManagementService replica = follower.getService();
+            assertEquals(archived.listAllReservations().size(), replica.listAllReservations().size(),
+                    "replica dropped archived stays");
+            assertSameAnswers(live, replica, "on the replica");
+        }
+
+        // A cursor resumes inside a segment at the stay after it, including among same-day arrivals
+        ReservationArchive archive = new ReservationArchive(archivedDir.toString(), 12);
+        List<Reservation> all = new ArrayList<>();
+        archive.iterator(null, null).forEachRemaining(all::add);
+        for (int i = 0; i < all.size() - 1; i += 17) {
+            Reservation cursor = all.get(i);
+            Iterator<Reservation> resumed = archive.iterator(cursor.getStartDate(), cursor.getId(), null);
+            assertEquals(all.get(i + 1).getId(), resumed.next().getId(), "resumed after " + cursor.getId());
+        }
+
+        HotelManagementService reloaded = new HotelManagementService(archivedDir.toString());
+        assertSameAnswers(live, reloaded, "after a restart");
+        assertTrue((long) reloaded.getArchiveStats().get("cacheMisses") > 0, "segments read on demand");
+    }
+
+    void testArchivedIdsStayTaken(Path dataDir) throws Exception {
+        Files.createDirectories(dataDir);
+        WorkloadGenerator.write(new WorkloadGenerator(13, 10, 60, 1, HISTORY_START, 0.6).generate(), dataDir.toString());
+        HotelManagementService service = new HotelManagementService(dataDir.toString());
+        Reservation archivedStay = service.listAllReservations().get(0);
+        service.archiveStaysEndedBefore(CUT_OFF);
+        assertTrue(archivedStay.getEndDate().isBefore(CUT_OFF), "earliest stay archived");
+        LocalDate end = HISTORY_START.plusYears(3);
+        Object nights = service.generateOccupancyReport(HISTORY_START, end).get("occupiedRoomNights");
+
+        assertArchivedIdTaken(service, archivedStay, "right after archiving");
+        assertEquals(nights, service.generateOccupancyReport(HISTORY_START, end).get("occupiedRoomNights"),
+                "rejected booking left no trace");
+
+        // Cold start: no checkpoint, and an archive written before the ID index existed
+        Files.delete(dataDir.resolve(IndexCheckpoint.FILE));
+        Files.delete(dataDir.resolve(ReservationArchive.DIR).resolve("ids.txt.gz"));
+        HotelManagementService restarted = new HotelManagementService(dataDir.toString());
+        assertTrue(Files.exists(dataDir.resolve(ReservationArchive.DIR).resolve("ids.txt.gz")), "ID index saved again");
+        assertArchivedIdTaken(restarted, archivedStay, "after a restart");
+        assertEquals(nights, restarted.generateOccupancyReport(HISTORY_START, end).get("occupiedRoomNights"),
+                "archived stays counted after a restart");
+
+        // A live stay that reused an archived ID before the check existed must not hide the archived one
+        List<Reservation> live = new ArrayList<>(restarted.listAllReservations());
+        Reservation reused = new Reservation(archivedStay.getId(), archivedStay.getRoomId(), archivedStay.getGuestId(),
+                archivedStay.getGuestName(), end.minusDays(10), end.minusDays(8), 1, archivedStay.getBookedAt());
+        live.add(reused);
+        JsonFileManager.saveToFile(live, dataDir.resolve("reservations.json").toString());
+        Files.deleteIfExists(dataDir.resolve(IndexCheckpoint.FILE));
+        HotelManagementService legacy = new HotelManagementService(dataDir.toString());
+        assertEquals((long) nights + 2, legacy.generateOccupancyReport(HISTORY_START, end).get("occupiedRoomNights"),
+                "both stays with the reused ID counted");
+    }
+
+    private static void assertArchivedIdTaken(HotelManagementService service, Reservation archivedStay, String when) {
+        try {
+            service.createReservation(archivedStay.getId(), archivedStay.getRoomId(), archivedStay.getGuestId(),
+                    CUT_OFF.plusYears(2), CUT_OFF.plusYears(2).plusDays(2), 1);
+            throw new AssertionError("archived ID reused " + when);
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("already exists"), "duplicate ID message: " + expected.getMessage());
+        }
+        assertTrue(service.getReservationById(archivedStay.getId()).isEmpty(), "no live stay under the archived ID " + when);
+    }
+
+    private static void assertHorizonEnforced(HotelManagementService service, Reservation archivedStay) {
+        try {
+            service.createReservation("LATE1", archivedStay.getRoomId(), archivedStay.getGuestId(),
+                    CUT_OFF.minusDays(3), CUT_OFF.plusDays(1), 1);
+            throw new AssertionError("booking before the cut-off should fail");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("archived"), "horizon message: " + expected.getMessage());
+        }
+        assertEquals(Optional.empty(), service.cancelReservation(archivedStay.getId()), "archived stay cannot be cancelled");
+    }
+
+    private static void assertSameAnswers(HotelManagementService expected, HotelManagementService actual, String when) {
+        assertEquals(pageAll(expected, null, null), pageAll(actual, null, null), "full paging " + when);
+        LocalDate from = CUT_OFF.minusMonths(2);
+        LocalDate to = CUT_OFF.plusMonths(1);
+        assertEquals(pageAll(expected, from, to), pageAll(actual, from, to), "range paging across the cut-off " + when);
+
+        assertEquals(expected.generateOccupancyReport(HISTORY_START, CUT_OFF).get("occupiedRoomNights"),
+                actual.generateOccupancyReport(HISTORY_START, CUT_OFF).get("occupiedRoomNights"), "occupancy " + when);
+        assertEquals(expected.getTopGuestsByNights(10), actual.getTopGuestsByNights(10), "top guests by nights " + when);
+        assertEquals(expected.getTopGuestsByRevenue(10), actual.getTopGuestsByRevenue(10), "top guests by revenue " + when);
+        assertEquals(expected.getTopRoomsByBookings(10), actual.getTopRoomsByBookings(10), "top rooms " + when);
+        assertEquals(expected.getTopReservationsByValue(from, to, 10), actual.getTopReservationsByValue(from, to, 10),
+                "top reservations by value " + when);
+
+        AnalyticsEngine engine = new AnalyticsEngine();
+        AnalyticsReport wanted = engine.analyze(expected, HISTORY_START, CUT_OFF.plusMonths(1));
+        AnalyticsReport got = engine.analyze(actual, HISTORY_START, CUT_OFF.plusMonths(1));
+        assertEquals(wanted.soldRoomNights(), got.soldRoomNights(), "sold nights " + when);
+        assertEquals(wanted.arrivals(), got.arrivals(), "arrivals " + when);
+        assertEquals(wanted.roomRevenue(), got.roomRevenue(), "revenue " + when);
+        assertEquals(wanted.lengthOfStay(), got.lengthOfStay(), "length of stay " + when);
+        assertEquals(wanted.leadTime(), got.leadTime(), "lead time " + when);
+        assertEquals(wanted.roomUtilization(), got.roomUtilization(), "utilization " + when);
+    }
+
+    private static List<String> pageAll(HotelManagementService service, LocalDate from, LocalDate to) {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            ReservationPage page = service.listReservations(from, to, cursor, 37);
+            page.items().forEach(r -> ids.add(r.getId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.hotel.service;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Payment;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.model.Room;
+import com.example.hotel.util.AppLogging;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+
+import static com.example.hotel.TestSupport.assertEquals;
+import static com.example.hotel.TestSupport.assertTrue;
+import static com.example.hotel.TestSupport.deleteQuietly;
+
+/**
+ * Lightweight test harness (no external libs) for {@link ShardedHotelService}: routing
+ * writes to the owning property, cross-property queries, and rebuilding the routes,
+ * archived stays included, when the chain is reopened.
+ */
+public class ShardedHotelServiceTest {
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    public static void main(String[] args) {
+        AppLogging.setLevel(Level.WARNING);
+        ShardedHotelServiceTest test = new ShardedHotelServiceTest();
+        Path work = null;
+        try {
+            work = Files.createTempDirectory("hotel-chain");
+            test.testRouting(work.resolve("routing"));
+            test.testFanOut(work.resolve("fan-out"));
+            test.testReopen(work.resolve("reopen"));
+            System.out.println("[PASS] All ShardedHotelService tests passed.");
+        } catch (AssertionError e) {
+            System.err.println("[FAIL] " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("[ERROR] Unexpected: " + e);
+            e.printStackTrace();
+            System.exit(2);
+        } finally {
+            deleteQuietly(work);
+        }
+    }
+
+    void testRouting(Path chainDir) {
+        try (ShardedHotelService chain = seed(chainDir)) {
+            assertEquals("P2", chain.getPropertyForRoom("B1").orElse(null), "room routed to its property");
+            try {
+                chain.addRoom("P2", new Room("A1", "999", 2));
+                throw new AssertionError("a room ID taken by another property should be refused");
+            } catch (IllegalArgumentException expected) {
+                // already exists in P1
+            }
+
+            Reservation stay = chain.createReservation("X1", "B1", "G1", BASE, BASE.plusDays(2), 1);
+            assertTrue(chain.listRooms("P2").stream().anyMatch(room -> room.getId().equals("B1")), "room in P2");
+            assertTrue(chain.getReservationById("X1").isPresent(), "booking routed by ID");
+            assertTrue(!chain.isRoomAvailable("B1", BASE, BASE.plusDays(1)), "booked room unavailable");
+            assertTrue(chain.isRoomAvailable("A1", BASE, BASE.plusDays(1)), "other property unaffected");
+            try {
+                chain.createReservation("X1", "A1", "G1", BASE, BASE.plusDays(2), 1);
+                throw new AssertionError("a reservation ID taken at another property should be refused");
+            } catch (IllegalArgumentException expected) {
+                // IDs are unique across the chain
+            }
+
+            Payment paid = chain.addPayment(new Payment(null, stay.getId(), "G1", new BigDecimal("200.00"),
+                    Payment.PaymentMethod.CASH));
+            assertEquals(1, chain.listPaymentsForGuest("G1").size(), "payment routed to the booking's property");
+            assertTrue(paid.getPaymentId() != null, "payment ID generated");
+
+            assertTrue(chain.cancelReservation("X1").isPresent(), "cancellation routed");
+            assertTrue(chain.getReservationById("X1").isEmpty(), "cancelled booking gone");
+            assertTrue(chain.isRoomAvailable("B1", BASE, BASE.plusDays(1)), "cancelled nights free");
+        }
+    }
+
+    void testFanOut(Path chainDir) {
+        try (ShardedHotelService chain = seed(chainDir)) {
+            chain.createReservation("F1", "A1", "G1", BASE, BASE.plusDays(3), 1);
+            chain.createReservation("F2", "B2", "G1", BASE.plusDays(10), BASE.plusDays(12), 1);
+
+            Map<String, List<Room>> available = chain.getAvailableRooms(BASE, BASE.plusDays(1), 1);
+            assertEquals(Set.of("P1", "P2"), available.keySet(), "every property answers");
+            assertEquals(1, available.get("P1").size(), "booked room left out at P1");
+            assertEquals(2, available.get("P2").size(), "both rooms free at P2");
+            assertEquals(2, chain.getAvailableRooms(BASE, BASE.plusDays(1), 3).values().stream()
+                    .mapToInt(List::size).sum(), "capacity filter applied at each property");
+
+            List<Reservation> stays = chain.listReservationsForGuest("G1");
+            assertEquals(List.of("F1", "F2"), stays.stream().map(Reservation::getId).toList(),
+                    "guest's stays from both properties in date order");
+            assertEquals(4, chain.listRooms().size(), "rooms from both properties");
+
+            Map<String, Object> report = chain.generateOccupancyReport(BASE, BASE.plusDays(31));
+            assertEquals(2, report.get("totalProperties"), "properties in the report");
+            assertEquals(4L, report.get("totalRooms"), "rooms in the report");
+            assertEquals(2L, report.get("totalReservations"), "reservations in the report");
+            assertEquals(5L, report.get("occupiedRoomNights"), "room nights summed across properties");
+        }
+    }
+
+    void testReopen(Path chainDir) {
+        try (ShardedHotelService chain = seed(chainDir)) {
+            chain.createReservation("OLD1", "A1", "G1", BASE, BASE.plusDays(2), 1);
+            chain.createReservation("LIVE1", "B1", "G1", BASE.plusMonths(3), BASE.plusMonths(3).plusDays(2), 1);
+            HotelManagementService p1 = chain.addProperty("P1");
+            assertEquals(1, p1.archiveStaysEndedBefore(BASE.plusMonths(1)), "stay archived at P1");
+        }
+
+        try (ShardedHotelService reopened = new ShardedHotelService(chainDir.toString())) {
+            assertEquals(Set.of("P1", "P2"), reopened.listProperties(), "properties found on disk");
+            assertEquals("P1", reopened.getPropertyForRoom("A2").orElse(null), "room routes rebuilt");
+            assertTrue(reopened.getReservationById("LIVE1").isPresent(), "live booking routes rebuilt");
+            assertTrue(reopened.getGuestById("G1").isPresent(), "guest directory reloaded");
+            try {
+                reopened.createReservation("OLD1", "B2", "G1", BASE.plusMonths(2), BASE.plusMonths(2).plusDays(1), 1);
+                throw new AssertionError("an archived stay's ID should stay taken after reopening");
+            } catch (IllegalArgumentException expected) {
+                // archived at P1
+            }
+            assertTrue(reopened.listReservationsForGuest("G1").stream().noneMatch(r -> r.getId().equals("OLD1")),
+                    "archived stay not handed to another property");
+        }
+    }
+
+    /**
+     * Two properties with two rooms each, and one chain-wide guest.
+     */
+    private static ShardedHotelService seed(Path chainDir) {
+        ShardedHotelService chain = new ShardedHotelService(chainDir.toString());
+        chain.addRoom("P1", new Room("A1", "101", 2));
+        chain.addRoom("P1", new Room("A2", "102", 4));
+        chain.addRoom("P2", new Room("B1", "201", 2));
+        chain.addRoom("P2", new Room("B2", "202", 4));
+        chain.addGuest(new Guest("G1", "Chain", "Guest", "chain@example.com", "5550000000"));
+        return chain;
+    }
+}
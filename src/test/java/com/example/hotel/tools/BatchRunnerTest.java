@@ -0,0 +1,216 @@
+package com.example.hotel.tools;
+
+import com.example.hotel.service.HotelManagementService;
+import com.example.hotel.util.AppLogging;
+import com.example.hotel.util.JsonFileManager;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+import static com.example.hotel.TestSupport.assertEquals;
+import static com.example.hotel.TestSupport.assertTrue;
+import static com.example.hotel.TestSupport.deleteQuietly;
+
+/**
+ * Lightweight test harness (no external libs) for {@link BatchRunner}: the JSON result
+ * lines, one save per run of writes, reports that see earlier writes, mass cancellation
+ * and fail-fast.
+ */
+public class BatchRunnerTest {
+    private static final String SETUP = """
+            # rooms and guests
+            add-room R1 101 2
+            add-room R2 102 4
+            add-guest G1 Ada Lovelace ada@example.com 5550000001
+            add-guest G2 "Mary Ann" Evans mary@example.com 5550000002
+            """;
+
+    public static void main(String[] args) {
+        AppLogging.setLevel(Level.WARNING);
+        BatchRunnerTest test = new BatchRunnerTest();
+        Path work = null;
+        try {
+            test.testTokenize();
+            work = Files.createTempDirectory("hotel-batch");
+            test.testScript(work.resolve("script"));
+            test.testCancelRange(work.resolve("cancel"));
+            test.testFailFast(work.resolve("fail-fast"));
+            System.out.println("[PASS] All BatchRunner tests passed.");
+        } catch (AssertionError e) {
+            System.err.println("[FAIL] " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("[ERROR] Unexpected: " + e);
+            e.printStackTrace();
+            System.exit(2);
+        } finally {
+            deleteQuietly(work);
+        }
+    }
+
+    void testTokenize() {
+        assertEquals(List.of("add-guest", "G1", "Mary Ann", "", "say \"hi\""),
+                BatchRunner.tokenize("  add-guest\tG1 \"Mary Ann\" \"\" \"say \\\"hi\\\"\" "), "quoted arguments");
+        try {
+            BatchRunner.tokenize("add-guest \"open");
+            throw new AssertionError("unterminated quote should fail");
+        } catch (IllegalArgumentException expected) {
+            // reported as a failed command by the runner
+        }
+    }
+
+    void testScript(Path dataDir) throws Exception {
+        HotelManagementService service = new HotelManagementService(dataDir.toString());
+        Path reservationsFile = dataDir.resolve("reservations.json");
+        String script = SETUP + """
+                set-vip G2 true
+                book R1 G1 2030-01-01 2030-01-04 2 B1
+                book R1 G2 2030-01-02 2030-01-03 1
+                book R2 G2 2030-01-02 2030-01-05 3 B2
+                pay B1 300.00 credit-card P1
+                report stats
+                cancel B2
+                cancel NOPE
+                report occupancy 2030-01-01 2030-01-10
+                """;
+        List<String> onDiskBeforeReport = new ArrayList<>();
+        // Line 11, the first report, is read while the writes before it are still one open batch
+        BufferedReader reader = new ProbingReader(script, 11,
+                () -> onDiskBeforeReport.add(readQuietly(reservationsFile)));
+        Output output = new Output();
+        BatchRunner.Result result = new BatchRunner(service, output.stream, false, 1000).run(reader);
+
+        List<JsonNode> lines = output.lines();
+        assertEquals(14, lines.size(), "one line per command plus the summary");
+        assertEquals(true, lines.get(0).get("ok").asBoolean(), "room added: " + lines.get(0));
+        assertEquals("Mary Ann", lines.get(3).get("result").get("firstName").asText(), "quoted name");
+        assertEquals(true, lines.get(4).get("result").get("vipStatus").asBoolean(), "vip set");
+
+        JsonNode conflict = lines.get(6);
+        assertEquals(false, conflict.get("ok").asBoolean(), "overlapping booking fails");
+        assertEquals(8, conflict.get("line").asInt(), "script line of the failure");
+        assertEquals("book", conflict.get("command").asText(), "failed command name");
+        assertTrue(!conflict.get("error").asText().isEmpty(), "error message");
+        assertEquals("P1", lines.get(8).get("result").get("id").asText(), "payment");
+        assertEquals("G1", lines.get(8).get("result").get("guestId").asText(), "payment guest from the reservation");
+
+        assertEquals(2, lines.get(9).get("result").get("totalReservations").asInt(), "report sees the batch's writes");
+        assertEquals(1, lines.get(9).get("result").get("vipGuests").asInt(), "report sees the vip update");
+        assertTrue(!onDiskBeforeReport.get(0).contains("B1"), "bookings not saved one by one");
+        assertEquals(false, lines.get(11).get("ok").asBoolean(), "cancel of an unknown reservation");
+        assertEquals(3, lines.get(12).get("result").get("occupiedRoomNights").asInt(), "occupancy after cancel");
+
+        JsonNode summary = lines.get(13).get("summary");
+        assertEquals(13, summary.get("commands").asInt(), "commands counted");
+        assertEquals(2, summary.get("failed").asInt(), "failures counted");
+        assertEquals(2, result.batches(), "writes before and after the first report");
+        assertTrue(!result.succeeded(), "result reports the failures");
+
+        HotelManagementService reloaded = new HotelManagementService(dataDir.toString());
+        assertEquals(1, reloaded.listAllReservations().size(), "saved when the batch ended");
+        assertEquals(1, reloaded.listPaymentsForReservation("B1").size(), "payment saved");
+        assertEquals(true, reloaded.getGuestById("G2").orElseThrow().isVipStatus(), "vip saved");
+    }
+
+    void testCancelRange(Path dataDir) throws Exception {
+        HotelManagementService service = new HotelManagementService(dataDir.toString());
+        StringBuilder script = new StringBuilder(SETUP);
+        for (int day = 1; day <= 20; day++) {
+            String start = String.format("2030-03-%02d", day);
+            String end = String.format("2030-03-%02d", day + 1);
+            script.append("book R1 G1 ").append(start).append(' ').append(end).append(" 1\n");
+            script.append("book R2 G2 ").append(start).append(' ').append(end).append(" 1\n");
+        }
+        script.append("cancel-range 2030-03-05 2030-03-15 R1\n");
+        script.append("cancel-range 2030-03-18 2030-03-25\n");
+        Output output = new Output();
+        BatchRunner.Result result = new BatchRunner(service, output.stream, false, 16)
+                .run(new BufferedReader(new StringReader(script.toString())));
+
+        assertTrue(result.succeeded(), "all commands succeed: " + output);
+        assertEquals(3, result.batches(), "46 writes in batches of at most 16");
+        List<JsonNode> lines = output.lines();
+        assertEquals(10, lines.get(lines.size() - 3).get("result").get("cancelled").asInt(), "R1 stays 5th to 14th");
+        assertEquals(6, lines.get(lines.size() - 2).get("result").get("cancelled").asInt(), "both rooms 18th to 20th");
+        assertEquals(7, service.listReservationsForRoom("R1").size(), "R1 stays left");
+        assertEquals(17, service.listReservationsForRoom("R2").size(), "R2 stays left");
+    }
+
+    void testFailFast(Path dataDir) throws Exception {
+        HotelManagementService service = new HotelManagementService(dataDir.toString());
+        String script = SETUP + """
+                book R1 G1 2030-05-01 not-a-date 1
+                book R1 G1 2030-05-01 2030-05-02 1
+                report stats
+                """;
+        Output output = new Output();
+        BatchRunner.Result result = new BatchRunner(service, output.stream, true, 1000)
+                .run(new BufferedReader(new StringReader(script)));
+        assertEquals(5, result.commands(), "stopped after the first failure");
+        assertTrue(output.lines().get(4).get("error").asText().contains("not-a-date"), "error names the bad value");
+        assertEquals(0, service.listAllReservations().size(), "nothing after the failure ran");
+        assertEquals(2, new HotelManagementService(dataDir.toString()).listRooms().size(), "earlier writes saved");
+    }
+
+    /**
+     * Collects the runner's output; the summary is the last line.
+     */
+    private static final class Output {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final PrintStream stream = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+
+        List<JsonNode> lines() throws IOException {
+            List<JsonNode> lines = new ArrayList<>();
+            for (String line : toString().split("\n")) {
+                lines.add(JsonFileManager.getReader(JsonNode.class).readTree(line));
+            }
+            return lines;
+        }
+
+        @Override
+        public String toString() {
+            return bytes.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Runs {@code probe} just before returning line {@code lineNumber} of the script.
+     */
+    private static final class ProbingReader extends BufferedReader {
+        private final int lineNumber;
+        private final Runnable probe;
+        private int read;
+
+        ProbingReader(String text, int lineNumber, Runnable probe) {
+            super(new StringReader(text));
+            this.lineNumber = lineNumber;
+            this.probe = probe;
+        }
+
+        @Override
+        public String readLine() throws IOException {
+            if (++read == lineNumber) {
+                probe.run();
+            }
+            return super.readLine();
+        }
+    }
+
+    private static String readQuietly(Path file) {
+        try {
+            return Files.exists(file) ? Files.readString(file) : "";
+        } catch (IOException e) {
+            throw new AssertionError("cannot read " + file, e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.hotel.tools;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.model.Room;
+import com.example.hotel.report.ReportExporter;
+import com.example.hotel.service.HotelManagementService;
+import com.example.hotel.util.AppLogging;
+import com.example.hotel.util.JsonFileManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import static com.example.hotel.TestSupport.assertEquals;
+import static com.example.hotel.TestSupport.assertTrue;
+import static com.example.hotel.TestSupport.deleteQuietly;
+
+/**
+ * Lightweight test harness (no external libs). Copies a generated hotel into an empty
+ * data directory through the bulk importer and checks that nothing was lost, gained or
+ * double booked.
+ */
+public class BulkImporterTest {
+    private static final LocalDate HISTORY_START = LocalDate.of(2030, 1, 1);
+
+    public static void main(String[] args) {
+        AppLogging.setLevel(Level.WARNING);
+        Path work = null;
+        try {
+            work = Files.createTempDirectory("hotel-import");
+            new BulkImporterTest().testRoundTrip(work);
+            System.out.println("[PASS] All BulkImporter tests passed.");
+        } catch (AssertionError e) {
+            System.err.println("[FAIL] " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("[ERROR] Unexpected: " + e);
+            e.printStackTrace();
+            System.exit(2);
+        } finally {
+            deleteQuietly(work);
+        }
+    }
+
+    void testRoundTrip(Path work) throws Exception {
+        Path sourceDir = work.resolve("source");
+        Path targetDir = work.resolve("target");
+        Path files = Files.createDirectories(work.resolve("files"));
+        WorkloadGenerator.write(new WorkloadGenerator(21, 20, 300, 1, HISTORY_START, 0.6).generate(), sourceDir.toString());
+        HotelManagementService source = new HotelManagementService(sourceDir.toString());
+        HotelManagementService target = new HotelManagementService(targetDir.toString());
+        BulkImporter importer = new BulkImporter(target, 3, 64);
+
+        // Rooms as JSON lines, plus a bad ID and a line that is not JSON
+        List<String> roomLines = new ArrayList<>();
+        for (Room room : source.listRooms()) {
+            roomLines.add(JsonFileManager.getCompactWriter().writeValueAsString(room));
+        }
+        roomLines.add("{\"id\":\"bad id\",\"number\":\"999\",\"capacity\":2}");
+        roomLines.add("not json");
+        Path rooms = Files.write(files.resolve("rooms.jsonl"), roomLines);
+        BulkImporter.ImportResult roomResult = importer.run(BulkImporter.RecordType.ROOMS, rooms,
+                BulkImporter.Format.JSON, files.resolve("rooms.rejects.jsonl"));
+        assertEquals(source.listRooms().size() + 2L, roomResult.read(), "room records read");
+        assertEquals(2L, roomResult.rejected(), "room rejects");
+        List<Map<?, ?>> roomRejects = readRejects(files.resolve("rooms.rejects.jsonl"));
+        assertEquals(List.of(source.listRooms().size() + 1, source.listRooms().size() + 2),
+                roomRejects.stream().map(r -> r.get("line")).toList(), "reject line numbers");
+
+        // Guests as CSV with a quoted multi-line address, a duplicate email and a bad phone
+        StringBuilder guestCsv = new StringBuilder("guestId,firstName,lastName,email,phone,address,vipStatus\n");
+        for (Guest guest : source.listGuests()) {
+            guestCsv.append(String.join(",", guest.getGuestId(), guest.getFirstName(), guest.getLastName(),
+                    guest.getEmail(), guest.getPhone(), "\"1 Main St, Apt 2\nSpringfield\"", String.valueOf(guest.isVipStatus())))
+                    .append('\n');
+        }
+        Guest first = source.listGuests().get(0);
+        guestCsv.append("DUP1,Dup,Licate,").append(first.getEmail().toUpperCase()).append(",5551234567,,false\n");
+        guestCsv.append("BADPHONE,Bad,Phone,bad.phone@example.com,abc,,false\n");
+        Path guests = Files.writeString(files.resolve("guests.csv"), guestCsv);
+        BulkImporter.ImportResult guestResult = importer.run(BulkImporter.RecordType.GUESTS, guests,
+                BulkImporter.Format.CSV, files.resolve("guests.rejects.jsonl"));
+        assertEquals(2L, guestResult.rejected(), "guest rejects");
+        assertEquals(source.listGuests().size(), target.listGuests().size(), "guests imported");
+        assertEquals("1 Main St, Apt 2\nSpringfield", target.getGuestById(first.getGuestId()).orElseThrow().getAddress(),
+                "multi-line quoted field");
+        List<Map<?, ?>> guestRejects = readRejects(files.resolve("guests.rejects.jsonl"));
+        assertTrue(String.valueOf(guestRejects.get(0).get("error")).contains("already exists"), "duplicate email rejected");
+        assertEquals("Invalid phone number", guestRejects.get(1).get("error"), "bad phone rejected");
+
+        // Reservations and payments in the exporter's CSV layout, plus a double booking and a bad party size
+        ReportExporter exporter = new ReportExporter(files.toString());
+        Path reservations = exporter.exportReservations(source, null, null, ReportExporter.Format.CSV, false)
+                .getResult().get(30, TimeUnit.SECONDS);
+        Reservation taken = source.listAllReservations().get(10);
+        Files.writeString(reservations, String.join(",", "CLASH", taken.getRoomId(), taken.getGuestId(), "\"Lee, Ann\"",
+                taken.getStartDate().toString(), taken.getEndDate().toString(), "1", "1", "") + "\n"
+                + String.join(",", "CROWD", taken.getRoomId(), taken.getGuestId(), "Crowd",
+                "2031-06-01", "2031-06-02", "1", "99", "") + "\n", StandardOpenOption.APPEND);
+        BulkImporter.ImportResult reservationResult = importer.run(BulkImporter.RecordType.RESERVATIONS, reservations,
+                BulkImporter.Format.CSV, files.resolve("reservations.rejects.jsonl"));
+        assertEquals(2L, reservationResult.rejected(), "reservation rejects");
+        List<Map<?, ?>> reservationRejects = readRejects(files.resolve("reservations.rejects.jsonl"));
+        assertTrue(String.valueOf(reservationRejects.get(0).get("error")).contains("not available"), "double booking rejected");
+        assertEquals("Invalid party size", reservationRejects.get(1).get("error"), "party size rejected");
+
+        Path payments = exporter.exportPayments(source, null, null, ReportExporter.Format.CSV, false)
+                .getResult().get(30, TimeUnit.SECONDS);
+        BulkImporter.ImportResult paymentResult = importer.run(BulkImporter.RecordType.PAYMENTS, payments,
+                BulkImporter.Format.CSV, files.resolve("payments.rejects.jsonl"));
+        assertEquals(0L, paymentResult.rejected(), "payment rejects");
+
+        checkSameBookings(source, target, "after import");
+        assertEquals(source.getTopGuestsByRevenue(5), target.getTopGuestsByRevenue(5), "revenue carried over");
+        assertEquals(target.listAllReservations().size(), target.getSnapshot().getReservations().size(),
+                "batch published to the snapshot");
+        LocalDate first30 = HISTORY_START.plusDays(30);
+        assertEquals(source.generateOccupancyReport(HISTORY_START, first30).get("occupiedRoomNights"),
+                target.generateOccupancyReport(HISTORY_START, first30).get("occupiedRoomNights"), "occupancy counters");
+        // Saved once at the end of each batch
+        checkSameBookings(source, new HotelManagementService(targetDir.toString()), "after reload");
+    }
+
+    private static void checkSameBookings(HotelManagementService expected, HotelManagementService actual, String when) {
+        assertEquals(describe(expected.listAllReservations()), describe(actual.listAllReservations()), "reservations " + when);
+        assertEquals(expected.getSnapshot().getPayments().size(), actual.getSnapshot().getPayments().size(), "payments " + when);
+    }
+
+    private static List<String> describe(List<Reservation> reservations) {
+        return reservations.stream()
+                .map(r -> String.join("|", r.getId(), r.getRoomId(), r.getGuestId(), r.getStartDate().toString(),
+                        r.getEndDate().toString(), String.valueOf(r.getPartySize())))
+                .toList();
+    }
+
+    private static List<Map<?, ?>> readRejects(Path file) throws IOException {
+        List<Map<?, ?>> rejects = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            rejects.add(JsonFileManager.getReader(Map.class).readValue(line));
+        }
+        return rejects;
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.hotel.util;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Payment;
+import com.example.hotel.model.Reservation;
+import com.example.hotel.model.Room;
+import com.example.hotel.service.HotelManagementService;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+
+import static com.example.hotel.TestSupport.assertTrue;
+import static com.example.hotel.TestSupport.deleteQuietly;
+
+/**
+ * Lightweight test harness (no external libs) for {@link IdGenerator}: uniqueness under
+ * contention, ordering, the base32 form, a clock that steps backwards, IDs generated
+ * by the service and a generated ID that is already taken.
+ */
+public class IdGeneratorTest {
+    public static void main(String[] args) {
+        AppLogging.setLevel(Level.WARNING);
+        IdGeneratorTest test = new IdGeneratorTest();
+        Path work = null;
+        try {
+            test.testUniqueAndOrderedAcrossThreads();
+            test.testEncoding();
+            test.testNodeAndTimestamp();
+            test.testClockStepsBack();
+            work = Files.createTempDirectory("hotel-ids");
+            test.testServiceGeneratesIds(work.resolve("service"));
+            test.testTakenIdsRegenerated(work);
+            System.out.println("[PASS] All IdGenerator tests passed.");
+        } catch (AssertionError e) {
+            System.err.println("[FAIL] " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("[ERROR] Unexpected: " + e);
+            e.printStackTrace();
+            System.exit(2);
+        } finally {
+            deleteQuietly(work);
+        }
+    }
+
+    void testUniqueAndOrderedAcrossThreads() throws Exception {
+        IdGenerator generator = new IdGenerator(3);
+        int threads = 8;
+        int perThread = 50_000;
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    long previous = Long.MIN_VALUE;
+                    for (int i = 0; i < perThread; i++) {
+                        long id = generator.nextId();
+                        if (id <= previous || !seen.add(id)) {
+                            return false;
+                        }
+                        previous = id;
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(), "ids unique and increasing per thread");
+            }
+        }
+        assertTrue(seen.size() == threads * perThread, "no duplicates across threads");
+    }
+
+    void testEncoding() {
+        IdGenerator generator = new IdGenerator(0);
+        String previous = "";
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            String encoded = IdGenerator.encode(id);
+            assertTrue(encoded.length() == IdGenerator.ENCODED_LENGTH, "fixed width: " + encoded);
+            assertTrue(IdGenerator.decode(encoded) == id, "round trip: " + encoded);
+            assertTrue(IdGenerator.decode(encoded.toLowerCase()) == id, "case-insensitive: " + encoded);
+            assertTrue(encoded.compareTo(previous) > 0, "strings sort like numbers: " + previous + " " + encoded);
+            previous = encoded;
+        }
+        assertTrue(IdGenerator.encode(Long.MAX_VALUE).equals("7ZZZZZZZZZZZZ"), "largest id");
+        String prefixed = generator.nextId("RES-");
+        assertTrue(prefixed.startsWith("RES-") && ValidationUtils.isValidId(prefixed), "accepted by isValidId: " + prefixed);
+        for (String bad : new String[]{null, "", "0123456789AB", "0123456789ABU", "G000000000000", "8000000000000"}) {
+            try {
+                IdGenerator.decode(bad);
+                throw new AssertionError("should reject " + bad);
+            } catch (IllegalArgumentException expected) {
+                // not an encoded id
+            }
+        }
+    }
+
+    void testNodeAndTimestamp() {
+        Instant now = Instant.parse("2030-06-01T12:00:00.123Z");
+        long id = new IdGenerator(IdGenerator.MAX_NODE_ID, Clock.fixed(now, ZoneOffset.UTC)).nextId();
+        assertTrue(IdGenerator.nodeOf(id) == IdGenerator.MAX_NODE_ID, "node tag");
+        assertTrue(IdGenerator.timestampOf(id).equals(now), "timestamp");
+        try {
+            new IdGenerator(IdGenerator.MAX_NODE_ID + 1);
+            throw new AssertionError("node id out of range should fail");
+        } catch (IllegalArgumentException expected) {
+            // out of range
+        }
+    }
+
+    void testClockStepsBack() {
+        SteppingClock clock = new SteppingClock(Instant.parse("2030-01-01T00:00:00Z"));
+        IdGenerator generator = new IdGenerator(1, clock);
+        long previous = generator.nextId();
+        // Exhaust a millisecond's sequence, then step the clock back a second
+        for (int i = 0; i < 5000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous, "increasing past the sequence limit");
+            previous = id;
+        }
+        clock.now = clock.now.minusSeconds(1);
+        long afterStep = generator.nextId();
+        assertTrue(afterStep > previous, "increasing after the clock stepped back");
+        assertTrue(IdGenerator.nodeOf(afterStep) == 1, "node tag kept when borrowing time");
+    }
+
+    void testServiceGeneratesIds(Path dataDir) {
+        HotelManagementService service = new HotelManagementService(dataDir.toString());
+        service.addRoom(new Room("R1", "101", 2));
+        service.addGuest(new Guest("G1", "Id", "Guest", "ids@example.com", "5550000000"));
+        LocalDate base = LocalDate.of(2030, 1, 1);
+        Reservation first = service.createReservation("R1", "G1", base, base.plusDays(1), 1);
+        Reservation second = service.createReservation(null, "R1", "G1", base.plusDays(1), base.plusDays(2), 1);
+        assertTrue(first.getId().startsWith("RES-") && ValidationUtils.isValidId(first.getId()), "generated: " + first.getId());
+        assertTrue(second.getId().compareTo(first.getId()) > 0, "later booking sorts later");
+        Payment payment = service.addPayment(new Payment(null, first.getId(), "G1", new BigDecimal("90.00"),
+                Payment.PaymentMethod.CASH));
+        assertTrue(payment.getPaymentId().startsWith("PAY-"), "generated payment id: " + payment.getPaymentId());
+        assertTrue(service.getReservationById(first.getId()).isPresent(), "stored under the generated id");
+    }
+
+    void testTakenIdsRegenerated(Path work) throws Exception {
+        // Learn this process's node ID from a generated ID
+        HotelManagementService probe = new HotelManagementService(work.resolve("probe").toString());
+        probe.addRoom(new Room("R1", "101", 2));
+        probe.addGuest(new Guest("G1", "Id", "Guest", "ids@example.com", "5550000000"));
+        String probeId = probe.createReservation("R1", "G1", LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 2), 1).getId();
+        int node = IdGenerator.nodeOf(IdGenerator.decode(probeId.substring(4)));
+
+        // Another process with the same node ID already wrote the first ID of each coming millisecond
+        Path dataDir = work.resolve("taken");
+        Files.createDirectories(dataDir);
+        int millis = 5000;
+        long from = System.currentTimeMillis() + 1;
+        LocalDate day = LocalDate.of(2040, 1, 1);
+        List<Reservation> reservations = new ArrayList<>();
+        List<Payment> payments = new ArrayList<>();
+        for (int i = 0; i < millis; i++) {
+            String suffix = IdGenerator.encode((from + i - IdGenerator.EPOCH_MILLIS) << IdGenerator.NODE_BITS + IdGenerator.SEQUENCE_BITS
+                    | (long) node << IdGenerator.SEQUENCE_BITS);
+            reservations.add(new Reservation("RES-" + suffix, "R1", "G1", "Id Guest", day.plusDays(i), day.plusDays(i + 1), 1));
+            payments.add(new Payment("PAY-" + suffix, "RES-" + suffix, "G1", new BigDecimal("10.00"), Payment.PaymentMethod.CASH));
+        }
+        JsonFileManager.saveToFile(List.of(new Room("R1", "101", 2)), dataDir.resolve("rooms.json").toString());
+        JsonFileManager.saveToFile(List.of(new Guest("G1", "Id", "Guest", "ids@example.com", "5550000000")),
+                dataDir.resolve("guests.json").toString());
+        JsonFileManager.saveToFile(reservations, dataDir.resolve("reservations.json").toString());
+        JsonFileManager.saveToFile(payments, dataDir.resolve("payments.json").toString());
+
+        HotelManagementService service = new HotelManagementService(dataDir.toString());
+        Reservation booked = service.createReservation("R1", "G1", LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 2), 1);
+        Payment paid = service.addPayment(new Payment(null, booked.getId(), "G1", new BigDecimal("90.00"),
+                Payment.PaymentMethod.CASH));
+        for (String id : List.of(booked.getId(), paid.getPaymentId())) {
+            long decoded = IdGenerator.decode(id.substring(4));
+            assertTrue(IdGenerator.timestampOf(decoded).toEpochMilli() < from + millis, "generated inside the taken range: " + id);
+            assertTrue((decoded & ((1 << IdGenerator.SEQUENCE_BITS) - 1)) > 0, "taken first ID skipped: " + id);
+        }
+        assertTrue(service.listAllReservations().size() == millis + 1, "seeded stays kept");
+        assertTrue(service.getReservationById(booked.getId()).orElseThrow().getStartDate().equals(LocalDate.of(2030, 1, 1)),
+                "stored under the regenerated id");
+        try {
+            service.createReservation(reservations.get(0).getId(), "R1", "G1", LocalDate.of(2031, 1, 1),
+                    LocalDate.of(2031, 1, 2), 1);
+            throw new AssertionError("a requested ID that is taken should still be refused");
+        } catch (IllegalArgumentException expected) {
+            // caller's own ID
+        }
+    }
+
+    private static final class SteppingClock extends Clock {
+        private Instant now;
+
+        SteppingClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.hotel.util;
+
+import com.example.hotel.model.Guest;
+import com.example.hotel.model.Reservation;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Lightweight test harness (no external libs). The hand-written validators must accept
+ * exactly what the original regular expressions accepted, so each one is checked
+ * against its regex on hand-picked edge cases and on random strings.
+ */
+public class ValidationUtilsTest {
+    private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9+_.-]+@([A-Za-z0-9.-]+\\.[A-Za-z]{2,})$");
+    private static final Pattern PHONE = Pattern.compile("^[+]?[1-9]\\d{1,14}$|^\\d{10}$|^\\(\\d{3}\\)\\s?\\d{3}-?\\d{4}$");
+
+    // Reference implementations as they were written with String.matches and replaceAll
+    private static final Predicate<String> REGEX_EMAIL = s -> s != null && !s.trim().isEmpty() && EMAIL.matcher(s.trim()).matches();
+    private static final Predicate<String> REGEX_PHONE = s -> s != null && !s.trim().isEmpty() && PHONE.matcher(s.replaceAll("\\s", "")).matches();
+    private static final Predicate<String> REGEX_ID = s -> s != null && !s.trim().isEmpty() && s.trim().matches("^[A-Za-z0-9-]+$");
+    private static final Predicate<String> REGEX_ROOM = s -> s != null && !s.trim().isEmpty() && s.trim().matches("^[A-Za-z0-9]+$");
+
+    public static void main(String[] args) {
+        ValidationUtilsTest test = new ValidationUtilsTest();
+        try {
+            test.testEdgeCasesMatchRegex();
+            test.testRandomInputsMatchRegex();
+            test.testSanitizeInput();
+            test.testBulkValidation();
+            System.out.println("[PASS] All ValidationUtils tests passed.");
+        } catch (AssertionError e) {
+            System.err.println("[FAIL] " + e.getMessage());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("[ERROR] Unexpected: " + e);
+            e.printStackTrace();
+            System.exit(2);
+        }
+    }
+
+    void testEdgeCasesMatchRegex() {
+        List<String> emails = Arrays.asList(null, "", " ", "a@b.co", " a@b.co\t", "a@b.c", "a@.co", "@b.co", "a@b..co",
+                "a.b+c_d-e@x-y.z.com", "a@b.co.", "a@b.c0", "a@@b.co", "a@b@c.co", "a b@c.co", "a@b.COM", "a@bc",
+                "a@b.co\n", "é@b.co", "a@b-.co", "a@1.2.xx");
+        List<String> phones = Arrays.asList(null, "", "  ", "5551234567", "0551234567", "+15551234567", "+0551234567",
+                "+", "12", "1", "1234567890123456", "123456789012345", "(555)123-4567", "(555) 123-4567",
+                "(555)1234567", "(555)123--4567", "(555)123-456", "555 123 4567", "555-123-4567", "+ 1 555",
+                "\t5\n5\r5\u000B1\f234567", "(555)123-45678", "55512345678901234", "+(555)123-4567", " 5551234567");
+        List<String> ids = Arrays.asList(null, "", " ", "R1", " R-1 ", "R_1", "r-", "-", "R 1", "ÄB", "R1\u0000", "\u0000R1");
+        for (String email : emails) {
+            assertEquals(REGEX_EMAIL.test(email), ValidationUtils.isValidEmail(email), "email '" + email + "'");
+        }
+        for (String phone : phones) {
+            assertEquals(REGEX_PHONE.test(phone), ValidationUtils.isValidPhone(phone), "phone '" + phone + "'");
+        }
+        for (String id : ids) {
+            assertEquals(REGEX_ID.test(id), ValidationUtils.isValidId(id), "id '" + id + "'");
+            assertEquals(REGEX_ROOM.test(id), ValidationUtils.isValidRoomNumber(id), "room number '" + id + "'");
+        }
+    }
+
+    void testRandomInputsMatchRegex() {
+        SplittableRandom random = new SplittableRandom(41);
+        String emailChars = "ab9Z+_.-@@.. \t";
+        String phoneChars = "0123456789()-+ \t";
+        String idChars = "aZ09-_ \u0000";
+        for (int i = 0; i < 200_000; i++) {
+            String email = randomString(random, emailChars, 12);
+            assertEquals(REGEX_EMAIL.test(email), ValidationUtils.isValidEmail(email), "email '" + email + "'");
+            String phone = randomString(random, phoneChars, 16);
+            assertEquals(REGEX_PHONE.test(phone), ValidationUtils.isValidPhone(phone), "phone '" + phone + "'");
+            String id = randomString(random, idChars, 6);
+            assertEquals(REGEX_ID.test(id), ValidationUtils.isValidId(id), "id '" + id + "'");
+            assertEquals(REGEX_ROOM.test(id), ValidationUtils.isValidRoomNumber(id), "room number '" + id + "'");
+            assertEquals(id.trim().length() >= 2 && !id.trim().isEmpty(), ValidationUtils.hasMinLength(id, 2),
+                    "min length '" + id + "'");
+        }
+        // Phone-shaped strings, so the bracketed and ten-digit forms are hit often
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder phone = new StringBuilder(random.nextBoolean() ? "(555)" : "+1");
+            phone.append(randomString(random, "0123456789- ", 10));
+            String candidate = phone.toString();
+            assertEquals(REGEX_PHONE.test(candidate), ValidationUtils.isValidPhone(candidate), "phone '" + candidate + "'");
+        }
+    }
+
+    void testSanitizeInput() {
+        assertEquals("", ValidationUtils.sanitizeInput(null), "null");
+        String clean = "Plain text";
+        assertTrue(clean == ValidationUtils.sanitizeInput(clean), "clean input returned as is");
+        assertEquals("scriptalert(1)/script", ValidationUtils.sanitizeInput("  <script>alert(1)</script> "), "tags");
+        assertEquals("OBrien  Co", ValidationUtils.sanitizeInput("O'Brien & Co"), "quotes and ampersand");
+        assertEquals("", ValidationUtils.sanitizeInput("<>\"'&"), "only unsafe characters");
+    }
+
+    void testBulkValidation() {
+        List<Guest> guests = Arrays.asList(
+                new Guest("G1", "Ann", "Lee", "ann@example.com", "5551234567"),
+                new Guest("G2", "A", "Lee", "not-an-email", "5551234567"),
+                null,
+                new Guest("G4", "Bob", "Stone", "bob@example.com", "12"));
+        BitSet errors = ValidationUtils.validateGuests(guests);
+        assertTrue(ValidationUtils.isRecordValid(errors, 0, ValidationUtils.GUEST_CHECKS), "valid guest");
+        assertTrue(!ValidationUtils.isRecordValid(errors, 1, ValidationUtils.GUEST_CHECKS), "invalid guest");
+        assertTrue(errors.get(ValidationUtils.GUEST_CHECKS + ValidationUtils.GUEST_FIRST_NAME), "short first name flagged");
+        assertTrue(errors.get(ValidationUtils.GUEST_CHECKS + ValidationUtils.GUEST_EMAIL), "bad email flagged");
+        assertTrue(!errors.get(ValidationUtils.GUEST_CHECKS + ValidationUtils.GUEST_PHONE), "good phone not flagged");
+        assertEquals(ValidationUtils.GUEST_CHECKS, errors.get(2 * ValidationUtils.GUEST_CHECKS, 3 * ValidationUtils.GUEST_CHECKS).cardinality(),
+                "null guest fails every check");
+        assertTrue(ValidationUtils.isRecordValid(errors, 3, ValidationUtils.GUEST_CHECKS), "'12' is a valid phone");
+        for (int i = 0; i < guests.size(); i++) {
+            Guest g = guests.get(i);
+            boolean single = g != null && ValidationUtils.validateGuest(g.getFirstName(), g.getLastName(), g.getEmail(), g.getPhone()).isValid();
+            assertEquals(single, ValidationUtils.isRecordValid(errors, i, ValidationUtils.GUEST_CHECKS), "bulk agrees with single " + i);
+        }
+
+        LocalDate day = LocalDate.of(2030, 1, 1);
+        List<Reservation> reservations = Arrays.asList(
+                new Reservation("RES-1", "R1", "Ann Lee", day, day.plusDays(2), 2),
+                new Reservation("RES 2", "R1", "Ann Lee", day, day.plusDays(1), 30));
+        BitSet reservationErrors = ValidationUtils.validateReservations(reservations);
+        assertTrue(ValidationUtils.isRecordValid(reservationErrors, 0, ValidationUtils.RESERVATION_CHECKS), "valid reservation");
+        int bit = ValidationUtils.RESERVATION_CHECKS;
+        assertTrue(reservationErrors.get(bit + ValidationUtils.RESERVATION_ID), "bad ID flagged");
+        assertTrue(!reservationErrors.get(bit + ValidationUtils.RESERVATION_ROOM_ID), "good room ID not flagged");
+        assertTrue(!reservationErrors.get(bit + ValidationUtils.RESERVATION_DATES), "good dates not flagged");
+        assertTrue(reservationErrors.get(bit + ValidationUtils.RESERVATION_PARTY_SIZE), "party size flagged");
+    }
+
+    private static String randomString(SplittableRandom random, String alphabet, int maxLength) {
+        char[] chars = new char[random.nextInt(maxLength + 1)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        return new String(chars);
+    }
+
+    static void assertTrue(boolean cond, String msg) {
+        if (!cond) throw new AssertionError(msg);
+    }
+
+    static void assertEquals(Object expected, Object actual, String msg) {
+        if (expected == null ? actual != null : !expected.equals(actual)) {
+            throw new AssertionError(msg + ": expected=" + expected + " actual=" + actual);
+        }
+    }
+}